@@ -0,0 +1,99 @@
+package com.game.matching.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.game.matching.audit.AuditSink;
+import com.game.matching.concurrent.TeamspaceExecutor;
+import com.game.matching.config.JacksonConfig;
+import com.game.matching.dto.CheckUserStateResponse;
+import com.game.matching.logging.ApiStats;
+import com.game.matching.logging.EventLogPipeline;
+import com.game.matching.logging.EventSampler;
+import com.game.matching.metrics.WebSocketMetrics;
+import com.game.matching.model.Teamspace;
+import com.game.matching.repository.RedisRepository;
+import com.game.matching.repository.TeamspaceCodec;
+import com.game.matching.service.GameService;
+import com.game.matching.service.LoggingService;
+import com.game.matching.testing.InMemoryJedisPool;
+import com.game.matching.websocket.GameWebSocketHandler;
+import com.game.matching.websocket.NotificationFanout;
+import com.game.matching.websocket.WebSocketConnectionManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * API⑥（checkUserState）をメモリ上のRedisに対して実行
+ * 
+ * 現行実装は全teamspaceを取得して走査するため、件数に比例して遅くなる。
+ * どのteamspaceにも属さないユーザー（全件走査になる最悪ケース）で測る。
+ * codecは保存済みの値の形式（読み込みは形式を判定する）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CheckUserStateBenchmark {
+    
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int teamspaces;
+    
+    @Param({"binary", "json"})
+    public String codec;
+    
+    private EventLogPipeline eventLogPipeline;
+    private ApiStats apiStats;
+    private NotificationFanout notificationFanout;
+    private GameService gameService;
+    
+    @Setup
+    public void setUp() throws Exception {
+        InMemoryJedisPool jedisPool = new InMemoryJedisPool();
+        TeamspaceCodec teamspaceCodec = TeamspaceCodec.forWriting(codec);
+        for (int i = 0; i < teamspaces; i++) {
+            Teamspace teamspace = new Teamspace(UUID.randomUUID().toString(), "organizer-" + i);
+            teamspace.addMember("member-" + i);
+            jedisPool.put("teamspace:" + teamspace.getTeamspaceId(), teamspaceCodec.encode(teamspace));
+        }
+        
+        // 成功ログはサンプリングで出力しない（計測対象はRedisの走査）
+        eventLogPipeline = new EventLogPipeline(new JsonFactory(), 8192, EventLogPipeline.OverflowPolicy.DROP,
+                                                256, OutputStream.nullOutputStream());
+        apiStats = new ApiStats(new JsonFactory(), 3600);
+        LoggingService loggingService = new LoggingService(eventLogPipeline,
+                                                           EventSampler.parse("CHECK_USER_STATE:0"),
+                                                           apiStats, AuditSink.NOOP);
+        WebSocketConnectionManager connectionManager = new WebSocketConnectionManager(10_000, 512 * 1024);
+        RedisRepository redisRepository = new RedisRepository(jedisPool);
+        GameWebSocketHandler webSocketHandler = new GameWebSocketHandler(connectionManager, null, WebSocketMetrics.noop());
+        notificationFanout = new NotificationFanout(webSocketHandler, redisRepository, JacksonConfig.newObjectMapper(),
+                                                    new SimpleMeterRegistry(), 32, 1_800_000, 15, 300);
+        gameService = new GameService(redisRepository,
+                                      connectionManager,
+                                      notificationFanout,
+                                      loggingService,
+                                      new TeamspaceExecutor(false, 0, 0, 0));
+    }
+    
+    @TearDown
+    public void tearDown() {
+        eventLogPipeline.close();
+        apiStats.close();
+        notificationFanout.shutdown();
+    }
+    
+    @Benchmark
+    public CheckUserStateResponse absentUser() {
+        return gameService.checkUserState("user-not-in-any-teamspace");
+    }
+}
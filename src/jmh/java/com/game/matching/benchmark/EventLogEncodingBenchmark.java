@@ -0,0 +1,52 @@
+package com.game.matching.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.game.matching.logging.EventLogPipeline;
+import com.game.matching.logging.EventType;
+import com.game.matching.logging.LogEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.OutputStream;
+
+/**
+ * 構造化ログのパイプライン
+ * 
+ * BLOCKでは書き出しスレッドの処理を待つため、スループットがエンコード性能の上限になる。
+ * DROPは呼び出し側（リクエストスレッド）のコストを測る。
+ */
+@State(Scope.Benchmark)
+public class EventLogEncodingBenchmark {
+    
+    private EventLogPipeline blocking;
+    private EventLogPipeline dropping;
+    
+    @Setup
+    public void setUp() {
+        blocking = new EventLogPipeline(new JsonFactory(), 8192, EventLogPipeline.OverflowPolicy.BLOCK,
+                                        256, OutputStream.nullOutputStream());
+        dropping = new EventLogPipeline(new JsonFactory(), 8192, EventLogPipeline.OverflowPolicy.DROP,
+                                        256, OutputStream.nullOutputStream());
+    }
+    
+    @TearDown
+    public void tearDown() {
+        blocking.close();
+        dropping.close();
+    }
+    
+    @Benchmark
+    public void publishBlocking() {
+        blocking.publish(EventType.TEAMSPACE_JOINED, "user-id-0001", "550e8400-e29b-41d4-a716-446655440000",
+                         null, LogEvent.NO_COUNT, LogEvent.NO_COUNT);
+    }
+    
+    @Benchmark
+    public void publishDropping() {
+        dropping.publish(EventType.GAME_START, "user-id-0001", "550e8400-e29b-41d4-a716-446655440000",
+                         "6ba7b810-9dad-11d1-80b4-00c04fd430c8", 3, 0);
+    }
+}
@@ -0,0 +1,49 @@
+package com.game.matching.benchmark;
+
+import com.game.matching.metrics.RedisMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ホットパスに入れている計測（Timer.record、Redisコマンドの記録）のコスト
+ * 
+ * baselineはnanoTime 2回分。差分が計測1回あたりの追加コスト。
+ */
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+    
+    private Timer timer;
+    private RedisMetrics redisMetrics;
+    
+    @Setup
+    public void setUp() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        timer = Timer.builder("benchmark.timer").publishPercentileHistogram().register(registry);
+        redisMetrics = new RedisMetrics(registry);
+    }
+    
+    @Benchmark
+    public long baseline() {
+        long startNanos = System.nanoTime();
+        return System.nanoTime() - startNanos;
+    }
+    
+    @Benchmark
+    public void timerRecord() {
+        long startNanos = System.nanoTime();
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    @Benchmark
+    public void redisCommand() {
+        redisMetrics.recordCommand(RedisMetrics.Command.GET, "teamspace:550e8400-e29b-41d4-a716-446655440000",
+                                   120, System.nanoTime());
+    }
+}
@@ -0,0 +1,53 @@
+package com.game.matching.benchmark;
+
+import com.game.matching.config.JacksonConfig;
+import com.game.matching.id.UuidV7;
+import com.game.matching.model.Teamspace;
+import com.game.matching.repository.BinaryTeamspaceCodec;
+import com.game.matching.repository.JsonTeamspaceCodec;
+import com.game.matching.repository.TeamspaceCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Redisに保存するTeamspaceの値の変換（RedisRepositoryのsave/get）
+ * 
+ * 保存されるバイト数（members=4でbinary 129、json 263）は決まった値のため、TeamspaceCodecTestで確認している。
+ */
+@State(Scope.Benchmark)
+public class TeamspaceCodecBenchmark {
+    
+    @Param({"binary", "json"})
+    public String codec;
+    
+    @Param({"1", "4"})
+    public int members;
+    
+    private TeamspaceCodec teamspaceCodec;
+    private Teamspace teamspace;
+    private byte[] encoded;
+    
+    @Setup
+    public void setUp() {
+        teamspaceCodec = "binary".equals(codec) ? new BinaryTeamspaceCodec() : new JsonTeamspaceCodec(JacksonConfig.newObjectMapper());
+        teamspace = new Teamspace(UuidV7.nextString(), "organizer-user-id");
+        for (int i = 1; i < members; i++) {
+            teamspace.addMember("member-user-id-" + i);
+        }
+        teamspace.setPartyId(UuidV7.nextString());
+        encoded = teamspaceCodec.encode(teamspace);
+    }
+    
+    @Benchmark
+    public byte[] encode() {
+        return teamspaceCodec.encode(teamspace);
+    }
+    
+    @Benchmark
+    public Teamspace decode() {
+        return teamspaceCodec.decode(encoded);
+    }
+}
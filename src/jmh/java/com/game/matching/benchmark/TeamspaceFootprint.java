@@ -0,0 +1,73 @@
+package com.game.matching.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.game.matching.model.Teamspace;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * TeamspaceのヒープサイズをJOLで計測する（例: ./gradlew teamspaceFootprint --args="100000 4"）
+ * 
+ * 4人のteamspaceをJSONから読み、現在のTeamspace（userIdの固定長配列とエポックミリ秒）と
+ * 以前の形式（ArrayList<String>とInstant）のオブジェクトグラフの合計サイズを比べる。
+ * 同じteamspaceをcopies回読む（API⑥⑦の同時の読み取りなどで同じJSONから複数のインスタンスができる）。
+ */
+public final class TeamspaceFootprint {
+    
+    private TeamspaceFootprint() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        int teamspaces = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int copies = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        List<String> jsons = new ArrayList<>(teamspaces);
+        for (int i = 0; i < teamspaces; i++) {
+            Teamspace teamspace = new Teamspace(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+            for (int m = 1; m < Teamspace.MAX_MEMBERS; m++) {
+                teamspace.addMember(UUID.randomUUID().toString());
+            }
+            jsons.add(objectMapper.writeValueAsString(teamspace));
+        }
+        
+        List<LegacyTeamspace> legacy = new ArrayList<>(teamspaces * copies);
+        List<Teamspace> compact = new ArrayList<>(teamspaces * copies);
+        for (int c = 0; c < copies; c++) {
+            for (String json : jsons) {
+                legacy.add(objectMapper.readValue(json, LegacyTeamspace.class));
+                compact.add(objectMapper.readValue(json, Teamspace.class));
+            }
+        }
+        
+        System.out.println(ClassLayout.parseClass(Teamspace.class).toPrintable());
+        System.out.println(ClassLayout.parseClass(LegacyTeamspace.class).toPrintable());
+        
+        long legacyBytes = GraphLayout.parseInstance(legacy.toArray()).totalSize();
+        long compactBytes = GraphLayout.parseInstance(compact.toArray()).totalSize();
+        int instances = teamspaces * copies;
+        System.out.printf("teamspaces=%d copies=%d members=%d%n", teamspaces, copies, Teamspace.MAX_MEMBERS);
+        System.out.printf("legacy  (ArrayList<String>, Instant): %,d bytes (%,d bytes/instance)%n",
+                          legacyBytes, legacyBytes / instances);
+        System.out.printf("compact (String[4], epoch millis):    %,d bytes (%,d bytes/instance, %.1f%% of legacy)%n",
+                          compactBytes, compactBytes / instances, 100.0 * compactBytes / legacyBytes);
+    }
+    
+    /**
+     * 以前のTeamspaceと同じフィールド構成（比較用）
+     */
+    public static class LegacyTeamspace {
+        public String teamspaceId;
+        public String organizer;
+        public List<String> members = new ArrayList<>();
+        public Instant createdAt;
+        public String partyId;
+    }
+}
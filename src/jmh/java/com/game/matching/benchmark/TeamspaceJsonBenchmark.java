@@ -0,0 +1,80 @@
+package com.game.matching.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.game.matching.config.JacksonConfig;
+import com.game.matching.model.Teamspace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+
+/**
+ * TeamspaceのJSON往復
+ * 
+ * mapper=plainは以前の各クラスのObjectMapper（JavaTimeModuleのみ）、sharedはJacksonConfigと同じ設定（Blackbird）。
+ * serialize/deserializeは呼び出しごとに型からシリアライザを探し、writer/readerは作成済みのObjectWriter/ObjectReaderを使う。
+ */
+@State(Scope.Benchmark)
+public class TeamspaceJsonBenchmark {
+    
+    @Param({"1", "4"})
+    public int members;
+    
+    @Param({"plain", "shared"})
+    public String mapper;
+    
+    private ObjectMapper objectMapper;
+    private ObjectReader reader;
+    private ObjectWriter writer;
+    private Teamspace teamspace;
+    private String json;
+    
+    @Setup
+    public void setUp() throws Exception {
+        if ("shared".equals(mapper)) {
+            objectMapper = JacksonConfig.newObjectMapper();
+        } else {
+            objectMapper = new ObjectMapper();
+            objectMapper.registerModule(new JavaTimeModule());
+        }
+        reader = objectMapper.readerFor(Teamspace.class);
+        writer = objectMapper.writerFor(Teamspace.class);
+        teamspace = new Teamspace(UUID.randomUUID().toString(), "organizer-user-id");
+        for (int i = 1; i < members; i++) {
+            teamspace.addMember("member-user-id-" + i);
+        }
+        teamspace.setPartyId(UUID.randomUUID().toString());
+        json = objectMapper.writeValueAsString(teamspace);
+    }
+    
+    @Benchmark
+    public String serialize() throws Exception {
+        return objectMapper.writeValueAsString(teamspace);
+    }
+    
+    @Benchmark
+    public Teamspace deserialize() throws Exception {
+        return objectMapper.readValue(json, Teamspace.class);
+    }
+    
+    @Benchmark
+    public String writer() throws Exception {
+        return writer.writeValueAsString(teamspace);
+    }
+    
+    @Benchmark
+    public Teamspace reader() throws Exception {
+        return reader.readValue(json);
+    }
+    
+    @Benchmark
+    public Teamspace roundTrip() throws Exception {
+        return objectMapper.readValue(objectMapper.writeValueAsString(teamspace), Teamspace.class);
+    }
+}
@@ -0,0 +1,66 @@
+package com.game.matching.benchmark;
+
+import com.game.matching.model.Teamspace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Teamspaceのメンバー操作（最大4人）
+ * 
+ * teamspaceとuserIdはTrialの開始時に1回だけ作る。addThenRemoveは呼び出しの前後で状態を元に戻すので、
+ * 呼び出しごとの作り直し（Level.Invocation）は不要で、その計測のオーバーヘッドも入らない。
+ */
+@State(Scope.Thread)
+public class TeamspaceMembershipBenchmark {
+    
+    private static final String ORGANIZER = "organizer-user-id";
+    
+    @Param({"1", "4"})
+    public int members;
+    
+    private Teamspace teamspace;
+    private String lastMember;
+    private String missingMember;
+    private String newMember;
+    private boolean full;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        teamspace = new Teamspace("550e8400-e29b-41d4-a716-446655440000", ORGANIZER);
+        lastMember = ORGANIZER;
+        for (int i = 1; i < members; i++) {
+            lastMember = "member-user-id-" + i;
+            teamspace.addMember(lastMember);
+        }
+        missingMember = "not-a-member";
+        newMember = "new-user-id";
+        full = teamspace.getMembers().size() == Teamspace.MAX_MEMBERS;
+    }
+    
+    @Benchmark
+    public boolean containsLast() {
+        return teamspace.isMember(lastMember);
+    }
+    
+    @Benchmark
+    public boolean containsMissing() {
+        return teamspace.isMember(missingMember);
+    }
+    
+    @Benchmark
+    public Teamspace addThenRemove() {
+        if (full) {
+            // 満杯のteamspaceには追加できないので、最後のメンバーを抜いてから戻す
+            teamspace.removeMember(lastMember);
+            teamspace.addMember(lastMember);
+        } else {
+            teamspace.addMember(newMember);
+            teamspace.removeMember(newMember);
+        }
+        return teamspace;
+    }
+}
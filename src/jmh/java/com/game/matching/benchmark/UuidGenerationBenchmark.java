@@ -0,0 +1,30 @@
+package com.game.matching.benchmark;
+
+import com.game.matching.id.UuidV7;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.UUID;
+
+/**
+ * teamspaceId・partyIdの生成（API①④）
+ * 
+ * 以前のUUID.randomUUID()（全スレッドで1つのSecureRandom）と、現行のUuidV7（共有のDRBGから1回で取得）の比較。
+ * 同時の生成での待ちを見るため複数スレッドで実行する。
+ */
+@State(Scope.Benchmark)
+@Threads(8)
+public class UuidGenerationBenchmark {
+    
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+    
+    @Benchmark
+    public String uuidV7() {
+        return UuidV7.nextString();
+    }
+}
@@ -0,0 +1,39 @@
+package com.game.matching.benchmark;
+
+import com.game.matching.id.BinaryUuid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.regex.Pattern;
+
+/**
+ * listJoiningPartyUsersのteamspaceId形式チェック
+ * 
+ * 以前のString.matches（呼び出しごとにコンパイル）、コンパイル済みPattern、現行のBinaryUuid（1文字ずつの判定）の比較。
+ */
+@State(Scope.Benchmark)
+public class UuidValidationBenchmark {
+    
+    private static final String REGEX = "^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$";
+    private static final Pattern PATTERN = Pattern.compile(REGEX);
+    
+    @Param({"550e8400-e29b-41d4-a716-446655440000", "not-a-uuid"})
+    public String teamspaceId;
+    
+    @Benchmark
+    public boolean stringMatches() {
+        return teamspaceId.matches(REGEX);
+    }
+    
+    @Benchmark
+    public boolean precompiledPattern() {
+        return PATTERN.matcher(teamspaceId).matches();
+    }
+    
+    @Benchmark
+    public boolean binaryUuid() {
+        return BinaryUuid.isValid(teamspaceId);
+    }
+}
@@ -0,0 +1,100 @@
+package com.game.matching.benchmark;
+
+import com.game.matching.concurrent.VirtualThreads;
+import com.game.matching.model.Teamspace;
+import com.game.matching.repository.RedisRepository;
+import com.game.matching.testing.InMemoryJedisPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * I/O待ちの多いリクエストを、Tomcat相当のスレッドプールと仮想スレッドで処理したときのスループット
+ * 
+ * 1リクエスト = teamspaceのGET 3回 + SETEX 1回（各コマンドでredisLatencyMicrosだけ待つ）。
+ * platformはTomcatの既定（最大200スレッド）、virtualはリクエストごとに仮想スレッドを作成する。
+ * virtualはJava 21が必要（./gradlew jmh -PjavaVersion=21 -PjmhIncludes=VirtualThreadIoBenchmark）。
+ * 
+ * Redisの接続は実環境と同じくプールの上限（matching.redis.pool.max-total、既定32）までしか同時に使えず、
+ * 空きをmax-wait-ms（既定2000ms）まで待つ。仮想スレッドでもRedisの同時実行数はこの上限を超えない。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class VirtualThreadIoBenchmark {
+    
+    private static final int REQUESTS = 4000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int TEAMSPACES = 1000;
+    private static final long POOL_MAX_WAIT_MILLIS = 2000;
+    
+    @Param({"platform", "virtual"})
+    public String mode;
+    
+    @Param({"200", "1000"})
+    public long redisLatencyMicros;
+    
+    // matching.redis.pool.max-totalの既定値
+    @Param({"32"})
+    public int poolMaxTotal;
+    
+    private ExecutorService executor;
+    private RedisRepository redisRepository;
+    private final List<String> teamspaceIds = new ArrayList<>();
+    
+    @Setup
+    public void setUp() {
+        executor = mode.equals("virtual")
+            ? VirtualThreads.newPerTaskExecutor("bench-vt-")
+            : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        InMemoryJedisPool jedisPool = new InMemoryJedisPool(TimeUnit.MICROSECONDS.toNanos(redisLatencyMicros),
+                                                            poolMaxTotal, POOL_MAX_WAIT_MILLIS);
+        redisRepository = new RedisRepository(jedisPool);
+        for (int i = 0; i < TEAMSPACES; i++) {
+            Teamspace teamspace = new Teamspace(UUID.randomUUID().toString(), "organizer-" + i);
+            redisRepository.saveTeamspace(teamspace);
+            teamspaceIds.add(teamspace.getTeamspaceId());
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * REQUESTS件のリクエストを同時に投入し、すべて完了するまで待つ
+     */
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void requests() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            String teamspaceId = teamspaceIds.get(i % TEAMSPACES);
+            futures[i] = CompletableFuture.runAsync(() -> handle(teamspaceId), executor);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+    
+    private void handle(String teamspaceId) {
+        Teamspace teamspace = redisRepository.getTeamspace(teamspaceId).orElseThrow();
+        redisRepository.getTeamspace(teamspaceId);
+        redisRepository.getTeamspace(teamspaceId);
+        redisRepository.saveTeamspace(teamspace);
+    }
+}
@@ -0,0 +1,60 @@
+package com.game.matching.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.matching.config.JacksonConfig;
+import com.game.matching.dto.MemberListNotification;
+import com.game.matching.dto.PartyIdNotification;
+import com.game.matching.websocket.NotificationJson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GameWebSocketHandler.broadcastでの通知のJSON化
+ * 
+ * 以前の形（呼び出しごとのMapを専用のObjectMapperで変換）と、
+ * 現行の形（型付きのrecordを共有のObjectMapperの作成済みObjectWriterで変換、NotificationJson）の比較。
+ */
+@State(Scope.Benchmark)
+public class WebSocketPayloadBenchmark {
+    
+    private static final String PARTY_ID = "6ba7b810-9dad-11d1-80b4-00c04fd430c8";
+    
+    private ObjectMapper objectMapper;
+    private NotificationJson notificationJson;
+    private List<String> members;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        notificationJson = new NotificationJson(JacksonConfig.newObjectMapper());
+        members = new ArrayList<>(List.of("user-id-0001", "user-id-0002", "user-id-0003", "user-id-0004"));
+    }
+    
+    @Benchmark
+    public String memberListMap() throws Exception {
+        Map<String, Object> notification = Map.of("type", "memberList", "userIds", new ArrayList<>(members));
+        return objectMapper.writeValueAsString(notification);
+    }
+    
+    @Benchmark
+    public String memberListRecord() throws Exception {
+        return notificationJson.write(new MemberListNotification(members));
+    }
+    
+    @Benchmark
+    public String partyIdMap() throws Exception {
+        Map<String, Object> notification = Map.of("type", "partyId", "partyId", PARTY_ID);
+        return objectMapper.writeValueAsString(notification);
+    }
+    
+    @Benchmark
+    public String partyIdRecord() throws Exception {
+        return notificationJson.write(new PartyIdNotification(PARTY_ID));
+    }
+}
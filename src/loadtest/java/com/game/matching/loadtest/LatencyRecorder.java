@@ -0,0 +1,75 @@
+package com.game.matching.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 操作（API名、通知種別）ごとのレイテンシとエラー数
+ */
+final class LatencyRecorder {
+    
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+    
+    void recordSuccess(String operation, long nanos) {
+        seriesFor(operation).add(nanos);
+    }
+    
+    void recordError(String operation, String reason) {
+        Series s = seriesFor(operation);
+        s.errors.incrementAndGet();
+        s.errorReasons.computeIfAbsent(reason, k -> new AtomicLong()).incrementAndGet();
+    }
+    
+    Map<String, Series> snapshot() {
+        return new TreeMap<>(series);
+    }
+    
+    private Series seriesFor(String operation) {
+        return series.computeIfAbsent(operation, k -> new Series());
+    }
+    
+    static final class Series {
+        private long[] values = new long[1024];
+        private int count;
+        private final AtomicLong errors = new AtomicLong();
+        private final Map<String, AtomicLong> errorReasons = new ConcurrentHashMap<>();
+        
+        synchronized void add(long nanos) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = nanos;
+        }
+        
+        synchronized int count() {
+            return count;
+        }
+        
+        long errors() {
+            return errors.get();
+        }
+        
+        Map<String, Long> errorReasons() {
+            Map<String, Long> reasons = new LinkedHashMap<>();
+            errorReasons.forEach((reason, n) -> reasons.put(reason, n.get()));
+            return reasons;
+        }
+        
+        /**
+         * パーセンタイル（ミリ秒、nearest-rank）
+         */
+        synchronized double percentileMillis(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100.0 * count);
+            return sorted[Math.max(0, Math.min(count - 1, rank - 1))] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.game.matching.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.game.matching.MatchingApplication;
+import com.game.matching.testing.InMemoryJedisPool;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import redis.clients.jedis.JedisPool;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * エンドツーエンドの負荷試験
+ * 
+ * アプリを同一JVM内でランダムポートに起動し、ローカルで署名したJWTを使ってHTTPとWebSocketでロビーのシナリオを流す。
+ * Redisはメモリ上の代替（既定）か、--redis=host:portで指定したローカルのRedisを使う。Cognitoには接続しない。
+ * --web=reactiveではWebFlux構成（reactiveプロファイル）で起動する。この構成のAPIはJedisPoolを使わないため、
+ * --redis=host:portの指定が必要。レポートには終了時のヒープ使用量（GC後）とスレッド数のピークも含める。
+ * --idle-connections=Nを指定すると、シナリオの後にN本のWebSocketを開いたまま保持し、GC後のヒープとスレッド数の
+ * 増分から1接続あたりのメモリを求める（クライアントも同じJVMのため、クライアント側の分を含む上限の値）。
+ * 
+ * オプション:
+ *   --lobbies=N           実行するロビー数（既定 2000）
+ *   --concurrency=N       同時に進行するロビー数（既定 500。WebSocket接続数はこの3倍）
+ *   --polls=N             ロビーごとのcheck_user_stateのポーリング回数（既定 5）
+ *   --warmup-lobbies=N    計測前に流すロビー数（既定 200）
+ *   --redis=inmemory|host:port
+ *   --redis-latency-us=N  メモリ上のRedisで1コマンドごとに加える待ち時間（既定 0）
+ *   --virtual-threads=true|false  仮想スレッドのモードで起動する（Java 21以降、既定 false）
+ *   --web=servlet|reactive  サーブレット（Tomcat）またはWebFlux（Netty）で起動する（既定 servlet）
+ *   --idle-connections=N  1接続あたりのメモリの計測で開くWebSocketの数（既定 0 = 計測しない）
+ *   --report-dir=DIR      レポートの出力先（既定 build/reports/loadtest）
+ */
+public final class LoadTestMain {
+    
+    private LoadTestMain() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int lobbies = Integer.parseInt(options.getOrDefault("lobbies", "2000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "500"));
+        int polls = Integer.parseInt(options.getOrDefault("polls", "5"));
+        int warmupLobbies = Integer.parseInt(options.getOrDefault("warmup-lobbies", "200"));
+        String redis = options.getOrDefault("redis", "inmemory");
+        long redisLatencyMicros = Long.parseLong(options.getOrDefault("redis-latency-us", "0"));
+        boolean virtualThreads = Boolean.parseBoolean(options.getOrDefault("virtual-threads", "false"));
+        String web = options.getOrDefault("web", "servlet");
+        int idleConnections = Integer.parseInt(options.getOrDefault("idle-connections", "0"));
+        if (!web.equals("servlet") && !web.equals("reactive")) {
+            throw new IllegalArgumentException("--web must be servlet or reactive: " + web);
+        }
+        if (web.equals("reactive") && redis.equals("inmemory")) {
+            throw new IllegalArgumentException("--web=reactive requires --redis=host:port");
+        }
+        Path reportDir = Path.of(options.getOrDefault("report-dir", "build/reports/loadtest"));
+        Files.createDirectories(reportDir);
+        
+        // アプリのログはファイルへ、レポートだけをコンソールへ出す
+        PrintStream console = System.out;
+        PrintStream appLog = new PrintStream(new FileOutputStream(reportDir.resolve("app.log").toFile()), true);
+        System.setOut(appLog);
+        
+        LocalTokenIssuer tokenIssuer = new LocalTokenIssuer();
+        Path jwksFile = tokenIssuer.writeJwks(reportDir);
+        
+        try (ConfigurableApplicationContext context = startApplication(jwksFile, redis, redisLatencyMicros,
+                                                                         virtualThreads, web)) {
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            URI baseUri = URI.create("http://localhost:" + port);
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors())))
+                .build();
+            ObjectMapper objectMapper = new ObjectMapper();
+            String runId = UUID.randomUUID().toString().substring(0, 8);
+            
+            console.printf("Load test: lobbies=%d concurrency=%d polls=%d redis=%s virtualThreads=%s web=%s%n",
+                lobbies, concurrency, polls,
+                redis.equals("inmemory") ? "inmemory (+" + redisLatencyMicros + "us/command)" : redis, virtualThreads,
+                web);
+            
+            runLobbies(new LobbyScenario(client, baseUri, tokenIssuer, new LatencyRecorder(), objectMapper, polls),
+                runId + "-warmup", warmupLobbies, concurrency);
+            
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            LatencyRecorder recorder = new LatencyRecorder();
+            long elapsedNanos = runLobbies(new LobbyScenario(client, baseUri, tokenIssuer, recorder, objectMapper, polls),
+                runId, lobbies, concurrency);
+            
+            Map<String, Object> report = buildReport(recorder, lobbies, concurrency, polls, redis, virtualThreads,
+                                                     elapsedNanos);
+            Map<String, Object> jvm = jvmStats(threads);
+            report.put("web", web);
+            report.put("jvm", jvm);
+            printReport(console, recorder, elapsedNanos);
+            console.printf("JVM: heap after GC %.1f MiB, peak threads %d%n",
+                (long) jvm.get("heapUsedAfterGcBytes") / (1024.0 * 1024.0), jvm.get("peakThreads"));
+            if (idleConnections > 0) {
+                Map<String, Object> perConnection = measureIdleConnections(client, baseUri, idleConnections);
+                report.put("idleConnections", perConnection);
+                console.printf("Idle WebSockets: %d opened, %.0f bytes of heap and %.3f threads per connection%n",
+                    perConnection.get("opened"), perConnection.get("heapBytesPerConnection"),
+                    perConnection.get("threadsPerConnection"));
+            }
+            Path reportFile = reportDir.resolve("report.json");
+            objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile.toFile(), report);
+            console.println("Report written to " + reportFile);
+        } finally {
+            System.setOut(console);
+            appLog.close();
+        }
+        System.exit(0);
+    }
+    
+    private static ConfigurableApplicationContext startApplication(Path jwksFile, String redis, long redisLatencyMicros,
+                                                                   boolean virtualThreads, String web) {
+        SpringApplication application = new SpringApplication(MatchingApplication.class);
+        List<String> appArgs = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--cognito.jwks-file=" + jwksFile.toAbsolutePath(),
+            "--cognito.issuer=" + LocalTokenIssuer.ISSUER,
+            "--management.health.redis.enabled=false",
+            "--matching.rate-limit.enabled=false",
+            "--spring.threads.virtual.enabled=" + virtualThreads));
+        if (web.equals("reactive")) {
+            appArgs.add("--spring.profiles.active=reactive");
+        }
+        if (redis.equals("inmemory")) {
+            // 実際のプールと同じく、matching.redis.pool.max-total / max-wait-msの既定値で接続数を制限する
+            InMemoryJedisPool pool = new InMemoryJedisPool(TimeUnit.MICROSECONDS.toNanos(redisLatencyMicros), 32, 2000);
+            application.addInitializers(context -> ((GenericApplicationContext) context)
+                .registerBean("inMemoryJedisPool", JedisPool.class, () -> pool, bd -> bd.setPrimary(true)));
+        } else {
+            String[] hostPort = redis.split(":", 2);
+            appArgs.add("--spring.data.redis.host=" + hostPort[0]);
+            appArgs.add("--spring.data.redis.port=" + (hostPort.length > 1 ? hostPort[1] : "6379"));
+        }
+        return application.run(appArgs.toArray(String[]::new));
+    }
+    
+    /**
+     * concurrency個のスレッドでロビーを順に流し、経過時間（ナノ秒）を返す
+     */
+    private static long runLobbies(LobbyScenario scenario, String runId, int lobbies, int concurrency)
+            throws InterruptedException {
+        if (lobbies <= 0) {
+            return 0;
+        }
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                int lobby;
+                while ((lobby = next.getAndIncrement()) < lobbies) {
+                    scenario.run(runId + "-" + lobby);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.HOURS);
+        return System.nanoTime() - start;
+    }
+    
+    /**
+     * count本のWebSocketを開いたまま、GC後のヒープとスレッド数の増分を1接続あたりに換算する
+     */
+    private static Map<String, Object> measureIdleConnections(HttpClient client, URI baseUri, int count)
+            throws InterruptedException {
+        URI wsUri = URI.create("ws://" + baseUri.getHost() + ":" + baseUri.getPort() + "/ws");
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        int threadsBefore = threads.getThreadCount();
+        
+        List<WebSocket> sockets = new ArrayList<>(count);
+        WebSocket.Listener listener = new WebSocket.Listener() {
+        };
+        try {
+            for (int i = 0; i < count; i++) {
+                URI uri = URI.create(wsUri + "?teamspaceId=" + UUID.randomUUID() + "&userId=idle-" + i);
+                try {
+                    sockets.add(client.newWebSocketBuilder().buildAsync(uri, listener).get(10, TimeUnit.SECONDS));
+                } catch (ExecutionException | TimeoutException e) {
+                    break;
+                }
+            }
+            // サーバー側の登録（afterConnectionEstablished）が終わるのを待つ
+            Thread.sleep(1000);
+            System.gc();
+            long heapAfter = memory.getHeapMemoryUsage().getUsed();
+            int threadsAfter = threads.getThreadCount();
+            
+            int opened = Math.max(1, sockets.size());
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requested", count);
+            stats.put("opened", sockets.size());
+            stats.put("heapBytesPerConnection", (double) (heapAfter - heapBefore) / opened);
+            stats.put("threadsPerConnection", (double) (threadsAfter - threadsBefore) / opened);
+            return stats;
+        } finally {
+            for (WebSocket socket : sockets) {
+                socket.sendClose(WebSocket.NORMAL_CLOSURE, "done");
+            }
+        }
+    }
+    
+    private static void printReport(PrintStream out, LatencyRecorder recorder, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long totalRequests = 0;
+        out.printf("%n%-28s %9s %9s %9s %9s %9s %9s %9s%n",
+            "operation", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, LatencyRecorder.Series> entry : recorder.snapshot().entrySet()) {
+            LatencyRecorder.Series s = entry.getValue();
+            if (!entry.getKey().startsWith("ws:")) {
+                totalRequests += s.count() + s.errors();
+            }
+            out.printf("%-28s %9d %9d %9.1f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(), s.count(), s.errors(),
+                s.count() / seconds, s.percentileMillis(50), s.percentileMillis(90), s.percentileMillis(99),
+                s.percentileMillis(100));
+            s.errorReasons().forEach((reason, n) -> out.printf("    error %-20s %d%n", reason, n));
+        }
+        out.printf("%nHTTP requests: %d in %.1fs (%.1f req/s)%n", totalRequests, seconds, totalRequests / seconds);
+    }
+    
+    /**
+     * 負荷試験後のヒープ使用量（GC後）とスレッド数（クライアント側も同じJVMなので両方を含む）
+     */
+    private static Map<String, Object> jvmStats(ThreadMXBean threads) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("heapUsedAfterGcBytes", memory.getHeapMemoryUsage().getUsed());
+        stats.put("peakThreads", threads.getPeakThreadCount());
+        stats.put("liveThreads", threads.getThreadCount());
+        return stats;
+    }
+    
+    private static Map<String, Object> buildReport(LatencyRecorder recorder, int lobbies, int concurrency, int polls,
+                                                   String redis, boolean virtualThreads, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        recorder.snapshot().forEach((operation, s) -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", s.count());
+            stats.put("errors", s.errors());
+            stats.put("errorReasons", s.errorReasons());
+            stats.put("throughputPerSecond", s.count() / seconds);
+            stats.put("p50Millis", s.percentileMillis(50));
+            stats.put("p90Millis", s.percentileMillis(90));
+            stats.put("p99Millis", s.percentileMillis(99));
+            stats.put("maxMillis", s.percentileMillis(100));
+            operations.put(operation, stats);
+        });
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("lobbies", lobbies);
+        report.put("concurrency", concurrency);
+        report.put("polls", polls);
+        report.put("redis", redis);
+        report.put("virtualThreads", virtualThreads);
+        report.put("elapsedSeconds", seconds);
+        report.put("operations", operations);
+        return report;
+    }
+    
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,234 @@
+package com.game.matching.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 1ロビー分のシナリオ
+ * 
+ * 主催者がteamspaceを作成 → 主催者と参加者2人がWebSocket接続 → 参加者2人がjoin_team →
+ * start_game（参加者へのpartyId通知の到達時間を計測） → 遅れて来た1人がjoin_existing_party →
+ * 4人がcheck_user_stateをポーリング
+ */
+final class LobbyScenario {
+    
+    static final String WS_CONNECT = "ws:connect";
+    static final String WS_PARTY_ID = "ws:partyId notification";
+    // どのステップにも属さない想定外の失敗
+    static final String SCENARIO = "scenario";
+    
+    private static final Duration HTTP_TIMEOUT = Duration.ofSeconds(30);
+    private static final long NOTIFICATION_TIMEOUT_SECONDS = 10;
+    
+    private final HttpClient client;
+    private final URI baseUri;
+    private final URI wsUri;
+    private final LocalTokenIssuer tokenIssuer;
+    private final LatencyRecorder recorder;
+    private final ObjectMapper objectMapper;
+    private final int polls;
+    
+    LobbyScenario(HttpClient client, URI baseUri, LocalTokenIssuer tokenIssuer, LatencyRecorder recorder,
+                  ObjectMapper objectMapper, int polls) {
+        this.client = client;
+        this.baseUri = baseUri;
+        this.wsUri = URI.create("ws://" + baseUri.getHost() + ":" + baseUri.getPort() + "/ws");
+        this.tokenIssuer = tokenIssuer;
+        this.recorder = recorder;
+        this.objectMapper = objectMapper;
+        this.polls = polls;
+    }
+    
+    void run(String lobbyId) {
+        String organizer = lobbyId + "-o";
+        List<String> joiners = List.of(lobbyId + "-m1", lobbyId + "-m2");
+        String lateJoiner = lobbyId + "-m3";
+        
+        JsonNode created = post("organize_team", organizer, Map.of("userId", organizer));
+        if (created == null) {
+            return;
+        }
+        String teamspaceId = created.path("teamspaceId").asText();
+        
+        List<WebSocket> sockets = new ArrayList<>();
+        CountDownLatch partyNotified = new CountDownLatch(joiners.size());
+        long[] startSentAt = new long[1];
+        try {
+            WebSocket organizerSocket = connect(teamspaceId, organizer, null, null);
+            if (organizerSocket == null) {
+                return;
+            }
+            sockets.add(organizerSocket);
+            for (String joiner : joiners) {
+                WebSocket socket = connect(teamspaceId, joiner, partyNotified, startSentAt);
+                if (socket == null) {
+                    return;
+                }
+                sockets.add(socket);
+            }
+            
+            for (String joiner : joiners) {
+                post("join_team", joiner, Map.of("userId", joiner, "teamspaceId", teamspaceId));
+            }
+            
+            synchronized (startSentAt) {
+                startSentAt[0] = System.nanoTime();
+            }
+            JsonNode started = post("start_game", organizer, Map.of("userId", organizer, "teamspaceId", teamspaceId));
+            if (started != null && !partyNotified.await(NOTIFICATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                for (long i = partyNotified.getCount(); i > 0; i--) {
+                    recorder.recordError(WS_PARTY_ID, "timeout");
+                }
+            }
+            
+            post("join_existing_party", lateJoiner, Map.of("userId", lateJoiner, "teamspaceId", teamspaceId));
+            
+            for (int i = 0; i < polls; i++) {
+                get("check_user_state", organizer, "userId=" + encode(organizer));
+                for (String joiner : joiners) {
+                    get("check_user_state", joiner, "userId=" + encode(joiner));
+                }
+                get("check_user_state", lateJoiner, "userId=" + encode(lateJoiner));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // 各ステップの失敗はそのステップで記録済み。ここに来るのはステップの外の失敗だけ
+            recorder.recordError(SCENARIO, e.getClass().getSimpleName());
+        } finally {
+            for (WebSocket socket : sockets) {
+                socket.sendClose(WebSocket.NORMAL_CLOSURE, "done");
+            }
+        }
+    }
+    
+    /**
+     * WebSocketで接続する（失敗はws:connectに記録してnullを返す）
+     */
+    private WebSocket connect(String teamspaceId, String userId, CountDownLatch partyNotified,
+                              long[] startSentAt) throws InterruptedException {
+        URI uri = URI.create(wsUri + "?teamspaceId=" + encode(teamspaceId) + "&userId=" + encode(userId));
+        long start = System.nanoTime();
+        try {
+            WebSocket socket = client.newWebSocketBuilder()
+                .buildAsync(uri, new NotificationListener(partyNotified, startSentAt))
+                .get(HTTP_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            recorder.recordSuccess(WS_CONNECT, System.nanoTime() - start);
+            return socket;
+        } catch (ExecutionException e) {
+            recorder.recordError(WS_CONNECT, e.getCause().getClass().getSimpleName());
+            return null;
+        } catch (TimeoutException e) {
+            recorder.recordError(WS_CONNECT, "timeout");
+            return null;
+        }
+    }
+    
+    private JsonNode post(String api, String userId, Map<String, String> body) {
+        try {
+            HttpRequest request = requestBuilder(baseUri.resolve("/api/" + api), userId)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+            return send(api, request);
+        } catch (Exception e) {
+            recorder.recordError(api, e.getClass().getSimpleName());
+            return null;
+        }
+    }
+    
+    private JsonNode get(String api, String userId, String query) {
+        try {
+            HttpRequest request = requestBuilder(baseUri.resolve("/api/" + api + "?" + query), userId)
+                .GET()
+                .build();
+            return send(api, request);
+        } catch (RuntimeException e) {
+            recorder.recordError(api, e.getClass().getSimpleName());
+            return null;
+        }
+    }
+    
+    private HttpRequest.Builder requestBuilder(URI uri, String userId) {
+        return HttpRequest.newBuilder(uri)
+            .timeout(HTTP_TIMEOUT)
+            .header("Authorization", "Bearer " + tokenIssuer.tokenFor(userId));
+    }
+    
+    private JsonNode send(String api, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - start;
+            JsonNode body = response.body().isEmpty() ? objectMapper.createObjectNode() : objectMapper.readTree(response.body());
+            if (response.statusCode() / 100 == 2) {
+                recorder.recordSuccess(api, elapsed);
+                return body;
+            }
+            recorder.recordError(api, response.statusCode() + " " + body.path("error").asText());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            recorder.recordError(api, "interrupted");
+            return null;
+        } catch (Exception e) {
+            recorder.recordError(api, e.getClass().getSimpleName());
+            return null;
+        }
+    }
+    
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * partyId通知を受け取ったらstart_game送信からの経過時間を記録する
+     */
+    private final class NotificationListener implements WebSocket.Listener {
+        
+        private final CountDownLatch partyNotified;
+        private final long[] startSentAt;
+        private final StringBuilder partial = new StringBuilder();
+        
+        NotificationListener(CountDownLatch partyNotified, long[] startSentAt) {
+            this.partyNotified = partyNotified;
+            this.startSentAt = startSentAt;
+        }
+        
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                String message = partial.toString();
+                partial.setLength(0);
+                if (partyNotified != null && message.contains("\"type\":\"partyId\"")) {
+                    long sentAt;
+                    synchronized (startSentAt) {
+                        sentAt = startSentAt[0];
+                    }
+                    recorder.recordSuccess(WS_PARTY_ID, System.nanoTime() - sentAt);
+                    partyNotified.countDown();
+                }
+            }
+            webSocket.request(1);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.game.matching.loadtest;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 負荷試験用のローカル署名鍵とJWKS、アクセストークンの発行
+ * 
+ * アプリはcognito.jwks-fileとcognito.issuerでこの鍵を信頼する（Cognitoには接続しない）。
+ */
+final class LocalTokenIssuer {
+    
+    static final String ISSUER = "https://loadtest.local/issuer";
+    private static final String KEY_ID = "loadtest-key";
+    
+    private final RSAPublicKey publicKey;
+    private final Algorithm algorithm;
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+    
+    LocalTokenIssuer() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        this.publicKey = (RSAPublicKey) keyPair.getPublic();
+        this.algorithm = Algorithm.RSA256(publicKey, (RSAPrivateKey) keyPair.getPrivate());
+    }
+    
+    /**
+     * 公開鍵をJWKS形式で書き出す
+     */
+    Path writeJwks(Path directory) throws IOException {
+        String jwks = "{\"keys\":[{\"kty\":\"RSA\",\"kid\":\"" + KEY_ID + "\",\"use\":\"sig\",\"alg\":\"RS256\","
+            + "\"n\":\"" + base64Url(publicKey.getModulus()) + "\","
+            + "\"e\":\"" + base64Url(publicKey.getPublicExponent()) + "\"}]}";
+        Path file = directory.resolve("jwks.json");
+        Files.writeString(file, jwks, StandardCharsets.UTF_8);
+        return file;
+    }
+    
+    /**
+     * ユーザーごとのトークン（1時間有効、同じユーザーには同じトークンを返す）
+     */
+    String tokenFor(String userId) {
+        return tokens.computeIfAbsent(userId, id -> JWT.create()
+            .withIssuer(ISSUER)
+            .withKeyId(KEY_ID)
+            .withSubject(id)
+            .withClaim("token_use", "access")
+            .withIssuedAt(Instant.now())
+            .withExpiresAt(Instant.now().plusSeconds(3600))
+            .sign(algorithm));
+    }
+    
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        // 符号ビット用の先頭0x00を取り除く
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,274 @@
+package com.game.matching.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 起動時間の計測（AppCDS・Spring AOT・ウォームアップの効果の比較用）
+ * 
+ * アプリを別プロセスで起動し、次の値をプロセスの起動からの経過時間で計測する。
+ * <ul>
+ * <li>ready: /actuator/health/readinessがUPになるまで（ロードバランサーに組み込まれる時点）</li>
+ * <li>first request: readinessがUPになった直後のAPI⑥の応答まで（その1件のレイテンシも出す）</li>
+ * <li>steady state: API⑥を一定の並列数で流し、window-msごとのp99が最後の4分の1の区間のp99（中央値）の
+ *     steady-tolerance倍以内に収まり、以降もその範囲に留まる最初の区間の開始まで</li>
+ * </ul>
+ * JVMのオプションは--jvm-argsにカンマ区切りで指定する（例: --jvm-args=-XX:SharedArchiveFile=build/cds/app.jsa,-Dspring.aot.enabled=true）。
+ * Redisは--redis=host:portのものを使い、JWTはローカルで署名する（Cognitoには接続しない）。
+ * 
+ * オプション:
+ *   --jar=PATH               （既定 build/cds/app.jar、./gradlew cdsLayoutの出力）
+ *   --jvm-args=A,B,...       アプリのJVMオプション
+ *   --java=PATH              アプリを起動するjava（既定 この計測と同じJVM。AppCDSのアーカイブは同じJVMで作る）
+ *   --label=NAME             レポートの名前（既定 default）
+ *   --redis=host:port        （既定 localhost:6379）
+ *   --duration-seconds=N     readiness後に負荷を流す時間（既定 60）
+ *   --concurrency=N          並列数（既定 16）
+ *   --window-ms=N            p99を集計する区間（既定 1000）
+ *   --steady-tolerance=X     （既定 1.2）
+ *   --report-dir=DIR         （既定 build/reports/startup）
+ */
+public final class StartupProbeMain {
+    
+    private static final long POLL_MILLIS = 10;
+    private static final long READY_TIMEOUT_SECONDS = 120;
+    
+    private StartupProbeMain() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        List<String> command = new ArrayList<>();
+        command.add(options.getOrDefault("java", ProcessHandle.current().info().command().orElse("java")));
+        String jvmArgs = options.getOrDefault("jvm-args", "");
+        if (!jvmArgs.isBlank()) {
+            command.addAll(Arrays.asList(jvmArgs.split(",")));
+        }
+        command.add("-jar");
+        command.add(options.getOrDefault("jar", "build/cds/app.jar"));
+        String label = options.getOrDefault("label", "default");
+        String[] redis = options.getOrDefault("redis", "localhost:6379").split(":", 2);
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration-seconds", "60"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        long windowMillis = Long.parseLong(options.getOrDefault("window-ms", "1000"));
+        double tolerance = Double.parseDouble(options.getOrDefault("steady-tolerance", "1.2"));
+        Path reportDir = Path.of(options.getOrDefault("report-dir", "build/reports/startup"));
+        Files.createDirectories(reportDir);
+        
+        LocalTokenIssuer tokenIssuer = new LocalTokenIssuer();
+        Path jwksFile = tokenIssuer.writeJwks(reportDir);
+        int port = freePort();
+        command.addAll(List.of(
+            "--server.port=" + port,
+            "--cognito.jwks-file=" + jwksFile.toAbsolutePath(),
+            "--cognito.issuer=" + LocalTokenIssuer.ISSUER,
+            "--spring.data.redis.host=" + redis[0],
+            "--spring.data.redis.port=" + (redis.length > 1 ? redis[1] : "6379"),
+            "--management.health.redis.enabled=false",
+            "--matching.rate-limit.enabled=false"));
+        
+        URI baseUri = URI.create("http://localhost:" + port);
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+        
+        Path appLog = reportDir.resolve("app-" + label + ".log");
+        long startNanos = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(appLog.toFile())
+            .start();
+        try {
+            long readyNanos = awaitReady(client, baseUri, process, startNanos);
+            
+            long firstStart = System.nanoTime();
+            int firstStatus = checkUserState(client, baseUri, tokenIssuer, "probe-first");
+            long firstEnd = System.nanoTime();
+            if (firstStatus != 200) {
+                throw new IllegalStateException("First request failed with HTTP " + firstStatus + " (see " + appLog + ")");
+            }
+            
+            LatencyRecorder windows = new LatencyRecorder();
+            long loadStart = System.nanoTime();
+            runLoad(client, baseUri, tokenIssuer, windows, loadStart, windowMillis, durationSeconds, concurrency);
+            
+            Map<String, Object> report = buildReport(label, command, windows, startNanos, readyNanos, firstStart,
+                                                     firstEnd, loadStart, windowMillis, tolerance);
+            printReport(report);
+            Path reportFile = reportDir.resolve("startup-" + label + ".json");
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile.toFile(), report);
+            System.out.println("Report written to " + reportFile);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(60, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+        System.exit(0);
+    }
+    
+    /**
+     * readinessがUPになった時刻（System.nanoTime）
+     */
+    private static long awaitReady(HttpClient client, URI baseUri, Process process, long startNanos)
+            throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/actuator/health/readiness"))
+            .timeout(Duration.ofSeconds(1))
+            .GET()
+            .build();
+        long deadline = startNanos + TimeUnit.SECONDS.toNanos(READY_TIMEOUT_SECONDS);
+        while (deadline - System.nanoTime() > 0) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return System.nanoTime();
+                }
+            } catch (IOException e) {
+                // 起動前（接続拒否）
+            }
+            Thread.sleep(POLL_MILLIS);
+        }
+        throw new IllegalStateException("Application was not ready within " + READY_TIMEOUT_SECONDS + " s");
+    }
+    
+    private static void runLoad(HttpClient client, URI baseUri, LocalTokenIssuer tokenIssuer, LatencyRecorder windows,
+                                long loadStart, long windowMillis, int durationSeconds, int concurrency)
+            throws InterruptedException {
+        long loadEnd = loadStart + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            String userId = "probe-" + i;
+            workers.execute(() -> {
+                long now;
+                while (loadEnd - (now = System.nanoTime()) > 0) {
+                    String window = windowKey((now - loadStart) / TimeUnit.MILLISECONDS.toNanos(windowMillis));
+                    try {
+                        int status = checkUserState(client, baseUri, tokenIssuer, userId);
+                        if (status == 200) {
+                            windows.recordSuccess(window, System.nanoTime() - now);
+                        } else {
+                            windows.recordError(window, "HTTP " + status);
+                        }
+                    } catch (IOException e) {
+                        windows.recordError(window, e.getClass().getSimpleName());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(durationSeconds + 60L, TimeUnit.SECONDS);
+    }
+    
+    private static int checkUserState(HttpClient client, URI baseUri, LocalTokenIssuer tokenIssuer, String userId)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/check_user_state?userId=" + userId))
+            .timeout(Duration.ofSeconds(10))
+            .header("Authorization", "Bearer " + tokenIssuer.tokenFor(userId))
+            .GET()
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+    
+    private static Map<String, Object> buildReport(String label, List<String> command, LatencyRecorder windows,
+                                                   long startNanos, long readyNanos, long firstStart, long firstEnd,
+                                                   long loadStart, long windowMillis, double tolerance) {
+        List<Map<String, Object>> windowStats = new ArrayList<>();
+        List<Double> p99s = new ArrayList<>();
+        windows.snapshot().forEach((window, s) -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("window", window);
+            stats.put("count", s.count());
+            stats.put("errors", s.errors());
+            stats.put("p99Millis", s.percentileMillis(99));
+            windowStats.add(stats);
+            // 成功のない区間は定常状態に含めない
+            p99s.add(s.count() == 0 ? Double.MAX_VALUE : s.percentileMillis(99));
+        });
+        
+        // 最後の4分の1の区間のp99の中央値を定常状態とみなす
+        List<Double> tail = new ArrayList<>(p99s.subList(p99s.size() - Math.max(1, p99s.size() / 4), p99s.size()));
+        tail.sort(Double::compare);
+        double steadyP99 = tail.get(tail.size() / 2);
+        int steadyWindow = p99s.size() - 1;
+        while (steadyWindow > 0 && p99s.get(steadyWindow - 1) <= steadyP99 * tolerance) {
+            steadyWindow--;
+        }
+        long steadyNanos = loadStart + steadyWindow * TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", label);
+        report.put("command", String.join(" ", command));
+        report.put("readyMillis", millisSince(startNanos, readyNanos));
+        report.put("firstRequestMillis", millisSince(startNanos, firstEnd));
+        report.put("firstRequestLatencyMillis", millisSince(firstStart, firstEnd));
+        report.put("steadyStateMillis", millisSince(startNanos, steadyNanos));
+        report.put("steadyP99Millis", steadyP99);
+        report.put("firstWindowP99Millis", p99s.get(0));
+        report.put("windowMillis", windowMillis);
+        report.put("windows", windowStats);
+        return report;
+    }
+    
+    private static void printReport(Map<String, Object> report) {
+        System.out.printf("%n%s%n", report.get("command"));
+        System.out.printf("  ready:          %8.0f ms%n", report.get("readyMillis"));
+        System.out.printf("  first request:  %8.0f ms (latency %.1f ms)%n",
+            report.get("firstRequestMillis"), report.get("firstRequestLatencyMillis"));
+        System.out.printf("  steady state:   %8.0f ms (p99 %.2f ms, first window p99 %.2f ms)%n",
+            report.get("steadyStateMillis"), report.get("steadyP99Millis"), report.get("firstWindowP99Millis"));
+    }
+    
+    private static double millisSince(long fromNanos, long toNanos) {
+        return (toNanos - fromNanos) / 1_000_000.0;
+    }
+    
+    /**
+     * 区間の番号（snapshotの順序で並ぶよう0埋め）
+     */
+    private static String windowKey(long index) {
+        return String.format("%05d", index);
+    }
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+    
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,39 @@
+package com.game.matching.audit;
+
+/**
+ * 監査ジャーナルに記録するteamspaceのライフサイクルイベント
+ * 
+ * codeはファイルに書き込まれる値なので変更しないこと。
+ */
+public enum AuditEventType {
+    TEAMSPACE_CREATED(1),
+    TEAMSPACE_JOINED(2),
+    TEAMSPACE_LEFT(3),
+    GAME_START(4),
+    PARTY_JOINED(5);
+    
+    private static final AuditEventType[] BY_CODE = new AuditEventType[6];
+    
+    static {
+        for (AuditEventType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+    
+    private final int code;
+    
+    AuditEventType(int code) {
+        this.code = code;
+    }
+    
+    public int getCode() {
+        return code;
+    }
+    
+    public static AuditEventType fromCode(int code) {
+        if (code <= 0 || code >= BY_CODE.length || BY_CODE[code] == null) {
+            throw new IllegalArgumentException("Unknown audit event code: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
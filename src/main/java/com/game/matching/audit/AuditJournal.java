@@ -0,0 +1,277 @@
+package com.game.matching.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * メモリマップしたセグメントファイルに追記する監査ジャーナル
+ * 
+ * 追記はマップ済み領域へのメモリ書き込みのみで、ディスクへの同期（force）は
+ * フラッシュスレッドが一定間隔でまとめて行う（グループコミット）。
+ * syncCommitが有効な場合、追記したスレッドは次のforceが完了するまで待つ。
+ */
+public class AuditJournal implements AuditSink {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AuditJournal.class);
+    private static final int PREALLOCATE_CHUNK = 64 * 1024;
+    
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final boolean syncCommit;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition durable = lock.newCondition();
+    private final CRC32C crc = new CRC32C();
+    private final ScheduledExecutorService flusher;
+    
+    // 以下はlockで保護
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long segmentIndex;
+    private long appendedSequence;
+    private long durableSequence;
+    private boolean closed;
+    
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    
+    public AuditJournal(Path directory, int segmentSize, int maxSegments,
+                        long flushIntervalMillis, boolean syncCommit) {
+        if (segmentSize < 4096) {
+            throw new IllegalArgumentException("segmentSize must be at least 4096 bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.syncCommit = syncCommit;
+        try {
+            Files.createDirectories(directory);
+            // 起動のたびに新しいセグメントから書き始める
+            this.segmentIndex = lastSegmentIndex(directory) + 1;
+            openSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open audit journal: " + directory, e);
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "audit-journal-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Audit journal opened: {}", directory);
+    }
+    
+    @Override
+    public void append(AuditEventType eventType, String userId, String teamspaceId, String partyId) {
+        append(System.currentTimeMillis(), eventType, userId, teamspaceId, partyId);
+    }
+    
+    public void append(long timestampMillis, AuditEventType eventType,
+                       String userId, String teamspaceId, String partyId) {
+        int payloadLength = 1 + 8
+            + AuditSegmentFormat.encodedLength(userId)
+            + AuditSegmentFormat.encodedLength(teamspaceId)
+            + AuditSegmentFormat.encodedLength(partyId);
+        int recordLength = AuditSegmentFormat.RECORD_HEADER_SIZE + payloadLength;
+        
+        long sequence;
+        lock.lock();
+        try {
+            if (closed) {
+                failures.incrementAndGet();
+                return;
+            }
+            // 空のセグメントにも収まらないレコードは、切り替えを繰り返さずに捨てる
+            if (AuditSegmentFormat.HEADER_SIZE + recordLength + 4 > segmentSize) {
+                failures.incrementAndGet();
+                logger.warn("Audit record of {} bytes exceeds segment size {}", recordLength, segmentSize);
+                return;
+            }
+            // 終端マーカー（length=0）の4バイトを常に残しておく
+            if (buffer.remaining() < recordLength + 4) {
+                rotate();
+            }
+            int start = buffer.position();
+            int payloadStart = start + AuditSegmentFormat.RECORD_HEADER_SIZE;
+            buffer.position(payloadStart);
+            buffer.put((byte) eventType.getCode());
+            buffer.putLong(timestampMillis);
+            AuditSegmentFormat.putString(buffer, userId);
+            AuditSegmentFormat.putString(buffer, teamspaceId);
+            AuditSegmentFormat.putString(buffer, partyId);
+            buffer.putInt(start + 4, AuditSegmentFormat.crc(crc, buffer, payloadStart, payloadLength));
+            // lengthは最後に書く（途中で落ちても読み取り側は未完のレコードを終端とみなす）
+            buffer.putInt(start, payloadLength);
+            sequence = ++appendedSequence;
+            appended.incrementAndGet();
+            
+            if (syncCommit) {
+                while (durableSequence < sequence && !closed) {
+                    durable.awaitUninterruptibly();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            failures.incrementAndGet();
+            logger.warn("Failed to append audit record", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * 追記済みのレコードをディスクに同期し、待っている書き込みを起こす
+     */
+    public void flush() {
+        long target;
+        MappedByteBuffer current;
+        lock.lock();
+        try {
+            if (closed || durableSequence == appendedSequence) {
+                return;
+            }
+            target = appendedSequence;
+            current = buffer;
+        } finally {
+            lock.unlock();
+        }
+        
+        // forceはロックの外で行い、その間も追記を受け付ける
+        current.force();
+        
+        lock.lock();
+        try {
+            if (target > durableSequence) {
+                durableSequence = target;
+            }
+            durable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public long getAppendedCount() {
+        return appended.get();
+    }
+    
+    public long getFailureCount() {
+        return failures.get();
+    }
+    
+    public Path getDirectory() {
+        return directory;
+    }
+    
+    private void rotate() throws IOException {
+        closeSegment();
+        segmentIndex++;
+        openSegment();
+        deleteOldSegments();
+        // 古いセグメントはcloseSegmentでforce済み
+        durableSequence = appendedSequence;
+        durable.signalAll();
+    }
+    
+    private void openSegment() throws IOException {
+        Path path = directory.resolve(AuditSegmentFormat.fileName(segmentIndex));
+        FileChannel opened = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                                              StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            preallocate(opened);
+            buffer = opened.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException | RuntimeException e) {
+            opened.close();
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        channel = opened;
+        AuditSegmentFormat.writeHeader(buffer);
+        buffer.position(AuditSegmentFormat.HEADER_SIZE);
+    }
+    
+    /**
+     * セグメント全体にゼロを書いてディスク上の領域を確保する
+     * 
+     * マップの範囲まで伸ばしただけのスパースファイルでは、追記（メモリ書き込み）の時点で
+     * 領域を確保できないとSIGBUSでプロセスが落ちる。ここで書いておけば容量不足は
+     * セグメントを開くときのIOExceptionになる。
+     */
+    private void preallocate(FileChannel opened) throws IOException {
+        ByteBuffer zeros = ByteBuffer.allocate(Math.min(segmentSize, PREALLOCATE_CHUNK));
+        long position = 0;
+        while (position < segmentSize) {
+            zeros.clear().limit((int) Math.min(zeros.capacity(), segmentSize - position));
+            while (zeros.hasRemaining()) {
+                position += opened.write(zeros, position);
+            }
+        }
+    }
+    
+    private void closeSegment() throws IOException {
+        // マップ中のファイルは切り詰めない（フラッシュスレッドが旧バッファをforceする可能性がある）
+        buffer.force();
+        channel.close();
+    }
+    
+    private void deleteOldSegments() throws IOException {
+        if (maxSegments <= 0) {
+            return;
+        }
+        List<Path> segments = listSegments(directory);
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+    
+    static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(AuditSegmentFormat::isSegmentFile)
+                .sorted((a, b) -> Long.compare(AuditSegmentFormat.segmentIndex(a), AuditSegmentFormat.segmentIndex(b)))
+                .toList();
+        }
+    }
+    
+    private static long lastSegmentIndex(Path directory) throws IOException {
+        List<Path> segments = listSegments(directory);
+        return segments.isEmpty() ? 0 : AuditSegmentFormat.segmentIndex(segments.get(segments.size() - 1));
+    }
+    
+    @Override
+    public void close() {
+        flusher.shutdownNow();
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            closeSegment();
+            durable.signalAll();
+        } catch (IOException e) {
+            logger.warn("Failed to close audit journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
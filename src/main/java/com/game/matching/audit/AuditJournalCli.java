@@ -0,0 +1,89 @@
+package com.game.matching.audit;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * 監査ジャーナルを読み取り、1行1レコードのJSONで標準出力に書き出す
+ * 
+ * <pre>
+ * ./gradlew auditReplay --args="--dir=/var/lib/matching/audit --user=USER_ID --from=2024-01-01T00:00:00Z"
+ * </pre>
+ * 
+ * オプション: --dir（必須） --user --teamspace --from --to（ISO-8601、toは含まない）
+ */
+public final class AuditJournalCli {
+    
+    private AuditJournalCli() {
+    }
+    
+    public static void main(String[] args) throws IOException {
+        String dir = null;
+        String userId = null;
+        String teamspaceId = null;
+        Long from = null;
+        Long to = null;
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                usage("Unknown argument: " + arg);
+                return;
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            switch (name) {
+                case "dir" -> dir = value;
+                case "user" -> userId = value;
+                case "teamspace" -> teamspaceId = value;
+                case "from" -> from = Instant.parse(value).toEpochMilli();
+                case "to" -> to = Instant.parse(value).toEpochMilli();
+                default -> {
+                    usage("Unknown option: " + name);
+                    return;
+                }
+            }
+        }
+        if (dir == null) {
+            usage("--dir is required");
+            return;
+        }
+        
+        AuditJournalReader reader = new AuditJournalReader(Path.of(dir));
+        AuditJournalReader.Filter filter = new AuditJournalReader.Filter(userId, teamspaceId, from, to);
+        try (JsonGenerator generator = new JsonFactory().createGenerator(System.out, JsonEncoding.UTF8)) {
+            generator.setRootValueSeparator(null);
+            int truncated = reader.read(filter, record -> write(generator, record));
+            generator.flush();
+            if (truncated > 0) {
+                System.err.println("Stopped at a corrupted or incomplete record in " + truncated + " segment(s)");
+            }
+        }
+    }
+    
+    private static void write(JsonGenerator generator, AuditRecord record) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("timestamp", Instant.ofEpochMilli(record.timestampMillis()).toString());
+            generator.writeStringField("eventType", record.eventType().name());
+            generator.writeStringField("userId", record.userId());
+            generator.writeStringField("teamspaceId", record.teamspaceId());
+            generator.writeStringField("partyId", record.partyId());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.println("Usage: AuditJournalCli --dir=DIR [--user=ID] [--teamspace=ID] [--from=ISO8601] [--to=ISO8601]");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,103 @@
+package com.game.matching.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * 監査ジャーナルのセグメントを先頭から順に読み取る
+ * 
+ * CRCが一致しないレコード（書き込み途中で停止した場合など）に到達した時点で
+ * そのセグメントの読み取りを終了する。
+ */
+public class AuditJournalReader {
+    
+    private final Path directory;
+    
+    public AuditJournalReader(Path directory) {
+        this.directory = directory;
+    }
+    
+    /**
+     * 条件に一致するレコードを古い順に渡す
+     * 
+     * @param filter 絞り込み条件
+     * @param consumer レコードの受け取り先
+     * @return 読み取ったセグメントのうち、破損レコードで打ち切ったものの数
+     */
+    public int read(Filter filter, Consumer<AuditRecord> consumer) throws IOException {
+        int truncatedSegments = 0;
+        CRC32C crc = new CRC32C();
+        for (Path segment : AuditJournal.listSegments(directory)) {
+            if (!readSegment(segment, filter, consumer, crc)) {
+                truncatedSegments++;
+            }
+        }
+        return truncatedSegments;
+    }
+    
+    public List<AuditRecord> readAll(Filter filter) throws IOException {
+        List<AuditRecord> records = new ArrayList<>();
+        read(filter, records::add);
+        return records;
+    }
+    
+    private boolean readSegment(Path segment, Filter filter, Consumer<AuditRecord> consumer,
+                                CRC32C crc) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (!AuditSegmentFormat.hasValidHeader(buffer)) {
+                return false;
+            }
+            int position = AuditSegmentFormat.HEADER_SIZE;
+            while (position + AuditSegmentFormat.RECORD_HEADER_SIZE <= buffer.limit()) {
+                int length = buffer.getInt(position);
+                if (length == 0) {
+                    return true;
+                }
+                int payloadStart = position + AuditSegmentFormat.RECORD_HEADER_SIZE;
+                if (length < 0 || payloadStart + length > buffer.limit()
+                        || buffer.getInt(position + 4) != AuditSegmentFormat.crc(crc, buffer, payloadStart, length)) {
+                    return false;
+                }
+                AuditRecord record = decode(buffer.slice(payloadStart, length));
+                if (filter.matches(record)) {
+                    consumer.accept(record);
+                }
+                position = payloadStart + length;
+            }
+            return true;
+        }
+    }
+    
+    private static AuditRecord decode(ByteBuffer payload) {
+        AuditEventType eventType = AuditEventType.fromCode(payload.get());
+        long timestampMillis = payload.getLong();
+        String userId = AuditSegmentFormat.getString(payload);
+        String teamspaceId = AuditSegmentFormat.getString(payload);
+        String partyId = AuditSegmentFormat.getString(payload);
+        return new AuditRecord(timestampMillis, eventType, userId, teamspaceId, partyId);
+    }
+    
+    /**
+     * 読み取り時の絞り込み条件（nullの項目は条件なし）
+     */
+    public record Filter(String userId, String teamspaceId, Long fromMillis, Long toMillis) {
+        
+        public static final Filter ALL = new Filter(null, null, null, null);
+        
+        boolean matches(AuditRecord record) {
+            return (userId == null || userId.equals(record.userId()))
+                && (teamspaceId == null || teamspaceId.equals(record.teamspaceId()))
+                && (fromMillis == null || record.timestampMillis() >= fromMillis)
+                && (toMillis == null || record.timestampMillis() < toMillis);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.game.matching.audit;
+
+/**
+ * 監査ジャーナルの1レコード
+ */
+public record AuditRecord(long timestampMillis, AuditEventType eventType,
+                          String userId, String teamspaceId, String partyId) {
+}
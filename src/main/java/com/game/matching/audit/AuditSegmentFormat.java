@@ -0,0 +1,138 @@
+package com.game.matching.audit;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * セグメントファイルのバイナリ形式
+ * 
+ * <pre>
+ * ヘッダ:   magic(int) version(short) reserved(short)
+ * レコード: length(int) crc32c(int) payload(length bytes)
+ * payload:  type(byte) timestamp(long) userId teamspaceId partyId
+ * 文字列:   byteLength(short, nullは-1) UTF-8（MAX_STRING_BYTESを超える分は切り捨てる）
+ * </pre>
+ * 
+ * length=0 はデータの終端（事前確保した領域のゼロ埋め部分）を表す。
+ */
+final class AuditSegmentFormat {
+    
+    static final int MAGIC = 0x41554431; // "AUD1"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_HEADER_SIZE = 8;
+    static final int MAX_STRING_BYTES = Short.MAX_VALUE;
+    static final String FILE_PREFIX = "audit-";
+    static final String FILE_SUFFIX = ".seg";
+    
+    private AuditSegmentFormat() {
+    }
+    
+    static String fileName(long segmentIndex) {
+        return String.format("%s%020d%s", FILE_PREFIX, segmentIndex, FILE_SUFFIX);
+    }
+    
+    static boolean isSegmentFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+    }
+    
+    static long segmentIndex(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+    }
+    
+    static void writeHeader(ByteBuffer buffer) {
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(4, VERSION);
+        buffer.putShort(6, (short) 0);
+    }
+    
+    static boolean hasValidHeader(ByteBuffer buffer) {
+        return buffer.limit() >= HEADER_SIZE
+            && buffer.getInt(0) == MAGIC
+            && buffer.getShort(4) == VERSION;
+    }
+    
+    /**
+     * 文字列のエンコード後のバイト数（ASCIIなら文字数と同じ）
+     */
+    static int encodedLength(String value) {
+        if (value == null) {
+            return 2;
+        }
+        if (isShortAscii(value)) {
+            return 2 + value.length();
+        }
+        return 2 + truncatedUtf8(value).length;
+    }
+    
+    /**
+     * 文字列を書き込む（MAX_STRING_BYTESを超える分は文字の境界で切り捨てる）
+     */
+    static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        if (isShortAscii(value)) {
+            int length = value.length();
+            buffer.putShort((short) length);
+            for (int i = 0; i < length; i++) {
+                buffer.put((byte) value.charAt(i));
+            }
+        } else {
+            byte[] bytes = truncatedUtf8(value);
+            buffer.putShort((short) bytes.length);
+            buffer.put(bytes);
+        }
+    }
+    
+    private static boolean isShortAscii(String value) {
+        int length = value.length();
+        if (length > MAX_STRING_BYTES) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * UTF-8にエンコードし、長さのフィールド（short）に収まらない分を切り捨てる
+     */
+    static byte[] truncatedUtf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_STRING_BYTES) {
+            return bytes;
+        }
+        // 継続バイト（10xxxxxx）で切ると文字が壊れるので、その文字の先頭まで戻る
+        int end = MAX_STRING_BYTES;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return Arrays.copyOf(bytes, end);
+    }
+    
+    static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    static int crc(CRC32C crc, ByteBuffer buffer, int offset, int length) {
+        crc.reset();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+}
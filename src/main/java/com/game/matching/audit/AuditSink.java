@@ -0,0 +1,17 @@
+package com.game.matching.audit;
+
+/**
+ * teamspaceのライフサイクルイベントの記録先
+ */
+public interface AuditSink extends AutoCloseable {
+    
+    /** 監査ジャーナルが無効な場合の記録先 */
+    AuditSink NOOP = (eventType, userId, teamspaceId, partyId) -> {
+    };
+    
+    void append(AuditEventType eventType, String userId, String teamspaceId, String partyId);
+    
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,42 @@
+package com.game.matching.concurrent;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * teamspaceId単位の直列実行（WebFlux構成でのTeamspaceExecutorの代わり）
+ * 
+ * teamspaceIdごとに最後に投入された処理の完了を表すfutureを持ち、次の処理はその完了を待ってから購読する。
+ * スレッドは占有せず、同じteamspaceへの読み込み→判定→保存が重ならないことだけを保証する
+ * （別のteamspaceへの処理は並行して進む）。順番待ちの処理が取り消された場合も、直前の処理が終わるまでは
+ * 後続に順番を渡さない。
+ */
+public class ReactiveTeamspaceQueue {
+    
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+    
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+    
+    /**
+     * 同じteamspaceIdの先行する処理が全て終わってからactionを購読する
+     */
+    public <T> Mono<T> execute(String teamspaceId, Supplier<Mono<T>> action) {
+        return Mono.defer(() -> {
+            CompletableFuture<Void> turn = new CompletableFuture<>();
+            CompletableFuture<Void> previous = tails.put(teamspaceId, turn);
+            Mono<Void> waitTurn = previous == null ? Mono.empty() : Mono.fromFuture(previous, true);
+            return waitTurn.then(Mono.defer(action))
+                .doFinally(signal -> release(teamspaceId, previous == null ? DONE : previous, turn));
+        });
+    }
+    
+    private void release(String teamspaceId, CompletableFuture<Void> previous, CompletableFuture<Void> turn) {
+        previous.whenComplete((ignored, error) -> {
+            tails.remove(teamspaceId, turn);
+            turn.complete(null);
+        });
+    }
+}
@@ -0,0 +1,93 @@
+package com.game.matching.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 同じキーに対する同時の読み取りを1回のロードにまとめる（single-flight）
+ * 
+ * ロード中に同じキーで呼ばれた場合は新たにロードせず、実行中のロードの結果（または例外）を共有する。
+ * ロードが終わるとエントリは消えるため、結果を保持するキャッシュではなく、古い値を返すこともない。
+ * 書き込みの後はforget/forgetAllを呼び、書き込み前に始まったロードに後続の呼び出しが合流しないようにする。
+ * 結果は呼び出し元で共有されるため、可変オブジェクトを返すロードには使わないこと。
+ */
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    
+    /**
+     * keyのロードを実行し、同じkeyのロードが実行中であればその結果を待って返す
+     */
+    public V load(K key, Supplier<V> loader) {
+        calls.increment();
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+    
+    /**
+     * 実行中のkeyのロードに以降の呼び出しを合流させない（実行中のロード自体は続行する）
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+    
+    /**
+     * 実行中のすべてのロードに以降の呼び出しを合流させない
+     */
+    public void forgetAll() {
+        inFlight.clear();
+    }
+    
+    /**
+     * load()の呼び出し回数
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+    
+    /**
+     * 実行中のロードに合流した（Redisへのアクセスを省いた）呼び出し回数
+     */
+    public long getCoalescedCalls() {
+        return coalesced.sum();
+    }
+    
+    public int getInFlight() {
+        return inFlight.size();
+    }
+    
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
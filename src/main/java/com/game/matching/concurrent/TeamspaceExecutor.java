@@ -0,0 +1,242 @@
+package com.game.matching.concurrent;
+
+import com.game.matching.exception.BusinessException;
+import com.game.matching.metrics.RedisCallTrace;
+import com.game.matching.metrics.RedisCallTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * teamspaceId単位の直列実行器（アクターモデル）
+ * 
+ * teamspaceIdのハッシュで固定数のストライプ（単一スレッドのメールボックス）に振り分け、
+ * 同じteamspaceへの更新とそれに続くWebSocket通知をロックなしで順序付けする。
+ * 無効時は呼び出しスレッドでそのまま実行する。
+ */
+public class TeamspaceExecutor {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TeamspaceExecutor.class);
+    
+    private final boolean enabled;
+    private final Stripe[] stripes;
+    private final ScheduledExecutorService sampler;
+    
+    public TeamspaceExecutor(boolean enabled, int stripeCount, int mailboxCapacity, long sampleIntervalMillis) {
+        this.enabled = enabled;
+        if (!enabled) {
+            this.stripes = new Stripe[0];
+            this.sampler = null;
+            return;
+        }
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stripeCount must be positive");
+        }
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(i, mailboxCapacity);
+        }
+        this.sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "teamspace-stripe-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sampler.scheduleAtFixedRate(this::sampleUtilization,
+                                         sampleIntervalMillis, sampleIntervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Teamspace executor enabled: stripes={}, mailboxCapacity={}", stripeCount, mailboxCapacity);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * teamspaceIdのメールボックスで処理を実行し、結果を返す
+     */
+    public <T> T execute(String teamspaceId, Supplier<T> action) {
+        if (!enabled) {
+            return action.get();
+        }
+        Stripe stripe = stripeFor(teamspaceId);
+        // 同じストライプ内からの再入はそのまま実行（自分自身を待つデッドロックを防ぐ）
+        if (Thread.currentThread() == stripe.thread) {
+            return action.get();
+        }
+        
+        // リクエスト単位のRedisトレースをストライプのスレッドに引き継ぐ
+        RedisCallTrace trace = RedisCallTracker.current();
+        FutureTask<T> task = new FutureTask<>(() -> {
+            RedisCallTrace previous = RedisCallTracker.attach(trace);
+            try {
+                return action.get();
+            } finally {
+                RedisCallTracker.attach(previous);
+            }
+        });
+        try {
+            stripe.executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            stripe.rejected.incrementAndGet();
+            throw new BusinessException("SERVER_BUSY",
+                                      "サーバーが混雑しています",
+                                      HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException("INTERNAL_SERVER_ERROR", "サーバーエラー", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+    
+    /**
+     * teamspaceIdのメールボックスで処理を実行（戻り値なし）
+     */
+    public void execute(String teamspaceId, Runnable action) {
+        execute(teamspaceId, () -> {
+            action.run();
+            return null;
+        });
+    }
+    
+    public int stripeCount() {
+        return stripes.length;
+    }
+    
+    /**
+     * ストライプのメールボックスに溜まっているタスク数
+     */
+    public int mailboxDepth(int stripe) {
+        return stripes[stripe].executor.getQueue().size();
+    }
+    
+    public int totalMailboxDepth() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            total += stripe.executor.getQueue().size();
+        }
+        return total;
+    }
+    
+    /**
+     * 直近のサンプリング区間におけるストライプの稼働率（0.0〜1.0）
+     */
+    public double utilization(int stripe) {
+        return stripes[stripe].utilization;
+    }
+    
+    public long busyNanos(int stripe) {
+        return stripes[stripe].busyNanos.get();
+    }
+    
+    public long completedTasks(int stripe) {
+        return stripes[stripe].executor.getCompletedTaskCount();
+    }
+    
+    public long rejectedTasks(int stripe) {
+        return stripes[stripe].rejected.get();
+    }
+    
+    int stripeIndex(String teamspaceId) {
+        int h = teamspaceId.hashCode();
+        h ^= (h >>> 16);
+        return (h & 0x7fffffff) % stripes.length;
+    }
+    
+    private Stripe stripeFor(String teamspaceId) {
+        return stripes[stripeIndex(teamspaceId)];
+    }
+    
+    private void sampleUtilization() {
+        long now = System.nanoTime();
+        for (Stripe stripe : stripes) {
+            long busy = stripe.busyNanos.get();
+            long elapsed = now - stripe.lastSampleAt;
+            if (elapsed > 0) {
+                stripe.utilization = Math.min(1.0, (double) (busy - stripe.lastSampleBusy) / elapsed);
+            }
+            stripe.lastSampleAt = now;
+            stripe.lastSampleBusy = busy;
+        }
+        if (logger.isDebugEnabled()) {
+            for (Stripe stripe : stripes) {
+                logger.debug("Teamspace stripe {} - mailboxDepth: {}, utilization: {}",
+                             stripe.index, stripe.executor.getQueue().size(), stripe.utilization);
+            }
+        }
+    }
+    
+    /**
+     * 全ストライプを停止（キュー済みのタスクは実行してから終了する）
+     */
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        sampler.shutdownNow();
+        for (Stripe stripe : stripes) {
+            stripe.executor.shutdown();
+        }
+        for (Stripe stripe : stripes) {
+            try {
+                if (!stripe.executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    logger.warn("Teamspace stripe {} did not terminate in time", stripe.index);
+                    stripe.executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stripe.executor.shutdownNow();
+            }
+        }
+    }
+    
+    private static final class Stripe {
+        private final int index;
+        private final ThreadPoolExecutor executor;
+        private final AtomicLong busyNanos = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private volatile Thread thread;
+        private volatile double utilization;
+        private long lastSampleAt = System.nanoTime();
+        private long lastSampleBusy;
+        
+        Stripe(int index, int mailboxCapacity) {
+            this.index = index;
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                                                   new LinkedBlockingQueue<>(mailboxCapacity),
+                                                   r -> {
+                                                       Thread t = new Thread(r, "teamspace-stripe-" + index);
+                                                       thread = t;
+                                                       return t;
+                                                   }) {
+                // ストライプのスレッドからのみ触るのでvolatile不要
+                private long startedAt;
+                
+                @Override
+                protected void beforeExecute(Thread t, Runnable r) {
+                    startedAt = System.nanoTime();
+                }
+                
+                @Override
+                protected void afterExecute(Runnable r, Throwable t) {
+                    busyNanos.addAndGet(System.nanoTime() - startedAt);
+                }
+            };
+            this.executor.prestartCoreThread();
+        }
+    }
+}
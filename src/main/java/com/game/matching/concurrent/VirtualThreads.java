@@ -0,0 +1,48 @@
+package com.game.matching.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 仮想スレッド（Java 21以降）のExecutorServiceを作成する
+ * 
+ * ビルドはJava 17でも通るように、Java 21のAPIはリフレクションで呼び出す。
+ */
+public final class VirtualThreads {
+    
+    private static final int MIN_FEATURE_VERSION = 21;
+    
+    private VirtualThreads() {
+    }
+    
+    /**
+     * 実行中のJVMで仮想スレッドが使えるか
+     */
+    public static boolean isAvailable() {
+        return Runtime.version().feature() >= MIN_FEATURE_VERSION;
+    }
+    
+    /**
+     * タスクごとに仮想スレッドを作成するExecutorService（スレッド名は namePrefix + 連番）
+     * 
+     * @throws IllegalStateException 仮想スレッドが使えないJVMの場合
+     */
+    public static ExecutorService newPerTaskExecutor(String namePrefix) {
+        if (!isAvailable()) {
+            throw new IllegalStateException("Virtual threads require Java " + MIN_FEATURE_VERSION
+                + " or later (running " + Runtime.version() + ")");
+        }
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            Method newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newExecutor.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create virtual thread executor", e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.game.matching.config;
+
+import com.game.matching.audit.AuditJournal;
+import com.game.matching.audit.AuditSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class AuditConfig {
+    
+    @Value("${matching.audit.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${matching.audit.dir:audit}")
+    private String dir;
+    
+    @Value("${matching.audit.segment-size-bytes:67108864}")
+    private int segmentSizeBytes;
+    
+    @Value("${matching.audit.max-segments:32}")
+    private int maxSegments;
+    
+    @Value("${matching.audit.flush-interval-ms:50}")
+    private long flushIntervalMillis;
+    
+    @Value("${matching.audit.sync-commit:false}")
+    private boolean syncCommit;
+    
+    @Bean(destroyMethod = "close")
+    public AuditSink auditSink() {
+        if (!enabled) {
+            return AuditSink.NOOP;
+        }
+        return new AuditJournal(Path.of(dir), segmentSizeBytes, maxSegments, flushIntervalMillis, syncCommit);
+    }
+}
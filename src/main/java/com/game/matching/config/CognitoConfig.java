@@ -15,6 +15,24 @@ public class CognitoConfig {
     @Value("${cognito.jwks-url}")
     private String jwksUrl;
     
+    @Value("${cognito.issuer}")
+    private String issuer;
+    
+    @Value("${cognito.jwks-file:}")
+    private String jwksFile;
+    
+    @Value("${cognito.jwks-refresh-interval-seconds:3600}")
+    private long jwksRefreshIntervalSeconds;
+    
+    @Value("${cognito.jwks-min-refresh-interval-ms:30000}")
+    private long jwksMinRefreshIntervalMillis;
+    
+    @Value("${cognito.jwks-fetch-timeout-ms:2000}")
+    private long jwksFetchTimeoutMillis;
+    
+    @Value("${cognito.token-cache.max-entries:100000}")
+    private int tokenCacheMaxEntries;
+    
     public String getUserPoolId() {
         return userPoolId;
     }
@@ -26,5 +44,29 @@ public class CognitoConfig {
     public String getJwksUrl() {
         return jwksUrl;
     }
+    
+    public String getIssuer() {
+        return issuer;
+    }
+    
+    public String getJwksFile() {
+        return jwksFile;
+    }
+    
+    public long getJwksRefreshIntervalSeconds() {
+        return jwksRefreshIntervalSeconds;
+    }
+    
+    public long getJwksMinRefreshIntervalMillis() {
+        return jwksMinRefreshIntervalMillis;
+    }
+    
+    public long getJwksFetchTimeoutMillis() {
+        return jwksFetchTimeoutMillis;
+    }
+    
+    public int getTokenCacheMaxEntries() {
+        return tokenCacheMaxEntries;
+    }
 }
 
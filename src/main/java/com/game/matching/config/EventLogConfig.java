@@ -0,0 +1,48 @@
+package com.game.matching.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.game.matching.logging.ApiStats;
+import com.game.matching.logging.EventLogPipeline;
+import com.game.matching.logging.EventSampler;
+import com.game.matching.logging.LogLineOutputStream;
+import com.game.matching.service.LoggingService;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EventLogConfig {
+    
+    @Value("${matching.event-log.buffer-size:8192}")
+    private int bufferSize;
+    
+    @Value("${matching.event-log.overflow:DROP}")
+    private EventLogPipeline.OverflowPolicy overflowPolicy;
+    
+    @Value("${matching.event-log.max-batch:256}")
+    private int maxBatch;
+    
+    @Value("${matching.event-log.sample-rates:}")
+    private String sampleRates;
+    
+    @Value("${matching.event-log.summary-interval-seconds:60}")
+    private long summaryIntervalSeconds;
+    
+    @Bean(destroyMethod = "close")
+    public EventLogPipeline eventLogPipeline() {
+        // 以前と同じLoggingServiceのロガーに1行ずつ出力し、logbackの設定（出力先・パターン）に従わせる
+        return new EventLogPipeline(new JsonFactory(), bufferSize, overflowPolicy, maxBatch,
+                                    new LogLineOutputStream(LoggerFactory.getLogger(LoggingService.class)));
+    }
+    
+    @Bean
+    public EventSampler eventSampler() {
+        return EventSampler.parse(sampleRates);
+    }
+    
+    @Bean(destroyMethod = "close")
+    public ApiStats apiStats() {
+        return new ApiStats(new JsonFactory(), summaryIntervalSeconds);
+    }
+}
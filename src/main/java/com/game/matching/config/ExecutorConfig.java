@@ -0,0 +1,27 @@
+package com.game.matching.config;
+
+import com.game.matching.concurrent.TeamspaceExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ExecutorConfig {
+    
+    @Value("${matching.teamspace-executor.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${matching.teamspace-executor.stripes:8}")
+    private int stripes;
+    
+    @Value("${matching.teamspace-executor.mailbox-capacity:1024}")
+    private int mailboxCapacity;
+    
+    @Value("${matching.teamspace-executor.sample-interval-ms:10000}")
+    private long sampleIntervalMillis;
+    
+    @Bean(destroyMethod = "shutdown")
+    public TeamspaceExecutor teamspaceExecutor() {
+        return new TeamspaceExecutor(enabled, stripes, mailboxCapacity, sampleIntervalMillis);
+    }
+}
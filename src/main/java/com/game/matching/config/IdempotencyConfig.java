@@ -0,0 +1,24 @@
+package com.game.matching.config;
+
+import com.game.matching.filter.IdempotencyFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class IdempotencyConfig {
+    
+    /**
+     * userId単位で保存するため、AuthFilter（order 2）とuserId単位のレート制限（order 3）の後に実行する
+     */
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilterRegistration(IdempotencyFilter idempotencyFilter) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(idempotencyFilter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(4);
+        return registration;
+    }
+}
@@ -0,0 +1,37 @@
+package com.game.matching.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * アプリ全体で共有するObjectMapper
+ * 
+ * Spring BootのObjectMapper（コントローラーのJSON変換にも使われる）にBlackbirdModuleを登録し、
+ * フィルター・リポジトリ・WebSocket通知もこのObjectMapperを注入して使う。
+ * シリアライザのキャッシュが1つになり、使う側は型ごとのObjectReader/ObjectWriterを作成時に用意しておく。
+ */
+@Configuration
+public class JacksonConfig {
+    
+    /**
+     * Spring BootがModuleのBeanをObjectMapperに登録する
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+    
+    /**
+     * Spring BootのObjectMapperと同じ設定のObjectMapper（Springを使わないテスト・ベンチマーク用）
+     */
+    public static ObjectMapper newObjectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new BlackbirdModule())
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.game.matching.config;
+
+import com.game.matching.concurrent.SingleFlight;
+import com.game.matching.concurrent.TeamspaceExecutor;
+import com.game.matching.filter.RedisTraceFilter;
+import com.game.matching.logging.EventLogPipeline;
+import com.game.matching.metrics.ApiMetricsFilter;
+import com.game.matching.metrics.MatchingMeterBinder;
+import com.game.matching.metrics.RedisMetrics;
+import com.game.matching.metrics.WebSocketMetrics;
+import com.game.matching.repository.RedisRepository;
+import com.game.matching.service.CognitoAuthService;
+import com.game.matching.service.GameService;
+import com.game.matching.service.JwksKeyStore;
+import com.game.matching.websocket.WebSocketConnectionManager;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import redis.clients.jedis.JedisPool;
+
+@Configuration
+public class MetricsConfig {
+    
+    @Value("${matching.redis-trace.slow-request-ms:500}")
+    private long slowRequestMillis;
+    
+    /**
+     * リクエスト全体（認証を含む）のRedisコマンドを集計するため、最も外側で実行する
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<RedisTraceFilter> redisTraceFilterRegistration() {
+        FilterRegistrationBean<RedisTraceFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(new RedisTraceFilter(slowRequestMillis));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(-1);
+        return registration;
+    }
+    
+    /**
+     * 認証エラー（401）も計測できるよう、AuthFilterより先に実行する
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public FilterRegistrationBean<ApiMetricsFilter> apiMetricsFilterRegistration(MeterRegistry registry) {
+        FilterRegistrationBean<ApiMetricsFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(new ApiMetricsFilter(registry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(0);
+        return registration;
+    }
+    
+    @Bean
+    public RedisMetrics redisMetrics(MeterRegistry registry) {
+        return new RedisMetrics(registry);
+    }
+    
+    @Bean
+    public WebSocketMetrics webSocketMetrics(MeterRegistry registry) {
+        return new WebSocketMetrics(registry);
+    }
+    
+    /**
+     * WebSocketConnectionManagerはサーブレット構成のみ（WebFlux構成のセッション数はReactiveWebConfigで登録）
+     */
+    @Bean
+    public MatchingMeterBinder matchingMeterBinder(JedisPool jedisPool,
+                                                   ObjectProvider<WebSocketConnectionManager> connectionManager,
+                                                   TeamspaceExecutor teamspaceExecutor,
+                                                   EventLogPipeline eventLogPipeline,
+                                                   CognitoAuthService cognitoAuthService,
+                                                   JwksKeyStore jwksKeyStore) {
+        return new MatchingMeterBinder(jedisPool, connectionManager.getIfAvailable(), teamspaceExecutor,
+                                       eventLogPipeline, cognitoAuthService, jwksKeyStore);
+    }
+    
+    /**
+     * 実行中の読み取りに合流した呼び出し数（API⑥の走査はサーブレット構成のみ）
+     */
+    @Bean
+    public MeterBinder singleFlightMeterBinder(RedisRepository redisRepository,
+                                               ObjectProvider<GameService> gameService) {
+        return registry -> {
+            bindSingleFlight(registry, "teamspace", redisRepository.getTeamspaceLoads());
+            gameService.ifAvailable(service -> bindSingleFlight(registry, "user-state", service.getUserStateLoads()));
+        };
+    }
+    
+    private static void bindSingleFlight(MeterRegistry registry, String load, SingleFlight<?, ?> singleFlight) {
+        FunctionCounter.builder("matching.single-flight.calls", singleFlight, SingleFlight::getCalls)
+            .description("読み取りの呼び出し数")
+            .tag("load", load)
+            .register(registry);
+        FunctionCounter.builder("matching.single-flight.coalesced", singleFlight, SingleFlight::getCoalescedCalls)
+            .description("実行中の読み取りに合流し、Redisへのアクセスを省いた呼び出し数")
+            .tag("load", load)
+            .register(registry);
+    }
+}
@@ -0,0 +1,89 @@
+package com.game.matching.config;
+
+import com.game.matching.filter.RateLimitFilter;
+import com.game.matching.filter.RateLimitFilter.Scope;
+import com.game.matching.metrics.RedisMetrics;
+import com.game.matching.ratelimit.LocalRateLimiter;
+import com.game.matching.ratelimit.RateLimiter;
+import com.game.matching.ratelimit.RateLimits;
+import com.game.matching.ratelimit.RedisRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import redis.clients.jedis.JedisPool;
+
+/**
+ * レート制限のフィルター（ApiMetricsFilter → IP単位 → AuthFilter → userId単位の順に実行）
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RateLimitConfig {
+    
+    @Value("${matching.rate-limit.enabled:true}")
+    private boolean enabled;
+    
+    // memory: インスタンスごと、redis: 全インスタンスで共有
+    @Value("${matching.rate-limit.store:memory}")
+    private String store;
+    
+    @Value("${matching.rate-limit.ip-limits:}")
+    private String ipLimits;
+    
+    @Value("${matching.rate-limit.user-limits:}")
+    private String userLimits;
+    
+    @Value("${matching.rate-limit.max-keys:100000}")
+    private int maxKeys;
+    
+    /**
+     * JWT検証の前に実行し、大量の呼び出しで検証のコストを払わないようにする
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> ipRateLimitFilterRegistration(
+            JedisPool jedisPool, RedisMetrics redisMetrics, MeterRegistry registry) {
+        RateLimiter limiter = rateLimiter(Scope.IP, RateLimits.parse(ipLimits), jedisPool, redisMetrics);
+        return registration(new RateLimitFilter(Scope.IP, limiter, registry), 1);
+    }
+    
+    /**
+     * userId単位の制限（バッチAPIも操作ごとにこの制限を適用する）。無効時はすべて許可する
+     */
+    @Bean
+    public RateLimiter userRateLimiter(JedisPool jedisPool, RedisMetrics redisMetrics) {
+        if (!enabled) {
+            return (api, key) -> 0L;
+        }
+        return rateLimiter(Scope.USER, RateLimits.parse(userLimits), jedisPool, redisMetrics);
+    }
+    
+    /**
+     * AuthFilterが設定したuserIdで制限する
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> userRateLimitFilterRegistration(
+            RateLimiter userRateLimiter, MeterRegistry registry) {
+        return registration(new RateLimitFilter(Scope.USER, userRateLimiter, registry), 3);
+    }
+    
+    private RateLimiter rateLimiter(Scope scope, RateLimits limits, JedisPool jedisPool, RedisMetrics redisMetrics) {
+        if (store.equalsIgnoreCase("redis")) {
+            return new RedisRateLimiter(jedisPool, redisMetrics, limits, scope.name().toLowerCase());
+        }
+        if (!store.equalsIgnoreCase("memory")) {
+            throw new IllegalArgumentException("Unknown rate limit store: " + store);
+        }
+        return new LocalRateLimiter(limits, maxKeys);
+    }
+    
+    private FilterRegistrationBean<RateLimitFilter> registration(RateLimitFilter filter, int order) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(order);
+        registration.setEnabled(enabled);
+        return registration;
+    }
+}
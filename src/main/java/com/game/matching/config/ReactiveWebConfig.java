@@ -0,0 +1,60 @@
+package com.game.matching.config;
+
+import com.game.matching.concurrent.ReactiveTeamspaceQueue;
+import com.game.matching.controller.ReactiveApiHandler;
+import com.game.matching.websocket.ReactiveConnectionManager;
+import com.game.matching.websocket.ReactiveGameWebSocketHandler;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+import java.util.Map;
+
+/**
+ * WebFlux構成（spring.main.web-application-type=reactive）のルーティング
+ * 
+ * パスはサーブレット版のTeamController/GameController、WebSocketConfigと同じ。
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig {
+    
+    @Bean
+    public RouterFunction<ServerResponse> matchingApiRoutes(ReactiveApiHandler handler) {
+        return RouterFunctions.route()
+            .POST("/api/organize_team", handler::organizeTeam)
+            .POST("/api/join_team", handler::joinTeam)
+            .POST("/api/leave_team", handler::leaveTeam)
+            .POST("/api/start_game", handler::startGame)
+            .POST("/api/join_existing_party", handler::joinExistingParty)
+            .GET("/api/check_user_state", handler::checkUserState)
+            .GET("/api/list_joining_party_users", handler::listJoiningPartyUsers)
+            .build();
+    }
+    
+    @Bean
+    public ReactiveTeamspaceQueue reactiveTeamspaceQueue() {
+        return new ReactiveTeamspaceQueue();
+    }
+    
+    @Bean
+    public HandlerMapping webSocketHandlerMapping(ReactiveGameWebSocketHandler webSocketHandler) {
+        // RouterFunctionより先に /ws を判定する
+        return new SimpleUrlHandlerMapping(Map.of("/ws", webSocketHandler), -1);
+    }
+    
+    @Bean
+    public MeterBinder reactiveWebSocketMeterBinder(ReactiveConnectionManager connectionManager) {
+        return registry -> Gauge.builder("matching.websocket.sessions", connectionManager,
+                                         ReactiveConnectionManager::getSessionCount)
+            .description("接続中のWebSocketセッション数")
+            .register(registry);
+    }
+}
@@ -1,11 +1,15 @@
 package com.game.matching.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.matching.repository.TeamspaceCodec;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
 
+import java.time.Duration;
+
 @Configuration
 public class RedisConfig {
     
@@ -15,14 +19,49 @@ public class RedisConfig {
     @Value("${spring.data.redis.port}")
     private int port;
     
+    // 仮想スレッドのモードではTomcatのスレッド数で同時実行数が制限されないため、
+    // このプールの上限がRedisへの同時アクセス数の上限になる
+    @Value("${matching.redis.pool.max-total:32}")
+    private int maxTotal;
+    
+    @Value("${matching.redis.pool.max-idle:32}")
+    private int maxIdle;
+    
+    // 起動時のウォームアップ（StartupWarmup）で作った接続のうち、アイドルのまま保持する数
+    @Value("${matching.redis.pool.min-idle:16}")
+    private int minIdle;
+    
+    // この時間アイドルだった接続を、min-idleを超える分だけ閉じる
+    @Value("${matching.redis.pool.idle-evict-ms:60000}")
+    private long idleEvictMillis;
+    
+    // 接続を待つ上限（超えたリクエストは待ち続けずにエラーにする）
+    @Value("${matching.redis.pool.max-wait-ms:2000}")
+    private long maxWaitMillis;
+    
+    // teamspaceの値の形式（binary|json）。読み込みはどちらの形式も読める。
+    // バイナリを読めない旧バージョンとのローリングデプロイが終わるまでは、既定の書き込みはjsonのままにする
+    @Value("${matching.teamspace.codec:json}")
+    private String teamspaceCodec;
+    
     @Bean
     public JedisPool jedisPool() {
         JedisPoolConfig poolConfig = new JedisPoolConfig();
-        poolConfig.setMaxTotal(10);
-        poolConfig.setMaxIdle(5);
-        poolConfig.setMinIdle(1);
+        poolConfig.setMaxTotal(maxTotal);
+        poolConfig.setMaxIdle(maxIdle);
+        poolConfig.setMinIdle(minIdle);
+        poolConfig.setBlockWhenExhausted(true);
+        poolConfig.setMaxWait(Duration.ofMillis(maxWaitMillis));
+        // JedisPoolConfigの既定はアイドル60秒で接続をmin-idleに関係なく閉じ、min-idleまで作り直す。
+        // min-idleを超える分だけを閉じるソフトな退去にして、保持する接続を切断・再接続しない
+        poolConfig.setMinEvictableIdleDuration(Duration.ofMillis(-1));
+        poolConfig.setSoftMinEvictableIdleDuration(Duration.ofMillis(idleEvictMillis));
         
         return new JedisPool(poolConfig, host, port);
     }
+    
+    @Bean
+    public TeamspaceCodec teamspaceCodec(ObjectMapper objectMapper) {
+        return TeamspaceCodec.forWriting(teamspaceCodec, objectMapper);
+    }
 }
-
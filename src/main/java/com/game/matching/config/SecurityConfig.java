@@ -1,19 +1,24 @@
 package com.game.matching.config;
 
 import com.game.matching.filter.AuthFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SecurityConfig {
     
+    /**
+     * IP単位のレート制限（order 1）の後、userId単位のレート制限（order 3）の前に実行する
+     */
     @Bean
     public FilterRegistrationBean<AuthFilter> authFilterRegistration(AuthFilter authFilter) {
         FilterRegistrationBean<AuthFilter> registration = new FilterRegistrationBean<>();
         registration.setFilter(authFilter);
         registration.addUrlPatterns("/api/*");
-        registration.setOrder(1);
+        registration.setOrder(2);
         return registration;
     }
 }
@@ -0,0 +1,36 @@
+package com.game.matching.controller;
+
+import com.game.matching.dto.BatchRequest;
+import com.game.matching.dto.BatchResponse;
+import com.game.matching.service.BatchService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api")
+public class BatchController {
+    
+    private final BatchService batchService;
+    
+    public BatchController(BatchService batchService) {
+        this.batchService = batchService;
+    }
+    
+    /**
+     * バッチAPI: API①〜⑦の操作をまとめて実行（各操作の結果はresultsに入り、全体は常に200）
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResponse> batch(
+            @Valid @RequestBody BatchRequest request,
+            HttpServletRequest httpRequest) {
+        
+        String tokenUserId = (String) httpRequest.getAttribute("userId");
+        
+        BatchResponse response = batchService.execute(tokenUserId, request);
+        return ResponseEntity.ok(response);
+    }
+}
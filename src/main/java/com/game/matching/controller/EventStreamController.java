@@ -0,0 +1,37 @@
+package com.game.matching.controller;
+
+import com.game.matching.service.MatchingRules;
+import com.game.matching.websocket.NotificationFanout;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api")
+public class EventStreamController {
+    
+    private final NotificationFanout notificationFanout;
+    
+    public EventStreamController(NotificationFanout notificationFanout) {
+        this.notificationFanout = notificationFanout;
+    }
+    
+    /**
+     * teamspaceの通知（memberList・partyId）のSSEストリーム（/wsを使えないクライアント用）
+     * 
+     * 再接続時はLast-Event-IDヘッダー（EventSourceが自動で付ける）以降の通知を再送する。
+     */
+    @GetMapping("/events")
+    public SseEmitter events(
+            @RequestParam("teamspaceId") String teamspaceId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            HttpServletRequest httpRequest) {
+        
+        String tokenUserId = (String) httpRequest.getAttribute("userId");
+        
+        MatchingRules.validateTeamspaceId(teamspaceId);
+        return notificationFanout.subscribe(teamspaceId, tokenUserId, lastEventId);
+    }
+}
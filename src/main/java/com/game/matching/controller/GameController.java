@@ -4,22 +4,26 @@ import com.game.matching.dto.CheckUserStateResponse;
 import com.game.matching.dto.ListJoiningPartyUsersResponse;
 import com.game.matching.dto.StartGameRequest;
 import com.game.matching.dto.StartGameResponse;
-import com.game.matching.exception.BusinessException;
 import com.game.matching.service.GameService;
+import com.game.matching.service.MatchingRules;
+import com.game.matching.websocket.ResumeTokens;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import org.springframework.http.HttpStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api")
 public class GameController {
     
     private final GameService gameService;
+    private final ResumeTokens resumeTokens;
     
-    public GameController(GameService gameService) {
+    public GameController(GameService gameService, ResumeTokens resumeTokens) {
         this.gameService = gameService;
+        this.resumeTokens = resumeTokens;
     }
     
     /**
@@ -33,11 +37,7 @@ public class GameController {
         String tokenUserId = (String) httpRequest.getAttribute("userId");
         
         // トークンから取得したuserIdとrequest.bodyのuserIdが一致するかチェック
-        if (!tokenUserId.equals(request.getUserId())) {
-            throw new BusinessException("VALIDATION_ERROR",
-                                       "Token userId does not match request userId",
-                                       HttpStatus.BAD_REQUEST);
-        }
+        MatchingRules.requireBodyUser(tokenUserId, request.getUserId());
         
         StartGameResponse response = gameService.startGame(request.getUserId(), request.getTeamspaceId());
         return ResponseEntity.ok(response);
@@ -45,22 +45,21 @@ public class GameController {
     
     /**
      * API⑥: ユーザー状態確認
+     * 
+     * X-Resume-Tokenヘッダーは再接続の依頼（reconnect通知）で受け取ったトークン。不正・期限切れの場合は無視する。
      */
     @GetMapping("/check_user_state")
     public ResponseEntity<CheckUserStateResponse> checkUserState(
             @RequestParam("userId") String userId,
+            @RequestHeader(value = "X-Resume-Token", required = false) String resumeToken,
             HttpServletRequest httpRequest) {
         
         String tokenUserId = (String) httpRequest.getAttribute("userId");
         
         // トークンから取得したuserIdとクエリパラメータのuserIdが一致するかチェック
-        if (!tokenUserId.equals(userId)) {
-            throw new BusinessException("VALIDATION_ERROR",
-                                       "Token userId does not match query parameter userId",
-                                       HttpStatus.BAD_REQUEST);
-        }
+        MatchingRules.requireQueryUser(tokenUserId, userId);
         
-        CheckUserStateResponse response = gameService.checkUserState(userId);
+        CheckUserStateResponse response = gameService.checkUserState(userId, resumeTokens.verify(resumeToken, userId));
         return ResponseEntity.ok(response);
     }
     
@@ -76,11 +75,7 @@ public class GameController {
         String tokenUserId = (String) httpRequest.getAttribute("userId");
         
         // トークンから取得したuserIdとクエリパラメータのuserIdが一致するかチェック
-        if (!tokenUserId.equals(userId)) {
-            throw new BusinessException("VALIDATION_ERROR",
-                                       "Token userId does not match query parameter userId",
-                                       HttpStatus.BAD_REQUEST);
-        }
+        MatchingRules.requireQueryUser(tokenUserId, userId);
         
         ListJoiningPartyUsersResponse response = gameService.listJoiningPartyUsers(userId, teamspaceId);
         return ResponseEntity.ok(response);
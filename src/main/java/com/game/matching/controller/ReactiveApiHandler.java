@@ -0,0 +1,167 @@
+package com.game.matching.controller;
+
+import com.game.matching.dto.*;
+import com.game.matching.exception.BusinessException;
+import com.game.matching.service.MatchingRules;
+import com.game.matching.service.ReactiveGameService;
+import com.game.matching.service.ReactiveTeamService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * TeamController/GameControllerのWebFlux版（ルーティングはReactiveWebConfig）
+ * 
+ * リクエスト・レスポンスの形式とエラーの扱い（GlobalExceptionHandler相当）はサーブレット版と同じ。
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveApiHandler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveApiHandler.class);
+    
+    private final ReactiveTeamService teamService;
+    private final ReactiveGameService gameService;
+    private final Validator validator;
+    
+    public ReactiveApiHandler(ReactiveTeamService teamService, ReactiveGameService gameService, Validator validator) {
+        this.teamService = teamService;
+        this.gameService = gameService;
+        this.validator = validator;
+    }
+    
+    /**
+     * API①: チームスペース作成
+     */
+    public Mono<ServerResponse> organizeTeam(ServerRequest request) {
+        return body(request, OrganizeTeamRequest.class, (tokenUserId, body) -> {
+            MatchingRules.requireBodyUser(tokenUserId, body.getUserId());
+            return teamService.organizeTeam(body.getUserId())
+                .flatMap(response -> ServerResponse.status(HttpStatus.CREATED).bodyValue(response));
+        });
+    }
+    
+    /**
+     * API②: チーム参加
+     */
+    public Mono<ServerResponse> joinTeam(ServerRequest request) {
+        return body(request, JoinTeamRequest.class, (tokenUserId, body) -> {
+            MatchingRules.requireBodyUser(tokenUserId, body.getUserId());
+            return teamService.joinTeam(body.getUserId(), body.getTeamspaceId()).then(emptyOk());
+        });
+    }
+    
+    /**
+     * API③: チーム脱退
+     */
+    public Mono<ServerResponse> leaveTeam(ServerRequest request) {
+        return body(request, LeaveTeamRequest.class, (tokenUserId, body) -> {
+            MatchingRules.requireBodyUser(tokenUserId, body.getUserId());
+            return teamService.leaveTeam(body.getUserId(), body.getTeamspaceId()).then(emptyOk());
+        });
+    }
+    
+    /**
+     * API④: ゲーム開始
+     */
+    public Mono<ServerResponse> startGame(ServerRequest request) {
+        return body(request, StartGameRequest.class, (tokenUserId, body) -> {
+            MatchingRules.requireBodyUser(tokenUserId, body.getUserId());
+            return gameService.startGame(body.getUserId(), body.getTeamspaceId())
+                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+        });
+    }
+    
+    /**
+     * API⑤: 既存パーティ(ゲームプレイ中)への参加
+     */
+    public Mono<ServerResponse> joinExistingParty(ServerRequest request) {
+        return body(request, JoinExistingPartyRequest.class, (tokenUserId, body) -> {
+            MatchingRules.requireBodyUser(tokenUserId, body.getUserId());
+            return teamService.joinExistingParty(body.getUserId(), body.getTeamspaceId()).then(emptyOk());
+        });
+    }
+    
+    /**
+     * API⑥: ユーザー状態確認
+     */
+    public Mono<ServerResponse> checkUserState(ServerRequest request) {
+        return handle(() -> {
+            String userId = requiredParam(request, "userId");
+            MatchingRules.requireQueryUser(tokenUserId(request), userId);
+            return gameService.checkUserState(userId)
+                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+        });
+    }
+    
+    /**
+     * API⑦: 参加者一覧取得
+     */
+    public Mono<ServerResponse> listJoiningPartyUsers(ServerRequest request) {
+        return handle(() -> {
+            String teamspaceId = requiredParam(request, "teamspaceId");
+            String userId = requiredParam(request, "userId");
+            MatchingRules.requireQueryUser(tokenUserId(request), userId);
+            return gameService.listJoiningPartyUsers(userId, teamspaceId)
+                .flatMap(response -> ServerResponse.ok().bodyValue(response));
+        });
+    }
+    
+    /**
+     * ボディを読み取り、Bean Validationの後にhandlerを呼ぶ
+     */
+    private <T> Mono<ServerResponse> body(ServerRequest request, Class<T> type,
+                                          BiFunction<String, T, Mono<ServerResponse>> handler) {
+        return handle(() -> request.bodyToMono(type)
+            .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Request body is required")))
+            .flatMap(body -> {
+                Set<ConstraintViolation<T>> violations = validator.validate(body);
+                if (!violations.isEmpty()) {
+                    throw new BusinessException("VALIDATION_ERROR",
+                                              violations.iterator().next().getMessage(),
+                                              HttpStatus.BAD_REQUEST);
+                }
+                return handler.apply(tokenUserId(request), body);
+            }));
+    }
+    
+    private Mono<ServerResponse> handle(Supplier<Mono<ServerResponse>> handler) {
+        return Mono.defer(handler).onErrorResume(this::errorResponse);
+    }
+    
+    private Mono<ServerResponse> errorResponse(Throwable error) {
+        if (error instanceof BusinessException e) {
+            logger.error("Business exception: {}", e.getMessage());
+            return ServerResponse.status(e.getHttpStatus())
+                .bodyValue(new ErrorResponse(e.getErrorCode(), e.getMessage()));
+        }
+        logger.error("Unexpected error", error);
+        return ServerResponse.status(HttpStatus.INTERNAL_SERVER_ERROR)
+            .bodyValue(new ErrorResponse("INTERNAL_SERVER_ERROR", "An unexpected error occurred"));
+    }
+    
+    private static Mono<ServerResponse> emptyOk() {
+        return ServerResponse.ok().bodyValue(Collections.emptyMap());
+    }
+    
+    private static String tokenUserId(ServerRequest request) {
+        return (String) request.attribute("userId").orElseThrow();
+    }
+    
+    private static String requiredParam(ServerRequest request, String name) {
+        return request.queryParam(name)
+            .orElseThrow(() -> new IllegalArgumentException("Required request parameter '" + name + "' is missing"));
+    }
+}
@@ -1,10 +1,11 @@
 package com.game.matching.controller;
 
 import com.game.matching.dto.*;
-import com.game.matching.exception.BusinessException;
+import com.game.matching.service.MatchingRules;
 import com.game.matching.service.TeamService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.*;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api")
 public class TeamController {
     
@@ -32,11 +34,7 @@ public class TeamController {
         String tokenUserId = (String) httpRequest.getAttribute("userId");
         
         // トークンから取得したuserIdとrequest.bodyのuserIdが一致するかチェック
-        if (!tokenUserId.equals(request.getUserId())) {
-            throw new BusinessException("VALIDATION_ERROR", 
-                                       "Token userId does not match request userId", 
-                                       HttpStatus.BAD_REQUEST);
-        }
+        MatchingRules.requireBodyUser(tokenUserId, request.getUserId());
         
         OrganizeTeamResponse response = teamService.organizeTeam(request.getUserId());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
@@ -53,11 +51,7 @@ public class TeamController {
         String tokenUserId = (String) httpRequest.getAttribute("userId");
         
         // トークンから取得したuserIdとrequest.bodyのuserIdが一致するかチェック
-        if (!tokenUserId.equals(request.getUserId())) {
-            throw new BusinessException("VALIDATION_ERROR",
-                                       "Token userId does not match request userId",
-                                       HttpStatus.BAD_REQUEST);
-        }
+        MatchingRules.requireBodyUser(tokenUserId, request.getUserId());
         
         teamService.joinTeam(request.getUserId(), request.getTeamspaceId());
         return ResponseEntity.ok(Collections.emptyMap());
@@ -74,11 +68,7 @@ public class TeamController {
         String tokenUserId = (String) httpRequest.getAttribute("userId");
         
         // トークンから取得したuserIdとrequest.bodyのuserIdが一致するかチェック
-        if (!tokenUserId.equals(request.getUserId())) {
-            throw new BusinessException("VALIDATION_ERROR",
-                                       "Token userId does not match request userId",
-                                       HttpStatus.BAD_REQUEST);
-        }
+        MatchingRules.requireBodyUser(tokenUserId, request.getUserId());
         
         teamService.leaveTeam(request.getUserId(), request.getTeamspaceId());
         return ResponseEntity.ok(Collections.emptyMap());
@@ -95,11 +85,7 @@ public class TeamController {
         String tokenUserId = (String) httpRequest.getAttribute("userId");
         
         // トークンから取得したuserIdとrequest.bodyのuserIdが一致するかチェック
-        if (!tokenUserId.equals(request.getUserId())) {
-            throw new BusinessException("VALIDATION_ERROR",
-                                       "Token userId does not match request userId",
-                                       HttpStatus.BAD_REQUEST);
-        }
+        MatchingRules.requireBodyUser(tokenUserId, request.getUserId());
         
         teamService.joinExistingParty(request.getUserId(), request.getTeamspaceId());
         return ResponseEntity.ok(Collections.emptyMap());
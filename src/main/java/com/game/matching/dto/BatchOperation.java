@@ -0,0 +1,42 @@
+package com.game.matching.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * バッチAPIの1つの操作
+ * 
+ * apiは/api/以下のパス（organize_team、join_team、leave_team、start_game、join_existing_party、
+ * check_user_state、list_joining_party_users）。userId・teamspaceIdは個別のAPIの本文・クエリパラメータと同じ。
+ */
+public class BatchOperation {
+    @NotBlank(message = "api is required")
+    private String api;
+    
+    private String userId;
+    
+    private String teamspaceId;
+    
+    public String getApi() {
+        return api;
+    }
+    
+    public void setApi(String api) {
+        this.api = api;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+    
+    public String getTeamspaceId() {
+        return teamspaceId;
+    }
+    
+    public void setTeamspaceId(String teamspaceId) {
+        this.teamspaceId = teamspaceId;
+    }
+}
@@ -0,0 +1,35 @@
+package com.game.matching.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchRequest {
+    public static final int MAX_OPERATIONS = 10;
+    
+    @NotEmpty(message = "operations is required")
+    @Size(max = MAX_OPERATIONS, message = "operations must be 10 or less")
+    private List<@Valid @NotNull(message = "operation must not be null") BatchOperation> operations;
+    
+    // falseの場合は最初に失敗した操作で止め、以降の操作は実行しない
+    private boolean continueOnError;
+    
+    public List<BatchOperation> getOperations() {
+        return operations;
+    }
+    
+    public void setOperations(List<BatchOperation> operations) {
+        this.operations = operations;
+    }
+    
+    public boolean isContinueOnError() {
+        return continueOnError;
+    }
+    
+    public void setContinueOnError(boolean continueOnError) {
+        this.continueOnError = continueOnError;
+    }
+}
@@ -0,0 +1,27 @@
+package com.game.matching.dto;
+
+import java.util.List;
+
+/**
+ * バッチAPIのレスポンス
+ * 
+ * resultsは実行した操作の結果（リクエストの順）。途中で止めた場合は以降の操作の結果を含まない。
+ */
+public class BatchResponse {
+    private List<BatchResult> results;
+    
+    public BatchResponse() {
+    }
+    
+    public BatchResponse(List<BatchResult> results) {
+        this.results = results;
+    }
+    
+    public List<BatchResult> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<BatchResult> results) {
+        this.results = results;
+    }
+}
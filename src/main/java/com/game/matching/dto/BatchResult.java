@@ -0,0 +1,52 @@
+package com.game.matching.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * バッチAPIの1つの操作の結果
+ * 
+ * statusとbodyは個別のAPIを呼び出した場合のHTTPステータスとレスポンス本文（失敗時はErrorResponse）と同じ。
+ */
+public class BatchResult {
+    private String api;
+    private int status;
+    private Object body;
+    
+    public BatchResult() {
+    }
+    
+    public BatchResult(String api, int status, Object body) {
+        this.api = api;
+        this.status = status;
+        this.body = body;
+    }
+    
+    @JsonIgnore
+    public boolean isSuccess() {
+        return status < 400;
+    }
+    
+    public String getApi() {
+        return api;
+    }
+    
+    public void setApi(String api) {
+        this.api = api;
+    }
+    
+    public int getStatus() {
+        return status;
+    }
+    
+    public void setStatus(int status) {
+        this.status = status;
+    }
+    
+    public Object getBody() {
+        return body;
+    }
+    
+    public void setBody(Object body) {
+        this.body = body;
+    }
+}
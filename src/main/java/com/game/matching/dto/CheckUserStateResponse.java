@@ -24,6 +24,13 @@ public class CheckUserStateResponse {
         this.partyId = partyId != null ? partyId : "";
     }
     
+    /**
+     * 同じ内容の別のインスタンス（呼び出し元ごとに渡す）
+     */
+    public CheckUserStateResponse copy() {
+        return new CheckUserStateResponse(organizingParty, joiningAnotherParty, nowGamePlaying, teamspaceId, partyId);
+    }
+    
     public boolean isOrganizingParty() {
         return organizingParty;
     }
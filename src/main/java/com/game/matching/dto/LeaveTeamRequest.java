@@ -1,13 +1,12 @@
 package com.game.matching.dto;
 
+import com.game.matching.id.ValidUuid;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
 public class LeaveTeamRequest {
     @NotBlank(message = "teamspaceId is required")
-    @Pattern(regexp = "^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$", 
-             message = "teamspaceId must be a valid UUID")
+    @ValidUuid(message = "teamspaceId must be a valid UUID")
     private String teamspaceId;
     
     @NotBlank(message = "userId is required")
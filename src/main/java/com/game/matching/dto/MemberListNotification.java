@@ -0,0 +1,15 @@
+package com.game.matching.dto;
+
+import java.util.List;
+
+/**
+ * メンバーリストの更新の通知（API②③⑤）
+ */
+public record MemberListNotification(String type, List<String> userIds) implements Notification {
+    
+    public static final String TYPE = "memberList";
+    
+    public MemberListNotification(List<String> userIds) {
+        this(TYPE, List.copyOf(userIds));
+    }
+}
@@ -0,0 +1,9 @@
+package com.game.matching.dto;
+
+/**
+ * WebSocketの通知（typeで種類を区別する）
+ */
+public sealed interface Notification permits MemberListNotification, PartyIdNotification, ReconnectNotification {
+    
+    String type();
+}
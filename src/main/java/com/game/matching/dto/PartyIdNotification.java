@@ -0,0 +1,13 @@
+package com.game.matching.dto;
+
+/**
+ * ゲーム開始の通知（API④、主催者以外のメンバーへ）
+ */
+public record PartyIdNotification(String type, String partyId) implements Notification {
+    
+    public static final String TYPE = "partyId";
+    
+    public PartyIdNotification(String partyId) {
+        this(TYPE, partyId);
+    }
+}
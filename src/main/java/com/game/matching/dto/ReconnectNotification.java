@@ -0,0 +1,16 @@
+package com.game.matching.dto;
+
+/**
+ * 再接続の依頼（インスタンスの停止前に全セッションへ）
+ * 
+ * クライアントはdelayMs後に再接続し、API⑥にresumeTokenをX-Resume-Tokenヘッダーで付ける。
+ * resumeTokenは共有の署名鍵（matching.drain.resume-token-secret）が未設定の場合はnull。
+ */
+public record ReconnectNotification(String type, long delayMs, String resumeToken) implements Notification {
+    
+    public static final String TYPE = "reconnect";
+    
+    public ReconnectNotification(long delayMs, String resumeToken) {
+        this(TYPE, delayMs, resumeToken);
+    }
+}
@@ -1,6 +1,7 @@
 package com.game.matching.filter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.game.matching.dto.ErrorResponse;
 import com.game.matching.service.CognitoAuthService;
 import jakarta.servlet.FilterChain;
@@ -9,6 +10,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
@@ -17,16 +19,17 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AuthFilter extends OncePerRequestFilter {
     
     private static final Logger logger = LoggerFactory.getLogger(AuthFilter.class);
     
     private final CognitoAuthService cognitoAuthService;
-    private final ObjectMapper objectMapper;
+    private final ObjectWriter errorResponseWriter;
     
-    public AuthFilter(CognitoAuthService cognitoAuthService) {
+    public AuthFilter(CognitoAuthService cognitoAuthService, ObjectMapper objectMapper) {
         this.cognitoAuthService = cognitoAuthService;
-        this.objectMapper = new ObjectMapper();
+        this.errorResponseWriter = objectMapper.writerFor(ErrorResponse.class);
     }
     
     @Override
@@ -73,7 +76,7 @@ public class AuthFilter extends OncePerRequestFilter {
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
         
         ErrorResponse errorResponse = new ErrorResponse(errorCode, message);
-        objectMapper.writeValue(response.getWriter(), errorResponse);
+        errorResponseWriter.writeValue(response.getWriter(), errorResponse);
     }
 }
 
@@ -0,0 +1,341 @@
+package com.game.matching.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.game.matching.concurrent.SingleFlight;
+import com.game.matching.dto.ErrorResponse;
+import com.game.matching.logging.Api;
+import com.game.matching.repository.IdempotencyRepository;
+import com.game.matching.repository.IdempotencyRepository.Claim;
+import com.game.matching.repository.IdempotencyRepository.IdempotencyRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Keyヘッダー付きの更新API（①〜⑤とバッチAPI）の再送を1回の実行にまとめる
+ * 
+ * userId・API・キーごとに最初の成功レスポンスをRedisに保存し、再送にはサービスを実行せずに同じレスポンスを返す
+ * （Idempotent-Replayed: true）。同じキーの同時のリクエストは最初のリクエストが終わるまで待たせる
+ * （同じインスタンス内はSingleFlight、他のインスタンスとはRedisの処理中の記録）。
+ * 同じキーで本文の異なるリクエストは422、待ち時間を超えても処理中の場合は409を返す。
+ * バッチAPIは一部の操作が失敗しても200のため、失敗した操作を含めた結果全体を再送に返す。
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class IdempotencyFilter extends OncePerRequestFilter {
+    
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final String METRIC_NAME = "matching.idempotency.requests";
+    static final int MAX_KEY_LENGTH = 128;
+    
+    private static final String PATH_PREFIX = "/api/";
+    private static final Set<Api> MUTATING_APIS = EnumSet.of(
+        Api.ORGANIZE_TEAM, Api.JOIN_TEAM, Api.LEAVE_TEAM, Api.START_GAME, Api.JOIN_EXISTING_PARTY, Api.BATCH);
+    private static final long POLL_INTERVAL_MILLIS = 20;
+    
+    /**
+     * 実行・再送の結果（メトリクスのタグ）
+     */
+    enum Result {
+        EXECUTED, REPLAYED, MISMATCH, IN_PROGRESS
+    }
+    
+    private final IdempotencyRepository repository;
+    private final long waitNanos;
+    private final ObjectWriter errorResponseWriter;
+    private final SingleFlight<String, StoredResponse> inFlight = new SingleFlight<>();
+    private final Counter[] results;
+    
+    public IdempotencyFilter(IdempotencyRepository repository, MeterRegistry registry, ObjectMapper objectMapper,
+                             @Value("${matching.idempotency.wait-ms:5000}") long waitMillis) {
+        this.repository = repository;
+        this.errorResponseWriter = objectMapper.writerFor(ErrorResponse.class);
+        this.waitNanos = TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        this.results = new Counter[Result.values().length];
+        for (Result result : Result.values()) {
+            results[result.ordinal()] = Counter.builder(METRIC_NAME)
+                .description("Idempotency-Key付きのリクエストの数")
+                .tag("result", result.name().toLowerCase())
+                .register(registry);
+        }
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Api api = resolveApi(request.getRequestURI());
+        String idempotencyKey = request.getHeader(HEADER);
+        String userId = (String) request.getAttribute("userId");
+        if (api == null || !MUTATING_APIS.contains(api) || idempotencyKey == null || userId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            write(response, error(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR",
+                                  "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters"), false);
+            return;
+        }
+        
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request, request.getInputStream().readAllBytes());
+        String requestHash = sha256(cachedRequest.body);
+        String key = userId + ":" + api.getPath() + ":" + idempotencyKey;
+        
+        // 同じインスタンス内の同時の再送は実行中のリクエストの結果を共有する
+        boolean[] executing = {false};
+        StoredResponse stored = unwrap(() -> inFlight.load(key + ":" + requestHash, () -> {
+            executing[0] = true;
+            return executeOnce(key, requestHash, cachedRequest, response, filterChain);
+        }));
+        if (executing[0]) {
+            write(response, stored, stored.replayed());
+            return;
+        }
+        if (stored.isStored()) {
+            results[Result.REPLAYED.ordinal()].increment();
+            write(response, stored, true);
+            return;
+        }
+        // 保存されなかった失敗（409・422・5xxなど）は共有せず、このリクエストとしてもう一度処理する
+        stored = unwrap(() -> executeOnce(key, requestHash, cachedRequest, response, filterChain));
+        write(response, stored, stored.replayed());
+    }
+    
+    private static StoredResponse unwrap(Supplier<StoredResponse> call) throws ServletException, IOException {
+        try {
+            return call.get();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (ChainException e) {
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * 処理中の記録を作れたら実行し、既に記録があれば完了を待って保存済みのレスポンスを返す
+     */
+    private StoredResponse executeOnce(String key, String requestHash, HttpServletRequest request,
+                                       HttpServletResponse response, FilterChain filterChain) {
+        long deadline = System.nanoTime() + waitNanos;
+        while (true) {
+            Claim claim = repository.claim(key, requestHash);
+            if (claim.acquired()) {
+                return execute(key, claim.owner(), requestHash, request, response, filterChain);
+            }
+            IdempotencyRecord existing = claim.existing();
+            if (!existing.requestHash().equals(requestHash)) {
+                results[Result.MISMATCH.ordinal()].increment();
+                return error(HttpStatus.UNPROCESSABLE_ENTITY, "IDEMPOTENCY_KEY_REUSED",
+                             "Idempotency-Key was already used with a different request");
+            }
+            if (existing.completed()) {
+                results[Result.REPLAYED.ordinal()].increment();
+                return new StoredResponse(existing.status(), existing.contentType(),
+                                          existing.body().getBytes(StandardCharsets.UTF_8), true);
+            }
+            if (System.nanoTime() - deadline > 0 || !sleep()) {
+                results[Result.IN_PROGRESS.ordinal()].increment();
+                return error(HttpStatus.CONFLICT, "IDEMPOTENCY_KEY_IN_PROGRESS",
+                             "A request with the same Idempotency-Key is still in progress");
+            }
+        }
+    }
+    
+    /**
+     * 後続のフィルター・コントローラーを実行し、成功（2xx）したレスポンスだけを保存する
+     */
+    private StoredResponse execute(String key, String owner, String requestHash, HttpServletRequest request,
+                                   HttpServletResponse response, FilterChain filterChain) {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            int status = responseWrapper.getStatus();
+            String contentType = responseWrapper.getContentType();
+            byte[] body = responseWrapper.getContentAsByteArray();
+            if (status >= 200 && status < 300) {
+                repository.complete(key, owner, IdempotencyRecord.completed(requestHash, status, contentType,
+                                                                            new String(body, StandardCharsets.UTF_8)));
+                stored = true;
+            }
+            results[Result.EXECUTED.ordinal()].increment();
+            return new StoredResponse(status, contentType, body, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ServletException e) {
+            throw new ChainException(e);
+        } finally {
+            if (!stored) {
+                repository.release(key, owner);
+            }
+        }
+    }
+    
+    private static boolean sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private StoredResponse error(HttpStatus status, String errorCode, String message) {
+        try {
+            byte[] body = errorResponseWriter.writeValueAsBytes(new ErrorResponse(errorCode, message));
+            return new StoredResponse(status.value(), MediaType.APPLICATION_JSON_VALUE, body, false);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize error response", e);
+        }
+    }
+    
+    private static void write(HttpServletResponse response, StoredResponse stored, boolean replayed)
+            throws IOException {
+        // 後続の処理がsendErrorで確定させたレスポンス（405など）はそのまま返す
+        if (response.isCommitted()) {
+            return;
+        }
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (replayed) {
+            response.setHeader(REPLAYED_HEADER, "true");
+        }
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+    
+    static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static Api resolveApi(String uri) {
+        if (uri == null || !uri.startsWith(PATH_PREFIX)) {
+            return null;
+        }
+        return Api.fromPath(uri.substring(PATH_PREFIX.length()));
+    }
+    
+    /**
+     * 返すレスポンス（replayedは保存済みのレスポンスを返す場合）
+     */
+    record StoredResponse(int status, String contentType, byte[] body, boolean replayed) {
+        
+        /**
+         * Redisに保存済みの成功（2xx）レスポンスか（実行して保存したものと、保存済みの再送）
+         */
+        boolean isStored() {
+            return status >= 200 && status < 300;
+        }
+    }
+    
+    /**
+     * SingleFlightを通すためにServletExceptionを包む
+     */
+    private static final class ChainException extends RuntimeException {
+        
+        ChainException(ServletException cause) {
+            super(cause);
+        }
+        
+        @Override
+        public synchronized ServletException getCause() {
+            return (ServletException) super.getCause();
+        }
+    }
+    
+    /**
+     * ハッシュのために読んだ本文を、コントローラーでもう一度読めるようにする
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        
+        private final byte[] body;
+        
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // 本文は読み込み済みのため、すぐに読める状態と読み終わりを通知する
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+                
+                @Override
+                public int read() {
+                    return input.read();
+                }
+                
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.game.matching.filter;
+
+import com.game.matching.logging.Api;
+import com.game.matching.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * API①〜⑦のレート制限
+ * 
+ * IPアドレス単位はJWT検証の前（AuthFilterより先）、userId単位はAuthFilterの後に実行する。
+ * 制限した呼び出しにはRetry-Afterヘッダー付きの429を返す（本文は事前にシリアライズしたもの）。
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    public static final String METRIC_NAME = "matching.rate-limit.rejected";
+    
+    private static final String PATH_PREFIX = "/api/";
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final byte[] RATE_LIMITED_BODY =
+        "{\"error\":\"RATE_LIMITED\",\"message\":\"Too many requests\"}".getBytes(StandardCharsets.UTF_8);
+    
+    /**
+     * 制限の単位
+     */
+    public enum Scope {
+        IP, USER
+    }
+    
+    private final Scope scope;
+    private final RateLimiter rateLimiter;
+    private final Counter[] rejected;
+    
+    public RateLimitFilter(Scope scope, RateLimiter rateLimiter, MeterRegistry registry) {
+        this.scope = scope;
+        this.rateLimiter = rateLimiter;
+        Api[] apis = Api.values();
+        this.rejected = new Counter[apis.length];
+        for (Api api : apis) {
+            rejected[api.ordinal()] = Counter.builder(METRIC_NAME)
+                .description("レート制限で429を返した呼び出しの数")
+                .tag("scope", scope.name().toLowerCase())
+                .tag("api", api.getPath())
+                .register(registry);
+        }
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Api api = resolveApi(request.getRequestURI());
+        String key = api == null ? null : resolveKey(request);
+        if (key == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        long waitNanos = rateLimiter.acquire(api, key);
+        if (waitNanos <= 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        rejected[api.ordinal()].increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setIntHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds(waitNanos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(RATE_LIMITED_BODY.length);
+        response.getOutputStream().write(RATE_LIMITED_BODY);
+    }
+    
+    /**
+     * IPアドレスはgetRemoteAddr（ロードバランサー配下ではserver.forward-headers-strategyで解決した値）
+     */
+    private String resolveKey(HttpServletRequest request) {
+        if (scope == Scope.IP) {
+            return request.getRemoteAddr();
+        }
+        return (String) request.getAttribute("userId");
+    }
+    
+    static int retryAfterSeconds(long waitNanos) {
+        return (int) Math.max(1L, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+    }
+    
+    private static Api resolveApi(String uri) {
+        if (uri == null || !uri.startsWith(PATH_PREFIX)) {
+            return null;
+        }
+        return Api.fromPath(uri.substring(PATH_PREFIX.length()));
+    }
+}
@@ -0,0 +1,98 @@
+package com.game.matching.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.game.matching.dto.ErrorResponse;
+import com.game.matching.service.CognitoAuthService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * AuthFilterのWebFlux版（/api/** のみ対象）
+ * 
+ * 検証済みのuserIdはexchangeの属性"userId"に設定する。トークンの検証はJWKSの取得で
+ * ブロックする場合があるため、イベントループではなくboundedElasticで行う。
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthFilter implements WebFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveAuthFilter.class);
+    
+    private final CognitoAuthService cognitoAuthService;
+    private final ObjectWriter errorResponseWriter;
+    
+    public ReactiveAuthFilter(CognitoAuthService cognitoAuthService, ObjectMapper objectMapper) {
+        this.cognitoAuthService = cognitoAuthService;
+        this.errorResponseWriter = objectMapper.writerFor(ErrorResponse.class);
+    }
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().value().startsWith("/api/")) {
+            return chain.filter(exchange);
+        }
+        
+        // 開発用バイパス: AUTH_BYPASS=true の場合はJWT検証をスキップ
+        String authBypass = System.getenv("AUTH_BYPASS");
+        if ("true".equalsIgnoreCase(authBypass)) {
+            String debugUserId = exchange.getRequest().getHeaders().getFirst("X-Debug-UserId");
+            if (debugUserId == null || debugUserId.trim().isEmpty()) {
+                debugUserId = "local-user";
+            }
+            exchange.getAttributes().put("userId", debugUserId);
+            exchange.getAttributes().put("token", "bypassed");
+            return chain.filter(exchange);
+        }
+        
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return sendErrorResponse(exchange.getResponse(), "Authorization header is required");
+        }
+        
+        String token = authHeader.substring(7);
+        
+        return Mono.fromCallable(() -> cognitoAuthService.extractUserId(token))
+            .subscribeOn(Schedulers.boundedElastic())
+            .onErrorResume(e -> {
+                logger.error("Authentication failed: {}", e.getMessage());
+                return Mono.empty();
+            })
+            .flatMap(userId -> {
+                exchange.getAttributes().put("userId", userId);
+                exchange.getAttributes().put("token", token);
+                return chain.filter(exchange).thenReturn(true);
+            })
+            .switchIfEmpty(Mono.defer(() -> sendErrorResponse(exchange.getResponse(), "Invalid or expired token")
+                .thenReturn(false)))
+            .then();
+    }
+    
+    private Mono<Void> sendErrorResponse(ServerHttpResponse response, String message) {
+        byte[] body;
+        try {
+            body = errorResponseWriter.writeValueAsBytes(new ErrorResponse("AUTHORIZATION_FAILED", message));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
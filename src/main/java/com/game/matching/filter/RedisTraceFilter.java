@@ -0,0 +1,48 @@
+package com.game.matching.filter;
+
+import com.game.matching.metrics.RedisCallTrace;
+import com.game.matching.metrics.RedisCallTracker;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * リクエストごとにRedisコマンドの件数・バイト数・時間を集計するフィルター
+ * 
+ * 処理時間が閾値を超えたリクエストは、集計値と発行したコマンドの一覧をWARNのメッセージに含めて出力する
+ * （ログのパターンに依存せず、どの出力先でも値が残るようにMDCではなく本文に書く）。
+ */
+public class RedisTraceFilter extends OncePerRequestFilter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RedisTraceFilter.class);
+    
+    private final long slowRequestNanos;
+    
+    public RedisTraceFilter(long slowRequestMillis) {
+        this.slowRequestNanos = slowRequestMillis * 1_000_000L;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long startNanos = System.nanoTime();
+        RedisCallTrace trace = RedisCallTracker.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RedisCallTracker.end();
+            long elapsedNanos = System.nanoTime() - startNanos;
+            if (elapsedNanos >= slowRequestNanos) {
+                logger.warn("Slow request - {} {} took {}ms, redis: {} [{}]",
+                            request.getMethod(), request.getRequestURI(), elapsedNanos / 1_000_000,
+                            trace.summary(), trace.describeCommands());
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.game.matching.filter;
+
+import com.game.matching.metrics.RedisCallTrace;
+import com.game.matching.metrics.RedisCallTracker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * RedisTraceFilterの集計値をデバッグ用のレスポンスヘッダーで返す
+ * 
+ * ボディを書き出す直前に付与するため、値にはレスポンスのシリアライズ前までのコマンドが含まれる。
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RedisTraceResponseAdvice implements ResponseBodyAdvice<Object> {
+    
+    public static final String HEADER_NAME = "X-Redis-Trace";
+    
+    private final boolean headerEnabled;
+    
+    public RedisTraceResponseAdvice(@Value("${matching.redis-trace.header-enabled:false}") boolean headerEnabled) {
+        this.headerEnabled = headerEnabled;
+    }
+    
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return headerEnabled;
+    }
+    
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RedisCallTrace trace = RedisCallTracker.current();
+        if (trace != null) {
+            response.getHeaders().set(HEADER_NAME, trace.summary());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,141 @@
+package com.game.matching.id;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * teamspaceId・partyIdの128ビットの値（上位64ビットと下位64ビット）
+ * 
+ * REST・JSON・Redisのキーでは従来どおり小文字の36文字（8-4-4-4-12）の文字列を使い、
+ * 保存する値の中では16バイトで書く（writeTo/readFrom）。
+ * 文字列の検証（isValid）と変換（parse）は正規表現を使わず、割り当てなしで1文字ずつ読む。
+ */
+public record BinaryUuid(long mostSignificantBits, long leastSignificantBits) {
+    
+    /** 文字列の長さ */
+    public static final int LENGTH = 36;
+    
+    /** バイト列の長さ */
+    public static final int BYTES = 16;
+    
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    // 小文字の16進数字 -> 値（それ以外は-1）
+    private static final byte[] HEX_VALUES = new byte[128];
+    
+    static {
+        Arrays.fill(HEX_VALUES, (byte) -1);
+        for (int i = 0; i < HEX_DIGITS.length; i++) {
+            HEX_VALUES[HEX_DIGITS[i]] = (byte) i;
+        }
+    }
+    
+    /**
+     * 小文字の36文字の形式か（従来の^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$と同じ判定）
+     */
+    public static boolean isValid(CharSequence value) {
+        if (value == null || value.length() != LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            char c = value.charAt(i);
+            if (isHyphenPosition(i)) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (hexValue(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 36文字の文字列から変換する
+     * 
+     * @throws IllegalArgumentException 形式が正しくない場合
+     */
+    public static BinaryUuid parse(CharSequence value) {
+        if (!isValid(value)) {
+            throw new IllegalArgumentException("Invalid UUID: " + value);
+        }
+        return new BinaryUuid(parseHex(value, 0, 18), parseHex(value, 19, 36));
+    }
+    
+    public static BinaryUuid fromBytes(byte[] bytes) {
+        if (bytes.length != BYTES) {
+            throw new IllegalArgumentException("UUID must be " + BYTES + " bytes: " + bytes.length);
+        }
+        return readFrom(ByteBuffer.wrap(bytes));
+    }
+    
+    public static BinaryUuid readFrom(ByteBuffer buffer) {
+        return new BinaryUuid(buffer.getLong(), buffer.getLong());
+    }
+    
+    public static BinaryUuid of(UUID uuid) {
+        return new BinaryUuid(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+    
+    public void writeTo(ByteBuffer buffer) {
+        buffer.putLong(mostSignificantBits).putLong(leastSignificantBits);
+    }
+    
+    public byte[] toBytes() {
+        byte[] bytes = new byte[BYTES];
+        writeTo(ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+    
+    public UUID toUuid() {
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+    
+    /**
+     * バージョン（4: ランダム、7: 時刻順）
+     */
+    public int version() {
+        return (int) (mostSignificantBits >>> 12) & 0xf;
+    }
+    
+    /**
+     * 小文字の36文字の形式
+     */
+    @Override
+    public String toString() {
+        char[] chars = new char[LENGTH];
+        formatHex(mostSignificantBits, chars, 0, 18);
+        chars[18] = '-';
+        formatHex(leastSignificantBits, chars, 19, 36);
+        return new String(chars);
+    }
+    
+    private static boolean isHyphenPosition(int index) {
+        return index == 8 || index == 13 || index == 18 || index == 23;
+    }
+    
+    private static int hexValue(char c) {
+        return c < HEX_VALUES.length ? HEX_VALUES[c] : -1;
+    }
+    
+    private static long parseHex(CharSequence value, int from, int to) {
+        long bits = 0;
+        for (int i = from; i < to; i++) {
+            if (!isHyphenPosition(i)) {
+                bits = (bits << 4) | hexValue(value.charAt(i));
+            }
+        }
+        return bits;
+    }
+    
+    private static void formatHex(long bits, char[] out, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (isHyphenPosition(i)) {
+                out[i] = '-';
+            } else {
+                out[i] = HEX_DIGITS[(int) bits & 0xf];
+                bits >>>= 4;
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.game.matching.id;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * 時刻順のUUID（バージョン7、RFC 9562）の生成
+ * 
+ * 上位48ビットがエポックミリ秒、残りがランダム（74ビット）。乱数はプロセスで1つのSecureRandom（DRBG、
+ * スレッドセーフ）から1回の呼び出しでまとめて取る。スレッドごとにSecureRandomを持つと、仮想スレッドでは
+ * リクエストごとに生成・シードすることになるため持たない。
+ * teamspaceIdは知っていれば参加できるIDのため、推測できる乱数（ThreadLocalRandomなど）は使わない。
+ */
+public final class UuidV7 {
+    
+    private static final long VERSION = 7L << 12;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    // rand_a（12ビット）とrand_b（62ビット）を取り出すバイト数
+    private static final int RANDOM_BYTES = 10;
+    private static final SecureRandom RANDOM = newRandom();
+    
+    private UuidV7() {
+    }
+    
+    public static BinaryUuid next() {
+        return next(System.currentTimeMillis());
+    }
+    
+    static BinaryUuid next(long epochMillis) {
+        byte[] random = new byte[RANDOM_BYTES];
+        RANDOM.nextBytes(random);
+        long randA = ((random[0] & 0xffL) << 8 | (random[1] & 0xffL)) & 0xfff;
+        long randB = 0;
+        for (int i = 2; i < RANDOM_BYTES; i++) {
+            randB = randB << 8 | (random[i] & 0xffL);
+        }
+        long mostSignificantBits = (epochMillis << 16) | VERSION | randA;
+        long leastSignificantBits = VARIANT | (randB >>> 2);
+        return new BinaryUuid(mostSignificantBits, leastSignificantBits);
+    }
+    
+    /**
+     * 文字列のid（REST・Redisのキーで使う形式）
+     */
+    public static String nextString() {
+        return next().toString();
+    }
+    
+    /**
+     * UUIDv7に含まれるエポックミリ秒
+     */
+    public static long epochMillis(BinaryUuid uuid) {
+        return uuid.mostSignificantBits() >>> 16;
+    }
+    
+    private static SecureRandom newRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+}
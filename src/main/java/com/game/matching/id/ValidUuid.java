@@ -0,0 +1,38 @@
+package com.game.matching.id;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 小文字の36文字のUUIDか（BinaryUuid.isValid）
+ * 
+ * 正規表現の@Patternと同じ判定。nullは対象外（@NotBlankと組み合わせる）。
+ */
+@Documented
+@Constraint(validatedBy = ValidUuid.Validator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidUuid {
+    
+    String message() default "must be a valid UUID";
+    
+    Class<?>[] groups() default {};
+    
+    Class<? extends Payload>[] payload() default {};
+    
+    class Validator implements ConstraintValidator<ValidUuid, CharSequence> {
+        
+        @Override
+        public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+            return value == null || BinaryUuid.isValid(value);
+        }
+    }
+}
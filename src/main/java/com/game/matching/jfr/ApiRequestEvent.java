@@ -0,0 +1,23 @@
+package com.game.matching.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * API①〜⑦の1リクエスト（JfrRecordingAnalyzerが内側のイベントをこの区間に割り当てる）
+ */
+@Name(MatchingEvents.PREFIX + "ApiRequest")
+@Label("API Request")
+@Category({"Matching", "API"})
+@StackTrace(false)
+public class ApiRequestEvent extends Event {
+    
+    @Label("API")
+    public String api;
+    
+    @Label("HTTP Status")
+    public int status;
+}
@@ -0,0 +1,25 @@
+package com.game.matching.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 構造化ログ1バッチのエンコードと書き出し
+ */
+@Name(MatchingEvents.PREFIX + "EventLogEncode")
+@Label("Event Log Encode")
+@Category({"Matching", "Logging"})
+@StackTrace(false)
+public class EventLogEncodeEvent extends Event {
+    
+    @Label("Events")
+    public int events;
+    
+    @Label("Size")
+    @DataAmount
+    public int bytes;
+}
@@ -0,0 +1,229 @@
+package com.game.matching.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JFRの記録をAPIごとのレイテンシ内訳に集計する
+ * 
+ * <pre>
+ * ./gradlew jfrSummary --args="/path/to/recording.jfr"
+ * </pre>
+ * 
+ * ApiRequestイベントと同じスレッドで、その区間内に記録されたイベントをそのAPIの処理ステップとみなす。
+ * 別スレッドで実行された処理（teamspace単位の直列実行モードのストライプ、構造化ログの書き出しなど）は
+ * 「API外」として別に集計する。
+ */
+public final class JfrRecordingAnalyzer {
+    
+    private static final String API_REQUEST = MatchingEvents.PREFIX + "ApiRequest";
+    
+    private JfrRecordingAnalyzer() {
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: JfrRecordingAnalyzer <recording.jfr>");
+            System.exit(2);
+        }
+        System.out.print(analyze(Path.of(args[0])).format());
+    }
+    
+    public static Report analyze(Path recording) throws IOException {
+        List<Span> requests = new ArrayList<>();
+        List<Span> steps = new ArrayList<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String name = event.getEventType().getName();
+                if (!name.startsWith(MatchingEvents.PREFIX)) {
+                    continue;
+                }
+                RecordedThread thread = event.getThread();
+                long threadId = thread == null ? -1 : thread.getJavaThreadId();
+                String label = name.substring(MatchingEvents.PREFIX.length());
+                Span span = new Span(threadId, nanos(event.getStartTime()), nanos(event.getEndTime()),
+                                     API_REQUEST.equals(name) ? event.getString("api") : label);
+                if (API_REQUEST.equals(name)) {
+                    requests.add(span);
+                } else {
+                    steps.add(span);
+                }
+            }
+        }
+        
+        // スレッドごとに開始時刻順で並べ、ステップを囲むリクエストを二分探索で探す
+        Map<Long, List<Span>> requestsByThread = new HashMap<>();
+        for (Span request : requests) {
+            requestsByThread.computeIfAbsent(request.threadId, k -> new ArrayList<>()).add(request);
+        }
+        requestsByThread.values().forEach(list -> list.sort(Comparator.comparingLong(Span::start)));
+        
+        Map<String, ApiBreakdown> apis = new TreeMap<>();
+        Map<Span, ApiBreakdown> byRequest = new IdentityHashMap<>();
+        for (Span request : requests) {
+            ApiBreakdown breakdown = apis.computeIfAbsent(request.name, ApiBreakdown::new);
+            breakdown.addRequest(request.duration());
+            byRequest.put(request, breakdown);
+        }
+        
+        Map<String, StepStats> unattributed = new TreeMap<>();
+        for (Span step : steps) {
+            Span request = enclosing(requestsByThread.get(step.threadId), step);
+            if (request == null) {
+                unattributed.computeIfAbsent(step.name, k -> new StepStats()).add(step.duration());
+            } else {
+                byRequest.get(request).addStep(step.name, step.duration());
+            }
+        }
+        return new Report(apis, unattributed);
+    }
+    
+    private static Span enclosing(List<Span> requests, Span step) {
+        if (requests == null) {
+            return null;
+        }
+        int low = 0;
+        int high = requests.size() - 1;
+        int candidate = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (requests.get(mid).start <= step.start) {
+                candidate = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (candidate < 0) {
+            return null;
+        }
+        Span request = requests.get(candidate);
+        return step.end <= request.end ? request : null;
+    }
+    
+    private static long nanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+    
+    private record Span(long threadId, long start, long end, String name) {
+        long duration() {
+            return end - start;
+        }
+    }
+    
+    /**
+     * 処理ステップ（イベント種別）ごとの回数と合計時間
+     */
+    public static final class StepStats {
+        private long count;
+        private long totalNanos;
+        
+        void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+        }
+        
+        public long getCount() {
+            return count;
+        }
+        
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+    }
+    
+    /**
+     * 1つのAPIのリクエスト数・レイテンシ分布・ステップ別の内訳
+     */
+    public static final class ApiBreakdown {
+        private final String api;
+        private long[] latencies = new long[64];
+        private int count;
+        private long totalNanos;
+        private final Map<String, StepStats> steps = new TreeMap<>();
+        
+        ApiBreakdown(String api) {
+            this.api = api;
+        }
+        
+        void addRequest(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            totalNanos += nanos;
+        }
+        
+        void addStep(String step, long nanos) {
+            steps.computeIfAbsent(step, k -> new StepStats()).add(nanos);
+        }
+        
+        public int getCount() {
+            return count;
+        }
+        
+        public Map<String, StepStats> getSteps() {
+            return steps;
+        }
+        
+        /**
+         * レイテンシのパーセンタイル（ナノ秒、nearest-rank）
+         */
+        public long percentileNanos(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100.0 * count);
+            return sorted[Math.max(0, Math.min(count - 1, rank - 1))];
+        }
+    }
+    
+    public record Report(Map<String, ApiBreakdown> apis, Map<String, StepStats> unattributed) {
+        
+        public String format() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%-28s %8s %10s %10s %10s%n", "API", "count", "p50(ms)", "p95(ms)", "p99(ms)"));
+            for (ApiBreakdown api : apis.values()) {
+                sb.append(String.format("%-28s %8d %10.3f %10.3f %10.3f%n", api.api, api.count,
+                                        millis(api.percentileNanos(50)), millis(api.percentileNanos(95)),
+                                        millis(api.percentileNanos(99))));
+                for (Map.Entry<String, StepStats> entry : api.steps.entrySet()) {
+                    StepStats step = entry.getValue();
+                    sb.append(String.format("  %-26s %6.2f calls/req %10.3f ms/req %6.1f%%%n", entry.getKey(),
+                                            (double) step.count / api.count,
+                                            millis(step.totalNanos) / api.count,
+                                            api.totalNanos == 0 ? 0.0 : 100.0 * step.totalNanos / api.totalNanos));
+                }
+            }
+            if (!unattributed.isEmpty()) {
+                sb.append(String.format("%nOutside API requests%n"));
+                for (Map.Entry<String, StepStats> entry : unattributed.entrySet()) {
+                    StepStats step = entry.getValue();
+                    sb.append(String.format("  %-26s %8d events %10.3f ms total%n", entry.getKey(),
+                                            step.count, millis(step.totalNanos)));
+                }
+            }
+            return sb.toString();
+        }
+        
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
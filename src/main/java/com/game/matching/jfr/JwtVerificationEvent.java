@@ -0,0 +1,25 @@
+package com.game.matching.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * アクセストークンの検証
+ */
+@Name(MatchingEvents.PREFIX + "JwtVerification")
+@Label("JWT Verification")
+@Category({"Matching", "Auth"})
+@StackTrace(false)
+public class JwtVerificationEvent extends Event {
+    
+    @Label("Cache Hit")
+    @Description("検証済みトークンのキャッシュで解決した")
+    public boolean cacheHit;
+    
+    @Label("Success")
+    public boolean success;
+}
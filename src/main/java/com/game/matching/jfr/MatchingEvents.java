@@ -0,0 +1,15 @@
+package com.game.matching.jfr;
+
+/**
+ * マッチングAPIのJFRイベント名
+ * 
+ * 各イベントはbegin()の後、shouldCommit()がtrueの場合のみフィールドを埋めてcommit()する。
+ * 記録していない（または閾値未満の）場合のコストはnanoTime程度。
+ */
+public final class MatchingEvents {
+    
+    public static final String PREFIX = "com.game.matching.";
+    
+    private MatchingEvents() {
+    }
+}
@@ -0,0 +1,28 @@
+package com.game.matching.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * teamspaceの取得（GETとデシリアライズ）
+ */
+@Name(MatchingEvents.PREFIX + "TeamspaceLoad")
+@Label("Teamspace Load")
+@Category({"Matching", "Redis"})
+@StackTrace(false)
+public class TeamspaceLoadEvent extends Event {
+    
+    @Label("Teamspace ID")
+    public String teamspaceId;
+    
+    @Label("Size")
+    @DataAmount
+    public int bytes;
+    
+    @Label("Found")
+    public boolean found;
+}
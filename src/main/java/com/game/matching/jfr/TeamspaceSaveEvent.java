@@ -0,0 +1,25 @@
+package com.game.matching.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * teamspaceの保存（シリアライズとSETEX）
+ */
+@Name(MatchingEvents.PREFIX + "TeamspaceSave")
+@Label("Teamspace Save")
+@Category({"Matching", "Redis"})
+@StackTrace(false)
+public class TeamspaceSaveEvent extends Event {
+    
+    @Label("Teamspace ID")
+    public String teamspaceId;
+    
+    @Label("Size")
+    @DataAmount
+    public int bytes;
+}
@@ -0,0 +1,28 @@
+package com.game.matching.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * ユーザーが主催・参加しているteamspaceの検索（KEYSスキャンと各キーのGET）
+ */
+@Name(MatchingEvents.PREFIX + "UserIndexLookup")
+@Label("User Index Lookup")
+@Category({"Matching", "Redis"})
+@StackTrace(false)
+public class UserIndexLookupEvent extends Event {
+    
+    @Label("Lookup")
+    @Description("organizer, member, all")
+    public String lookup;
+    
+    @Label("Scanned Keys")
+    public int scannedKeys;
+    
+    @Label("Found")
+    public boolean found;
+}
@@ -0,0 +1,29 @@
+package com.game.matching.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * teamspaceの参加者へのWebSocket通知
+ */
+@Name(MatchingEvents.PREFIX + "WebSocketBroadcast")
+@Label("WebSocket Broadcast")
+@Category({"Matching", "WebSocket"})
+@StackTrace(false)
+public class WebSocketBroadcastEvent extends Event {
+    
+    @Label("Teamspace ID")
+    public String teamspaceId;
+    
+    @Label("Message Type")
+    public String messageType;
+    
+    @Label("Recipients")
+    public int recipients;
+    
+    @Label("Failures")
+    public int failures;
+}
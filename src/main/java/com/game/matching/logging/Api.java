@@ -0,0 +1,47 @@
+package com.game.matching.logging;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * API①〜⑦、バッチAPI、SSEの通知ストリームの識別子（集計・メトリクスのキー）
+ */
+public enum Api {
+    ORGANIZE_TEAM("organize_team"),
+    JOIN_TEAM("join_team"),
+    LEAVE_TEAM("leave_team"),
+    START_GAME("start_game"),
+    JOIN_EXISTING_PARTY("join_existing_party"),
+    CHECK_USER_STATE("check_user_state"),
+    LIST_JOINING_PARTY_USERS("list_joining_party_users"),
+    BATCH("batch"),
+    EVENTS("events");
+    
+    private static final Map<String, Api> BY_PATH = new HashMap<>();
+    
+    static {
+        for (Api api : values()) {
+            BY_PATH.put(api.path, api);
+        }
+    }
+    
+    private final String path;
+    
+    Api(String path) {
+        this.path = path;
+    }
+    
+    /**
+     * /api/ 以下のパス
+     */
+    public String getPath() {
+        return path;
+    }
+    
+    /**
+     * /api/ 以下のパスから対応するAPIを返す（該当しない場合はnull）
+     */
+    public static Api fromPath(String path) {
+        return BY_PATH.get(path);
+    }
+}
@@ -0,0 +1,141 @@
+package com.game.matching.logging;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * APIごとの件数とレイテンシのメモリ内集計
+ * 
+ * サンプリングの有無にかかわらず全呼び出しを数え、一定間隔で1件のサマリーレコードとして出力する。
+ */
+public class ApiStats implements AutoCloseable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ApiStats.class);
+    
+    private final JsonFactory jsonFactory;
+    private final long intervalSeconds;
+    private final Counters[] counters;
+    private final ScheduledExecutorService scheduler;
+    
+    public ApiStats(JsonFactory jsonFactory, long intervalSeconds) {
+        this.jsonFactory = jsonFactory;
+        this.intervalSeconds = intervalSeconds;
+        this.counters = new Counters[Api.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new Counters();
+        }
+        if (intervalSeconds > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "api-stats-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleAtFixedRate(this::flush, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+    
+    public void recordSuccess(Api api) {
+        counters[api.ordinal()].success.increment();
+    }
+    
+    public void recordFailure(Api api) {
+        counters[api.ordinal()].failure.increment();
+    }
+    
+    public void recordSampledOut(Api api) {
+        counters[api.ordinal()].sampledOut.increment();
+    }
+    
+    public void recordLatency(Api api, long nanos) {
+        Counters c = counters[api.ordinal()];
+        c.latencyCount.increment();
+        c.latencyNanos.add(nanos);
+        long max = c.maxLatencyNanos.get();
+        while (nanos > max && !c.maxLatencyNanos.compareAndSet(max, nanos)) {
+            max = c.maxLatencyNanos.get();
+        }
+    }
+    
+    /**
+     * 区間の集計を1件のJSONレコードとして出力してリセット
+     */
+    public void flush() {
+        try {
+            String summary = snapshotAndReset();
+            if (summary != null) {
+                logger.info(summary);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to flush API stats", e);
+        }
+    }
+    
+    String snapshotAndReset() throws IOException {
+        StringWriter writer = new StringWriter(512);
+        boolean any = false;
+        try (JsonGenerator gen = jsonFactory.createGenerator(writer)) {
+            gen.writeStartObject();
+            gen.writeStringField("level", "INFO");
+            gen.writeStringField("eventType", "API_SUMMARY");
+            gen.writeNumberField("intervalSeconds", intervalSeconds);
+            gen.writeObjectFieldStart("apis");
+            for (Api api : Api.values()) {
+                Counters c = counters[api.ordinal()];
+                long success = c.success.sumThenReset();
+                long failure = c.failure.sumThenReset();
+                long sampledOut = c.sampledOut.sumThenReset();
+                long latencyCount = c.latencyCount.sumThenReset();
+                long latencyNanos = c.latencyNanos.sumThenReset();
+                long maxLatencyNanos = c.maxLatencyNanos.getAndSet(0);
+                if (success == 0 && failure == 0) {
+                    continue;
+                }
+                any = true;
+                gen.writeObjectFieldStart(api.getPath());
+                gen.writeNumberField("success", success);
+                gen.writeNumberField("failure", failure);
+                gen.writeNumberField("sampledOut", sampledOut);
+                if (latencyCount > 0) {
+                    gen.writeNumberField("avgMicros", latencyNanos / latencyCount / 1000);
+                    gen.writeNumberField("maxMicros", maxLatencyNanos / 1000);
+                }
+                gen.writeEndObject();
+            }
+            gen.writeEndObject();
+            gen.writeStringField("timestamp", Instant.now().toString());
+            gen.writeEndObject();
+        }
+        return any ? writer.toString() : null;
+    }
+    
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        // 停止前に最後の区間を出力
+        flush();
+    }
+    
+    private static final class Counters {
+        private final LongAdder success = new LongAdder();
+        private final LongAdder failure = new LongAdder();
+        private final LongAdder sampledOut = new LongAdder();
+        private final LongAdder latencyCount = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+    }
+}
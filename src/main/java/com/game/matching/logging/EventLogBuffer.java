@@ -0,0 +1,63 @@
+package com.game.matching.logging;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * バッチ単位で使い回す書き込みバッファ（消費者スレッド専用、同期なし）
+ */
+final class EventLogBuffer extends OutputStream {
+    
+    private byte[] bytes;
+    private int count;
+    
+    EventLogBuffer(int initialCapacity) {
+        this.bytes = new byte[initialCapacity];
+    }
+    
+    @Override
+    public void write(int b) {
+        ensureCapacity(count + 1);
+        bytes[count++] = (byte) b;
+    }
+    
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(count + len);
+        System.arraycopy(b, off, bytes, count, len);
+        count += len;
+    }
+    
+    int size() {
+        return count;
+    }
+    
+    /**
+     * 内部の配列（先頭からsize()バイトが有効）
+     */
+    byte[] toArray() {
+        return bytes;
+    }
+    
+    void writeTo(OutputStream out) throws IOException {
+        out.write(bytes, 0, count);
+    }
+    
+    void reset() {
+        count = 0;
+    }
+    
+    /**
+     * 先頭からsizeバイトだけを残す
+     */
+    void truncate(int size) {
+        count = Math.min(count, size);
+    }
+    
+    private void ensureCapacity(int required) {
+        if (required > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length * 2));
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.game.matching.logging;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.game.matching.jfr.EventLogEncodeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 構造化ログの非同期パイプライン
+ * 
+ * リクエストスレッドは固定形のイベントをリングバッファに書き込むだけで戻り、
+ * バックグラウンドの消費者スレッドがストリーミングJSONでエンコードしてバッチ単位で出力する。
+ * バッファが満杯の場合は設定に応じて破棄（件数を記録）または待機する。
+ * 消費者スレッドはバッファが空の間は待機し、発行者が待機中の消費者だけを起こす
+ * （取りこぼしに備えて最大{@link #IDLE_PARK_MAX_NANOS}で起きる）。
+ */
+public class EventLogPipeline implements AutoCloseable {
+    
+    public enum OverflowPolicy {
+        DROP,
+        BLOCK
+    }
+    
+    private static final Logger logger = LoggerFactory.getLogger(EventLogPipeline.class);
+    private static final long IDLE_PARK_MAX_NANOS = TimeUnit.SECONDS.toNanos(1);
+    
+    private static final SerializedString FIELD_LEVEL = new SerializedString("level");
+    private static final SerializedString FIELD_EVENT_TYPE = new SerializedString("eventType");
+    private static final SerializedString FIELD_USER_ID = new SerializedString("userId");
+    private static final SerializedString FIELD_TEAMSPACE_ID = new SerializedString("teamspaceId");
+    private static final SerializedString FIELD_PARTY_ID = new SerializedString("partyId");
+    private static final SerializedString FIELD_MEMBER_COUNT = new SerializedString("memberCount");
+    private static final SerializedString FIELD_FAILED_COUNT = new SerializedString("failedCount");
+    private static final SerializedString FIELD_TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializedString LEVEL_INFO = new SerializedString("INFO");
+    private static final SerializedString[] EVENT_TYPE_NAMES;
+    
+    static {
+        EventType[] types = EventType.values();
+        EVENT_TYPE_NAMES = new SerializedString[types.length];
+        for (EventType type : types) {
+            EVENT_TYPE_NAMES[type.ordinal()] = new SerializedString(type.name());
+        }
+    }
+    
+    private final JsonFactory jsonFactory;
+    private final EventRingBuffer ringBuffer;
+    private final OverflowPolicy overflowPolicy;
+    private final int maxBatch;
+    private final OutputStream sink;
+    
+    // 以下は消費者スレッドのみが触る
+    private final EventLogBuffer buffer = new EventLogBuffer(64 * 1024);
+    private final char[] timestampChars = new char[IsoTimestamp.LENGTH];
+    private final Consumer<LogEvent> encoder = this::encode;
+    private JsonGenerator generator;
+    
+    // エンコード中のイベントの先頭（バッファ内の位置）。失敗したら途中まで書いたバイトをここで切り捨てる
+    private int recordStart;
+    
+    private final Thread consumer;
+    private volatile boolean running = true;
+    // 消費者スレッドが空のバッファで待機しようとしている（発行者が起こす）
+    private volatile boolean consumerWaiting;
+    
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    
+    public EventLogPipeline(JsonFactory jsonFactory, int bufferSize, OverflowPolicy overflowPolicy,
+                            int maxBatch, OutputStream sink) {
+        this.jsonFactory = jsonFactory;
+        this.ringBuffer = new EventRingBuffer(bufferSize);
+        this.overflowPolicy = overflowPolicy;
+        this.maxBatch = maxBatch;
+        this.sink = sink;
+        this.generator = createGenerator();
+        this.consumer = new Thread(this::consume, "event-log-writer");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+    
+    /**
+     * イベントを発行（リクエストスレッドから呼ばれる、割り当てなし）
+     */
+    public void publish(EventType eventType, String userId, String teamspaceId, String partyId,
+                        int memberCount, int failedCount) {
+        if (!running) {
+            dropped.increment();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            ringBuffer.publish(eventType, userId, teamspaceId, partyId, now, memberCount, failedCount);
+        } else if (!ringBuffer.tryPublish(eventType, userId, teamspaceId, partyId, now, memberCount, failedCount)) {
+            dropped.increment();
+            return;
+        }
+        published.increment();
+        if (consumerWaiting) {
+            LockSupport.unpark(consumer);
+        }
+    }
+    
+    public long getPublishedCount() {
+        return published.sum();
+    }
+    
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+    
+    public long getWrittenCount() {
+        return written.sum();
+    }
+    
+    /**
+     * エンコード・書き出しに失敗した回数
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+    
+    public int getBacklog() {
+        return ringBuffer.size();
+    }
+    
+    private void consume() {
+        while (running || ringBuffer.size() > 0) {
+            if (ringBuffer.size() == 0) {
+                awaitEvents();
+                continue;
+            }
+            EventLogEncodeEvent event = new EventLogEncodeEvent();
+            event.begin();
+            int drained = ringBuffer.drain(encoder, maxBatch);
+            if (drained > 0) {
+                int bytes = writeBatch(drained);
+                if (event.shouldCommit()) {
+                    event.events = drained;
+                    event.bytes = bytes;
+                    event.commit();
+                }
+            } else {
+                // 確保済みで書き込み中のスロットを待つ
+                Thread.onSpinWait();
+            }
+        }
+    }
+    
+    /**
+     * 発行されるか停止するまで待つ
+     * 
+     * consumerWaitingを立ててからバッファを見直すため、その間に発行したスレッドは必ずunparkする。
+     */
+    private void awaitEvents() {
+        consumerWaiting = true;
+        try {
+            if (running && ringBuffer.size() == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_MAX_NANOS);
+            }
+        } finally {
+            consumerWaiting = false;
+        }
+    }
+    
+    private void encode(LogEvent event) {
+        recordStart = buffer.size();
+        try {
+            JsonGenerator gen = generator;
+            gen.writeStartObject();
+            gen.writeFieldName(FIELD_LEVEL);
+            gen.writeString(LEVEL_INFO);
+            gen.writeFieldName(FIELD_EVENT_TYPE);
+            gen.writeString(EVENT_TYPE_NAMES[event.eventType.ordinal()]);
+            gen.writeFieldName(FIELD_USER_ID);
+            writeNullableString(gen, event.userId);
+            gen.writeFieldName(FIELD_TEAMSPACE_ID);
+            writeNullableString(gen, event.teamspaceId);
+            if (event.partyId != null) {
+                gen.writeFieldName(FIELD_PARTY_ID);
+                gen.writeString(event.partyId);
+            }
+            if (event.memberCount != LogEvent.NO_COUNT) {
+                gen.writeFieldName(FIELD_MEMBER_COUNT);
+                gen.writeNumber(event.memberCount);
+            }
+            if (event.failedCount != LogEvent.NO_COUNT) {
+                gen.writeFieldName(FIELD_FAILED_COUNT);
+                gen.writeNumber(event.failedCount);
+            }
+            gen.writeFieldName(FIELD_TIMESTAMP);
+            int length = IsoTimestamp.format(event.timestampMillis, timestampChars);
+            gen.writeString(timestampChars, 0, length);
+            gen.writeEndObject();
+            gen.writeRaw('\n');
+            // 次のイベントの先頭をバッファ上の位置で分かるようにする（ジェネレータの内部バッファに残さない）
+            gen.flush();
+        } catch (Exception e) {
+            // 途中まで書いたジェネレータは状態が壊れているので作り直し、このイベントのバイトを切り捨てる
+            failures.increment();
+            logger.warn("Failed to encode structured log event", e);
+            generator = createGenerator();
+            buffer.truncate(recordStart);
+        }
+    }
+    
+    /**
+     * エンコード済みのバッチを書き出し、そのバイト数を返す
+     */
+    private int writeBatch(int count) {
+        int bytes = 0;
+        try {
+            generator.flush();
+            bytes = buffer.size();
+            buffer.writeTo(sink);
+            sink.flush();
+            written.add(count);
+        } catch (IOException e) {
+            failures.increment();
+            logger.warn("Failed to write structured log batch", e);
+        } finally {
+            buffer.reset();
+        }
+        return bytes;
+    }
+    
+    private static void writeNullableString(JsonGenerator gen, String value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+    
+    private JsonGenerator createGenerator() {
+        try {
+            JsonGenerator gen = jsonFactory.createGenerator(buffer, JsonEncoding.UTF8);
+            // ルート値の区切りは自前で改行を書く
+            gen.setRootValueSeparator(null);
+            return gen;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create JSON generator", e);
+        }
+    }
+    
+    /**
+     * 残っているイベントを書き出してから停止
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (dropped.sum() > 0) {
+            logger.warn("Structured log events dropped: {}", dropped.sum());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.game.matching.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 複数の発行者・単一の消費者向けのロックフリーなリングバッファ
+ * 
+ * 発行者はCASでシーケンスを確保してスロットに書き込み、スロットごとの公開フラグで消費者に渡す。
+ * スロットは事前確保したLogEventを使い回す。
+ */
+public final class EventRingBuffer {
+    
+    private final LogEvent[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    // 消費者が処理を終えた最後のシーケンス
+    private final AtomicLong consumed = new AtomicLong(-1);
+    
+    public EventRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        this.slots = new LogEvent[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new LogEvent();
+            published.set(i, -1);
+        }
+        this.mask = capacity - 1;
+    }
+    
+    public int capacity() {
+        return slots.length;
+    }
+    
+    /**
+     * 空きがあればイベントを書き込む
+     * 
+     * @return 満杯で書き込めなかった場合はfalse
+     */
+    public boolean tryPublish(EventType eventType, String userId, String teamspaceId, String partyId,
+                              long timestampMillis, int memberCount, int failedCount) {
+        long sequence;
+        do {
+            sequence = claimed.get() + 1;
+            if (sequence - slots.length > consumed.get()) {
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence - 1, sequence));
+        
+        int index = (int) sequence & mask;
+        slots[index].set(eventType, userId, teamspaceId, partyId, timestampMillis, memberCount, failedCount);
+        published.lazySet(index, sequence);
+        return true;
+    }
+    
+    /**
+     * 空きができるまで待ってからイベントを書き込む
+     */
+    public void publish(EventType eventType, String userId, String teamspaceId, String partyId,
+                        long timestampMillis, int memberCount, int failedCount) {
+        int spins = 0;
+        while (!tryPublish(eventType, userId, teamspaceId, partyId, timestampMillis, memberCount, failedCount)) {
+            if (++spins < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(50_000);
+            }
+        }
+    }
+    
+    /**
+     * 公開済みのイベントを最大maxBatch件まで順に処理する（消費者スレッド専用）
+     * 
+     * handlerは例外を投げてはならない。
+     * @return 処理した件数
+     */
+    public int drain(Consumer<LogEvent> handler, int maxBatch) {
+        long next = consumed.get() + 1;
+        int count = 0;
+        while (count < maxBatch) {
+            int index = (int) next & mask;
+            if (published.get(index) != next) {
+                break;
+            }
+            LogEvent event = slots[index];
+            handler.accept(event);
+            event.clear();
+            next++;
+            count++;
+        }
+        if (count > 0) {
+            consumed.lazySet(next - 1);
+        }
+        return count;
+    }
+    
+    /**
+     * 未処理のイベント数（概算）
+     */
+    public int size() {
+        return (int) Math.max(0, claimed.get() - consumed.get());
+    }
+}
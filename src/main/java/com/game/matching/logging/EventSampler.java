@@ -0,0 +1,68 @@
+package com.game.matching.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 成功イベントのログをイベント種別ごとの比率でサンプリングする
+ * 
+ * 状態を変更するイベント（GAME_STARTなど）とエラーは常に出力する。
+ */
+public class EventSampler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EventSampler.class);
+    
+    private final double[] rates;
+    
+    public EventSampler(double[] rates) {
+        this.rates = rates;
+    }
+    
+    /**
+     * "CHECK_USER_STATE:0.01,LIST_USERS:0.1" 形式の設定から生成（未指定の種別は1.0）
+     */
+    public static EventSampler parse(String spec) {
+        double[] rates = new double[EventType.values().length];
+        Arrays.fill(rates, 1.0);
+        if (spec != null && !spec.isBlank()) {
+            for (String entry : spec.split(",")) {
+                String[] pair = entry.trim().split(":");
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Invalid sample rate entry: " + entry);
+                }
+                EventType eventType = EventType.valueOf(pair[0].trim());
+                double rate = Double.parseDouble(pair[1].trim());
+                if (rate < 0.0 || rate > 1.0) {
+                    throw new IllegalArgumentException("Sample rate must be between 0 and 1: " + entry);
+                }
+                if (eventType.isStateChanging()) {
+                    logger.warn("Ignoring sample rate for state-changing event: {}", eventType);
+                    continue;
+                }
+                rates[eventType.ordinal()] = rate;
+            }
+        }
+        return new EventSampler(rates);
+    }
+    
+    /**
+     * このイベントを出力するかどうか
+     */
+    public boolean sample(EventType eventType) {
+        double rate = rates[eventType.ordinal()];
+        if (rate >= 1.0) {
+            return true;
+        }
+        if (rate <= 0.0) {
+            return false;
+        }
+        return ThreadLocalRandom.current().nextDouble() < rate;
+    }
+    
+    public double getRate(EventType eventType) {
+        return rates[eventType.ordinal()];
+    }
+}
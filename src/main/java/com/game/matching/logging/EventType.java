@@ -0,0 +1,33 @@
+package com.game.matching.logging;
+
+/**
+ * 構造化ログのイベント種別
+ */
+public enum EventType {
+    TEAMSPACE_CREATED(Api.ORGANIZE_TEAM, true),
+    TEAMSPACE_JOINED(Api.JOIN_TEAM, true),
+    TEAMSPACE_LEFT(Api.LEAVE_TEAM, true),
+    GAME_START(Api.START_GAME, true),
+    PARTY_JOINED(Api.JOIN_EXISTING_PARTY, true),
+    CHECK_USER_STATE(Api.CHECK_USER_STATE, false),
+    LIST_USERS(Api.LIST_JOINING_PARTY_USERS, false);
+    
+    private final Api api;
+    private final boolean stateChanging;
+    
+    EventType(Api api, boolean stateChanging) {
+        this.api = api;
+        this.stateChanging = stateChanging;
+    }
+    
+    public Api getApi() {
+        return api;
+    }
+    
+    /**
+     * 状態を変更するイベントはサンプリングしない
+     */
+    public boolean isStateChanging() {
+        return stateChanging;
+    }
+}
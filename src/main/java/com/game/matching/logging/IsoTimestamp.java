@@ -0,0 +1,60 @@
+package com.game.matching.logging;
+
+/**
+ * エポックミリ秒をISO-8601形式（UTC、ミリ秒精度）で文字配列に書き込む
+ * 
+ * Instant.toString()と異なり割り当てが発生しない。
+ */
+final class IsoTimestamp {
+    
+    /** "2024-01-01T00:00:00.000Z" の長さ */
+    static final int LENGTH = 24;
+    
+    private IsoTimestamp() {
+    }
+    
+    static int format(long epochMillis, char[] out) {
+        long epochSecond = Math.floorDiv(epochMillis, 1000);
+        int millis = (int) Math.floorMod(epochMillis, 1000);
+        long epochDay = Math.floorDiv(epochSecond, 86400);
+        int secondOfDay = (int) Math.floorMod(epochSecond, 86400);
+        
+        // 日数から年月日への変換（proleptic Gregorian）
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+        
+        int hour = secondOfDay / 3600;
+        int minute = (secondOfDay / 60) % 60;
+        int second = secondOfDay % 60;
+        
+        writeDigits(out, 0, year, 4);
+        out[4] = '-';
+        writeDigits(out, 5, month, 2);
+        out[7] = '-';
+        writeDigits(out, 8, day, 2);
+        out[10] = 'T';
+        writeDigits(out, 11, hour, 2);
+        out[13] = ':';
+        writeDigits(out, 14, minute, 2);
+        out[16] = ':';
+        writeDigits(out, 17, second, 2);
+        out[19] = '.';
+        writeDigits(out, 20, millis, 3);
+        out[23] = 'Z';
+        return LENGTH;
+    }
+    
+    private static void writeDigits(char[] out, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.game.matching.logging;
+
+/**
+ * リングバッファのスロット（固定形のイベントレコード）
+ * 
+ * スロットは起動時に確保して使い回すため、発行側はフィールドを書き込むだけで割り当てが発生しない。
+ */
+public final class LogEvent {
+    
+    /** 件数を持たないイベントの値 */
+    public static final int NO_COUNT = -1;
+    
+    EventType eventType;
+    String userId;
+    String teamspaceId;
+    String partyId;
+    long timestampMillis;
+    int memberCount;
+    int failedCount;
+    
+    void set(EventType eventType, String userId, String teamspaceId, String partyId,
+             long timestampMillis, int memberCount, int failedCount) {
+        this.eventType = eventType;
+        this.userId = userId;
+        this.teamspaceId = teamspaceId;
+        this.partyId = partyId;
+        this.timestampMillis = timestampMillis;
+        this.memberCount = memberCount;
+        this.failedCount = failedCount;
+    }
+    
+    void clear() {
+        this.userId = null;
+        this.teamspaceId = null;
+        this.partyId = null;
+    }
+    
+    public EventType getEventType() {
+        return eventType;
+    }
+    
+    public String getUserId() {
+        return userId;
+    }
+    
+    public String getTeamspaceId() {
+        return teamspaceId;
+    }
+    
+    public String getPartyId() {
+        return partyId;
+    }
+    
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+    
+    public int getMemberCount() {
+        return memberCount;
+    }
+    
+    public int getFailedCount() {
+        return failedCount;
+    }
+}
@@ -0,0 +1,61 @@
+package com.game.matching.logging;
+
+import org.slf4j.Logger;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 書き込まれたバイト列を1行ずつSLF4JのINFOで出力する（EventLogPipelineの出力先）
+ * 
+ * 構造化ログをSystem.outに直接書かず、logbackのアペンダー・パターン・ログレベルの設定に従わせる。
+ * 改行の前までを1つのログにし、改行で終わっていない末尾は次の書き込みまで保持する。
+ * EventLogPipelineの消費者スレッドだけが書き込む前提で、同期しない。
+ */
+public final class LogLineOutputStream extends OutputStream {
+    
+    private final Logger logger;
+    private final EventLogBuffer pending = new EventLogBuffer(1024);
+    
+    public LogLineOutputStream(Logger logger) {
+        this.logger = logger;
+    }
+    
+    @Override
+    public void write(int b) {
+        if (b == '\n') {
+            emit(pending.toArray(), 0, pending.size());
+            pending.reset();
+        } else {
+            pending.write(b);
+        }
+    }
+    
+    @Override
+    public void write(byte[] b, int off, int len) {
+        int end = off + len;
+        int lineStart = off;
+        for (int i = off; i < end; i++) {
+            if (b[i] != '\n') {
+                continue;
+            }
+            if (pending.size() > 0) {
+                pending.write(b, lineStart, i - lineStart);
+                emit(pending.toArray(), 0, pending.size());
+                pending.reset();
+            } else {
+                emit(b, lineStart, i - lineStart);
+            }
+            lineStart = i + 1;
+        }
+        if (lineStart < end) {
+            pending.write(b, lineStart, end - lineStart);
+        }
+    }
+    
+    private void emit(byte[] bytes, int offset, int length) {
+        if (logger.isInfoEnabled()) {
+            logger.info(new String(bytes, offset, length, StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.game.matching.metrics;
+
+import com.game.matching.jfr.ApiRequestEvent;
+import com.game.matching.logging.Api;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * API①〜⑦の処理時間をAPI・結果別のTimerに記録するフィルター
+ * 
+ * Timerは起動時にすべて作成しておき、リクエストごとのタグ生成やレジストリ検索を行わない。
+ */
+public class ApiMetricsFilter extends OncePerRequestFilter {
+    
+    static final String METRIC_NAME = "matching.api.requests";
+    private static final String PATH_PREFIX = "/api/";
+    
+    private enum Outcome {
+        SUCCESS, CLIENT_ERROR, SERVER_ERROR;
+        
+        static Outcome of(int status) {
+            if (status >= 500) {
+                return SERVER_ERROR;
+            }
+            return status >= 400 ? CLIENT_ERROR : SUCCESS;
+        }
+    }
+    
+    // [api.ordinal()][outcome.ordinal()]
+    private final Timer[][] timers;
+    
+    public ApiMetricsFilter(MeterRegistry registry) {
+        Api[] apis = Api.values();
+        Outcome[] outcomes = Outcome.values();
+        this.timers = new Timer[apis.length][outcomes.length];
+        for (Api api : apis) {
+            for (Outcome outcome : outcomes) {
+                timers[api.ordinal()][outcome.ordinal()] = Timer.builder(METRIC_NAME)
+                    .description("API①〜⑦の処理時間")
+                    .tag("api", api.getPath())
+                    .tag("outcome", outcome.name())
+                    .publishPercentileHistogram()
+                    .register(registry);
+            }
+        }
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Api api = resolveApi(request.getRequestURI());
+        if (api == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        long startNanos = System.nanoTime();
+        ApiRequestEvent event = new ApiRequestEvent();
+        event.begin();
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try {
+            filterChain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            timers[api.ordinal()][Outcome.of(status).ordinal()]
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            if (event.shouldCommit()) {
+                event.api = api.getPath();
+                event.status = status;
+                event.commit();
+            }
+        }
+    }
+    
+    private static Api resolveApi(String uri) {
+        if (uri == null || !uri.startsWith(PATH_PREFIX)) {
+            return null;
+        }
+        return Api.fromPath(uri.substring(PATH_PREFIX.length()));
+    }
+}
@@ -0,0 +1,119 @@
+package com.game.matching.metrics;
+
+import com.game.matching.concurrent.TeamspaceExecutor;
+import com.game.matching.logging.EventLogPipeline;
+import com.game.matching.service.CognitoAuthService;
+import com.game.matching.service.JwksKeyStore;
+import com.game.matching.websocket.WebSocketConnectionManager;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import redis.clients.jedis.JedisPool;
+
+/**
+ * 既存コンポーネントが内部で持っている統計値をゲージ・カウンターとして公開する
+ * 
+ * 値はスクレイプ時に読み取るだけなので、リクエスト処理側には影響しない。
+ */
+public class MatchingMeterBinder implements MeterBinder {
+    
+    private final JedisPool jedisPool;
+    private final WebSocketConnectionManager connectionManager;
+    private final TeamspaceExecutor teamspaceExecutor;
+    private final EventLogPipeline eventLogPipeline;
+    private final CognitoAuthService cognitoAuthService;
+    private final JwksKeyStore jwksKeyStore;
+    
+    public MatchingMeterBinder(JedisPool jedisPool,
+                               WebSocketConnectionManager connectionManager,
+                               TeamspaceExecutor teamspaceExecutor,
+                               EventLogPipeline eventLogPipeline,
+                               CognitoAuthService cognitoAuthService,
+                               JwksKeyStore jwksKeyStore) {
+        this.jedisPool = jedisPool;
+        this.connectionManager = connectionManager;
+        this.teamspaceExecutor = teamspaceExecutor;
+        this.eventLogPipeline = eventLogPipeline;
+        this.cognitoAuthService = cognitoAuthService;
+        this.jwksKeyStore = jwksKeyStore;
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // JedisPool
+        Gauge.builder("matching.redis.pool.active", jedisPool, JedisPool::getNumActive)
+            .description("貸し出し中の接続数")
+            .register(registry);
+        Gauge.builder("matching.redis.pool.idle", jedisPool, JedisPool::getNumIdle)
+            .description("プール内の未使用の接続数")
+            .register(registry);
+        Gauge.builder("matching.redis.pool.waiters", jedisPool, JedisPool::getNumWaiters)
+            .description("接続の取得を待っているスレッド数")
+            .register(registry);
+        Gauge.builder("matching.redis.pool.wait.max", jedisPool, JedisPool::getMaxBorrowWaitTimeMillis)
+            .description("接続取得の最大待ち時間（ミリ秒）")
+            .baseUnit("milliseconds")
+            .register(registry);
+        
+        // WebSocket（サーブレット構成のみ）
+        if (connectionManager != null) {
+            Gauge.builder("matching.websocket.sessions", connectionManager, WebSocketConnectionManager::getSessionCount)
+                .description("接続中のWebSocketセッション数")
+                .register(registry);
+            Gauge.builder("matching.websocket.send.buffer", connectionManager,
+                          WebSocketConnectionManager::getSendBufferBytes)
+                .description("全セッションの送信待ちバイト数")
+                .baseUnit("bytes")
+                .register(registry);
+            Gauge.builder("matching.websocket.send.buffer.max", connectionManager,
+                          WebSocketConnectionManager::getMaxSendBufferBytes)
+                .description("送信待ちが最も多いセッションのバイト数")
+                .baseUnit("bytes")
+                .register(registry);
+        }
+        
+        // teamspace単位の直列実行
+        Gauge.builder("matching.executor.mailbox.depth", teamspaceExecutor, TeamspaceExecutor::totalMailboxDepth)
+            .description("全ストライプのメールボックスに溜まっているタスク数")
+            .register(registry);
+        for (int i = 0; i < teamspaceExecutor.stripeCount(); i++) {
+            int stripe = i;
+            String tag = Integer.toString(i);
+            Gauge.builder("matching.executor.stripe.mailbox.depth", teamspaceExecutor,
+                          executor -> executor.mailboxDepth(stripe))
+                .description("ストライプのメールボックスに溜まっているタスク数")
+                .tag("stripe", tag)
+                .register(registry);
+            Gauge.builder("matching.executor.stripe.utilization", teamspaceExecutor,
+                          executor -> executor.utilization(stripe))
+                .description("直近のサンプリング区間におけるストライプの稼働率（0.0〜1.0）")
+                .tag("stripe", tag)
+                .register(registry);
+            FunctionCounter.builder("matching.executor.stripe.rejected", teamspaceExecutor,
+                                    executor -> executor.rejectedTasks(stripe))
+                .description("メールボックスが満杯で拒否した（503を返した）タスク数")
+                .tag("stripe", tag)
+                .register(registry);
+        }
+        
+        // 構造化ログ
+        Gauge.builder("matching.event-log.backlog", eventLogPipeline, EventLogPipeline::getBacklog)
+            .description("書き出し待ちのログイベント数")
+            .register(registry);
+        FunctionCounter.builder("matching.event-log.dropped", eventLogPipeline, EventLogPipeline::getDroppedCount)
+            .description("バッファが満杯で破棄したログイベント数")
+            .register(registry);
+        
+        // 認証
+        Gauge.builder("matching.auth.token-cache.hit-ratio", cognitoAuthService, CognitoAuthService::getCacheHitRatio)
+            .description("検証済みトークンキャッシュのヒット率")
+            .register(registry);
+        Gauge.builder("matching.auth.token-cache.size", cognitoAuthService, CognitoAuthService::getCachedTokenCount)
+            .description("キャッシュしている検証済みトークン数")
+            .register(registry);
+        FunctionCounter.builder("matching.auth.jwks.refresh.failures", jwksKeyStore, JwksKeyStore::getRefreshFailures)
+            .description("JWKSの取得に失敗した回数")
+            .register(registry);
+    }
+}
@@ -0,0 +1,93 @@
+package com.game.matching.metrics;
+
+import com.game.matching.metrics.RedisMetrics.Command;
+
+import java.util.Arrays;
+
+/**
+ * 1リクエストの間に発行したRedisコマンドの記録
+ * 
+ * 同時に触るのは1スレッドだけ（リクエストスレッド、またはそれを待っているストライプのスレッド）。
+ * バイト数はキーと値の文字数で近似する（IDとJSONはASCIIのため）。
+ */
+public final class RedisCallTrace {
+    
+    /** 個別に保持するコマンド数の上限（件数・合計は上限を超えても数える） */
+    static final int MAX_RECORDED_COMMANDS = 256;
+    
+    private final int[] countByCommand = new int[Command.values().length];
+    private int commandCount;
+    private long bytes;
+    private long nanos;
+    
+    private Command[] commands = new Command[16];
+    private String[] keys = new String[16];
+    private int[] commandBytes = new int[16];
+    private long[] commandNanos = new long[16];
+    private int recorded;
+    
+    void record(Command command, String key, int bytes, long elapsedNanos) {
+        countByCommand[command.ordinal()]++;
+        commandCount++;
+        this.bytes += bytes;
+        this.nanos += elapsedNanos;
+        
+        if (recorded == MAX_RECORDED_COMMANDS) {
+            return;
+        }
+        if (recorded == commands.length) {
+            int capacity = Math.min(recorded * 2, MAX_RECORDED_COMMANDS);
+            commands = Arrays.copyOf(commands, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            commandBytes = Arrays.copyOf(commandBytes, capacity);
+            commandNanos = Arrays.copyOf(commandNanos, capacity);
+        }
+        commands[recorded] = command;
+        keys[recorded] = key;
+        commandBytes[recorded] = bytes;
+        commandNanos[recorded] = elapsedNanos;
+        recorded++;
+    }
+    
+    public int getCommandCount() {
+        return commandCount;
+    }
+    
+    public int getCommandCount(Command command) {
+        return countByCommand[command.ordinal()];
+    }
+    
+    public long getBytes() {
+        return bytes;
+    }
+    
+    public long getMicros() {
+        return nanos / 1000;
+    }
+    
+    /**
+     * デバッグ用レスポンスヘッダーの値
+     */
+    public String summary() {
+        return "commands=" + commandCount + ";bytes=" + bytes + ";micros=" + getMicros();
+    }
+    
+    /**
+     * 発行したコマンドを順に列挙（スローリクエストのログ用）
+     */
+    public String describeCommands() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < recorded; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(commands[i]).append(' ').append(keys[i])
+              .append(" (").append(commandBytes[i]).append("B, ")
+              .append(commandNanos[i] / 1000).append("us)");
+        }
+        if (commandCount > recorded) {
+            sb.append(", ... ").append(commandCount - recorded).append(" more");
+        }
+        return sb.toString();
+    }
+}
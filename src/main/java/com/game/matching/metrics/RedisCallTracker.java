@@ -0,0 +1,52 @@
+package com.game.matching.metrics;
+
+import com.game.matching.metrics.RedisMetrics.Command;
+
+/**
+ * 実行中のリクエストのRedisCallTraceをスレッドに紐づける
+ * 
+ * リクエストの外（起動時の処理など）で発行したコマンドは記録しない。
+ */
+public final class RedisCallTracker {
+    
+    private static final ThreadLocal<RedisCallTrace> CURRENT = new ThreadLocal<>();
+    
+    private RedisCallTracker() {
+    }
+    
+    public static RedisCallTrace begin() {
+        RedisCallTrace trace = new RedisCallTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+    
+    public static void end() {
+        CURRENT.remove();
+    }
+    
+    public static RedisCallTrace current() {
+        return CURRENT.get();
+    }
+    
+    /**
+     * 別スレッドで処理を続ける場合に、呼び出し元のトレースを引き継ぐ
+     * 
+     * @return 差し替える前のトレース（処理後にattachし直す）
+     */
+    public static RedisCallTrace attach(RedisCallTrace trace) {
+        RedisCallTrace previous = CURRENT.get();
+        if (trace == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(trace);
+        }
+        return previous;
+    }
+    
+    static void record(Command command, String key, int bytes, long elapsedNanos) {
+        RedisCallTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.record(command, key, bytes, elapsedNanos);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.game.matching.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redisコマンドの所要時間とJedisPoolからの接続取得待ち時間
+ */
+public class RedisMetrics {
+    
+    /**
+     * RedisRepository（SCANはReactiveRedisRepository、SETはIdempotencyRepository、
+     * EVALSHAはRedisRateLimiter・IdempotencyRepository）が発行するコマンド
+     */
+    public enum Command {
+        GET, SET, SETEX, DEL, KEYS, SCAN, EVALSHA
+    }
+    
+    private final Timer[] commandTimers;
+    private final Counter[] errorCounters;
+    private final Timer borrowTimer;
+    
+    public RedisMetrics(MeterRegistry registry) {
+        Command[] commands = Command.values();
+        this.commandTimers = new Timer[commands.length];
+        this.errorCounters = new Counter[commands.length];
+        for (Command command : commands) {
+            String name = command.name().toLowerCase();
+            commandTimers[command.ordinal()] = Timer.builder("matching.redis.commands")
+                .description("Redisコマンドの所要時間")
+                .tag("command", name)
+                .publishPercentileHistogram()
+                .register(registry);
+            errorCounters[command.ordinal()] = Counter.builder("matching.redis.errors")
+                .description("失敗したRedisコマンドの数")
+                .tag("command", name)
+                .register(registry);
+        }
+        this.borrowTimer = Timer.builder("matching.redis.pool.wait")
+            .description("JedisPoolから接続を取得するまでの待ち時間")
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+    
+    /**
+     * メーターを出力しないインスタンス（メトリクスを使わないテスト・ツール用）
+     */
+    public static RedisMetrics noop() {
+        return new RedisMetrics(new CompositeMeterRegistry());
+    }
+    
+    /**
+     * コマンドの所要時間を記録し、実行中のリクエストのトレースにも加える
+     */
+    public void recordCommand(Command command, String key, int bytes, long startNanos) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        commandTimers[command.ordinal()].record(elapsedNanos, TimeUnit.NANOSECONDS);
+        RedisCallTracker.record(command, key, bytes, elapsedNanos);
+    }
+    
+    public void recordError(Command command) {
+        errorCounters[command.ordinal()].increment();
+    }
+    
+    public void recordBorrow(long startNanos) {
+        borrowTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
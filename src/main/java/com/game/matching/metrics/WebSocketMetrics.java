@@ -0,0 +1,41 @@
+package com.game.matching.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebSocket通知の送信時間と失敗数
+ * 
+ * セッション数・送信キューの深さはMatchingMeterBinderがゲージとして公開する。
+ */
+public class WebSocketMetrics {
+    
+    private final Timer sendTimer;
+    private final Counter sendFailures;
+    
+    public WebSocketMetrics(MeterRegistry registry) {
+        this.sendTimer = Timer.builder("matching.websocket.send")
+            .description("WebSocket通知の送信時間")
+            .publishPercentileHistogram()
+            .register(registry);
+        this.sendFailures = Counter.builder("matching.websocket.send.failures")
+            .description("送信に失敗したWebSocket通知の数")
+            .register(registry);
+    }
+    
+    public static WebSocketMetrics noop() {
+        return new WebSocketMetrics(new CompositeMeterRegistry());
+    }
+    
+    public void recordSend(long startNanos) {
+        sendTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordFailure() {
+        sendFailures.increment();
+    }
+}
@@ -1,27 +1,43 @@
 package com.game.matching.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.Instant;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
+/**
+ * teamspace（ロビー）
+ * 
+ * メンバーは最大人数分の固定長配列に持ち、作成日時はエポックミリ秒で持つ。主催者のuserIdはメンバーの
+ * 同じuserIdと1つのStringを共有する（JSONから読むとorganizerとmembersで別々のStringが作られるため）。
+ * JSONの形式（teamspaceId、organizer、members、createdAt、partyId）はgetter/setterで従来のまま変換する。
+ */
 public class Teamspace {
+    
+    /**
+     * 1つのteamspaceの最大人数（主催者を含む）
+     */
+    public static final int MAX_MEMBERS = 4;
+    
     private String teamspaceId;
     private String organizer;
-    private List<String> members;
-    private Instant createdAt;
+    private final String[] members = new String[MAX_MEMBERS];
+    private int memberCount;
+    private long createdAtMillis;
     private String partyId;
     
     public Teamspace() {
-        this.members = new ArrayList<>();
-        this.createdAt = Instant.now();
+        this.createdAtMillis = System.currentTimeMillis();
     }
     
     public Teamspace(String teamspaceId, String organizer) {
         this.teamspaceId = teamspaceId;
         this.organizer = organizer;
-        this.members = new ArrayList<>();
-        this.members.add(organizer);
-        this.createdAt = Instant.now();
+        this.members[0] = this.organizer;
+        this.memberCount = 1;
+        this.createdAtMillis = System.currentTimeMillis();
         this.partyId = null;
     }
     
@@ -40,22 +56,49 @@ public class Teamspace {
     
     public void setOrganizer(String organizer) {
         this.organizer = organizer;
+        int index = indexOf(organizer);
+        if (index >= 0) {
+            members[index] = organizer;
+        }
     }
     
+    /**
+     * メンバーのuserId（参加順、変更できないコピー）
+     */
     public List<String> getMembers() {
-        return members;
+        return List.of(Arrays.copyOf(members, memberCount));
     }
     
     public void setMembers(List<String> members) {
-        this.members = members;
+        if (members.size() > MAX_MEMBERS) {
+            throw new IllegalArgumentException("Teamspace cannot have more than " + MAX_MEMBERS + " members");
+        }
+        this.memberCount = 0;
+        for (String userId : members) {
+            addMember(userId);
+        }
+    }
+    
+    @JsonIgnore
+    public int getMemberCount() {
+        return memberCount;
     }
     
     public Instant getCreatedAt() {
-        return createdAt;
+        return Instant.ofEpochMilli(createdAtMillis);
     }
     
     public void setCreatedAt(Instant createdAt) {
-        this.createdAt = createdAt;
+        this.createdAtMillis = Objects.requireNonNull(createdAt, "createdAt").toEpochMilli();
+    }
+    
+    @JsonIgnore
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+    
+    public void setCreatedAtMillis(long createdAtMillis) {
+        this.createdAtMillis = createdAtMillis;
     }
     
     public String getPartyId() {
@@ -67,21 +110,39 @@ public class Teamspace {
     }
     
     public boolean isMember(String userId) {
-        return members.contains(userId);
+        return indexOf(userId) >= 0;
     }
     
     public boolean isOrganizer(String userId) {
-        return organizer.equals(userId);
+        return organizer != null && organizer.equals(userId);
     }
     
     public void addMember(String userId) {
-        if (!members.contains(userId)) {
-            members.add(userId);
+        if (indexOf(userId) >= 0) {
+            return;
         }
+        if (memberCount == MAX_MEMBERS) {
+            throw new IllegalStateException("Teamspace is full: " + teamspaceId);
+        }
+        members[memberCount++] = isOrganizer(userId) ? organizer : userId;
     }
     
     public void removeMember(String userId) {
-        members.remove(userId);
+        int index = indexOf(userId);
+        if (index < 0) {
+            return;
+        }
+        // 参加順を保つため後ろを詰める
+        System.arraycopy(members, index + 1, members, index, memberCount - index - 1);
+        members[--memberCount] = null;
+    }
+    
+    private int indexOf(String userId) {
+        for (int i = 0; i < memberCount; i++) {
+            if (members[i].equals(userId)) {
+                return i;
+            }
+        }
+        return -1;
     }
 }
-
@@ -0,0 +1,132 @@
+package com.game.matching.ratelimit;
+
+import com.game.matching.logging.Api;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * インスタンス内のメモリで完結するトークンバケット
+ * 
+ * バケットはGCRA（Generic Cell Rate Algorithm）で表し、次に満杯でなくなる時刻（TAT）を
+ * 1つのAtomicLongに持つ。呼び出しごとにTATを間隔分進め、現在時刻から許容幅を超える場合は制限する。
+ * 補充用のスレッドやロックは持たず、既存のキーの判定はCASのみでメモリを確保しない。
+ * 
+ * キー数がmaxKeysに達したときは満杯に戻ったバケット（TATが過去のもの）を削除する。
+ * それでも空きがない場合、新しいキーは制限せずに通す（追跡できなかった回数はgetUntrackedCalls）。
+ */
+public class LocalRateLimiter implements RateLimiter {
+    
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+    
+    private final RateLimits limits;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+    
+    // Apiのordinal -> キー -> TAT（System.nanoTime基準）
+    private final Map<String, AtomicLong>[] buckets;
+    private final AtomicLong lastSweepNanos;
+    private final LongAdder untracked = new LongAdder();
+    
+    public LocalRateLimiter(RateLimits limits, int maxKeys) {
+        this(limits, maxKeys, System::nanoTime);
+    }
+    
+    @SuppressWarnings("unchecked")
+    LocalRateLimiter(RateLimits limits, int maxKeys, LongSupplier nanoClock) {
+        if (maxKeys <= 0) {
+            throw new IllegalArgumentException("maxKeys must be positive");
+        }
+        this.limits = limits;
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        this.buckets = new Map[Api.values().length];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ConcurrentHashMap<>();
+        }
+        this.lastSweepNanos = new AtomicLong(nanoClock.getAsLong() - SWEEP_INTERVAL_NANOS);
+    }
+    
+    @Override
+    public long acquire(Api api, String key) {
+        if (!limits.isLimited(api)) {
+            return 0;
+        }
+        AtomicLong tat = bucket(api, key);
+        if (tat == null) {
+            return 0;
+        }
+        
+        long interval = limits.intervalNanos(api);
+        long tolerance = limits.toleranceNanos(api);
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = tat.get();
+            long next = (current - now > 0 ? current : now) + interval;
+            long waitNanos = next - tolerance - now;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+    
+    /**
+     * 満杯に戻ったバケットを削除する（削除したバケットは次の呼び出しで満杯の状態から作り直す）
+     */
+    public void sweep() {
+        long now = nanoClock.getAsLong();
+        for (Map<String, AtomicLong> map : buckets) {
+            map.values().removeIf(tat -> tat.get() - now <= 0);
+        }
+    }
+    
+    public long getTrackedKeys() {
+        long keys = 0;
+        for (Map<String, AtomicLong> map : buckets) {
+            keys += map.size();
+        }
+        return keys;
+    }
+    
+    /**
+     * キー数の上限のため制限せずに通した呼び出しの回数
+     */
+    public long getUntrackedCalls() {
+        return untracked.sum();
+    }
+    
+    private AtomicLong bucket(Api api, String key) {
+        Map<String, AtomicLong> map = buckets[api.ordinal()];
+        AtomicLong tat = map.get(key);
+        if (tat != null) {
+            return tat;
+        }
+        
+        if (getTrackedKeys() >= maxKeys && !sweepIfDue()) {
+            untracked.increment();
+            return null;
+        }
+        AtomicLong created = new AtomicLong(nanoClock.getAsLong());
+        AtomicLong existing = map.putIfAbsent(key, created);
+        return existing != null ? existing : created;
+    }
+    
+    /**
+     * 前回から一定時間たっていればsweepし、空きができたかどうかを返す（上限に張り付いたときの全件走査を抑える）
+     */
+    private boolean sweepIfDue() {
+        long now = nanoClock.getAsLong();
+        long last = lastSweepNanos.get();
+        if (now - last < SWEEP_INTERVAL_NANOS || !lastSweepNanos.compareAndSet(last, now)) {
+            return false;
+        }
+        sweep();
+        return getTrackedKeys() < maxKeys;
+    }
+}
@@ -0,0 +1,16 @@
+package com.game.matching.ratelimit;
+
+import com.game.matching.logging.Api;
+
+/**
+ * キー（userIdまたはクライアントのIPアドレス）ごとのレート制限
+ */
+public interface RateLimiter {
+    
+    /**
+     * keyによるapiの呼び出しを1回分消費する
+     * 
+     * @return 許可した場合は0、制限した場合は次に許可されるまでの時間（ナノ秒）
+     */
+    long acquire(Api api, String key);
+}
@@ -0,0 +1,86 @@
+package com.game.matching.ratelimit;
+
+import com.game.matching.logging.Api;
+
+/**
+ * API①〜⑦ごとのレート制限（1秒あたりの許可数とバースト数）
+ * 
+ * 設定は "*:50:100,CHECK_USER_STATE:2:5" 形式（API:1秒あたりの許可数:バースト数）。
+ * "*" は指定のないAPIすべてに適用し、どちらにも該当しないAPIは制限しない。
+ */
+public class RateLimits {
+    
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    
+    // Apiのordinal -> 1回ごとの間隔（ナノ秒）。0は制限なし
+    private final long[] intervalNanos;
+    private final long[] toleranceNanos;
+    
+    private RateLimits(long[] intervalNanos, long[] toleranceNanos) {
+        this.intervalNanos = intervalNanos;
+        this.toleranceNanos = toleranceNanos;
+    }
+    
+    public static RateLimits none() {
+        return parse("");
+    }
+    
+    public static RateLimits parse(String spec) {
+        int apis = Api.values().length;
+        long[] intervalNanos = new long[apis];
+        long[] toleranceNanos = new long[apis];
+        if (spec == null || spec.isBlank()) {
+            return new RateLimits(intervalNanos, toleranceNanos);
+        }
+        
+        // "*" を先に適用し、個別の指定で上書きする
+        String[] entries = spec.split(",");
+        for (boolean wildcard : new boolean[] {true, false}) {
+            for (String entry : entries) {
+                String[] parts = entry.trim().split(":");
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Invalid rate limit entry: " + entry);
+                }
+                String name = parts[0].trim();
+                if (name.equals("*") != wildcard) {
+                    continue;
+                }
+                double permitsPerSecond = Double.parseDouble(parts[1].trim());
+                int burst = Integer.parseInt(parts[2].trim());
+                if (permitsPerSecond <= 0.0 || burst <= 0) {
+                    throw new IllegalArgumentException("Rate and burst must be positive: " + entry);
+                }
+                long interval = Math.max(1L, Math.round(NANOS_PER_SECOND / permitsPerSecond));
+                if (wildcard) {
+                    for (int i = 0; i < apis; i++) {
+                        intervalNanos[i] = interval;
+                        toleranceNanos[i] = interval * burst;
+                    }
+                } else {
+                    int ordinal = Api.valueOf(name).ordinal();
+                    intervalNanos[ordinal] = interval;
+                    toleranceNanos[ordinal] = interval * burst;
+                }
+            }
+        }
+        return new RateLimits(intervalNanos, toleranceNanos);
+    }
+    
+    public boolean isLimited(Api api) {
+        return intervalNanos[api.ordinal()] > 0;
+    }
+    
+    /**
+     * 1回の呼び出しで消費する時間（1秒あたりの許可数の逆数）
+     */
+    public long intervalNanos(Api api) {
+        return intervalNanos[api.ordinal()];
+    }
+    
+    /**
+     * 連続して許可できる時間の幅（間隔×バースト数）
+     */
+    public long toleranceNanos(Api api) {
+        return toleranceNanos[api.ordinal()];
+    }
+}
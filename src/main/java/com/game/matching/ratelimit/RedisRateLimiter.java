@@ -0,0 +1,104 @@
+package com.game.matching.ratelimit;
+
+import com.game.matching.logging.Api;
+import com.game.matching.metrics.RedisMetrics;
+import com.game.matching.metrics.RedisMetrics.Command;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis上のトークンバケット（全インスタンスで制限を共有する）
+ * 
+ * LocalRateLimiterと同じGCRAをLuaスクリプトで実行し、TATを "ratelimit:{scope}:{api}:{key}" に保存する。
+ * 時刻はRedisのTIMEを使うため、インスタンス間の時計のずれの影響を受けない。
+ * Redisに接続できない場合は制限せずに通す（レート制限のためにAPIを止めない）。
+ */
+public class RedisRateLimiter implements RateLimiter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RedisRateLimiter.class);
+    static final String KEY_PREFIX = "ratelimit:";
+    
+    // ARGV[1]: 間隔（マイクロ秒）、ARGV[2]: 許容幅（マイクロ秒）。戻り値は待ち時間（マイクロ秒、許可した場合は0）
+    static final String SCRIPT =
+        "local now = redis.call('TIME')\n"
+        + "now = tonumber(now[1]) * 1000000 + tonumber(now[2])\n"
+        + "local interval = tonumber(ARGV[1])\n"
+        + "local tat = tonumber(redis.call('GET', KEYS[1]) or now)\n"
+        + "if tat < now then tat = now end\n"
+        + "local nextTat = tat + interval\n"
+        + "local wait = nextTat - tonumber(ARGV[2]) - now\n"
+        + "if wait > 0 then return wait end\n"
+        + "redis.call('SET', KEYS[1], nextTat, 'PX', math.ceil((nextTat - now) / 1000))\n"
+        + "return 0\n";
+    
+    private final JedisPool jedisPool;
+    private final RedisMetrics redisMetrics;
+    private final RateLimits limits;
+    private final String keyPrefix;
+    private final String[] intervalMicros;
+    private final String[] toleranceMicros;
+    private volatile String scriptSha;
+    
+    public RedisRateLimiter(JedisPool jedisPool, RedisMetrics redisMetrics, RateLimits limits, String scope) {
+        this.jedisPool = jedisPool;
+        this.redisMetrics = redisMetrics;
+        this.limits = limits;
+        this.keyPrefix = KEY_PREFIX + scope + ":";
+        Api[] apis = Api.values();
+        this.intervalMicros = new String[apis.length];
+        this.toleranceMicros = new String[apis.length];
+        for (Api api : apis) {
+            intervalMicros[api.ordinal()] = Long.toString(TimeUnit.NANOSECONDS.toMicros(limits.intervalNanos(api)));
+            toleranceMicros[api.ordinal()] = Long.toString(TimeUnit.NANOSECONDS.toMicros(limits.toleranceNanos(api)));
+        }
+    }
+    
+    @Override
+    public long acquire(Api api, String key) {
+        if (!limits.isLimited(api)) {
+            return 0;
+        }
+        String redisKey = keyPrefix + api.getPath() + ":" + key;
+        List<String> args = List.of(intervalMicros[api.ordinal()], toleranceMicros[api.ordinal()]);
+        long startNanos = System.nanoTime();
+        try (Jedis jedis = jedisPool.getResource()) {
+            redisMetrics.recordBorrow(startNanos);
+            long startCommandNanos = System.nanoTime();
+            Object waitMicros = evalsha(jedis, List.of(redisKey), args);
+            redisMetrics.recordCommand(Command.EVALSHA, redisKey, redisKey.length(), startCommandNanos);
+            return TimeUnit.MICROSECONDS.toNanos((Long) waitMicros);
+        } catch (JedisException e) {
+            redisMetrics.recordError(Command.EVALSHA);
+            logger.warn("Rate limit check failed, allowing request: {}", e.getMessage());
+            return 0;
+        }
+    }
+    
+    /**
+     * スクリプトが未登録（Redisの再起動・フェイルオーバー後）の場合は登録し直して再実行する
+     */
+    private Object evalsha(Jedis jedis, List<String> keys, List<String> args) {
+        String sha = scriptSha;
+        if (sha == null) {
+            sha = loadScript(jedis);
+        }
+        try {
+            return jedis.evalsha(sha, keys, args);
+        } catch (JedisNoScriptException e) {
+            return jedis.evalsha(loadScript(jedis), keys, args);
+        }
+    }
+    
+    private String loadScript(Jedis jedis) {
+        String sha = jedis.scriptLoad(SCRIPT);
+        scriptSha = sha;
+        return sha;
+    }
+}
@@ -0,0 +1,202 @@
+package com.game.matching.repository;
+
+import com.game.matching.id.BinaryUuid;
+import com.game.matching.model.Teamspace;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Teamspaceのバイナリ形式
+ * 
+ * <pre>
+ * ヘッダ:      magic(byte 0xFE) version(byte) flags(byte)
+ * teamspaceId: UUID(16 bytes、flags & ID_UUID) または 文字列
+ * createdAt:   varint（エポックミリ秒）
+ * organizer:   文字列
+ * members:     count(varint) 文字列 × count
+ * partyId:     UUID(16 bytes、flags & PARTY_UUID) または 文字列
+ * 文字列:      byteLength + 1(varint、nullは0) UTF-8
+ * varint:      符号なしLEB128（下位7ビットずつ、続きがあれば最上位ビットが1）
+ * </pre>
+ * 
+ * 0xFEはUTF-8に現れないバイトのため、先頭の1バイトでJSONと区別できる（isBinary）。
+ * 形式を変える場合はVERSIONを上げ、decodeで古いバージョンも読めるようにする。
+ */
+public class BinaryTeamspaceCodec implements TeamspaceCodec {
+    
+    static final byte MAGIC = (byte) 0xFE;
+    static final byte VERSION = 1;
+    
+    private static final int HEADER_SIZE = 3;
+    private static final int ID_UUID = 1;
+    private static final int PARTY_UUID = 1 << 1;
+    
+    /**
+     * バイナリ形式で書かれた値か（先頭がMAGIC）
+     */
+    public static boolean isBinary(byte[] bytes) {
+        return bytes.length > 0 && bytes[0] == MAGIC;
+    }
+    
+    @Override
+    public byte[] encode(Teamspace teamspace) {
+        String teamspaceId = teamspace.getTeamspaceId();
+        String organizer = teamspace.getOrganizer();
+        List<String> members = teamspace.getMembers();
+        String partyId = teamspace.getPartyId();
+        long createdAtMillis = teamspace.getCreatedAtMillis();
+        
+        boolean idUuid = BinaryUuid.isValid(teamspaceId);
+        boolean partyUuid = BinaryUuid.isValid(partyId);
+        int size = HEADER_SIZE
+            + (idUuid ? BinaryUuid.BYTES : encodedLength(teamspaceId))
+            + varintLength(createdAtMillis)
+            + encodedLength(organizer)
+            + varintLength(members.size())
+            + (partyUuid ? BinaryUuid.BYTES : encodedLength(partyId));
+        for (String member : members) {
+            size += encodedLength(member);
+        }
+        
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(MAGIC).put(VERSION).put((byte) ((idUuid ? ID_UUID : 0) | (partyUuid ? PARTY_UUID : 0)));
+        putId(buffer, teamspaceId, idUuid);
+        putVarint(buffer, createdAtMillis);
+        putString(buffer, organizer);
+        putVarint(buffer, members.size());
+        for (String member : members) {
+            putString(buffer, member);
+        }
+        putId(buffer, partyId, partyUuid);
+        return buffer.array();
+    }
+    
+    @Override
+    public Teamspace decode(byte[] bytes) {
+        if (!isBinary(bytes) || bytes.length < HEADER_SIZE) {
+            throw new IllegalArgumentException("Not a binary teamspace");
+        }
+        if (bytes[1] != VERSION) {
+            throw new IllegalArgumentException("Unsupported teamspace format version: " + bytes[1]);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+        int flags = bytes[2];
+        try {
+            Teamspace teamspace = new Teamspace();
+            teamspace.setTeamspaceId(getId(buffer, (flags & ID_UUID) != 0));
+            teamspace.setCreatedAtMillis(getVarint(buffer));
+            teamspace.setOrganizer(getString(buffer));
+            long memberCount = getVarint(buffer);
+            if (memberCount < 0 || memberCount > Teamspace.MAX_MEMBERS) {
+                throw new IllegalArgumentException("Invalid member count: " + memberCount);
+            }
+            for (int i = 0; i < memberCount; i++) {
+                teamspace.addMember(getString(buffer));
+            }
+            teamspace.setPartyId(getId(buffer, (flags & PARTY_UUID) != 0));
+            return teamspace;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated teamspace", e);
+        }
+    }
+    
+    private static void putId(ByteBuffer buffer, String id, boolean uuid) {
+        if (uuid) {
+            BinaryUuid.parse(id).writeTo(buffer);
+        } else {
+            putString(buffer, id);
+        }
+    }
+    
+    private static String getId(ByteBuffer buffer, boolean uuid) {
+        return uuid ? BinaryUuid.readFrom(buffer).toString() : getString(buffer);
+    }
+    
+    static int encodedLength(String value) {
+        if (value == null) {
+            return 1;
+        }
+        int bytes = utf8Length(value);
+        return varintLength(bytes + 1) + bytes;
+    }
+    
+    static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        if (isAscii(value)) {
+            int length = value.length();
+            putVarint(buffer, length + 1);
+            for (int i = 0; i < length; i++) {
+                buffer.put((byte) value.charAt(i));
+            }
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putVarint(buffer, bytes.length + 1);
+            buffer.put(bytes);
+        }
+    }
+    
+    static String getString(ByteBuffer buffer) {
+        long length = getVarint(buffer) - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        int offset = buffer.position();
+        buffer.position(offset + (int) length);
+        return new String(buffer.array(), offset, (int) length, StandardCharsets.UTF_8);
+    }
+    
+    static int varintLength(long value) {
+        int bytes = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+    
+    static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+    
+    static long getVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+    
+    /**
+     * UTF-8のバイト数（ASCIIなら文字数と同じ）
+     */
+    private static int utf8Length(String value) {
+        return isAscii(value) ? value.length() : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+    
+    private static boolean isAscii(String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
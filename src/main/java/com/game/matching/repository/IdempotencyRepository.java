@@ -0,0 +1,242 @@
+package com.game.matching.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.game.matching.metrics.RedisMetrics;
+import com.game.matching.metrics.RedisMetrics.Command;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+import redis.clients.jedis.params.SetParams;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Idempotency-Keyごとの最初のレスポンスの保存
+ * 
+ * 実行を始める前に処理中の記録をSET NXで作り（他のリクエストとの排他）、
+ * 成功したらレスポンスで上書きしてttlSecondsの間保持する。失敗した場合は削除し、再送で再実行させる。
+ * 処理中の記録はlockTtlMillisで期限切れになるため、途中でインスタンスが落ちても再送は止まらない。
+ * 
+ * 処理中の記録にはリクエストごとのランダムなowner（トークン）を入れ、上書き・削除はLuaスクリプトで
+ * ownerが一致する場合だけ行う。実行がlockTtlMillisを超え、その間に他のリクエストが同じキーを取り直した
+ * 場合に、元のリクエストが他方の記録を上書き・削除しないようにするため。
+ */
+@Repository
+public class IdempotencyRepository {
+    
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyRepository.class);
+    static final String KEY_PREFIX = "idempotency:";
+    
+    // ARGV[1]: owner、ARGV[2]: 保存する記録、ARGV[3]: TTL（秒）。ownerが一致した場合だけ置き換えて1を返す
+    static final String COMPLETE_SCRIPT =
+        "local current = redis.call('GET', KEYS[1])\n"
+        + "if not current or cjson.decode(current)['owner'] ~= ARGV[1] then return 0 end\n"
+        + "redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[3])\n"
+        + "return 1\n";
+    
+    // ARGV[1]: owner。ownerが一致した場合だけ削除して1を返す
+    static final String RELEASE_SCRIPT =
+        "local current = redis.call('GET', KEYS[1])\n"
+        + "if not current or cjson.decode(current)['owner'] ~= ARGV[1] then return 0 end\n"
+        + "return redis.call('DEL', KEYS[1])\n";
+    
+    private final JedisPool jedisPool;
+    private final RedisMetrics redisMetrics;
+    private final ObjectReader recordReader;
+    private final ObjectWriter recordWriter;
+    private final long ttlSeconds;
+    private final long lockTtlMillis;
+    private final LuaScript completeScript = new LuaScript(COMPLETE_SCRIPT);
+    private final LuaScript releaseScript = new LuaScript(RELEASE_SCRIPT);
+    
+    public IdempotencyRepository(JedisPool jedisPool, RedisMetrics redisMetrics, ObjectMapper objectMapper,
+                                 @Value("${matching.idempotency.ttl-seconds:600}") long ttlSeconds,
+                                 @Value("${matching.idempotency.lock-ttl-ms:10000}") long lockTtlMillis) {
+        this.jedisPool = jedisPool;
+        this.redisMetrics = redisMetrics;
+        this.recordReader = objectMapper.readerFor(IdempotencyRecord.class);
+        this.recordWriter = objectMapper.writerFor(IdempotencyRecord.class);
+        this.ttlSeconds = ttlSeconds;
+        this.lockTtlMillis = lockTtlMillis;
+    }
+    
+    /**
+     * keyの処理中の記録を作る
+     * 
+     * @return 作れた場合はownerを持つClaim（このリクエストが実行する）、既に記録がある場合はその記録を持つClaim
+     */
+    public Claim claim(String key, String requestHash) {
+        String redisKey = KEY_PREFIX + key;
+        String owner = UUID.randomUUID().toString();
+        String pending = serialize(IdempotencyRecord.pending(requestHash, owner));
+        try (Jedis jedis = borrow()) {
+            while (true) {
+                if (setIfAbsent(jedis, redisKey, pending)) {
+                    return new Claim(owner, null);
+                }
+                String json = get(jedis, redisKey);
+                // SET NXとGETの間に期限切れ・削除された場合は作り直す
+                if (json != null) {
+                    return new Claim(null, deserialize(json));
+                }
+            }
+        }
+    }
+    
+    /**
+     * ownerの処理中の記録をレスポンスで置き換える（失敗はログのみ。レスポンスはそのまま返す）
+     * 
+     * @return 置き換えた場合はtrue。記録が期限切れ・他のリクエストのものになっていた場合はfalse
+     */
+    public boolean complete(String key, String owner, IdempotencyRecord record) {
+        String redisKey = KEY_PREFIX + key;
+        String json = serialize(record);
+        long startNanos = System.nanoTime();
+        try (Jedis jedis = borrow()) {
+            Object replaced = completeScript.eval(jedis, redisKey, owner, json, Long.toString(ttlSeconds));
+            redisMetrics.recordCommand(Command.EVALSHA, redisKey, redisKey.length() + json.length(), startNanos);
+            if (Long.valueOf(1).equals(replaced)) {
+                return true;
+            }
+            logger.warn("Idempotency claim expired before the response was stored: key={}", key);
+            return false;
+        } catch (JedisException e) {
+            redisMetrics.recordError(Command.EVALSHA);
+            logger.warn("Failed to store idempotent response: key={}, error={}", key, e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * ownerの処理中の記録を削除する（再送で再実行させる）。他のリクエストの記録は削除しない
+     */
+    public void release(String key, String owner) {
+        String redisKey = KEY_PREFIX + key;
+        long startNanos = System.nanoTime();
+        try (Jedis jedis = borrow()) {
+            releaseScript.eval(jedis, redisKey, owner);
+            redisMetrics.recordCommand(Command.EVALSHA, redisKey, redisKey.length(), startNanos);
+        } catch (JedisException e) {
+            redisMetrics.recordError(Command.EVALSHA);
+            logger.warn("Failed to release idempotency key: key={}, error={}", key, e.getMessage());
+        }
+    }
+    
+    private Jedis borrow() {
+        long startNanos = System.nanoTime();
+        Jedis jedis = jedisPool.getResource();
+        redisMetrics.recordBorrow(startNanos);
+        return jedis;
+    }
+    
+    private boolean setIfAbsent(Jedis jedis, String key, String value) {
+        long startNanos = System.nanoTime();
+        try {
+            String reply = jedis.set(key, value, SetParams.setParams().nx().px(lockTtlMillis));
+            redisMetrics.recordCommand(Command.SET, key, key.length() + value.length(), startNanos);
+            return reply != null;
+        } catch (JedisException e) {
+            redisMetrics.recordError(Command.SET);
+            throw e;
+        }
+    }
+    
+    private String get(Jedis jedis, String key) {
+        long startNanos = System.nanoTime();
+        try {
+            String value = jedis.get(key);
+            redisMetrics.recordCommand(Command.GET, key, key.length() + (value == null ? 0 : value.length()), startNanos);
+            return value;
+        } catch (JedisException e) {
+            redisMetrics.recordError(Command.GET);
+            throw e;
+        }
+    }
+    
+    private String serialize(IdempotencyRecord record) {
+        try {
+            return recordWriter.writeValueAsString(record);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize idempotency record", e);
+        }
+    }
+    
+    private IdempotencyRecord deserialize(String json) {
+        try {
+            return recordReader.readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize idempotency record", e);
+        }
+    }
+    
+    /**
+     * EVALSHAで実行するスクリプト（未登録の場合は登録し直す。RedisRateLimiterと同じ扱い）
+     */
+    private static final class LuaScript {
+        
+        private final String source;
+        private volatile String sha;
+        
+        LuaScript(String source) {
+            this.source = source;
+        }
+        
+        Object eval(Jedis jedis, String key, String... args) {
+            String current = sha;
+            if (current == null) {
+                current = load(jedis);
+            }
+            try {
+                return jedis.evalsha(current, List.of(key), List.of(args));
+            } catch (JedisNoScriptException e) {
+                return jedis.evalsha(load(jedis), List.of(key), List.of(args));
+            }
+        }
+        
+        private String load(Jedis jedis) {
+            String loaded = jedis.scriptLoad(source);
+            sha = loaded;
+            return loaded;
+        }
+    }
+    
+    /**
+     * claimの結果（ownerがあればこのリクエストが実行する。なければexistingが既存の記録）
+     */
+    public record Claim(String owner, IdempotencyRecord existing) {
+        
+        public boolean acquired() {
+            return owner != null;
+        }
+    }
+    
+    /**
+     * 保存したレスポンス（statusが0の間は処理中で、ownerは記録を作ったリクエストのトークン）
+     */
+    public record IdempotencyRecord(String requestHash, int status, String contentType, String body, String owner) {
+        
+        static IdempotencyRecord pending(String requestHash, String owner) {
+            return new IdempotencyRecord(requestHash, 0, null, null, owner);
+        }
+        
+        /**
+         * 完了したレスポンスの記録（ownerなし）
+         */
+        public static IdempotencyRecord completed(String requestHash, int status, String contentType, String body) {
+            return new IdempotencyRecord(requestHash, status, contentType, body, null);
+        }
+        
+        public boolean completed() {
+            return status > 0;
+        }
+    }
+}
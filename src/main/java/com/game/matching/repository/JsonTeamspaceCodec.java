@@ -0,0 +1,42 @@
+package com.game.matching.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.game.matching.model.Teamspace;
+
+import java.io.IOException;
+
+/**
+ * TeamspaceのJSON（teamspaceId、organizer、members、createdAt、partyId）
+ * 
+ * 既定の保存形式（バイナリ形式を読めない旧バージョンと共存できる）。redis-cliで中身を確認できる。
+ */
+public class JsonTeamspaceCodec implements TeamspaceCodec {
+    
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    
+    public JsonTeamspaceCodec(ObjectMapper objectMapper) {
+        this.reader = objectMapper.readerFor(Teamspace.class);
+        this.writer = objectMapper.writerFor(Teamspace.class);
+    }
+    
+    @Override
+    public byte[] encode(Teamspace teamspace) {
+        try {
+            return writer.writeValueAsBytes(teamspace);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize teamspace", e);
+        }
+    }
+    
+    @Override
+    public Teamspace decode(byte[] bytes) {
+        try {
+            return reader.readValue(bytes);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to deserialize teamspace: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.game.matching.repository;
+
+import com.game.matching.metrics.RedisMetrics;
+import com.game.matching.metrics.RedisMetrics.Command;
+import com.game.matching.model.Teamspace;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * RedisRepositoryのノンブロッキング版（WebFlux構成で使用）
+ * 
+ * キーと値の形式（TeamspaceCodec）、TTLはRedisRepositoryと同じ。全件の走査はKEYSではなくSCANで行い、
+ * 取得したキーから順にGETを並行発行する。
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRedisRepository {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveRedisRepository.class);
+    private static final Duration TTL = Duration.ofHours(RedisRepository.TTL_HOURS);
+    private static final long SCAN_COUNT = 1000;
+    private static final int GET_CONCURRENCY = 16;
+    
+    private final ReactiveRedisTemplate<String, byte[]> redisTemplate;
+    private final RedisMetrics redisMetrics;
+    private final TeamspaceCodec codec;
+    
+    public ReactiveRedisRepository(ReactiveRedisConnectionFactory connectionFactory, RedisMetrics redisMetrics,
+                                   TeamspaceCodec codec) {
+        // キーは文字列、値はコーデックのバイト列のまま読み書きする
+        RedisSerializationContext<String, byte[]> serializationContext = RedisSerializationContext
+            .<String, byte[]>newSerializationContext(RedisSerializer.byteArray())
+            .key(RedisSerializer.string())
+            .build();
+        this.redisTemplate = new ReactiveRedisTemplate<>(connectionFactory, serializationContext);
+        this.redisMetrics = redisMetrics;
+        this.codec = codec;
+    }
+    
+    /**
+     * Teamspaceを保存
+     */
+    public Mono<Void> saveTeamspace(Teamspace teamspace) {
+        String key = RedisRepository.TEAMSPACE_KEY_PREFIX + teamspace.getTeamspaceId();
+        return Mono.fromCallable(() -> codec.encode(teamspace))
+            .flatMap(value -> Mono.defer(() -> {
+                long startNanos = System.nanoTime();
+                return redisTemplate.opsForValue().set(key, value, TTL)
+                    .doOnSuccess(ok -> redisMetrics.recordCommand(Command.SETEX, key, key.length() + value.length,
+                                                                  startNanos))
+                    .doOnError(e -> redisMetrics.recordError(Command.SETEX));
+            }))
+            .then();
+    }
+    
+    /**
+     * Teamspaceを取得（存在しない場合は空）
+     */
+    public Mono<Teamspace> getTeamspace(String teamspaceId) {
+        return get(RedisRepository.TEAMSPACE_KEY_PREFIX + teamspaceId).flatMap(this::parse);
+    }
+    
+    /**
+     * Teamspaceを削除
+     */
+    public Mono<Void> deleteTeamspace(String teamspaceId) {
+        String key = RedisRepository.TEAMSPACE_KEY_PREFIX + teamspaceId;
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            return redisTemplate.delete(key)
+                .doOnSuccess(n -> redisMetrics.recordCommand(Command.DEL, key, key.length(), startNanos))
+                .doOnError(e -> redisMetrics.recordError(Command.DEL));
+        }).then();
+    }
+    
+    /**
+     * ユーザーが主催しているteamspaceを検索
+     */
+    public Mono<Teamspace> findTeamspaceByOrganizer(String userId) {
+        return findFirst(teamspace -> teamspace.isOrganizer(userId));
+    }
+    
+    /**
+     * ユーザーがメンバーとして参加しているteamspaceを検索
+     */
+    public Mono<Teamspace> findTeamspaceByMember(String userId) {
+        return findFirst(teamspace -> teamspace.isMember(userId));
+    }
+    
+    /**
+     * すべてのteamspaceを取得（API⑥用、SCANの順）
+     */
+    public Flux<Teamspace> getAllTeamspaces() {
+        return scanKeys()
+            .flatMapSequential(key -> get(key).flatMap(this::parse), GET_CONCURRENCY);
+    }
+    
+    /**
+     * 条件を最初に満たしたteamspace（見つかった時点で残りのSCAN・GETは取り消す）
+     */
+    private Mono<Teamspace> findFirst(Predicate<Teamspace> condition) {
+        return getAllTeamspaces().filter(condition).next();
+    }
+    
+    private Flux<String> scanKeys() {
+        String pattern = RedisRepository.TEAMSPACE_KEY_PREFIX + "*";
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(SCAN_COUNT).build();
+        return Flux.defer(() -> {
+            long startNanos = System.nanoTime();
+            return redisTemplate.scan(options)
+                .doOnComplete(() -> redisMetrics.recordCommand(Command.SCAN, pattern, 0, startNanos))
+                .doOnError(e -> redisMetrics.recordError(Command.SCAN));
+        });
+    }
+    
+    private Mono<byte[]> get(String key) {
+        return Mono.defer(() -> {
+            long startNanos = System.nanoTime();
+            return redisTemplate.opsForValue().get(key)
+                .doOnSuccess(value -> redisMetrics.recordCommand(Command.GET, key,
+                                                                 key.length() + (value == null ? 0 : value.length),
+                                                                 startNanos))
+                .doOnError(e -> redisMetrics.recordError(Command.GET));
+        });
+    }
+    
+    private Mono<Teamspace> parse(byte[] value) {
+        try {
+            return Mono.just(codec.decode(value));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Failed to parse teamspace: {}", e.getMessage());
+            return Mono.empty();
+        }
+    }
+}
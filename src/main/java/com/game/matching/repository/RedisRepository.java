@@ -1,123 +1,176 @@
 package com.game.matching.repository;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.game.matching.concurrent.SingleFlight;
+import com.game.matching.jfr.TeamspaceLoadEvent;
+import com.game.matching.jfr.TeamspaceSaveEvent;
+import com.game.matching.jfr.UserIndexLookupEvent;
+import com.game.matching.metrics.RedisMetrics;
+import com.game.matching.metrics.RedisMetrics.Command;
 import com.game.matching.model.Teamspace;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 @Repository
 public class RedisRepository {
     
     private static final Logger logger = LoggerFactory.getLogger(RedisRepository.class);
-    private static final String TEAMSPACE_KEY_PREFIX = "teamspace:";
-    private static final int TTL_HOURS = 24;
+    static final String TEAMSPACE_KEY_PREFIX = "teamspace:";
+    static final int TTL_HOURS = 24;
     
     private final JedisPool jedisPool;
-    private final ObjectMapper objectMapper;
+    private final TeamspaceCodec codec;
+    private final RedisMetrics redisMetrics;
+    
+    // 同じteamspaceへの同時のGETは1回にまとめる（値のバイト列を共有し、Teamspaceは呼び出し元ごとに生成する）
+    private final SingleFlight<String, byte[]> teamspaceLoads = new SingleFlight<>();
+    private final List<Consumer<Collection<String>>> writeListeners = new CopyOnWriteArrayList<>();
+    
+    // withConnectionの実行中のスレッドが使う接続
+    private final ThreadLocal<Jedis> pinned = new ThreadLocal<>();
     
     public RedisRepository(JedisPool jedisPool) {
+        this(jedisPool, RedisMetrics.noop());
+    }
+    
+    public RedisRepository(JedisPool jedisPool, RedisMetrics redisMetrics) {
+        this(jedisPool, redisMetrics, TeamspaceCodec.forWriting("json"));
+    }
+    
+    @Autowired
+    public RedisRepository(JedisPool jedisPool, RedisMetrics redisMetrics, TeamspaceCodec codec) {
         this.jedisPool = jedisPool;
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
+        this.redisMetrics = redisMetrics;
+        this.codec = codec;
     }
     
     /**
      * Teamspaceを保存
      */
     public void saveTeamspace(Teamspace teamspace) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            String key = TEAMSPACE_KEY_PREFIX + teamspace.getTeamspaceId();
-            String json = objectMapper.writeValueAsString(teamspace);
-            jedis.setex(key, TTL_HOURS * 3600, json);
-            logger.debug("Saved teamspace: {}", key);
-        } catch (JsonProcessingException e) {
-            logger.error("Failed to serialize teamspace", e);
-            throw new RuntimeException("Failed to save teamspace", e);
+        saveTeamspace(teamspace, List.of());
+    }
+    
+    /**
+     * Teamspaceを保存
+     * 
+     * @param removedUserIds この更新でメンバーでなくなったユーザー（書き込み後の通知の対象に加える）
+     */
+    public void saveTeamspace(Teamspace teamspace, Collection<String> removedUserIds) {
+        TeamspaceSaveEvent event = new TeamspaceSaveEvent();
+        event.begin();
+        String key = TEAMSPACE_KEY_PREFIX + teamspace.getTeamspaceId();
+        byte[] value = codec.encode(teamspace);
+        run(jedis -> setex(jedis, key, value));
+        List<String> affectedUserIds = new ArrayList<>(teamspace.getMembers());
+        affectedUserIds.addAll(removedUserIds);
+        afterWrite(teamspace.getTeamspaceId(), affectedUserIds);
+        logger.debug("Saved teamspace: {}", key);
+        if (event.shouldCommit()) {
+            event.teamspaceId = teamspace.getTeamspaceId();
+            event.bytes = value.length;
+            event.commit();
         }
     }
     
     /**
-     * Teamspaceを取得
+     * Teamspaceを取得（同じteamspaceIdの同時の呼び出しはGETを1回にまとめる）
      */
     public Optional<Teamspace> getTeamspace(String teamspaceId) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            String key = TEAMSPACE_KEY_PREFIX + teamspaceId;
-            String json = jedis.get(key);
-            if (json == null) {
-                return Optional.empty();
+        TeamspaceLoadEvent event = new TeamspaceLoadEvent();
+        event.begin();
+        String key = TEAMSPACE_KEY_PREFIX + teamspaceId;
+        byte[] value = teamspaceLoads.load(teamspaceId, () -> call(jedis -> get(jedis, key)));
+        try {
+            Optional<Teamspace> teamspace = value == null
+                ? Optional.empty()
+                : Optional.of(codec.decode(value));
+            if (event.shouldCommit()) {
+                event.teamspaceId = teamspaceId;
+                event.bytes = value == null ? 0 : value.length;
+                event.found = teamspace.isPresent();
+                event.commit();
             }
-            Teamspace teamspace = objectMapper.readValue(json, Teamspace.class);
-            return Optional.of(teamspace);
-        } catch (JsonProcessingException e) {
+            return teamspace;
+        } catch (IllegalArgumentException e) {
             logger.error("Failed to deserialize teamspace", e);
             return Optional.empty();
         }
     }
     
     /**
-     * Teamspaceを削除
+     * Teamspaceを削除（teamspaceは削除前に読み込んだもの。メンバーを書き込み後の通知の対象にする）
      */
-    public void deleteTeamspace(String teamspaceId) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            String key = TEAMSPACE_KEY_PREFIX + teamspaceId;
-            jedis.del(key);
-            logger.debug("Deleted teamspace: {}", key);
+    public void deleteTeamspace(Teamspace teamspace) {
+        String teamspaceId = teamspace.getTeamspaceId();
+        String key = TEAMSPACE_KEY_PREFIX + teamspaceId;
+        run(jedis -> del(jedis, key));
+        afterWrite(teamspaceId, teamspace.getMembers());
+        logger.debug("Deleted teamspace: {}", key);
+    }
+    
+    /**
+     * actionの中で呼び出したこのリポジトリの操作に、プールから取得した1つの接続を使う（バッチAPI用）
+     * 
+     * 接続は呼び出したスレッドだけで使う。TeamspaceExecutorのストライプで実行する更新は、
+     * これまで通りストライプのスレッドでプールから接続を取得する。入れ子の呼び出しは外側の接続を使う。
+     */
+    public <T> T withConnection(Supplier<T> action) {
+        if (pinned.get() != null) {
+            return action.get();
         }
+        try (Jedis jedis = borrow()) {
+            pinned.set(jedis);
+            try {
+                return action.get();
+            } finally {
+                pinned.remove();
+            }
+        }
+    }
+    
+    /**
+     * teamspaceの保存・削除の後に呼ぶ処理を登録する（読み取りをまとめている側の合流の打ち切りに使う）
+     * 
+     * listenerには状態が変わりうるユーザー（更新前後のメンバー）のuserIdを渡す。
+     */
+    public void addWriteListener(Consumer<Collection<String>> listener) {
+        writeListeners.add(listener);
+    }
+    
+    /**
+     * getTeamspaceで実行中のGETに合流した呼び出しの統計
+     */
+    public SingleFlight<String, byte[]> getTeamspaceLoads() {
+        return teamspaceLoads;
     }
     
     /**
      * ユーザーが主催しているteamspaceを検索
      */
     public Optional<Teamspace> findTeamspaceByOrganizer(String userId) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            Set<String> keys = jedis.keys(TEAMSPACE_KEY_PREFIX + "*");
-            for (String key : keys) {
-                String json = jedis.get(key);
-                if (json != null) {
-                    try {
-                        Teamspace teamspace = objectMapper.readValue(json, Teamspace.class);
-                        if (teamspace.getOrganizer().equals(userId)) {
-                            return Optional.of(teamspace);
-                        }
-                    } catch (JsonProcessingException e) {
-                        logger.warn("Failed to parse teamspace: {}", key);
-                    }
-                }
-            }
-        }
-        return Optional.empty();
+        return findFirst("organizer", teamspace -> teamspace.isOrganizer(userId));
     }
     
     /**
      * ユーザーがメンバーとして参加しているteamspaceを検索
      */
     public Optional<Teamspace> findTeamspaceByMember(String userId) {
-        try (Jedis jedis = jedisPool.getResource()) {
-            Set<String> keys = jedis.keys(TEAMSPACE_KEY_PREFIX + "*");
-            for (String key : keys) {
-                String json = jedis.get(key);
-                if (json != null) {
-                    try {
-                        Teamspace teamspace = objectMapper.readValue(json, Teamspace.class);
-                        if (teamspace.getMembers().contains(userId)) {
-                            return Optional.of(teamspace);
-                        }
-                    } catch (JsonProcessingException e) {
-                        logger.warn("Failed to parse teamspace: {}", key);
-                    }
-                }
-            }
-        }
-        return Optional.empty();
+        return findFirst("member", teamspace -> teamspace.isMember(userId));
     }
     
     /**
@@ -125,21 +178,143 @@ public class RedisRepository {
      */
     public List<Teamspace> getAllTeamspaces() {
         List<Teamspace> teamspaces = new ArrayList<>();
-        try (Jedis jedis = jedisPool.getResource()) {
-            Set<String> keys = jedis.keys(TEAMSPACE_KEY_PREFIX + "*");
-            for (String key : keys) {
-                String json = jedis.get(key);
-                if (json != null) {
+        scan("all", teamspace -> {
+            teamspaces.add(teamspace);
+            return false;
+        });
+        return teamspaces;
+    }
+    
+    private Optional<Teamspace> findFirst(String lookup, Predicate<Teamspace> condition) {
+        return Optional.ofNullable(scan(lookup, condition));
+    }
+    
+    /**
+     * 全teamspaceを走査し、conditionを最初に満たしたものを返す（見つからなければnull）
+     */
+    private Teamspace scan(String lookup, Predicate<Teamspace> condition) {
+        UserIndexLookupEvent event = new UserIndexLookupEvent();
+        event.begin();
+        int[] scanned = new int[1];
+        Teamspace found = call(jedis -> {
+            for (String key : keys(jedis)) {
+                scanned[0]++;
+                byte[] value = get(jedis, key);
+                if (value != null) {
                     try {
-                        Teamspace teamspace = objectMapper.readValue(json, Teamspace.class);
-                        teamspaces.add(teamspace);
-                    } catch (JsonProcessingException e) {
+                        Teamspace teamspace = codec.decode(value);
+                        if (condition.test(teamspace)) {
+                            return teamspace;
+                        }
+                    } catch (IllegalArgumentException e) {
                         logger.warn("Failed to parse teamspace: {}", key);
                     }
                 }
             }
+            return null;
+        });
+        if (event.shouldCommit()) {
+            event.lookup = lookup;
+            event.scannedKeys = scanned[0];
+            event.found = found != null;
+            event.commit();
         }
-        return teamspaces;
+        return found;
+    }
+    
+    /**
+     * 書き込みの前に始まった読み取りに、以降の呼び出しを合流させない
+     */
+    private void afterWrite(String teamspaceId, Collection<String> affectedUserIds) {
+        teamspaceLoads.forget(teamspaceId);
+        for (Consumer<Collection<String>> listener : writeListeners) {
+            listener.accept(affectedUserIds);
+        }
+    }
+    
+    /**
+     * withConnectionの接続、なければプールから取得した接続でコマンドを実行する
+     */
+    private <T> T call(Function<Jedis, T> command) {
+        Jedis jedis = pinned.get();
+        if (jedis != null) {
+            return command.apply(jedis);
+        }
+        try (Jedis borrowed = borrow()) {
+            return command.apply(borrowed);
+        }
+    }
+    
+    private void run(Consumer<Jedis> command) {
+        call(jedis -> {
+            command.accept(jedis);
+            return null;
+        });
+    }
+    
+    /**
+     * プールから接続を取得（待ち時間を計測）
+     */
+    private Jedis borrow() {
+        long startNanos = System.nanoTime();
+        Jedis jedis = jedisPool.getResource();
+        redisMetrics.recordBorrow(startNanos);
+        return jedis;
+    }
+    
+    private byte[] get(Jedis jedis, String key) {
+        long startNanos = System.nanoTime();
+        try {
+            byte[] value = jedis.get(key.getBytes(StandardCharsets.UTF_8));
+            int bytes = key.length() + (value == null ? 0 : value.length);
+            redisMetrics.recordCommand(Command.GET, key, bytes, startNanos);
+            return value;
+        } catch (JedisException e) {
+            redisMetrics.recordError(Command.GET);
+            throw e;
+        }
+    }
+    
+    private void setex(Jedis jedis, String key, byte[] value) {
+        long startNanos = System.nanoTime();
+        try {
+            jedis.setex(key.getBytes(StandardCharsets.UTF_8), TTL_HOURS * 3600, value);
+            redisMetrics.recordCommand(Command.SETEX, key, key.length() + value.length, startNanos);
+        } catch (JedisException e) {
+            redisMetrics.recordError(Command.SETEX);
+            throw e;
+        }
+    }
+    
+    private void del(Jedis jedis, String key) {
+        long startNanos = System.nanoTime();
+        try {
+            jedis.del(key);
+            redisMetrics.recordCommand(Command.DEL, key, key.length(), startNanos);
+        } catch (JedisException e) {
+            redisMetrics.recordError(Command.DEL);
+            throw e;
+        }
+    }
+    
+    private Set<String> keys(Jedis jedis) {
+        long startNanos = System.nanoTime();
+        try {
+            String pattern = TEAMSPACE_KEY_PREFIX + "*";
+            Set<String> keys = jedis.keys(pattern);
+            redisMetrics.recordCommand(Command.KEYS, pattern, responseBytes(keys), startNanos);
+            return keys;
+        } catch (JedisException e) {
+            redisMetrics.recordError(Command.KEYS);
+            throw e;
+        }
+    }
+    
+    private static int responseBytes(Set<String> keys) {
+        int bytes = 0;
+        for (String key : keys) {
+            bytes += key.length();
+        }
+        return bytes;
     }
 }
-
@@ -0,0 +1,57 @@
+package com.game.matching.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.matching.config.JacksonConfig;
+import com.game.matching.model.Teamspace;
+
+import java.util.Locale;
+
+/**
+ * Redisに保存するTeamspaceの値の形式
+ * 
+ * binary（BinaryTeamspaceCodec）とjson（JsonTeamspaceCodec、既定、redis-cliで読める）がある。
+ * 
+ * @see #forWriting(String, ObjectMapper)
+ */
+public interface TeamspaceCodec {
+    
+    byte[] encode(Teamspace teamspace);
+    
+    /**
+     * @throws IllegalArgumentException 形式が正しくない場合
+     */
+    Teamspace decode(byte[] bytes);
+    
+    /**
+     * 書き込みはformat（binary|json）、読み込みは先頭のバイトで形式を判定するコーデック
+     * 
+     * 形式を切り替えても、切り替える前に保存したteamspaceはTTLで消えるまでそのまま読める。
+     */
+    static TeamspaceCodec forWriting(String format, ObjectMapper objectMapper) {
+        TeamspaceCodec binary = new BinaryTeamspaceCodec();
+        TeamspaceCodec json = new JsonTeamspaceCodec(objectMapper);
+        TeamspaceCodec writer = switch (format.trim().toLowerCase(Locale.ROOT)) {
+            case "binary" -> binary;
+            case "json" -> json;
+            default -> throw new IllegalArgumentException("Unknown teamspace codec: " + format);
+        };
+        return new TeamspaceCodec() {
+            @Override
+            public byte[] encode(Teamspace teamspace) {
+                return writer.encode(teamspace);
+            }
+            
+            @Override
+            public Teamspace decode(byte[] bytes) {
+                return BinaryTeamspaceCodec.isBinary(bytes) ? binary.decode(bytes) : json.decode(bytes);
+            }
+        };
+    }
+    
+    /**
+     * forWriting(format, objectMapper)と同じ（JSONはJacksonConfig.newObjectMapper()で変換する）
+     */
+    static TeamspaceCodec forWriting(String format) {
+        return forWriting(format, JacksonConfig.newObjectMapper());
+    }
+}
@@ -0,0 +1,191 @@
+package com.game.matching.service;
+
+import com.game.matching.concurrent.TeamspaceExecutor;
+import com.game.matching.dto.*;
+import com.game.matching.exception.BusinessException;
+import com.game.matching.logging.Api;
+import com.game.matching.ratelimit.RateLimiter;
+import com.game.matching.repository.RedisRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * バッチAPI: API①〜⑦の操作をリクエストの順に実行する
+ * 
+ * 認証（AuthFilter）はバッチ全体で1回、Redisの接続は全操作で1つ（RedisRepository.withConnection）。
+ * ただしTeamspaceExecutorが有効な場合は接続を固定しない（更新はストライプのスレッドで別の接続を取得するため、
+ * 固定するとバッチごとに2つの接続を占有する）。
+ * 各操作のバリデーション・userIdの一致チェック・userId単位のレート制限・エラーコードは個別のAPIと同じで、
+ * 結果には個別のAPIを呼んだ場合のHTTPステータスと本文を入れる。
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BatchService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(BatchService.class);
+    
+    private final TeamService teamService;
+    private final GameService gameService;
+    private final RedisRepository redisRepository;
+    private final RateLimiter userRateLimiter;
+    private final Validator validator;
+    private final TeamspaceExecutor teamspaceExecutor;
+    
+    public BatchService(TeamService teamService,
+                        GameService gameService,
+                        RedisRepository redisRepository,
+                        RateLimiter userRateLimiter,
+                        Validator validator,
+                        TeamspaceExecutor teamspaceExecutor) {
+        this.teamService = teamService;
+        this.gameService = gameService;
+        this.redisRepository = redisRepository;
+        this.userRateLimiter = userRateLimiter;
+        this.validator = validator;
+        this.teamspaceExecutor = teamspaceExecutor;
+    }
+    
+    /**
+     * 操作を順に実行する（continueOnErrorがfalseなら最初の失敗で止める）
+     */
+    public BatchResponse execute(String tokenUserId, BatchRequest request) {
+        List<BatchOperation> operations = request.getOperations();
+        List<BatchResult> results = new ArrayList<>(operations.size());
+        if (teamspaceExecutor.isEnabled()) {
+            executeAll(tokenUserId, request, results);
+        } else {
+            redisRepository.withConnection(() -> {
+                executeAll(tokenUserId, request, results);
+                return null;
+            });
+        }
+        return new BatchResponse(results);
+    }
+    
+    private void executeAll(String tokenUserId, BatchRequest request, List<BatchResult> results) {
+        for (BatchOperation operation : request.getOperations()) {
+            BatchResult result = executeOne(tokenUserId, operation);
+            results.add(result);
+            if (!result.isSuccess() && !request.isContinueOnError()) {
+                break;
+            }
+        }
+    }
+    
+    private BatchResult executeOne(String tokenUserId, BatchOperation operation) {
+        String path = operation.getApi();
+        try {
+            Api api = Api.fromPath(path);
+            if (api == null || api == Api.BATCH || api == Api.EVENTS) {
+                throw new BusinessException("VALIDATION_ERROR", "Unknown api: " + path, HttpStatus.BAD_REQUEST);
+            }
+            if (userRateLimiter.acquire(api, tokenUserId) > 0) {
+                throw new BusinessException("RATE_LIMITED", "Too many requests", HttpStatus.TOO_MANY_REQUESTS);
+            }
+            return dispatch(api, tokenUserId, operation);
+        } catch (BusinessException e) {
+            logger.error("Business exception: {}", e.getMessage());
+            return new BatchResult(path, e.getHttpStatus().value(), new ErrorResponse(e.getErrorCode(), e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Unexpected error", e);
+            return new BatchResult(path, HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                                   new ErrorResponse("INTERNAL_SERVER_ERROR", "An unexpected error occurred"));
+        }
+    }
+    
+    /**
+     * TeamController/GameControllerの各APIと同じ処理
+     */
+    private BatchResult dispatch(Api api, String tokenUserId, BatchOperation operation) {
+        String userId = operation.getUserId();
+        String teamspaceId = operation.getTeamspaceId();
+        switch (api) {
+            case ORGANIZE_TEAM -> {
+                OrganizeTeamRequest body = new OrganizeTeamRequest();
+                body.setUserId(userId);
+                validate(body);
+                MatchingRules.requireBodyUser(tokenUserId, userId);
+                return result(api, HttpStatus.CREATED, teamService.organizeTeam(userId));
+            }
+            case JOIN_TEAM -> {
+                JoinTeamRequest body = new JoinTeamRequest();
+                body.setUserId(userId);
+                body.setTeamspaceId(teamspaceId);
+                validate(body);
+                MatchingRules.requireBodyUser(tokenUserId, userId);
+                teamService.joinTeam(userId, teamspaceId);
+                return result(api, HttpStatus.OK, Collections.emptyMap());
+            }
+            case LEAVE_TEAM -> {
+                LeaveTeamRequest body = new LeaveTeamRequest();
+                body.setUserId(userId);
+                body.setTeamspaceId(teamspaceId);
+                validate(body);
+                MatchingRules.requireBodyUser(tokenUserId, userId);
+                teamService.leaveTeam(userId, teamspaceId);
+                return result(api, HttpStatus.OK, Collections.emptyMap());
+            }
+            case START_GAME -> {
+                StartGameRequest body = new StartGameRequest();
+                body.setUserId(userId);
+                body.setTeamspaceId(teamspaceId);
+                validate(body);
+                MatchingRules.requireBodyUser(tokenUserId, userId);
+                return result(api, HttpStatus.OK, gameService.startGame(userId, teamspaceId));
+            }
+            case JOIN_EXISTING_PARTY -> {
+                JoinExistingPartyRequest body = new JoinExistingPartyRequest();
+                body.setUserId(userId);
+                body.setTeamspaceId(teamspaceId);
+                validate(body);
+                MatchingRules.requireBodyUser(tokenUserId, userId);
+                teamService.joinExistingParty(userId, teamspaceId);
+                return result(api, HttpStatus.OK, Collections.emptyMap());
+            }
+            case CHECK_USER_STATE -> {
+                requiredParam(userId, "userId");
+                MatchingRules.requireQueryUser(tokenUserId, userId);
+                return result(api, HttpStatus.OK, gameService.checkUserState(userId));
+            }
+            case LIST_JOINING_PARTY_USERS -> {
+                requiredParam(teamspaceId, "teamspaceId");
+                requiredParam(userId, "userId");
+                MatchingRules.requireQueryUser(tokenUserId, userId);
+                return result(api, HttpStatus.OK, gameService.listJoiningPartyUsers(userId, teamspaceId));
+            }
+            default -> throw new IllegalStateException("Unexpected api: " + api);
+        }
+    }
+    
+    private <T> void validate(T body) {
+        Set<ConstraintViolation<T>> violations = validator.validate(body);
+        if (!violations.isEmpty()) {
+            throw new BusinessException("VALIDATION_ERROR",
+                                      violations.iterator().next().getMessage(),
+                                      HttpStatus.BAD_REQUEST);
+        }
+    }
+    
+    /**
+     * 個別のAPIでクエリパラメータがない場合と同じ扱い（500）
+     */
+    private static void requiredParam(String value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException("Required request parameter '" + name + "' is missing");
+        }
+    }
+    
+    private static BatchResult result(Api api, HttpStatus status, Object body) {
+        return new BatchResult(api.getPath(), status.value(), body);
+    }
+}
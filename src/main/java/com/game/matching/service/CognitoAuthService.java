@@ -1,64 +1,223 @@
 package com.game.matching.service;
 
-import com.auth0.jwk.Jwk;
-import com.auth0.jwk.JwkProvider;
-import com.auth0.jwk.JwkProviderBuilder;
+import com.auth0.jwk.JwkException;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.game.matching.config.CognitoConfig;
+import com.game.matching.jfr.JwtVerificationEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.interfaces.RSAPublicKey;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 public class CognitoAuthService {
     
     private static final Logger logger = LoggerFactory.getLogger(CognitoAuthService.class);
+    private static final long EVICTION_INTERVAL_MILLIS = 1000;
     
-    private final CognitoConfig cognitoConfig;
-    private final JwkProvider jwkProvider;
+    private final JwksKeyStore jwksKeyStore;
+    private final String issuer;
+    private final int maxCachedTokens;
     
-    public CognitoAuthService(CognitoConfig cognitoConfig) {
-        this.cognitoConfig = cognitoConfig;
-        this.jwkProvider = new JwkProviderBuilder(cognitoConfig.getJwksUrl()).build();
+    // トークンのSHA-256 -> 検証済みsub（トークンのexpまで保持）
+    private final Map<TokenKey, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    // kid -> 構築済みのJWTVerifier（鍵が入れ替わったら作り直す）
+    private final Map<String, KeyedVerifier> verifiers = new ConcurrentHashMap<>();
+    private final AtomicLong lastEvictionAt = new AtomicLong();
+    
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder verificationCount = new LongAdder();
+    private final LongAdder verificationNanos = new LongAdder();
+    private final LongAdder signatureVerificationCount = new LongAdder();
+    private final LongAdder signatureVerificationNanos = new LongAdder();
+    
+    public CognitoAuthService(CognitoConfig cognitoConfig, JwksKeyStore jwksKeyStore) {
+        this.jwksKeyStore = jwksKeyStore;
+        this.issuer = cognitoConfig.getIssuer();
+        this.maxCachedTokens = cognitoConfig.getTokenCacheMaxEntries();
     }
     
     /**
      * Cognitoアクセストークンを検証し、ユーザーID（sub）を取得
      * 
+     * 一度検証したトークンはexpまでキャッシュし、2回目以降はハッシュ検索のみで返す。
+     * 
      * @param token アクセストークン
      * @return ユーザーID（sub）
      * @throws Exception トークンが無効な場合
      */
     public String extractUserId(String token) throws Exception {
+        long start = System.nanoTime();
+        JwtVerificationEvent event = new JwtVerificationEvent();
+        event.begin();
+        boolean cacheHit = false;
+        boolean success = false;
         try {
-            DecodedJWT decodedJWT = JWT.decode(token);
-            String kid = decodedJWT.getKeyId();
-            
-            // JWKSから公開鍵を取得
-            Jwk jwk = jwkProvider.get(kid);
-            Algorithm algorithm = Algorithm.RSA256((RSAPublicKey) jwk.getPublicKey(), null);
+            TokenKey key = TokenKey.of(token);
+            VerifiedToken cached = verifiedTokens.get(key);
+            if (cached != null) {
+                if (cached.expiresAtMillis() > System.currentTimeMillis()) {
+                    cacheHits.increment();
+                    cacheHit = true;
+                    success = true;
+                    return cached.userId();
+                }
+                verifiedTokens.remove(key, cached);
+            }
+            cacheMisses.increment();
             
-            // トークンを検証
-            JWT.require(algorithm)
-                .withIssuer("https://cognito-idp." + cognitoConfig.getRegion() + ".amazonaws.com/" + cognitoConfig.getUserPoolId())
-                .build()
-                .verify(token);
+            DecodedJWT verified = verify(token);
             
             // sub（ユーザーID）を取得
-            String userId = decodedJWT.getSubject();
+            String userId = verified.getSubject();
             if (userId == null || userId.isEmpty()) {
                 throw new Exception("Token does not contain subject");
             }
             
+            cacheVerifiedToken(key, userId, verified.getExpiresAt());
+            success = true;
             return userId;
         } catch (Exception e) {
             logger.error("Failed to verify token: {}", e.getMessage());
             throw new Exception("Invalid token: " + e.getMessage(), e);
+        } finally {
+            verificationCount.increment();
+            verificationNanos.add(System.nanoTime() - start);
+            if (event.shouldCommit()) {
+                event.cacheHit = cacheHit;
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
+    
+    private DecodedJWT verify(String token) throws JwkException {
+        long start = System.nanoTime();
+        try {
+            DecodedJWT decodedJWT = JWT.decode(token);
+            return verifierFor(decodedJWT.getKeyId()).verify(decodedJWT);
+        } finally {
+            signatureVerificationCount.increment();
+            signatureVerificationNanos.add(System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * kidごとに構築済みのJWTVerifierを返す
+     */
+    private JWTVerifier verifierFor(String kid) throws JwkException {
+        // 公開鍵はJwksKeyStoreがメモリに保持している（未知のkidの場合のみ再取得）
+        RSAPublicKey publicKey = jwksKeyStore.getKey(kid);
+        String cacheKey = kid != null ? kid : "";
+        KeyedVerifier cached = verifiers.get(cacheKey);
+        if (cached != null && cached.publicKey() == publicKey) {
+            return cached.verifier();
+        }
+        
+        Algorithm algorithm = Algorithm.RSA256(publicKey, null);
+        JWTVerifier verifier = JWT.require(algorithm)
+            .withIssuer(issuer)
+            .build();
+        verifiers.put(cacheKey, new KeyedVerifier(publicKey, verifier));
+        return verifier;
+    }
+    
+    private void cacheVerifiedToken(TokenKey key, String userId, Date expiresAt) {
+        // expのないトークンはキャッシュしない
+        if (expiresAt == null || maxCachedTokens <= 0) {
+            return;
+        }
+        if (verifiedTokens.size() >= maxCachedTokens) {
+            evictExpired();
+            if (verifiedTokens.size() >= maxCachedTokens) {
+                return;
+            }
+        }
+        verifiedTokens.put(key, new VerifiedToken(userId, expiresAt.getTime()));
+    }
+    
+    /**
+     * 期限切れのエントリを削除（満杯時のみ、1秒に1回まで）
+     */
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        long last = lastEvictionAt.get();
+        if (now - last < EVICTION_INTERVAL_MILLIS || !lastEvictionAt.compareAndSet(last, now)) {
+            return;
+        }
+        verifiedTokens.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+    }
+    
+    /**
+     * トークンキャッシュのヒット率（0.0〜1.0）
+     */
+    public double getCacheHitRatio() {
+        long hits = cacheHits.sum();
+        long total = hits + cacheMisses.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+    
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+    
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+    
+    public int getCachedTokenCount() {
+        return verifiedTokens.size();
+    }
+    
+    /**
+     * extractUserId全体の平均所要時間（マイクロ秒、キャッシュヒットを含む）
+     */
+    public double getAverageVerificationMicros() {
+        long count = verificationCount.sum();
+        return count == 0 ? 0.0 : verificationNanos.sum() / 1000.0 / count;
+    }
+    
+    /**
+     * 署名検証（キャッシュミス時）の平均所要時間（マイクロ秒）
+     */
+    public double getAverageSignatureVerificationMicros() {
+        long count = signatureVerificationCount.sum();
+        return count == 0 ? 0.0 : signatureVerificationNanos.sum() / 1000.0 / count;
+    }
+    
+    private record VerifiedToken(String userId, long expiresAtMillis) {
+    }
+    
+    private record KeyedVerifier(RSAPublicKey publicKey, JWTVerifier verifier) {
+    }
+    
+    /**
+     * トークン文字列そのものを保持しないよう、SHA-256の256bitをキーにする
+     */
+    private record TokenKey(long a, long b, long c, long d) {
+        
+        static TokenKey of(String token) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                ByteBuffer hash = ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+                return new TokenKey(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
         }
     }
 }
-
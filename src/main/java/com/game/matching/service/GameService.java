@@ -1,15 +1,22 @@
 package com.game.matching.service;
 
+import com.game.matching.concurrent.SingleFlight;
+import com.game.matching.concurrent.TeamspaceExecutor;
 import com.game.matching.dto.CheckUserStateResponse;
 import com.game.matching.dto.ListJoiningPartyUsersResponse;
+import com.game.matching.dto.PartyIdNotification;
 import com.game.matching.dto.StartGameResponse;
 import com.game.matching.exception.BusinessException;
+import com.game.matching.id.UuidV7;
+import com.game.matching.jfr.WebSocketBroadcastEvent;
+import com.game.matching.logging.Api;
 import com.game.matching.model.Teamspace;
 import com.game.matching.repository.RedisRepository;
-import com.game.matching.websocket.GameWebSocketHandler;
+import com.game.matching.websocket.NotificationFanout;
 import com.game.matching.websocket.WebSocketConnectionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.socket.WebSocketSession;
@@ -17,82 +24,98 @@ import org.springframework.web.socket.WebSocketSession;
 import java.util.*;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GameService {
     
     private static final Logger logger = LoggerFactory.getLogger(GameService.class);
     
     private final RedisRepository redisRepository;
     private final WebSocketConnectionManager connectionManager;
-    private final GameWebSocketHandler webSocketHandler;
+    private final NotificationFanout notificationFanout;
     private final LoggingService loggingService;
+    private final TeamspaceExecutor teamspaceExecutor;
+    
+    // 同じユーザーの同時の状態確認は全teamspaceの走査を1回にまとめる（結果は呼び出し元ごとにコピーして返す）
+    private final SingleFlight<String, CheckUserStateResponse> userStateLoads = new SingleFlight<>();
     
     public GameService(RedisRepository redisRepository,
                       WebSocketConnectionManager connectionManager,
-                      GameWebSocketHandler webSocketHandler,
-                      LoggingService loggingService) {
+                      NotificationFanout notificationFanout,
+                      LoggingService loggingService,
+                      TeamspaceExecutor teamspaceExecutor) {
         this.redisRepository = redisRepository;
         this.connectionManager = connectionManager;
-        this.webSocketHandler = webSocketHandler;
+        this.notificationFanout = notificationFanout;
         this.loggingService = loggingService;
+        this.teamspaceExecutor = teamspaceExecutor;
+        // teamspaceが更新されたら、状態が変わりうるユーザーの更新前に始まった走査には合流させない
+        redisRepository.addWriteListener(userIds -> userIds.forEach(userStateLoads::forget));
     }
     
     /**
      * API④: ゲーム開始
      */
     public StartGameResponse startGame(String userId, String teamspaceId) {
+        // partyIdの設定と通知は同じteamspaceの他の更新と直列化する
+        long startNanos = System.nanoTime();
+        try {
+            return teamspaceExecutor.execute(teamspaceId, () -> doStartGame(userId, teamspaceId));
+        } finally {
+            loggingService.recordLatency(Api.START_GAME, startNanos);
+        }
+    }
+    
+    private StartGameResponse doStartGame(String userId, String teamspaceId) {
         try {
             // teamspaceIdが存在するかチェック
-            Optional<Teamspace> teamspaceOpt = redisRepository.getTeamspace(teamspaceId);
-            if (teamspaceOpt.isEmpty()) {
-                throw new BusinessException("TEAMSPACE_NOT_FOUND",
-                                          "指定されたteamspaceIdが存在しません",
-                                          HttpStatus.NOT_FOUND);
-            }
-            
-            Teamspace teamspace = teamspaceOpt.get();
+            Teamspace teamspace = MatchingRules.requireTeamspace(redisRepository.getTeamspace(teamspaceId));
             
             // ユーザーがteamspaceの主催者かどうかチェック
-            if (!teamspace.isOrganizer(userId)) {
-                throw new BusinessException("NOT_A_AUTHOR",
-                                          "ユーザーはこのteamspaceの主催者ではありません",
-                                          HttpStatus.CONFLICT);
-            }
+            MatchingRules.checkStartGameOrganizer(teamspace, userId);
             
             // ユーザーが他のチームの主催者/メンバーでないかチェック（既にチェック済みのはずだが念のため）
             Optional<Teamspace> existingAsOrganizer = redisRepository.findTeamspaceByOrganizer(userId);
             Optional<Teamspace> existingAsMember = redisRepository.findTeamspaceByMember(userId);
+            MatchingRules.checkStartGame(teamspace, existingAsOrganizer, existingAsMember);
             
-            if ((existingAsOrganizer.isPresent() && 
-                 !existingAsOrganizer.get().getTeamspaceId().equals(teamspaceId)) ||
-                (existingAsMember.isPresent() && 
-                 !existingAsMember.get().getTeamspaceId().equals(teamspaceId))) {
-                throw new BusinessException("USER_ALREADY_IN_TEAM",
-                                          "ユーザーは既に他のチームに参加/主催中です",
-                                          HttpStatus.CONFLICT);
-            }
-            
-            // UUID4でpartyIdを生成
-            String partyId = UUID.randomUUID().toString();
+            // UUIDv7でpartyIdを生成
+            String partyId = UuidV7.nextString();
             teamspace.setPartyId(partyId);
             redisRepository.saveTeamspace(teamspace);
             
-            // 主催者を除く参加者全員へWebSocket通知
+            // 主催者を除く参加者全員へWebSocket・SSEで通知
             List<String> notifiedMembers = new ArrayList<>();
             List<String> failedMembers = new ArrayList<>();
             
             Set<WebSocketSession> sessions = connectionManager.getConnections(teamspaceId);
-            Map<String, Object> notification = Map.of("type", "partyId", "partyId", partyId);
+            PartyIdNotification notification = MatchingRules.partyIdNotification(partyId);
+            WebSocketBroadcastEvent event = new WebSocketBroadcastEvent();
+            event.begin();
             
+            Map<WebSocketSession, String> recipients = new LinkedHashMap<>();
             for (WebSocketSession session : sessions) {
                 // 主催者を除外（主催者はHTTPレスポンスでpartyIdを取得）
                 String sessionUserId = extractUserIdFromSession(session);
                 if (sessionUserId != null && !sessionUserId.equals(userId)) {
-                    if (webSocketHandler.sendMessage(session, notification)) {
-                        notifiedMembers.add(sessionUserId);
-                    } else {
-                        failedMembers.add(sessionUserId);
-                    }
+                    recipients.put(session, sessionUserId);
+                }
+            }
+            List<WebSocketSession> failedSessions =
+                notificationFanout.broadcast(teamspaceId, recipients.keySet(), notification, userId);
+            recipients.forEach((session, memberId) -> {
+                if (failedSessions.contains(session)) {
+                    failedMembers.add(memberId);
+                } else {
+                    notifiedMembers.add(memberId);
                 }
+            });
+            
+            if (event.shouldCommit()) {
+                event.teamspaceId = teamspaceId;
+                event.messageType = "partyId";
+                event.recipients = notifiedMembers.size() + failedMembers.size();
+                event.failures = failedMembers.size();
+                event.commit();
             }
             
             // ログ出力（通知成功/失敗したメンバーを含む）
@@ -115,75 +138,28 @@ public class GameService {
      * API⑥: ユーザー状態確認
      */
     public CheckUserStateResponse checkUserState(String userId) {
+        return checkUserState(userId, null);
+    }
+    
+    /**
+     * API⑥: ユーザー状態確認（再接続時）
+     * 
+     * @param resumedTeamspaceId 再接続用のトークン（ResumeTokens）で検証済みのteamspaceId。
+     *                           ユーザーがそのteamspaceのメンバーなら全teamspaceを走査しない（nullなら常に走査）
+     */
+    public CheckUserStateResponse checkUserState(String userId, String resumedTeamspaceId) {
+        long startNanos = System.nanoTime();
         // userIdのバリデーション
-        if (userId == null || userId.trim().isEmpty()) {
-            throw new BusinessException("VALIDATION_ERROR",
-                                       "userId is required and cannot be empty",
-                                       HttpStatus.BAD_REQUEST);
-        }
-        if (userId.length() > 50) {
-            throw new BusinessException("VALIDATION_ERROR",
-                                       "userId must be 50 characters or less",
-                                       HttpStatus.BAD_REQUEST);
-        }
+        MatchingRules.validateUserId(userId);
         
         try {
-            // すべてのteamspaceを取得
-            List<Teamspace> allTeamspaces = redisRepository.getAllTeamspaces();
-            
-            // 優先順位: 主催者 > ゲーム中 > 参加中
-            Teamspace organizingTeamspace = null;
-            Teamspace playingTeamspace = null;
-            Teamspace joiningTeamspace = null;
-            
-            for (Teamspace teamspace : allTeamspaces) {
-                // 「ゲーム未スタートかつ主催者」
-                if (teamspace.isOrganizer(userId) && teamspace.getPartyId() == null) {
-                    organizingTeamspace = teamspace;
-                    break; // 主催者が最優先
-                }
-                // 「すでに他のパーティでゲームを開始している」
-                if (teamspace.getMembers().contains(userId) && teamspace.getPartyId() != null) {
-                    if (playingTeamspace == null) {
-                        playingTeamspace = teamspace;
-                    }
-                }
-                // 「ゲーム未スタートかつ他のteamspaceに参加中」
-                if (teamspace.getMembers().contains(userId) && 
-                    !teamspace.isOrganizer(userId) && 
-                    teamspace.getPartyId() == null) {
-                    if (joiningTeamspace == null) {
-                        joiningTeamspace = teamspace;
-                    }
-                }
-            }
-            
-            CheckUserStateResponse response;
-            
-            if (organizingTeamspace != null) {
-                // 主催者
-                response = new CheckUserStateResponse(
-                    true, false, false,
-                    organizingTeamspace.getTeamspaceId(), ""
-                );
-            } else if (playingTeamspace != null) {
-                // ゲーム中
-                response = new CheckUserStateResponse(
-                    false, false, true,
-                    "", playingTeamspace.getPartyId()
-                );
-            } else if (joiningTeamspace != null) {
-                // 参加中
-                response = new CheckUserStateResponse(
-                    false, true, false,
-                    joiningTeamspace.getTeamspaceId(), ""
-                );
-            } else {
-                // いずれにも該当しない
-                response = new CheckUserStateResponse(
-                    false, false, false,
-                    "", ""
-                );
+            CheckUserStateResponse response = resumedTeamspaceId == null ? null
+                : resumedUserState(userId, resumedTeamspaceId);
+            if (response == null) {
+                // すべてのteamspaceを取得して判定（同じユーザーの同時の呼び出しは結果を共有）
+                // 合流した呼び出しと同じインスタンスを共有しないようコピーを返す
+                response = userStateLoads.load(userId,
+                    () -> MatchingRules.userState(userId, redisRepository.getAllTeamspaces())).copy();
             }
             
             // ログ出力
@@ -198,48 +174,36 @@ public class GameService {
             logger.error("Failed to check user state", e);
             loggingService.logUserStateCheckFailed(userId, "INTERNAL_SERVER_ERROR", e.getMessage());
             throw new BusinessException("INTERNAL_SERVER_ERROR", "サーバーエラー", HttpStatus.INTERNAL_SERVER_ERROR);
+        } finally {
+            loggingService.recordLatency(Api.CHECK_USER_STATE, startNanos);
         }
     }
     
+    /**
+     * 再接続前のteamspaceだけで判定する（メンバーでなくなっていればnull）
+     * 
+     * 1人が参加・主催できるteamspaceは1つのため、メンバーであれば全teamspaceを走査した結果と同じになる。
+     */
+    private CheckUserStateResponse resumedUserState(String userId, String teamspaceId) {
+        Optional<Teamspace> teamspace = redisRepository.getTeamspace(teamspaceId);
+        if (teamspace.isEmpty() || !teamspace.get().isMember(userId)) {
+            return null;
+        }
+        return MatchingRules.userState(userId, List.of(teamspace.get()));
+    }
+    
     /**
      * API⑦: 参加者一覧取得
      */
     public ListJoiningPartyUsersResponse listJoiningPartyUsers(String userId, String teamspaceId) {
-        // userIdのバリデーション
-        if (userId == null || userId.trim().isEmpty()) {
-            throw new BusinessException("VALIDATION_ERROR",
-                                       "userId is required and cannot be empty",
-                                       HttpStatus.BAD_REQUEST);
-        }
-        if (userId.length() > 50) {
-            throw new BusinessException("VALIDATION_ERROR",
-                                       "userId must be 50 characters or less",
-                                       HttpStatus.BAD_REQUEST);
-        }
-        
-        // teamspaceIdのバリデーション
-        if (teamspaceId == null || teamspaceId.trim().isEmpty()) {
-            throw new BusinessException("VALIDATION_ERROR",
-                                       "teamspaceId is required and cannot be empty",
-                                       HttpStatus.BAD_REQUEST);
-        }
-        // UUID形式チェック
-        if (!teamspaceId.matches("^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$")) {
-            throw new BusinessException("VALIDATION_ERROR",
-                                       "teamspaceId must be a valid UUID",
-                                       HttpStatus.BAD_REQUEST);
-        }
+        long startNanos = System.nanoTime();
+        // userId・teamspaceIdのバリデーション
+        MatchingRules.validateUserId(userId);
+        MatchingRules.validateTeamspaceId(teamspaceId);
         
         try {
             // teamspaceIdが存在するかチェック
-            Optional<Teamspace> teamspaceOpt = redisRepository.getTeamspace(teamspaceId);
-            if (teamspaceOpt.isEmpty()) {
-                throw new BusinessException("TEAMSPACE_NOT_FOUND",
-                                          "指定されたteamspaceIdが存在しません",
-                                          HttpStatus.NOT_FOUND);
-            }
-            
-            Teamspace teamspace = teamspaceOpt.get();
+            Teamspace teamspace = MatchingRules.requireTeamspace(redisRepository.getTeamspace(teamspaceId));
             List<String> userIds = new ArrayList<>(teamspace.getMembers());
             
             // ログ出力
@@ -254,9 +218,18 @@ public class GameService {
             logger.error("Failed to list users", e);
             loggingService.logUsersListFailed(userId, teamspaceId, "INTERNAL_SERVER_ERROR", e.getMessage());
             throw new BusinessException("INTERNAL_SERVER_ERROR", "サーバーエラー", HttpStatus.INTERNAL_SERVER_ERROR);
+        } finally {
+            loggingService.recordLatency(Api.LIST_JOINING_PARTY_USERS, startNanos);
         }
     }
     
+    /**
+     * API⑥の走査に合流した呼び出しの統計
+     */
+    public SingleFlight<String, CheckUserStateResponse> getUserStateLoads() {
+        return userStateLoads;
+    }
+    
     private String extractUserIdFromSession(WebSocketSession session) {
         return connectionManager.getUserId(session);
     }
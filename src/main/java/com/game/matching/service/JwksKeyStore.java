@@ -0,0 +1,228 @@
+package com.game.matching.service;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.JwkException;
+import com.auth0.jwk.SigningKeyNotFoundException;
+import com.auth0.jwk.UrlJwkProvider;
+import com.game.matching.config.CognitoConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * JWKSの公開鍵をメモリに保持するストア
+ * 
+ * 起動時に先読みし、以降は定期的にバックグラウンドで更新する。未知のkidを受け取った場合も
+ * 更新を行うが、同時に来たリクエストは1回の取得を共有する（シングルフライト）。
+ * cognito.jwks-file が設定されている場合はCognitoではなくローカルのJWKSファイルから読み込む。
+ */
+@Component
+public class JwksKeyStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JwksKeyStore.class);
+    
+    private final CognitoConfig cognitoConfig;
+    private final JwksFetcher fetcher;
+    private final String source;
+    private final ScheduledExecutorService scheduler;
+    
+    private volatile Map<String, RSAPublicKey> keys = Map.of();
+    private final AtomicReference<CompletableFuture<Void>> inflight = new AtomicReference<>();
+    private final AtomicLong lastRefreshStartedAt = new AtomicLong();
+    private final AtomicLong refreshCount = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    
+    /**
+     * JWKSの取得（テストではスタブに差し替える）
+     */
+    interface JwksFetcher {
+        List<Jwk> fetchAll() throws JwkException;
+    }
+    
+    @Autowired
+    public JwksKeyStore(CognitoConfig cognitoConfig) {
+        this(cognitoConfig, resolveUrl(cognitoConfig));
+    }
+    
+    private JwksKeyStore(CognitoConfig cognitoConfig, URL url) {
+        this(cognitoConfig, url.toString(), urlFetcher(url, (int) cognitoConfig.getJwksFetchTimeoutMillis()));
+    }
+    
+    JwksKeyStore(CognitoConfig cognitoConfig, String source, JwksFetcher fetcher) {
+        this.cognitoConfig = cognitoConfig;
+        this.source = source;
+        this.fetcher = fetcher;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "jwks-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * 起動時にJWKSを先読みし、定期更新を開始
+     */
+    @PostConstruct
+    public void start() {
+        try {
+            refresh().get(cognitoConfig.getJwksFetchTimeoutMillis() * 2, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // 起動は止めない（最初のリクエストで再取得する）
+            logger.warn("Failed to prefetch JWKS from {}: {}", source, e.getMessage());
+        }
+        long interval = cognitoConfig.getJwksRefreshIntervalSeconds();
+        if (interval > 0) {
+            scheduler.scheduleWithFixedDelay(this::scheduledRefresh, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+    
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+    
+    /**
+     * kidに対応する公開鍵を取得
+     * 
+     * 未知のkidの場合は最小間隔を空けてJWKSを再取得する（キーローテーション対応）。
+     */
+    public RSAPublicKey getKey(String kid) throws JwkException {
+        RSAPublicKey key = lookup(kid);
+        if (key != null) {
+            return key;
+        }
+        
+        long sinceLastRefresh = System.currentTimeMillis() - lastRefreshStartedAt.get();
+        if (sinceLastRefresh < cognitoConfig.getJwksMinRefreshIntervalMillis() && inflight.get() == null) {
+            throw new SigningKeyNotFoundException("No key found for kid " + kid, null);
+        }
+        
+        try {
+            refresh().get(cognitoConfig.getJwksFetchTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SigningKeyNotFoundException("Interrupted while refreshing JWKS", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new SigningKeyNotFoundException("Failed to refresh JWKS", e);
+        }
+        
+        key = lookup(kid);
+        if (key == null) {
+            throw new SigningKeyNotFoundException("No key found for kid " + kid, null);
+        }
+        return key;
+    }
+    
+    /**
+     * JWKSを再取得（実行中の取得があればそれを共有する）
+     */
+    public CompletableFuture<Void> refresh() {
+        CompletableFuture<Void> mine = new CompletableFuture<>();
+        CompletableFuture<Void> current = inflight.compareAndExchange(null, mine);
+        if (current != null) {
+            return current;
+        }
+        lastRefreshStartedAt.set(System.currentTimeMillis());
+        try {
+            scheduler.execute(() -> {
+                try {
+                    load();
+                    inflight.set(null);
+                    mine.complete(null);
+                } catch (Throwable t) {
+                    inflight.set(null);
+                    mine.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inflight.set(null);
+            mine.completeExceptionally(e);
+        }
+        return mine;
+    }
+    
+    public int getKeyCount() {
+        return keys.size();
+    }
+    
+    public long getRefreshCount() {
+        return refreshCount.get();
+    }
+    
+    public long getRefreshFailures() {
+        return refreshFailures.get();
+    }
+    
+    private RSAPublicKey lookup(String kid) {
+        Map<String, RSAPublicKey> current = keys;
+        if (kid == null) {
+            // kidのないトークンは鍵が1つだけの場合に限り受け付ける
+            return current.size() == 1 ? current.values().iterator().next() : null;
+        }
+        return current.get(kid);
+    }
+    
+    private void scheduledRefresh() {
+        refresh().exceptionally(e -> {
+            logger.warn("Scheduled JWKS refresh failed: {}", e.getMessage());
+            return null;
+        });
+    }
+    
+    private void load() throws JwkException {
+        try {
+            List<Jwk> jwks = fetcher.fetchAll();
+            Map<String, RSAPublicKey> loaded = new HashMap<>();
+            for (Jwk jwk : jwks) {
+                if (!"RSA".equals(jwk.getType()) || jwk.getId() == null) {
+                    continue;
+                }
+                PublicKey publicKey = jwk.getPublicKey();
+                loaded.put(jwk.getId(), (RSAPublicKey) publicKey);
+            }
+            if (loaded.isEmpty()) {
+                // 空のJWKSで既存の鍵を消さない
+                throw new SigningKeyNotFoundException("JWKS from " + source + " contains no RSA keys", null);
+            }
+            keys = Map.copyOf(loaded);
+            refreshCount.incrementAndGet();
+            logger.info("Loaded {} JWKS keys from {}", loaded.size(), source);
+        } catch (JwkException | RuntimeException e) {
+            refreshFailures.incrementAndGet();
+            throw e;
+        }
+    }
+    
+    private static JwksFetcher urlFetcher(URL url, int timeoutMillis) {
+        UrlJwkProvider provider = new UrlJwkProvider(url, timeoutMillis, timeoutMillis);
+        return provider::getAll;
+    }
+    
+    private static URL resolveUrl(CognitoConfig cognitoConfig) {
+        try {
+            String jwksFile = cognitoConfig.getJwksFile();
+            if (jwksFile != null && !jwksFile.isBlank()) {
+                logger.info("Using local JWKS file: {}", jwksFile);
+                return new File(jwksFile).toURI().toURL();
+            }
+            return new URL(cognitoConfig.getJwksUrl());
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid JWKS location", e);
+        }
+    }
+}
@@ -1,143 +1,174 @@
 package com.game.matching.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.matching.audit.AuditEventType;
+import com.game.matching.audit.AuditSink;
+import com.game.matching.logging.Api;
+import com.game.matching.logging.ApiStats;
+import com.game.matching.logging.EventLogPipeline;
+import com.game.matching.logging.EventSampler;
+import com.game.matching.logging.EventType;
+import com.game.matching.logging.LogEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @Service
 public class LoggingService {
     
     private static final Logger logger = LoggerFactory.getLogger(LoggingService.class);
-    private final ObjectMapper objectMapper;
+    private final EventLogPipeline eventLogPipeline;
+    private final EventSampler eventSampler;
+    private final ApiStats apiStats;
+    private final AuditSink auditSink;
     
-    public LoggingService() {
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.findAndRegisterModules();
+    public LoggingService(EventLogPipeline eventLogPipeline, EventSampler eventSampler, ApiStats apiStats,
+                          AuditSink auditSink) {
+        this.eventLogPipeline = eventLogPipeline;
+        this.eventSampler = eventSampler;
+        this.apiStats = apiStats;
+        this.auditSink = auditSink;
+    }
+    
+    /**
+     * APIの所要時間を集計に加える（成功・失敗とも、サンプリング対象外）
+     */
+    public void recordLatency(Api api, long startNanos) {
+        apiStats.recordLatency(api, System.nanoTime() - startNanos);
     }
     
     // API①
     public void logTeamspaceCreated(String userId, String teamspaceId) {
-        String message = String.format("[API①] TeamSpace created successfully - userId: %s, teamspaceId: %s, timestamp: %s",
-                                       userId, teamspaceId, Instant.now().toString());
-        logger.info(message);
-        logStructured("TEAMSPACE_CREATED", userId, teamspaceId, null);
+        // 監査ジャーナルはサンプリングに関係なく記録する
+        auditSink.append(AuditEventType.TEAMSPACE_CREATED, userId, teamspaceId, null);
+        if (!shouldLog(EventType.TEAMSPACE_CREATED)) {
+            return;
+        }
+        logger.info("[API①] TeamSpace created successfully - userId: {}, teamspaceId: {}", userId, teamspaceId);
+        logStructured(EventType.TEAMSPACE_CREATED, userId, teamspaceId, null);
     }
     
     public void logTeamspaceCreateFailed(String userId, String errorCode, String errorMessage) {
-        String message = String.format("[API①] Failed to create TeamSpace - userId: %s, error: %s, message: %s, timestamp: %s",
-                                       userId, errorCode, errorMessage, Instant.now().toString());
-        logger.error(message);
+        apiStats.recordFailure(Api.ORGANIZE_TEAM);
+        logger.error("[API①] Failed to create TeamSpace - userId: {}, error: {}, message: {}",
+                     userId, errorCode, errorMessage);
     }
     
     // API②
     public void logTeamspaceJoined(String userId, String teamspaceId) {
-        String message = String.format("[API②] TeamSpace joined successfully - userId: %s, teamspaceId: %s, timestamp: %s",
-                                       userId, teamspaceId, Instant.now().toString());
-        logger.info(message);
-        logStructured("TEAMSPACE_JOINED", userId, teamspaceId, null);
+        auditSink.append(AuditEventType.TEAMSPACE_JOINED, userId, teamspaceId, null);
+        if (!shouldLog(EventType.TEAMSPACE_JOINED)) {
+            return;
+        }
+        logger.info("[API②] TeamSpace joined successfully - userId: {}, teamspaceId: {}", userId, teamspaceId);
+        logStructured(EventType.TEAMSPACE_JOINED, userId, teamspaceId, null);
     }
     
     public void logTeamspaceJoinFailed(String userId, String errorCode, String errorMessage) {
-        String message = String.format("[API②] Failed to join to TeamSpace - userId: %s, error: %s, message: %s, timestamp: %s",
-                                       userId, errorCode, errorMessage, Instant.now().toString());
-        logger.error(message);
+        apiStats.recordFailure(Api.JOIN_TEAM);
+        logger.error("[API②] Failed to join to TeamSpace - userId: {}, error: {}, message: {}",
+                     userId, errorCode, errorMessage);
     }
     
     // API③
     public void logTeamspaceLeft(String userId, String teamspaceId) {
-        String message = String.format("[API③] TeamSpace left successfully - userId: %s, teamspaceId: %s, timestamp: %s",
-                                       userId, teamspaceId, Instant.now().toString());
-        logger.info(message);
-        logStructured("TEAMSPACE_LEFT", userId, teamspaceId, null);
+        auditSink.append(AuditEventType.TEAMSPACE_LEFT, userId, teamspaceId, null);
+        if (!shouldLog(EventType.TEAMSPACE_LEFT)) {
+            return;
+        }
+        logger.info("[API③] TeamSpace left successfully - userId: {}, teamspaceId: {}", userId, teamspaceId);
+        logStructured(EventType.TEAMSPACE_LEFT, userId, teamspaceId, null);
     }
     
     public void logTeamspaceLeaveFailed(String userId, String errorCode, String errorMessage) {
-        String message = String.format("[API③] Failed to left from TeamSpace - userId: %s, error: %s, message: %s, timestamp: %s",
-                                       userId, errorCode, errorMessage, Instant.now().toString());
-        logger.error(message);
+        apiStats.recordFailure(Api.LEAVE_TEAM);
+        logger.error("[API③] Failed to left from TeamSpace - userId: {}, error: {}, message: {}",
+                     userId, errorCode, errorMessage);
     }
     
     // API④
     public void logGameStart(String organizer, String teamspaceId, String partyId,
                             List<String> notifiedMembers, List<String> failedMembers) {
-        String message = String.format("[API④] Game Start successfully - organizer: %s, teamspaceId: %s, partyId: %s, " +
-                                       "notifiedMembers: %s, failedMembers: %s, timestamp: %s",
-                                       organizer, teamspaceId, partyId, notifiedMembers, failedMembers, Instant.now().toString());
-        logger.info(message);
-        logStructured("GAME_START", organizer, teamspaceId, partyId);
+        auditSink.append(AuditEventType.GAME_START, organizer, teamspaceId, partyId);
+        if (!shouldLog(EventType.GAME_START)) {
+            return;
+        }
+        // メンバー一覧は件数のみ出力する（失敗したメンバーは調査用に残す）
+        logger.info("[API④] Game Start successfully - organizer: {}, teamspaceId: {}, partyId: {}, " +
+                    "notifiedCount: {}, failedMembers: {}",
+                    organizer, teamspaceId, partyId, notifiedMembers.size(), failedMembers);
+        eventLogPipeline.publish(EventType.GAME_START, organizer, teamspaceId, partyId,
+                                 notifiedMembers.size(), failedMembers.size());
     }
     
     public void logGameStartFailed(String userId, String errorCode, String errorMessage) {
-        String message = String.format("[API④] Failed to start game - organizer: %s, error: %s, message: %s, timestamp: %s",
-                                       userId, errorCode, errorMessage, Instant.now().toString());
-        logger.error(message);
+        apiStats.recordFailure(Api.START_GAME);
+        logger.error("[API④] Failed to start game - organizer: {}, error: {}, message: {}",
+                     userId, errorCode, errorMessage);
     }
     
     // API⑤
     public void logPartyJoined(String userId, String teamspaceId) {
-        String message = String.format("[API⑤] Party joined successfully - userId: %s, teamspaceId: %s, timestamp: %s",
-                                       userId, teamspaceId, Instant.now().toString());
-        logger.info(message);
-        logStructured("PARTY_JOINED", userId, teamspaceId, null);
+        auditSink.append(AuditEventType.PARTY_JOINED, userId, teamspaceId, null);
+        if (!shouldLog(EventType.PARTY_JOINED)) {
+            return;
+        }
+        logger.info("[API⑤] Party joined successfully - userId: {}, teamspaceId: {}", userId, teamspaceId);
+        logStructured(EventType.PARTY_JOINED, userId, teamspaceId, null);
     }
     
     public void logPartyJoinFailed(String userId, String errorCode, String errorMessage) {
-        String message = String.format("[API⑤] Failed to join to Party - userId: %s, error: %s, message: %s, timestamp: %s",
-                                       userId, errorCode, errorMessage, Instant.now().toString());
-        logger.error(message);
+        apiStats.recordFailure(Api.JOIN_EXISTING_PARTY);
+        logger.error("[API⑤] Failed to join to Party - userId: {}, error: {}, message: {}",
+                     userId, errorCode, errorMessage);
     }
     
     // API⑥
     public void logUserStateChecked(String userId) {
-        String message = String.format("[API⑥] Check user state successfully - userId: %s, timestamp: %s",
-                                       userId, Instant.now().toString());
-        logger.info(message);
-        logStructured("CHECK_USER_STATE", userId, null, null);
+        if (!shouldLog(EventType.CHECK_USER_STATE)) {
+            return;
+        }
+        logger.info("[API⑥] Check user state successfully - userId: {}", userId);
+        logStructured(EventType.CHECK_USER_STATE, userId, null, null);
     }
     
     public void logUserStateCheckFailed(String userId, String errorCode, String errorMessage) {
-        String message = String.format("[API⑥] Failed to check user state - userId: %s, error: %s, message: %s, timestamp: %s",
-                                       userId, errorCode, errorMessage, Instant.now().toString());
-        logger.error(message);
+        apiStats.recordFailure(Api.CHECK_USER_STATE);
+        logger.error("[API⑥] Failed to check user state - userId: {}, error: {}, message: {}",
+                     userId, errorCode, errorMessage);
     }
     
     // API⑦
     public void logUsersListed(String userId, String teamspaceId, List<String> userIds) {
-        String message = String.format("[API⑦] List users successfully - userIds: %s, teamspaceId: %s, timestamp: %s",
-                                       userIds, teamspaceId, Instant.now().toString());
-        logger.info(message);
-        logStructured("LIST_USERS", userId, teamspaceId, null);
+        if (!shouldLog(EventType.LIST_USERS)) {
+            return;
+        }
+        logger.info("[API⑦] List users successfully - userId: {}, teamspaceId: {}, userCount: {}",
+                    userId, teamspaceId, userIds.size());
+        eventLogPipeline.publish(EventType.LIST_USERS, userId, teamspaceId, null,
+                                 userIds.size(), LogEvent.NO_COUNT);
     }
     
     public void logUsersListFailed(String userId, String teamspaceId, String errorCode, String errorMessage) {
-        String message = String.format("[API⑦] Failed to list users - userId: %s, teamspaceId: %s, error: %s, message: %s, timestamp: %s",
-                                       userId, teamspaceId, errorCode, errorMessage, Instant.now().toString());
-        logger.error(message);
-    }
-    
-    private void logStructured(String eventType, String userId, String teamspaceId, String partyId) {
-        try {
-            Map<String, Object> logData = new HashMap<>();
-            logData.put("level", "INFO");
-            logData.put("eventType", eventType);
-            logData.put("userId", userId);
-            logData.put("teamspaceId", teamspaceId);
-            if (partyId != null) {
-                logData.put("partyId", partyId);
-            }
-            logData.put("timestamp", Instant.now().toString());
-            
-            String json = objectMapper.writeValueAsString(logData);
-            logger.info(json);
-        } catch (Exception e) {
-            logger.warn("Failed to log structured data", e);
+        apiStats.recordFailure(Api.LIST_JOINING_PARTY_USERS);
+        logger.error("[API⑦] Failed to list users - userId: {}, teamspaceId: {}, error: {}, message: {}",
+                     userId, teamspaceId, errorCode, errorMessage);
+    }
+    
+    /**
+     * 成功件数を数え、サンプリングで出力対象かどうかを判定
+     */
+    private boolean shouldLog(EventType eventType) {
+        apiStats.recordSuccess(eventType.getApi());
+        if (eventSampler.sample(eventType)) {
+            return true;
         }
+        apiStats.recordSampledOut(eventType.getApi());
+        return false;
+    }
+    
+    private void logStructured(EventType eventType, String userId, String teamspaceId, String partyId) {
+        eventLogPipeline.publish(eventType, userId, teamspaceId, partyId, LogEvent.NO_COUNT, LogEvent.NO_COUNT);
     }
 }
-
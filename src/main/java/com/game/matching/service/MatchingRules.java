@@ -0,0 +1,269 @@
+package com.game.matching.service;
+
+import com.game.matching.dto.CheckUserStateResponse;
+import com.game.matching.dto.MemberListNotification;
+import com.game.matching.dto.PartyIdNotification;
+import com.game.matching.exception.BusinessException;
+import com.game.matching.id.BinaryUuid;
+import com.game.matching.model.Teamspace;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * APIの業務ルール（入力チェック、参加可否の判定、状態の判定、通知の内容）
+ * 
+ * Redisへのアクセスは含まない。サーブレット版（TeamService/GameService）と
+ * WebFlux版（ReactiveTeamService/ReactiveGameService）で同じルールを使うために分けている。
+ * 違反時はBusinessExceptionを投げる。
+ */
+public final class MatchingRules {
+    
+    public static final int MAX_TEAM_MEMBERS = Teamspace.MAX_MEMBERS;
+    
+    private MatchingRules() {
+    }
+    
+    /**
+     * トークンのuserIdとリクエストボディのuserIdが一致するか
+     */
+    public static void requireBodyUser(String tokenUserId, String userId) {
+        if (!tokenUserId.equals(userId)) {
+            throw new BusinessException("VALIDATION_ERROR",
+                                       "Token userId does not match request userId",
+                                       HttpStatus.BAD_REQUEST);
+        }
+    }
+    
+    /**
+     * トークンのuserIdとクエリパラメータのuserIdが一致するか
+     */
+    public static void requireQueryUser(String tokenUserId, String userId) {
+        if (!tokenUserId.equals(userId)) {
+            throw new BusinessException("VALIDATION_ERROR",
+                                       "Token userId does not match query parameter userId",
+                                       HttpStatus.BAD_REQUEST);
+        }
+    }
+    
+    /**
+     * クエリパラメータのuserIdのチェック（API⑥⑦）
+     */
+    public static void validateUserId(String userId) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new BusinessException("VALIDATION_ERROR",
+                                       "userId is required and cannot be empty",
+                                       HttpStatus.BAD_REQUEST);
+        }
+        if (userId.length() > 50) {
+            throw new BusinessException("VALIDATION_ERROR",
+                                       "userId must be 50 characters or less",
+                                       HttpStatus.BAD_REQUEST);
+        }
+    }
+    
+    /**
+     * クエリパラメータのteamspaceIdのチェック（API⑦）
+     */
+    public static void validateTeamspaceId(String teamspaceId) {
+        if (teamspaceId == null || teamspaceId.trim().isEmpty()) {
+            throw new BusinessException("VALIDATION_ERROR",
+                                       "teamspaceId is required and cannot be empty",
+                                       HttpStatus.BAD_REQUEST);
+        }
+        // UUID形式チェック（小文字の36文字）
+        if (!BinaryUuid.isValid(teamspaceId)) {
+            throw new BusinessException("VALIDATION_ERROR",
+                                       "teamspaceId must be a valid UUID",
+                                       HttpStatus.BAD_REQUEST);
+        }
+    }
+    
+    /**
+     * teamspaceIdが存在するか
+     */
+    public static Teamspace requireTeamspace(Optional<Teamspace> teamspace) {
+        return teamspace.orElseThrow(() -> new BusinessException("TEAMSPACE_NOT_FOUND",
+                                                                "指定されたteamspaceIdが存在しません",
+                                                                HttpStatus.NOT_FOUND));
+    }
+    
+    /**
+     * API①: ユーザーが既に他のチームに参加/主催していないか
+     */
+    public static void checkOrganize(Optional<Teamspace> existingAsOrganizer, Optional<Teamspace> existingAsMember) {
+        if (existingAsOrganizer.isPresent() || existingAsMember.isPresent()) {
+            throw new BusinessException("USER_ALREADY_IN_TEAM",
+                                      "ユーザーは既に他のチームに参加しています",
+                                      HttpStatus.CONFLICT);
+        }
+    }
+    
+    /**
+     * API②: 参加できるか（他のチームへの参加、同じteamspaceへの参加済み、満員）
+     */
+    public static void checkJoin(Teamspace teamspace, String userId,
+                                 Optional<Teamspace> existingAsOrganizer, Optional<Teamspace> existingAsMember) {
+        checkNotInOtherTeam(teamspace, existingAsOrganizer, existingAsMember);
+        checkNotJoined(teamspace, userId);
+        
+        // メンバー数が4人未満かチェック
+        if (teamspace.getMemberCount() >= MAX_TEAM_MEMBERS) {
+            throw new BusinessException("TEAMSPACE_FULL",
+                                      "teamspaceが満員（4人）です",
+                                      HttpStatus.CONFLICT);
+        }
+    }
+    
+    /**
+     * API③: 脱退できるか
+     * 
+     * @return 主催者の場合true（teamspaceごと削除する）
+     */
+    public static boolean checkLeave(Teamspace teamspace, String userId) {
+        // ユーザーがteamspaceのメンバーかどうかチェック
+        if (!teamspace.isMember(userId)) {
+            throw new BusinessException("NOT_A_MEMBER",
+                                      "ユーザーはこのteamspaceのメンバーではありません",
+                                      HttpStatus.CONFLICT);
+        }
+        return teamspace.isOrganizer(userId);
+    }
+    
+    /**
+     * API④: ユーザーがteamspaceの主催者か
+     */
+    public static void checkStartGameOrganizer(Teamspace teamspace, String userId) {
+        if (!teamspace.isOrganizer(userId)) {
+            throw new BusinessException("NOT_A_AUTHOR",
+                                      "ユーザーはこのteamspaceの主催者ではありません",
+                                      HttpStatus.CONFLICT);
+        }
+    }
+    
+    /**
+     * API④: 主催者が他のチームの主催者/メンバーでないか
+     */
+    public static void checkStartGame(Teamspace teamspace,
+                                      Optional<Teamspace> existingAsOrganizer, Optional<Teamspace> existingAsMember) {
+        String teamspaceId = teamspace.getTeamspaceId();
+        if ((existingAsOrganizer.isPresent() &&
+             !existingAsOrganizer.get().getTeamspaceId().equals(teamspaceId)) ||
+            (existingAsMember.isPresent() &&
+             !existingAsMember.get().getTeamspaceId().equals(teamspaceId))) {
+            throw new BusinessException("USER_ALREADY_IN_TEAM",
+                                      "ユーザーは既に他のチームに参加/主催中です",
+                                      HttpStatus.CONFLICT);
+        }
+    }
+    
+    /**
+     * API⑤: ゲーム中のパーティに参加できるか（他のチームへの参加、参加済み、満員、ゲーム未開始）
+     */
+    public static void checkJoinExistingParty(Teamspace teamspace, String userId,
+                                              Optional<Teamspace> existingAsOrganizer,
+                                              Optional<Teamspace> existingAsMember) {
+        checkNotInOtherTeam(teamspace, existingAsOrganizer, existingAsMember);
+        checkNotJoined(teamspace, userId);
+        
+        // メンバー数が4人未満かチェック
+        if (teamspace.getMemberCount() >= MAX_TEAM_MEMBERS) {
+            throw new BusinessException("TEAMSPACE_FULL",
+                                      "該当partyが満員（4人）です",
+                                      HttpStatus.CONFLICT);
+        }
+        
+        // partyIdが設定されているかチェック（ゲームが開始されているか）
+        if (teamspace.getPartyId() == null || teamspace.getPartyId().isEmpty()) {
+            throw new BusinessException("GAME_NOT_STARTED",
+                                      "ゲームが開始されていません",
+                                      HttpStatus.CONFLICT);
+        }
+    }
+    
+    /**
+     * API⑥: 全teamspaceからユーザーの状態を判定
+     * 
+     * 優先順位: 主催者 > ゲーム中 > 参加中
+     */
+    public static CheckUserStateResponse userState(String userId, Iterable<Teamspace> teamspaces) {
+        Teamspace playingTeamspace = null;
+        Teamspace joiningTeamspace = null;
+        
+        for (Teamspace teamspace : teamspaces) {
+            // 「ゲーム未スタートかつ主催者」
+            if (teamspace.isOrganizer(userId) && teamspace.getPartyId() == null) {
+                // 主催者が最優先
+                return new CheckUserStateResponse(true, false, false, teamspace.getTeamspaceId(), "");
+            }
+            // 「すでに他のパーティでゲームを開始している」
+            if (playingTeamspace == null && teamspace.isMember(userId) && teamspace.getPartyId() != null) {
+                playingTeamspace = teamspace;
+            }
+            // 「ゲーム未スタートかつ他のteamspaceに参加中」
+            if (joiningTeamspace == null && teamspace.isMember(userId) &&
+                !teamspace.isOrganizer(userId) &&
+                teamspace.getPartyId() == null) {
+                joiningTeamspace = teamspace;
+            }
+        }
+        
+        if (playingTeamspace != null) {
+            // ゲーム中
+            return new CheckUserStateResponse(false, false, true, "", playingTeamspace.getPartyId());
+        }
+        if (joiningTeamspace != null) {
+            // 参加中
+            return new CheckUserStateResponse(false, true, false, joiningTeamspace.getTeamspaceId(), "");
+        }
+        // いずれにも該当しない
+        return new CheckUserStateResponse(false, false, false, "", "");
+    }
+    
+    /**
+     * SSEで通知を受け取れるか（teamspaceのメンバーのみ）
+     */
+    public static void checkSubscribe(Teamspace teamspace, String userId) {
+        if (!teamspace.isMember(userId)) {
+            throw new BusinessException("NOT_A_MEMBER",
+                                      "ユーザーはこのteamspaceのメンバーではありません",
+                                      HttpStatus.CONFLICT);
+        }
+    }
+    
+    /**
+     * memberList通知の内容
+     */
+    public static MemberListNotification memberListNotification(List<String> members) {
+        return new MemberListNotification(members);
+    }
+    
+    /**
+     * partyId通知の内容
+     */
+    public static PartyIdNotification partyIdNotification(String partyId) {
+        return new PartyIdNotification(partyId);
+    }
+    
+    private static void checkNotInOtherTeam(Teamspace teamspace,
+                                            Optional<Teamspace> existingAsOrganizer,
+                                            Optional<Teamspace> existingAsMember) {
+        if (existingAsOrganizer.isPresent() ||
+            (existingAsMember.isPresent() &&
+             !existingAsMember.get().getTeamspaceId().equals(teamspace.getTeamspaceId()))) {
+            throw new BusinessException("USER_ALREADY_IN_TEAM",
+                                      "ユーザーは既に他のチームに参加しています",
+                                      HttpStatus.CONFLICT);
+        }
+    }
+    
+    private static void checkNotJoined(Teamspace teamspace, String userId) {
+        // 既に同じteamspaceのメンバーかチェック
+        if (teamspace.isMember(userId)) {
+            throw new BusinessException("ALREADY_JOINED",
+                                      "ユーザーは既に同じteamspaceに参加中です",
+                                      HttpStatus.CONFLICT);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.game.matching.service;
+
+import com.game.matching.exception.BusinessException;
+import org.slf4j.Logger;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * WebFlux版サービスの共通処理（失敗時のログと例外の変換、検索結果のOptional化）
+ */
+final class ReactiveFailures {
+    
+    private ReactiveFailures() {
+    }
+    
+    /**
+     * BusinessExceptionはそのまま、それ以外はINTERNAL_SERVER_ERRORに変換し、失敗ログを出力する
+     * （サーブレット版のcatch節と同じ扱い）
+     */
+    static Throwable translate(Throwable error, Logger logger, String message, BiConsumer<String, String> logFailure) {
+        if (error instanceof BusinessException e) {
+            logFailure.accept(e.getErrorCode(), e.getMessage());
+            return e;
+        }
+        logger.error(message, error);
+        logFailure.accept("INTERNAL_SERVER_ERROR", error.getMessage());
+        return new BusinessException("INTERNAL_SERVER_ERROR", "サーバーエラー", HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+    
+    /**
+     * 見つからなかった場合にOptional.empty()を流す
+     */
+    static <T> Mono<Optional<T>> optional(Mono<T> result) {
+        return result.map(Optional::of).defaultIfEmpty(Optional.empty());
+    }
+}
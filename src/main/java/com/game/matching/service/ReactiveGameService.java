@@ -0,0 +1,138 @@
+package com.game.matching.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.matching.concurrent.ReactiveTeamspaceQueue;
+import com.game.matching.dto.CheckUserStateResponse;
+import com.game.matching.dto.ListJoiningPartyUsersResponse;
+import com.game.matching.dto.Notification;
+import com.game.matching.dto.StartGameResponse;
+import com.game.matching.id.UuidV7;
+import com.game.matching.logging.Api;
+import com.game.matching.model.Teamspace;
+import com.game.matching.repository.ReactiveRedisRepository;
+import com.game.matching.websocket.NotificationJson;
+import com.game.matching.websocket.ReactiveConnectionManager;
+import com.game.matching.websocket.ReactiveConnectionManager.BroadcastResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GameServiceのWebFlux版（API④⑥⑦）
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGameService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveGameService.class);
+    
+    private final ReactiveRedisRepository redisRepository;
+    private final ReactiveConnectionManager connectionManager;
+    private final LoggingService loggingService;
+    private final NotificationJson notificationJson;
+    private final ReactiveTeamspaceQueue teamspaceQueue;
+    
+    public ReactiveGameService(ReactiveRedisRepository redisRepository,
+                               ReactiveConnectionManager connectionManager,
+                               LoggingService loggingService,
+                               ObjectMapper objectMapper,
+                               ReactiveTeamspaceQueue teamspaceQueue) {
+        this.redisRepository = redisRepository;
+        this.connectionManager = connectionManager;
+        this.loggingService = loggingService;
+        this.teamspaceQueue = teamspaceQueue;
+        this.notificationJson = new NotificationJson(objectMapper);
+    }
+    
+    /**
+     * API④: ゲーム開始
+     */
+    public Mono<StartGameResponse> startGame(String userId, String teamspaceId) {
+        long startNanos = System.nanoTime();
+        // 参加・脱退と同じ順番待ちに入れ、partyIdの保存が同時の参加の保存を上書きしないようにする
+        return teamspaceQueue.execute(teamspaceId, () -> ReactiveFailures
+                .optional(redisRepository.getTeamspace(teamspaceId))
+                .map(MatchingRules::requireTeamspace)
+                .flatMap(teamspace -> {
+                    MatchingRules.checkStartGameOrganizer(teamspace, userId);
+                    // ユーザーが他のチームの主催者/メンバーでないかチェック（既にチェック済みのはずだが念のため）
+                    return Mono.zip(ReactiveFailures.optional(redisRepository.findTeamspaceByOrganizer(userId)),
+                                    ReactiveFailures.optional(redisRepository.findTeamspaceByMember(userId)))
+                        .flatMap(existing -> {
+                            MatchingRules.checkStartGame(teamspace, existing.getT1(), existing.getT2());
+                            String partyId = UuidV7.nextString();
+                            teamspace.setPartyId(partyId);
+                            return redisRepository.saveTeamspace(teamspace).then(notifyPartyId(teamspace, userId));
+                        });
+                }))
+            .onErrorMap(e -> ReactiveFailures.translate(e, logger, "Failed to start game",
+                (code, message) -> loggingService.logGameStartFailed(userId, code, message)))
+            .doFinally(signal -> loggingService.recordLatency(Api.START_GAME, startNanos));
+    }
+    
+    /**
+     * API⑥: ユーザー状態確認
+     */
+    public Mono<CheckUserStateResponse> checkUserState(String userId) {
+        long startNanos = System.nanoTime();
+        // userIdのバリデーション（失敗ログの対象外）
+        return Mono.fromRunnable(() -> MatchingRules.validateUserId(userId))
+            .then(Mono.defer(() -> redisRepository.getAllTeamspaces().collectList()
+                .map(teamspaces -> {
+                    CheckUserStateResponse response = MatchingRules.userState(userId, teamspaces);
+                    loggingService.logUserStateChecked(userId);
+                    return response;
+                })
+                .onErrorMap(e -> ReactiveFailures.translate(e, logger, "Failed to check user state",
+                    (code, message) -> loggingService.logUserStateCheckFailed(userId, code, message)))))
+            .doFinally(signal -> loggingService.recordLatency(Api.CHECK_USER_STATE, startNanos));
+    }
+    
+    /**
+     * API⑦: 参加者一覧取得
+     */
+    public Mono<ListJoiningPartyUsersResponse> listJoiningPartyUsers(String userId, String teamspaceId) {
+        long startNanos = System.nanoTime();
+        // userId・teamspaceIdのバリデーション（失敗ログの対象外）
+        return Mono.fromRunnable(() -> {
+                MatchingRules.validateUserId(userId);
+                MatchingRules.validateTeamspaceId(teamspaceId);
+            })
+            .then(Mono.defer(() -> ReactiveFailures.optional(redisRepository.getTeamspace(teamspaceId))
+                .map(teamspaceOpt -> {
+                    Teamspace teamspace = MatchingRules.requireTeamspace(teamspaceOpt);
+                    List<String> userIds = new ArrayList<>(teamspace.getMembers());
+                    loggingService.logUsersListed(userId, teamspaceId, userIds);
+                    return new ListJoiningPartyUsersResponse(userIds);
+                })
+                .onErrorMap(e -> ReactiveFailures.translate(e, logger, "Failed to list users",
+                    (code, message) -> loggingService.logUsersListFailed(userId, teamspaceId, code, message)))))
+            .doFinally(signal -> loggingService.recordLatency(Api.LIST_JOINING_PARTY_USERS, startNanos));
+    }
+    
+    /**
+     * 主催者を除く参加者全員へpartyIdを通知（主催者はHTTPレスポンスでpartyIdを取得）
+     */
+    private Mono<StartGameResponse> notifyPartyId(Teamspace teamspace, String organizer) {
+        return Mono.fromCallable(() -> {
+            String partyId = teamspace.getPartyId();
+            String message = toJson(MatchingRules.partyIdNotification(partyId));
+            BroadcastResult result = connectionManager.broadcast(teamspace.getTeamspaceId(), message, organizer);
+            
+            // ログ出力（通知成功/失敗したメンバーを含む）
+            loggingService.logGameStart(organizer, teamspace.getTeamspaceId(), partyId,
+                                       result.delivered(), result.failed());
+            return new StartGameResponse(partyId);
+        });
+    }
+    
+    private String toJson(Notification notification) throws JsonProcessingException {
+        return notificationJson.write(notification);
+    }
+}
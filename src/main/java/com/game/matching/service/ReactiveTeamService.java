@@ -0,0 +1,162 @@
+package com.game.matching.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.matching.concurrent.ReactiveTeamspaceQueue;
+import com.game.matching.dto.OrganizeTeamResponse;
+import com.game.matching.exception.BusinessException;
+import com.game.matching.id.UuidV7;
+import com.game.matching.logging.Api;
+import com.game.matching.model.Teamspace;
+import com.game.matching.repository.ReactiveRedisRepository;
+import com.game.matching.websocket.NotificationJson;
+import com.game.matching.websocket.ReactiveConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * TeamServiceのWebFlux版（API①②③⑤）
+ * 
+ * 業務ルールはMatchingRulesをTeamServiceと共有する。既存のteamspaceへの更新（読み込み→判定→保存）は
+ * ReactiveTeamspaceQueueでteamspace単位に直列化する（同時の参加で満員の判定をすり抜けたり、
+ * 後の保存が先の保存を上書きしたりしないように）。
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTeamService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTeamService.class);
+    
+    private final ReactiveRedisRepository redisRepository;
+    private final ReactiveConnectionManager connectionManager;
+    private final LoggingService loggingService;
+    private final NotificationJson notificationJson;
+    private final ReactiveTeamspaceQueue teamspaceQueue;
+    
+    public ReactiveTeamService(ReactiveRedisRepository redisRepository,
+                               ReactiveConnectionManager connectionManager,
+                               LoggingService loggingService,
+                               ObjectMapper objectMapper,
+                               ReactiveTeamspaceQueue teamspaceQueue) {
+        this.redisRepository = redisRepository;
+        this.connectionManager = connectionManager;
+        this.loggingService = loggingService;
+        this.teamspaceQueue = teamspaceQueue;
+        this.notificationJson = new NotificationJson(objectMapper);
+    }
+    
+    /**
+     * API①: チームスペース作成
+     */
+    public Mono<OrganizeTeamResponse> organizeTeam(String userId) {
+        long startNanos = System.nanoTime();
+        return existingTeams(userId)
+            .flatMap(existing -> {
+                MatchingRules.checkOrganize(existing.getT1(), existing.getT2());
+                Teamspace teamspace = new Teamspace(UuidV7.nextString(), userId);
+                return redisRepository.saveTeamspace(teamspace).thenReturn(teamspace.getTeamspaceId());
+            })
+            .map(teamspaceId -> {
+                loggingService.logTeamspaceCreated(userId, teamspaceId);
+                return new OrganizeTeamResponse(teamspaceId);
+            })
+            .onErrorMap(e -> ReactiveFailures.translate(e, logger, "Failed to create teamspace",
+                (code, message) -> loggingService.logTeamspaceCreateFailed(userId, code, message)))
+            .doFinally(signal -> loggingService.recordLatency(Api.ORGANIZE_TEAM, startNanos));
+    }
+    
+    /**
+     * API②: チーム参加
+     */
+    public Mono<Void> joinTeam(String userId, String teamspaceId) {
+        long startNanos = System.nanoTime();
+        return teamspaceQueue.execute(teamspaceId, () -> requireTeamspace(teamspaceId)
+                .flatMap(teamspace -> existingTeams(userId).flatMap(existing -> {
+                    MatchingRules.checkJoin(teamspace, userId, existing.getT1(), existing.getT2());
+                    teamspace.addMember(userId);
+                    return redisRepository.saveTeamspace(teamspace)
+                        .then(notifyMemberListUpdate(teamspaceId, teamspace.getMembers()));
+                })))
+            .doOnSuccess(done -> loggingService.logTeamspaceJoined(userId, teamspaceId))
+            .onErrorMap(e -> ReactiveFailures.translate(e, logger, "Failed to join teamspace",
+                (code, message) -> loggingService.logTeamspaceJoinFailed(userId, code, message)))
+            .doFinally(signal -> loggingService.recordLatency(Api.JOIN_TEAM, startNanos));
+    }
+    
+    /**
+     * API③: チーム脱退（主催者の場合はteamspaceを削除）
+     */
+    public Mono<Void> leaveTeam(String userId, String teamspaceId) {
+        long startNanos = System.nanoTime();
+        return teamspaceQueue.execute(teamspaceId, () -> requireTeamspace(teamspaceId)
+                .flatMap(teamspace -> {
+                    if (MatchingRules.checkLeave(teamspace, userId)) {
+                        return redisRepository.deleteTeamspace(teamspaceId);
+                    }
+                    teamspace.removeMember(userId);
+                    return redisRepository.saveTeamspace(teamspace)
+                        .then(notifyMemberListUpdate(teamspaceId, teamspace.getMembers()));
+                }))
+            .doOnSuccess(done -> loggingService.logTeamspaceLeft(userId, teamspaceId))
+            .onErrorMap(e -> ReactiveFailures.translate(e, logger, "Failed to leave teamspace",
+                (code, message) -> loggingService.logTeamspaceLeaveFailed(userId, code, message)))
+            .doFinally(signal -> loggingService.recordLatency(Api.LEAVE_TEAM, startNanos));
+    }
+    
+    /**
+     * API⑤: 既存パーティ(ゲームプレイ中)への参加
+     */
+    public Mono<Void> joinExistingParty(String userId, String teamspaceId) {
+        long startNanos = System.nanoTime();
+        return teamspaceQueue.execute(teamspaceId, () -> requireTeamspace(teamspaceId)
+                .flatMap(teamspace -> existingTeams(userId).flatMap(existing -> {
+                    MatchingRules.checkJoinExistingParty(teamspace, userId, existing.getT1(), existing.getT2());
+                    teamspace.addMember(userId);
+                    return redisRepository.saveTeamspace(teamspace);
+                })))
+            .doOnSuccess(done -> loggingService.logPartyJoined(userId, teamspaceId))
+            .onErrorMap(e -> ReactiveFailures.translate(e, logger, "Failed to join existing party",
+                (code, message) -> loggingService.logPartyJoinFailed(userId, code, message)))
+            .doFinally(signal -> loggingService.recordLatency(Api.JOIN_EXISTING_PARTY, startNanos));
+    }
+    
+    private Mono<Teamspace> requireTeamspace(String teamspaceId) {
+        return ReactiveFailures.optional(redisRepository.getTeamspace(teamspaceId))
+            .map(MatchingRules::requireTeamspace);
+    }
+    
+    /**
+     * ユーザーが主催・参加しているteamspace（2つの走査は並行して行う）
+     */
+    private Mono<Tuple2<Optional<Teamspace>, Optional<Teamspace>>> existingTeams(String userId) {
+        return Mono.zip(ReactiveFailures.optional(redisRepository.findTeamspaceByOrganizer(userId)),
+                        ReactiveFailures.optional(redisRepository.findTeamspaceByMember(userId)));
+    }
+    
+    /**
+     * メンバーリスト更新をWebSocketで通知
+     */
+    private Mono<Void> notifyMemberListUpdate(String teamspaceId, List<String> members) {
+        return Mono.fromRunnable(() -> {
+            String message;
+            try {
+                message = notificationJson.write(MatchingRules.memberListNotification(members));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to serialize notification", e);
+            }
+            if (!connectionManager.broadcast(teamspaceId, message, null).failed().isEmpty()) {
+                throw new BusinessException("NOTIFICATION_FAILED",
+                                          "WebSocket通知に失敗しました",
+                                          HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+        });
+    }
+}
@@ -0,0 +1,185 @@
+package com.game.matching.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.game.matching.dto.CheckUserStateResponse;
+import com.game.matching.dto.JoinTeamRequest;
+import com.game.matching.id.UuidV7;
+import com.game.matching.model.Teamspace;
+import com.game.matching.repository.TeamspaceCodec;
+import com.game.matching.websocket.NotificationJson;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 起動時のウォームアップ（readinessがACCEPTING_TRAFFICになる前に実行する）
+ * 
+ * Spring BootはApplicationRunnerの完了後にreadinessを切り替えるため、ここで次の処理を終えてから
+ * ロードバランサーに組み込まれる。
+ * <ul>
+ * <li>JWKS: 起動時の先読み（JwksKeyStore）に失敗していれば期限まで再試行する</li>
+ * <li>Redis: プールの接続をmatching.warmup.redis-connections本（既定はmin-idle）まで作り、アイドル接続として残す
+ *     （min-idleを超える分は、アイドルのままmatching.redis.pool.idle-evict-msが経つと閉じられる）</li>
+ * <li>よく通る処理（teamspaceの変換、リクエストのJSON・バリデーション、通知のJSON、API⑥の判定）を
+ *     matching.warmup.iterations回実行し、クラスの読み込みとJITのコンパイルを済ませる</li>
+ * </ul>
+ * 全体をmatching.warmup.timeout-msで打ち切り、失敗しても起動は止めない。
+ * WebFlux構成はJedisPoolを使わないため（接続を作っても使われない）、サーブレット構成だけで実行する。
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class StartupWarmup implements ApplicationRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmup.class);
+    
+    // 存在しないキー（接続の確認のGETに使う）
+    private static final byte[] PROBE_KEY = "warmup:probe".getBytes(StandardCharsets.UTF_8);
+    // 捨てるteamspaceのメンバー
+    private static final String[] USER_IDS = {"warmup-0", "warmup-1", "warmup-2", "warmup-3"};
+    private static final long JWKS_RETRY_MILLIS = 500;
+    
+    private final boolean enabled;
+    private final JwksKeyStore jwksKeyStore;
+    private final JedisPool jedisPool;
+    private final TeamspaceCodec teamspaceCodec;
+    private final ObjectReader joinTeamReader;
+    private final NotificationJson notificationJson;
+    private final Validator validator;
+    private final int redisConnections;
+    private final int iterations;
+    private final long timeoutMillis;
+    
+    public StartupWarmup(@Value("${matching.warmup.enabled:true}") boolean enabled,
+                         JwksKeyStore jwksKeyStore,
+                         JedisPool jedisPool,
+                         TeamspaceCodec teamspaceCodec,
+                         ObjectMapper objectMapper,
+                         Validator validator,
+                         @Value("${matching.warmup.redis-connections:${matching.redis.pool.min-idle:16}}") int redisConnections,
+                         @Value("${matching.warmup.iterations:5000}") int iterations,
+                         @Value("${matching.warmup.timeout-ms:15000}") long timeoutMillis) {
+        this.enabled = enabled;
+        this.jwksKeyStore = jwksKeyStore;
+        this.jedisPool = jedisPool;
+        this.teamspaceCodec = teamspaceCodec;
+        this.joinTeamReader = objectMapper.readerFor(JoinTeamRequest.class);
+        this.notificationJson = new NotificationJson(objectMapper);
+        this.validator = validator;
+        this.redisConnections = redisConnections;
+        this.iterations = iterations;
+        this.timeoutMillis = timeoutMillis;
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        
+        int keys = warmJwks(deadline);
+        int connections = warmRedisPool();
+        int completed = warmHotPaths(deadline);
+        
+        logger.info("Warm-up finished in {} ms (JWKS keys: {}, Redis connections: {}/{}, iterations: {}/{})",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+                    keys, connections, redisConnections, completed, iterations);
+    }
+    
+    /**
+     * JWKSの鍵がなければ期限まで再取得し、鍵の数を返す
+     */
+    int warmJwks(long deadline) {
+        while (jwksKeyStore.getKeyCount() == 0) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                logger.warn("Warm-up: JWKS is not loaded; the first requests will fetch it");
+                break;
+            }
+            try {
+                jwksKeyStore.refresh().get(remainingMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.debug("Warm-up: JWKS fetch failed: {}", e.getMessage());
+                sleepQuietly(Math.min(JWKS_RETRY_MILLIS, remainingMillis));
+            }
+        }
+        return jwksKeyStore.getKeyCount();
+    }
+    
+    /**
+     * プールから同時にredisConnections本を借りて確認し、全て返却する（アイドル接続として残る）
+     */
+    int warmRedisPool() {
+        List<Jedis> borrowed = new ArrayList<>(redisConnections);
+        try {
+            for (int i = 0; i < redisConnections; i++) {
+                Jedis jedis = jedisPool.getResource();
+                borrowed.add(jedis);
+                jedis.get(PROBE_KEY);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Warm-up: Redis connection failed after {} connections: {}", borrowed.size(), e.getMessage());
+        } finally {
+            for (Jedis jedis : borrowed) {
+                jedis.close();
+            }
+        }
+        return borrowed.size();
+    }
+    
+    /**
+     * リクエストごとに通る処理をiterations回（期限まで）実行し、実行した回数を返す
+     */
+    int warmHotPaths(long deadline) {
+        Teamspace teamspace = new Teamspace(UuidV7.nextString(), USER_IDS[0]);
+        for (int i = 1; i < USER_IDS.length; i++) {
+            teamspace.addMember(USER_IDS[i]);
+        }
+        String requestJson = "{\"teamspaceId\":\"" + teamspace.getTeamspaceId() + "\",\"userId\":\"" + USER_IDS[1] + "\"}";
+        int completed = 0;
+        try {
+            for (; completed < iterations; completed++) {
+                if ((completed & 0xFF) == 0 && System.nanoTime() - deadline > 0) {
+                    break;
+                }
+                teamspace.setPartyId((completed & 1) == 0 ? null : teamspace.getTeamspaceId());
+                Teamspace decoded = teamspaceCodec.decode(teamspaceCodec.encode(teamspace));
+                JoinTeamRequest request = joinTeamReader.readValue(requestJson);
+                validator.validate(request);
+                notificationJson.write(MatchingRules.memberListNotification(decoded.getMembers()));
+                CheckUserStateResponse state = MatchingRules.userState(USER_IDS[completed & 3], List.of(decoded));
+                if (state.isNowGamePlaying()) {
+                    notificationJson.write(MatchingRules.partyIdNotification(decoded.getPartyId()));
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Warm-up: hot path failed after {} iterations: {}", completed, e.getMessage());
+        }
+        return completed;
+    }
+    
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
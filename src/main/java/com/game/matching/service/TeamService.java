@@ -1,13 +1,19 @@
 package com.game.matching.service;
 
+import com.game.matching.concurrent.TeamspaceExecutor;
+import com.game.matching.dto.MemberListNotification;
 import com.game.matching.dto.OrganizeTeamResponse;
 import com.game.matching.exception.BusinessException;
+import com.game.matching.id.UuidV7;
+import com.game.matching.jfr.WebSocketBroadcastEvent;
+import com.game.matching.logging.Api;
 import com.game.matching.model.Teamspace;
 import com.game.matching.repository.RedisRepository;
-import com.game.matching.websocket.GameWebSocketHandler;
+import com.game.matching.websocket.NotificationFanout;
 import com.game.matching.websocket.WebSocketConnectionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.socket.WebSocketSession;
@@ -15,43 +21,42 @@ import org.springframework.web.socket.WebSocketSession;
 import java.util.*;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class TeamService {
     
     private static final Logger logger = LoggerFactory.getLogger(TeamService.class);
-    private static final int MAX_TEAM_MEMBERS = 4;
     
     private final RedisRepository redisRepository;
     private final WebSocketConnectionManager connectionManager;
-    private final GameWebSocketHandler webSocketHandler;
+    private final NotificationFanout notificationFanout;
     private final LoggingService loggingService;
+    private final TeamspaceExecutor teamspaceExecutor;
     
     public TeamService(RedisRepository redisRepository,
                       WebSocketConnectionManager connectionManager,
-                      GameWebSocketHandler webSocketHandler,
-                      LoggingService loggingService) {
+                      NotificationFanout notificationFanout,
+                      LoggingService loggingService,
+                      TeamspaceExecutor teamspaceExecutor) {
         this.redisRepository = redisRepository;
         this.connectionManager = connectionManager;
-        this.webSocketHandler = webSocketHandler;
+        this.notificationFanout = notificationFanout;
         this.loggingService = loggingService;
+        this.teamspaceExecutor = teamspaceExecutor;
     }
     
     /**
      * API①: チームスペース作成
      */
     public OrganizeTeamResponse organizeTeam(String userId) {
+        long startNanos = System.nanoTime();
         try {
             // ユーザーが既に他のチームに参加/主催していないかチェック
             Optional<Teamspace> existingAsOrganizer = redisRepository.findTeamspaceByOrganizer(userId);
             Optional<Teamspace> existingAsMember = redisRepository.findTeamspaceByMember(userId);
+            MatchingRules.checkOrganize(existingAsOrganizer, existingAsMember);
             
-            if (existingAsOrganizer.isPresent() || existingAsMember.isPresent()) {
-                throw new BusinessException("USER_ALREADY_IN_TEAM",
-                                          "ユーザーは既に他のチームに参加しています",
-                                          HttpStatus.CONFLICT);
-            }
-            
-            // UUID4でteamspaceIdを生成
-            String teamspaceId = UUID.randomUUID().toString();
+            // UUIDv7でteamspaceIdを生成
+            String teamspaceId = UuidV7.nextString();
             
             // Redisに保存
             Teamspace teamspace = new Teamspace(teamspaceId, userId);
@@ -69,6 +74,8 @@ public class TeamService {
             logger.error("Failed to create teamspace", e);
             loggingService.logTeamspaceCreateFailed(userId, "INTERNAL_SERVER_ERROR", e.getMessage());
             throw new BusinessException("INTERNAL_SERVER_ERROR", "サーバーエラー", HttpStatus.INTERNAL_SERVER_ERROR);
+        } finally {
+            loggingService.recordLatency(Api.ORGANIZE_TEAM, startNanos);
         }
     }
     
@@ -76,41 +83,24 @@ public class TeamService {
      * API②: チーム参加
      */
     public void joinTeam(String userId, String teamspaceId) {
+        // 同じteamspaceへの更新と通知はメールボックスで直列化する
+        long startNanos = System.nanoTime();
+        try {
+            teamspaceExecutor.execute(teamspaceId, () -> doJoinTeam(userId, teamspaceId));
+        } finally {
+            loggingService.recordLatency(Api.JOIN_TEAM, startNanos);
+        }
+    }
+    
+    private void doJoinTeam(String userId, String teamspaceId) {
         try {
             // teamspaceIdが存在するかチェック
-            Optional<Teamspace> teamspaceOpt = redisRepository.getTeamspace(teamspaceId);
-            if (teamspaceOpt.isEmpty()) {
-                throw new BusinessException("TEAMSPACE_NOT_FOUND",
-                                          "指定されたteamspaceIdが存在しません",
-                                          HttpStatus.NOT_FOUND);
-            }
-            
-            Teamspace teamspace = teamspaceOpt.get();
+            Teamspace teamspace = MatchingRules.requireTeamspace(redisRepository.getTeamspace(teamspaceId));
             
-            // ユーザーが既に他のチームに参加/主催していないかチェック
+            // ユーザーが既に他のチームに参加/主催していないか、参加済み・満員でないかチェック
             Optional<Teamspace> existingAsOrganizer = redisRepository.findTeamspaceByOrganizer(userId);
             Optional<Teamspace> existingAsMember = redisRepository.findTeamspaceByMember(userId);
-            
-            if (existingAsOrganizer.isPresent() || 
-                (existingAsMember.isPresent() && !existingAsMember.get().getTeamspaceId().equals(teamspaceId))) {
-                throw new BusinessException("USER_ALREADY_IN_TEAM",
-                                          "ユーザーは既に他のチームに参加しています",
-                                          HttpStatus.CONFLICT);
-            }
-            
-            // 既に同じteamspaceのメンバーかチェック
-            if (teamspace.isMember(userId)) {
-                throw new BusinessException("ALREADY_JOINED",
-                                          "ユーザーは既に同じteamspaceに参加中です",
-                                          HttpStatus.CONFLICT);
-            }
-            
-            // メンバー数が4人未満かチェック
-            if (teamspace.getMembers().size() >= MAX_TEAM_MEMBERS) {
-                throw new BusinessException("TEAMSPACE_FULL",
-                                          "teamspaceが満員（4人）です",
-                                          HttpStatus.CONFLICT);
-            }
+            MatchingRules.checkJoin(teamspace, userId, existingAsOrganizer, existingAsMember);
             
             // メンバーを追加
             teamspace.addMember(userId);
@@ -136,35 +126,31 @@ public class TeamService {
      * API③: チーム脱退
      */
     public void leaveTeam(String userId, String teamspaceId) {
+        // 同じteamspaceへの更新と通知はメールボックスで直列化する
+        long startNanos = System.nanoTime();
+        try {
+            teamspaceExecutor.execute(teamspaceId, () -> doLeaveTeam(userId, teamspaceId));
+        } finally {
+            loggingService.recordLatency(Api.LEAVE_TEAM, startNanos);
+        }
+    }
+    
+    private void doLeaveTeam(String userId, String teamspaceId) {
         try {
             // teamspaceIdが存在するかチェック
-            Optional<Teamspace> teamspaceOpt = redisRepository.getTeamspace(teamspaceId);
-            if (teamspaceOpt.isEmpty()) {
-                throw new BusinessException("TEAMSPACE_NOT_FOUND",
-                                          "指定されたteamspaceIdが存在しません",
-                                          HttpStatus.NOT_FOUND);
-            }
-            
-            Teamspace teamspace = teamspaceOpt.get();
-            
-            // ユーザーがteamspaceのメンバーかどうかチェック
-            if (!teamspace.isMember(userId)) {
-                throw new BusinessException("NOT_A_MEMBER",
-                                          "ユーザーはこのteamspaceのメンバーではありません",
-                                          HttpStatus.CONFLICT);
-            }
+            Teamspace teamspace = MatchingRules.requireTeamspace(redisRepository.getTeamspace(teamspaceId));
             
             // 主催者の場合
-            if (teamspace.isOrganizer(userId)) {
+            if (MatchingRules.checkLeave(teamspace, userId)) {
                 // teamspaceを削除
-                redisRepository.deleteTeamspace(teamspaceId);
+                redisRepository.deleteTeamspace(teamspace);
                 loggingService.logTeamspaceLeft(userId, teamspaceId);
                 return;
             }
             
             // 参加者の場合
             teamspace.removeMember(userId);
-            redisRepository.saveTeamspace(teamspace);
+            redisRepository.saveTeamspace(teamspace, List.of(userId));
             
             // WebSocket通知
             notifyMemberListUpdate(teamspaceId, teamspace.getMembers());
@@ -186,48 +172,24 @@ public class TeamService {
      * API⑤: 既存パーティ(ゲームプレイ中)への参加
      */
     public void joinExistingParty(String userId, String teamspaceId) {
+        // 同じteamspaceへの更新と通知はメールボックスで直列化する
+        long startNanos = System.nanoTime();
+        try {
+            teamspaceExecutor.execute(teamspaceId, () -> doJoinExistingParty(userId, teamspaceId));
+        } finally {
+            loggingService.recordLatency(Api.JOIN_EXISTING_PARTY, startNanos);
+        }
+    }
+    
+    private void doJoinExistingParty(String userId, String teamspaceId) {
         try {
             // teamspaceIdが存在するかチェック
-            Optional<Teamspace> teamspaceOpt = redisRepository.getTeamspace(teamspaceId);
-            if (teamspaceOpt.isEmpty()) {
-                throw new BusinessException("TEAMSPACE_NOT_FOUND",
-                                          "指定されたteamspaceIdが存在しません",
-                                          HttpStatus.NOT_FOUND);
-            }
-            
-            Teamspace teamspace = teamspaceOpt.get();
+            Teamspace teamspace = MatchingRules.requireTeamspace(redisRepository.getTeamspace(teamspaceId));
             
-            // ユーザーが既に他のチームに参加/主催していないかチェック
+            // 他のチームへの参加、参加済み・満員、ゲーム未開始でないかチェック
             Optional<Teamspace> existingAsOrganizer = redisRepository.findTeamspaceByOrganizer(userId);
             Optional<Teamspace> existingAsMember = redisRepository.findTeamspaceByMember(userId);
-            
-            if (existingAsOrganizer.isPresent() || 
-                (existingAsMember.isPresent() && !existingAsMember.get().getTeamspaceId().equals(teamspaceId))) {
-                throw new BusinessException("USER_ALREADY_IN_TEAM",
-                                          "ユーザーは既に他のチームに参加しています",
-                                          HttpStatus.CONFLICT);
-            }
-            
-            // 既に同じteamspaceのメンバーかチェック
-            if (teamspace.isMember(userId)) {
-                throw new BusinessException("ALREADY_JOINED",
-                                          "ユーザーは既に同じteamspaceに参加中です",
-                                          HttpStatus.CONFLICT);
-            }
-            
-            // メンバー数が4人未満かチェック
-            if (teamspace.getMembers().size() >= MAX_TEAM_MEMBERS) {
-                throw new BusinessException("TEAMSPACE_FULL",
-                                          "該当partyが満員（4人）です",
-                                          HttpStatus.CONFLICT);
-            }
-            
-            // partyIdが設定されているかチェック（ゲームが開始されているか）
-            if (teamspace.getPartyId() == null || teamspace.getPartyId().isEmpty()) {
-                throw new BusinessException("GAME_NOT_STARTED",
-                                          "ゲームが開始されていません",
-                                          HttpStatus.CONFLICT);
-            }
+            MatchingRules.checkJoinExistingParty(teamspace, userId, existingAsOrganizer, existingAsMember);
             
             // メンバーを追加
             teamspace.addMember(userId);
@@ -247,22 +209,25 @@ public class TeamService {
     }
     
     /**
-     * メンバーリスト更新をWebSocketで通知
+     * メンバーリスト更新をWebSocket・SSEで通知
      */
     private void notifyMemberListUpdate(String teamspaceId, List<String> members) {
-        List<String> memberIds = new ArrayList<>(members);
-        Map<String, Object> notification = Map.of("type", "memberList", "userIds", memberIds);
+        MemberListNotification notification = MatchingRules.memberListNotification(members);
         
         Set<WebSocketSession> sessions = connectionManager.getConnections(teamspaceId);
-        boolean allSuccess = true;
+        WebSocketBroadcastEvent event = new WebSocketBroadcastEvent();
+        event.begin();
+        int failures = notificationFanout.broadcast(teamspaceId, sessions, notification, null).size();
         
-        for (WebSocketSession session : sessions) {
-            if (!webSocketHandler.sendMessage(session, notification)) {
-                allSuccess = false;
-            }
+        if (event.shouldCommit()) {
+            event.teamspaceId = teamspaceId;
+            event.messageType = "memberList";
+            event.recipients = sessions.size();
+            event.failures = failures;
+            event.commit();
         }
         
-        if (!allSuccess) {
+        if (failures > 0) {
             throw new BusinessException("NOTIFICATION_FAILED",
                                       "WebSocket通知に失敗しました",
                                       HttpStatus.INTERNAL_SERVER_ERROR);
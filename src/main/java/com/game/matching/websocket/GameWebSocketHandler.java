@@ -1,37 +1,90 @@
 package com.game.matching.websocket;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.matching.concurrent.VirtualThreads;
+import com.game.matching.config.JacksonConfig;
+import com.game.matching.dto.Notification;
+import com.game.matching.metrics.WebSocketMetrics;
 import com.game.matching.service.CognitoAuthService;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.io.IOException;
 import java.net.URI;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GameWebSocketHandler extends TextWebSocketHandler {
     
     private static final Logger logger = LoggerFactory.getLogger(GameWebSocketHandler.class);
     
     private final WebSocketConnectionManager connectionManager;
     private final CognitoAuthService cognitoAuthService;
-    private final ObjectMapper objectMapper;
+    private final WebSocketMetrics webSocketMetrics;
+    private final NotificationJson notificationJson;
+    private final ExecutorService fanoutExecutor;
     
     public GameWebSocketHandler(WebSocketConnectionManager connectionManager, 
-                                CognitoAuthService cognitoAuthService) {
+                                CognitoAuthService cognitoAuthService,
+                                WebSocketMetrics webSocketMetrics) {
+        this(connectionManager, cognitoAuthService, webSocketMetrics, JacksonConfig.newObjectMapper(), false);
+    }
+    
+    /**
+     * @param virtualThreads trueの場合、複数セッションへの通知を仮想スレッドで並行して送信する（Java 21以降）
+     */
+    @Autowired
+    public GameWebSocketHandler(WebSocketConnectionManager connectionManager, 
+                                CognitoAuthService cognitoAuthService,
+                                WebSocketMetrics webSocketMetrics,
+                                ObjectMapper objectMapper,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         this.connectionManager = connectionManager;
         this.cognitoAuthService = cognitoAuthService;
-        this.objectMapper = new ObjectMapper();
+        this.webSocketMetrics = webSocketMetrics;
+        this.notificationJson = new NotificationJson(objectMapper);
+        if (virtualThreads && VirtualThreads.isAvailable()) {
+            this.fanoutExecutor = VirtualThreads.newPerTaskExecutor("ws-fanout-");
+            logger.info("WebSocket fan-out on virtual threads");
+        } else {
+            if (virtualThreads) {
+                logger.warn("Virtual threads requested but not available on Java {}; sending notifications sequentially",
+                            Runtime.version().feature());
+            }
+            this.fanoutExecutor = null;
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (fanoutExecutor != null) {
+            fanoutExecutor.shutdown();
+        }
     }
     
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        if (connectionManager.isDraining()) {
+            // 停止処理中。クライアントは1012（Service Restart）を受けて他のインスタンスに再接続する
+            session.close(CloseStatus.SERVICE_RESTARTED);
+            return;
+        }
+        
         URI uri = session.getUri();
         if (uri == null) {
             session.close(CloseStatus.BAD_DATA);
@@ -73,7 +126,10 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
         return extractQueryParam(query, "userId");
     }
     
-    private String extractQueryParam(String query, String paramName) {
+    /**
+     * クエリ文字列からパラメータを取得（WebFlux版のハンドラーと共通）
+     */
+    static String extractQueryParam(String query, String paramName) {
         if (query == null || query.isEmpty()) {
             return null;
         }
@@ -90,17 +146,83 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
     /**
      * メッセージを送信
      */
-    public boolean sendMessage(WebSocketSession session, Object message) {
+    public boolean sendMessage(WebSocketSession session, Notification message) {
+        long startNanos = System.nanoTime();
+        try {
+            return send(session, new TextMessage(notificationJson.write(message)), startNanos);
+        } catch (IOException e) {
+            logger.error("Failed to serialize WebSocket message", e);
+            webSocketMetrics.recordFailure();
+            return false;
+        }
+    }
+    
+    /**
+     * 複数のセッションに同じメッセージを送信し、送信できなかったセッションを返す
+     * 
+     * JSONへの変換は1回だけ行う。仮想スレッドが有効な場合はセッションごとに並行して送信するため、
+     * 送信の遅いクライアントがいても他のメンバーへの通知は待たされない。
+     */
+    public List<WebSocketSession> broadcast(Collection<WebSocketSession> sessions, Notification message) {
+        String payload;
+        try {
+            payload = notificationJson.write(message);
+        } catch (IOException e) {
+            logger.error("Failed to serialize WebSocket message", e);
+            List<WebSocketSession> failed = new ArrayList<>();
+            for (WebSocketSession session : sessions) {
+                webSocketMetrics.recordFailure();
+                failed.add(session);
+            }
+            return failed;
+        }
+        return broadcastText(sessions, payload);
+    }
+    
+    /**
+     * JSON化済みのメッセージを複数のセッションに送信し、送信できなかったセッションを返す（NotificationFanout用）
+     */
+    public List<WebSocketSession> broadcastText(Collection<WebSocketSession> sessions, String payload) {
+        long startNanos = System.nanoTime();
+        List<WebSocketSession> failed = new ArrayList<>();
+        TextMessage textMessage = new TextMessage(payload);
+        
+        if (fanoutExecutor == null || sessions.size() <= 1) {
+            for (WebSocketSession session : sessions) {
+                if (!send(session, textMessage, startNanos)) {
+                    failed.add(session);
+                }
+            }
+            return failed;
+        }
+        
+        List<WebSocketSession> targets = List.copyOf(sessions);
+        List<CompletableFuture<Boolean>> results = new ArrayList<>(targets.size());
+        for (WebSocketSession session : targets) {
+            results.add(CompletableFuture.supplyAsync(() -> send(session, textMessage, startNanos), fanoutExecutor));
+        }
+        for (int i = 0; i < targets.size(); i++) {
+            if (!results.get(i).join()) {
+                failed.add(targets.get(i));
+            }
+        }
+        return failed;
+    }
+    
+    private boolean send(WebSocketSession session, TextMessage message, long startNanos) {
         try {
             if (session.isOpen()) {
-                String json = objectMapper.writeValueAsString(message);
-                session.sendMessage(new TextMessage(json));
+                session.sendMessage(message);
+                webSocketMetrics.recordSend(startNanos);
                 return true;
             }
         } catch (IOException e) {
             logger.error("Failed to send WebSocket message", e);
+        } catch (SessionLimitExceededException e) {
+            // 送信待ちが上限を超えたセッションはデコレーターによって閉じられる
+            logger.warn("WebSocket send limit exceeded: {}", e.getMessage());
         }
+        webSocketMetrics.recordFailure();
         return false;
     }
 }
-
@@ -0,0 +1,588 @@
+package com.game.matching.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.matching.concurrent.VirtualThreads;
+import com.game.matching.dto.MemberListNotification;
+import com.game.matching.dto.Notification;
+import com.game.matching.dto.PartyIdNotification;
+import com.game.matching.exception.BusinessException;
+import com.game.matching.model.Teamspace;
+import com.game.matching.repository.RedisRepository;
+import com.game.matching.service.MatchingRules;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * teamspaceの通知（memberList・partyId）をWebSocketとSSEに配信する
+ * 
+ * JSONへの変換は1回だけ行い、WebSocketのセッション（GameWebSocketHandler）とSSEのストリームの両方に送る。
+ * SSEのストリームがあるteamspaceは直近の通知をmatching.sse.replay-size件保持し、Last-Event-ID付きの再接続には
+ * その後の通知だけを再送する（保持していない場合はRedisのteamspaceから現在の状態を送る）。
+ * SSEのストリームはSseEmitter（非同期リクエスト）のため、接続中にTomcatのスレッドを占有しない。
+ * 
+ * SseEmitter.sendは相手の受信が遅いとブロックするため、通知する側（APIのスレッド・ストライプのスレッド）は
+ * 購読者ごとの送信待ちに積むだけにし、送信は送信用のスレッドで行う。1つの遅いストリームが他の購読者への送信や
+ * teamspaceの更新を止めないようにするためで、送信待ちがmatching.sse.max-pending-events件を超えた購読者は
+ * 閉じる（クライアントはLast-Event-IDで再接続して追いつく）。
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class NotificationFanout {
+    
+    private static final Logger logger = LoggerFactory.getLogger(NotificationFanout.class);
+    
+    public static final String STREAMS_METRIC = "matching.sse.streams";
+    
+    private final GameWebSocketHandler webSocketHandler;
+    private final RedisRepository redisRepository;
+    private final NotificationJson notificationJson;
+    private final int replaySize;
+    private final long streamTimeoutMillis;
+    private final long idleStreamNanos;
+    private final int maxPendingEvents;
+    private final Executor sender;
+    
+    // イベントIDのプロセスごとの接頭辞（再起動前のIDでは再送しない）
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    
+    // teamspaceId -> SSEの購読者と直近の通知
+    private final Map<String, TeamspaceStream> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ScheduledExecutorService heartbeat;
+    
+    // 停止前に全てのストリームを閉じた後の購読は、再接続の依頼だけを送って閉じる
+    private volatile LongSupplier drainDelayMillis;
+    
+    public NotificationFanout(GameWebSocketHandler webSocketHandler,
+                              RedisRepository redisRepository,
+                              ObjectMapper objectMapper,
+                              MeterRegistry registry,
+                              int replaySize,
+                              long streamTimeoutMillis,
+                              long heartbeatSeconds,
+                              long idleStreamSeconds) {
+        this(webSocketHandler, redisRepository, objectMapper, registry, replaySize, streamTimeoutMillis,
+             heartbeatSeconds, idleStreamSeconds, 256, 4, false);
+    }
+    
+    /**
+     * @param maxPendingEvents 購読者ごとの送信待ちの上限（超えた購読者は閉じる）
+     * @param senderThreads 送信用のスレッド数（仮想スレッドを使う場合は送信ごとに仮想スレッドを作成する）
+     * @param virtualThreads trueの場合、SSEの送信を仮想スレッドで行う（Java 21以降）
+     */
+    @Autowired
+    public NotificationFanout(GameWebSocketHandler webSocketHandler,
+                              RedisRepository redisRepository,
+                              ObjectMapper objectMapper,
+                              MeterRegistry registry,
+                              @Value("${matching.sse.replay-size:32}") int replaySize,
+                              @Value("${matching.sse.timeout-ms:1800000}") long streamTimeoutMillis,
+                              @Value("${matching.sse.heartbeat-seconds:15}") long heartbeatSeconds,
+                              @Value("${matching.sse.idle-stream-seconds:300}") long idleStreamSeconds,
+                              @Value("${matching.sse.max-pending-events:256}") int maxPendingEvents,
+                              @Value("${matching.sse.sender-threads:4}") int senderThreads,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this(webSocketHandler, redisRepository, objectMapper, registry, replaySize, streamTimeoutMillis,
+             heartbeatSeconds, idleStreamSeconds, maxPendingEvents, newSender(senderThreads, virtualThreads));
+    }
+    
+    NotificationFanout(GameWebSocketHandler webSocketHandler,
+                       RedisRepository redisRepository,
+                       ObjectMapper objectMapper,
+                       MeterRegistry registry,
+                       int replaySize,
+                       long streamTimeoutMillis,
+                       long heartbeatSeconds,
+                       long idleStreamSeconds,
+                       int maxPendingEvents,
+                       Executor sender) {
+        this.webSocketHandler = webSocketHandler;
+        this.redisRepository = redisRepository;
+        this.notificationJson = new NotificationJson(objectMapper);
+        this.replaySize = replaySize;
+        this.streamTimeoutMillis = streamTimeoutMillis;
+        this.idleStreamNanos = TimeUnit.SECONDS.toNanos(idleStreamSeconds);
+        this.maxPendingEvents = maxPendingEvents;
+        this.sender = sender;
+        Gauge.builder(STREAMS_METRIC, subscriberCount, AtomicInteger::get)
+            .description("接続中のSSEストリーム数")
+            .register(registry);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+    
+    private static ExecutorService newSender(int senderThreads, boolean virtualThreads) {
+        if (virtualThreads && VirtualThreads.isAvailable()) {
+            logger.info("SSE sends on virtual threads");
+            return VirtualThreads.newPerTaskExecutor("sse-send-");
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread thread = new Thread(r, "sse-send-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        for (TeamspaceStream stream : streams.values()) {
+            for (Subscriber subscriber : stream.subscribers) {
+                subscriber.emitter.complete();
+            }
+        }
+        if (sender instanceof ExecutorService executor) {
+            executor.shutdown();
+        }
+    }
+    
+    /**
+     * WebSocketのセッションとteamspaceのSSEの購読者に通知し、送信できなかったWebSocketのセッションを返す
+     * 
+     * SSEへは送信待ちに積むだけで、送信の完了は待たない。
+     * 
+     * @param excludedUserId SSEで通知しないユーザー（WebSocketのsessionsは呼び出し側で除外済み）。nullなら全員
+     */
+    public List<WebSocketSession> broadcast(String teamspaceId, Collection<WebSocketSession> sessions,
+                                            Notification notification, String excludedUserId) {
+        String payload;
+        try {
+            payload = notificationJson.write(notification);
+        } catch (IOException e) {
+            logger.error("Failed to serialize notification", e);
+            return new ArrayList<>(sessions);
+        }
+        List<WebSocketSession> failed = webSocketHandler.broadcastText(sessions, payload);
+        
+        TeamspaceStream stream = streams.get(teamspaceId);
+        if (stream != null) {
+            stream.publish(notification.type(), payload, excludedUserId);
+        }
+        return failed;
+    }
+    
+    /**
+     * teamspaceの通知のSSEストリームを開始する
+     * 
+     * @param lastEventId 再接続時のLast-Event-ID（初回はnull）
+     * @throws BusinessException teamspaceがない、またはメンバーでない場合（ストリームは作成しない）
+     */
+    public SseEmitter subscribe(String teamspaceId, String userId, String lastEventId) {
+        // 既にストリームがあれば、読み込む前の通し番号から後の通知を現在の状態に重ねて送る
+        TeamspaceStream existing = streams.get(teamspaceId);
+        long seqBeforeLoad = existing != null ? existing.lastSeq() : 0;
+        Teamspace teamspace = MatchingRules.requireTeamspace(redisRepository.getTeamspace(teamspaceId));
+        MatchingRules.checkSubscribe(teamspace, userId);
+        
+        SseEmitter emitter = newEmitter(streamTimeoutMillis);
+        LongSupplier drainDelay = drainDelayMillis;
+        if (drainDelay != null) {
+            Subscriber subscriber = new Subscriber(userId, emitter, null);
+            subscriber.enqueue(reconnectHint(drainDelay));
+            subscriber.completeWhenSent();
+            return emitter;
+        }
+        
+        TeamspaceStream stream = streams.compute(teamspaceId, (id, current) -> {
+            TeamspaceStream target = current != null ? current : new TeamspaceStream(replaySize);
+            target.touch();
+            return target;
+        });
+        if (stream != existing) {
+            // 読み込んでいる間の通知は保持されていないため、ストリームを用意してから読み直す
+            seqBeforeLoad = stream.lastSeq();
+            teamspace = MatchingRules.requireTeamspace(redisRepository.getTeamspace(teamspaceId));
+        }
+        
+        Subscriber subscriber = new Subscriber(userId, emitter, stream);
+        emitter.onCompletion(() -> stream.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> stream.remove(subscriber));
+        
+        List<Event> snapshot;
+        try {
+            snapshot = snapshot(teamspace, userId, seqBeforeLoad);
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        stream.attach(subscriber, lastEventId, snapshot);
+        return emitter;
+    }
+    
+    /**
+     * 全てのSSEストリームを閉じる（停止前、WebSocketDrainから）
+     * 
+     * retryで再接続までの時間を指定し、EventSourceの再接続が同時に集中しないようにする。
+     * 送信待ちに積んで閉じるだけで、送信の完了は待たない。以降の購読も同じように閉じる。
+     */
+    public void drain(LongSupplier reconnectDelayMillis) {
+        drainDelayMillis = reconnectDelayMillis;
+        for (TeamspaceStream stream : streams.values()) {
+            for (Subscriber subscriber : stream.subscribers) {
+                subscriber.enqueue(reconnectHint(reconnectDelayMillis));
+                subscriber.completeWhenSent();
+            }
+        }
+    }
+    
+    /**
+     * 接続中のSSEストリーム数
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+    
+    /**
+     * teamspaceのストリーム（購読者と直近の通知）を保持しているか
+     */
+    boolean hasStream(String teamspaceId) {
+        return streams.containsKey(teamspaceId);
+    }
+    
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+    
+    /**
+     * Last-Event-IDから再送できない場合に送る現在の状態（個別の通知と同じ形式）
+     */
+    private List<Event> snapshot(Teamspace teamspace, String userId, long seq) throws IOException {
+        List<Event> events = new ArrayList<>(2);
+        MemberListNotification memberList = new MemberListNotification(teamspace.getMembers());
+        events.add(new Event(seq, memberList.type(), notificationJson.write(memberList), null));
+        if (teamspace.getPartyId() != null && !teamspace.isOrganizer(userId)) {
+            PartyIdNotification partyId = new PartyIdNotification(teamspace.getPartyId());
+            events.add(new Event(seq, partyId.type(), notificationJson.write(partyId), null));
+        }
+        return events;
+    }
+    
+    private static SseEmitter.SseEventBuilder reconnectHint(LongSupplier reconnectDelayMillis) {
+        return SseEmitter.event()
+            .reconnectTime(reconnectDelayMillis.getAsLong())
+            .comment("reconnect");
+    }
+    
+    private void sendHeartbeats() {
+        long now = System.nanoTime();
+        for (Map.Entry<String, TeamspaceStream> entry : streams.entrySet()) {
+            TeamspaceStream stream = entry.getValue();
+            for (Subscriber subscriber : stream.subscribers) {
+                subscriber.enqueue(SseEmitter.event().comment("heartbeat"));
+            }
+            // 購読者がいなくなってしばらく経ったteamspaceの通知は破棄する
+            streams.computeIfPresent(entry.getKey(), (id, current) -> current.isIdle(now, idleStreamNanos) ? null : current);
+        }
+    }
+    
+    private String eventId(long seq) {
+        return epoch + "-" + seq;
+    }
+    
+    /**
+     * Last-Event-IDの通し番号（このプロセスのIDでなければ-1）
+     */
+    private long parseSeq(String lastEventId) {
+        if (lastEventId == null || !lastEventId.startsWith(epoch + "-")) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    /**
+     * SSEで送る通知（seqはteamspaceごとの通し番号）
+     */
+    record Event(long seq, String type, String payload, String excludedUserId) {
+    }
+    
+    /**
+     * SSEの購読者と送信待ち
+     * 
+     * 送信待ちがあるときだけ送信用のスレッドで送信を行い、同じ購読者への送信は常に1つのスレッドが順に行う。
+     */
+    private final class Subscriber implements Runnable {
+        
+        private final String userId;
+        private final SseEmitter emitter;
+        private final TeamspaceStream stream;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private boolean scheduled;
+        private boolean completeWhenEmpty;
+        private boolean closed;
+        
+        Subscriber(String userId, SseEmitter emitter, TeamspaceStream stream) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.stream = stream;
+        }
+        
+        void enqueue(Event event) {
+            if (userId.equals(event.excludedUserId())) {
+                return;
+            }
+            enqueue(SseEmitter.event()
+                .id(eventId(event.seq()))
+                .name(event.type())
+                .data(event.payload()));
+        }
+        
+        /**
+         * 送信待ちに積む（送信待ちが上限を超えた場合は閉じる）
+         */
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            boolean overflow = false;
+            lock.lock();
+            try {
+                if (closed || completeWhenEmpty) {
+                    return;
+                }
+                if (pending.size() >= maxPendingEvents) {
+                    // 送信待ちを捨てて閉じる（閉じる処理も送信用のスレッドで行う）
+                    pending.clear();
+                    completeWhenEmpty = true;
+                    overflow = true;
+                } else {
+                    pending.addLast(event);
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (overflow) {
+                logger.warn("SSE stream of {} fell {} events behind; closing", userId, maxPendingEvents);
+                if (stream != null) {
+                    stream.remove(this);
+                }
+            }
+            schedule();
+        }
+        
+        /**
+         * 送信待ちを送り終えたら閉じる
+         */
+        void completeWhenSent() {
+            lock.lock();
+            try {
+                completeWhenEmpty = true;
+            } finally {
+                lock.unlock();
+            }
+            schedule();
+        }
+        
+        private void schedule() {
+            lock.lock();
+            try {
+                if (scheduled || closed) {
+                    return;
+                }
+                scheduled = true;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                sender.execute(this);
+            } catch (RejectedExecutionException e) {
+                // 停止中
+                close();
+            }
+        }
+        
+        @Override
+        public void run() {
+            while (true) {
+                SseEmitter.SseEventBuilder next;
+                boolean complete = false;
+                lock.lock();
+                try {
+                    next = pending.pollFirst();
+                    if (next == null) {
+                        scheduled = false;
+                        complete = completeWhenEmpty && !closed;
+                        if (complete) {
+                            closed = true;
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (next == null) {
+                    if (complete) {
+                        emitter.complete();
+                    }
+                    return;
+                }
+                try {
+                    emitter.send(next);
+                } catch (IOException | IllegalStateException e) {
+                    // 切断済み（コンテナ側でエラー・完了の通知が行われる）
+                    close();
+                    return;
+                }
+            }
+        }
+        
+        private void close() {
+            lock.lock();
+            try {
+                closed = true;
+                pending.clear();
+            } finally {
+                lock.unlock();
+            }
+            if (stream != null) {
+                stream.remove(this);
+            }
+        }
+    }
+    
+    /**
+     * teamspaceごとの購読者と直近の通知
+     * 
+     * 通知の採番・保持、購読者の送信待ちへの追加と購読者の追加は同じロックで行い、購読者ごとの通知の順序と
+     * 再送の抜け・重複を防ぐ。ロック中は送信待ちに積むだけで、送信（I/O）やRedisの読み込みは行わない。
+     */
+    private final class TeamspaceStream {
+        
+        private final int capacity;
+        private final ArrayDeque<Event> recent;
+        private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final ReentrantLock lock = new ReentrantLock();
+        private long lastSeq;
+        private volatile long lastActivityNanos = System.nanoTime();
+        
+        TeamspaceStream(int capacity) {
+            this.capacity = capacity;
+            this.recent = new ArrayDeque<>(capacity);
+        }
+        
+        long lastSeq() {
+            lock.lock();
+            try {
+                return lastSeq;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        void touch() {
+            lastActivityNanos = System.nanoTime();
+        }
+        
+        boolean isIdle(long now, long idleNanos) {
+            return subscribers.isEmpty() && now - lastActivityNanos > idleNanos;
+        }
+        
+        void publish(String type, String payload, String excludedUserId) {
+            lock.lock();
+            try {
+                Event event = new Event(++lastSeq, type, payload, excludedUserId);
+                if (capacity > 0) {
+                    if (recent.size() == capacity) {
+                        recent.removeFirst();
+                    }
+                    recent.addLast(event);
+                }
+                touch();
+                for (Subscriber subscriber : subscribers) {
+                    subscriber.enqueue(event);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        /**
+         * Last-Event-ID以降の通知（再送できなければ現在の状態）を送信待ちに積んでから購読者に加える
+         * 
+         * @param snapshot 再送できない場合に送る現在の状態（ロックの外で用意したもの）
+         */
+        void attach(Subscriber subscriber, String lastEventId, List<Event> snapshot) {
+            lock.lock();
+            try {
+                List<Event> missed = since(parseSeq(lastEventId));
+                if (missed == null) {
+                    missed = new ArrayList<>(snapshot);
+                    // 状態を読み込んでいる間の通知
+                    for (Event event : recent) {
+                        if (event.seq() > snapshot.get(0).seq()) {
+                            missed.add(event);
+                        }
+                    }
+                }
+                for (Event event : missed) {
+                    subscriber.enqueue(event);
+                }
+                subscribers.add(subscriber);
+                subscriberCount.incrementAndGet();
+                touch();
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        void remove(Subscriber subscriber) {
+            if (subscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+                touch();
+            }
+        }
+        
+        /**
+         * seqより後の保持している通知（抜けがあって再送できない場合はnull）
+         */
+        private List<Event> since(long seq) {
+            if (seq < 0 || seq > lastSeq) {
+                return null;
+            }
+            long oldest = recent.isEmpty() ? lastSeq + 1 : recent.peekFirst().seq();
+            if (seq + 1 < oldest) {
+                return null;
+            }
+            List<Event> events = new ArrayList<>();
+            for (Event event : recent) {
+                if (event.seq() > seq) {
+                    events.add(event);
+                }
+            }
+            return events;
+        }
+    }
+}
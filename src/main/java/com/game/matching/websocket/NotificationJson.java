@@ -0,0 +1,37 @@
+package com.game.matching.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.game.matching.dto.MemberListNotification;
+import com.game.matching.dto.Notification;
+import com.game.matching.dto.PartyIdNotification;
+import com.game.matching.dto.ReconnectNotification;
+
+/**
+ * WebSocket通知のJSON化（サーブレット版とWebFlux版で共通）
+ * 
+ * 通知の型ごとのObjectWriterを作成時に用意し、送信ごとのシリアライザの検索を省く。
+ */
+public final class NotificationJson {
+    
+    private final ObjectWriter memberListWriter;
+    private final ObjectWriter partyIdWriter;
+    private final ObjectWriter reconnectWriter;
+    
+    public NotificationJson(ObjectMapper objectMapper) {
+        this.memberListWriter = objectMapper.writerFor(MemberListNotification.class);
+        this.partyIdWriter = objectMapper.writerFor(PartyIdNotification.class);
+        this.reconnectWriter = objectMapper.writerFor(ReconnectNotification.class);
+    }
+    
+    public String write(Notification notification) throws JsonProcessingException {
+        if (notification instanceof MemberListNotification memberList) {
+            return memberListWriter.writeValueAsString(memberList);
+        }
+        if (notification instanceof PartyIdNotification partyId) {
+            return partyIdWriter.writeValueAsString(partyId);
+        }
+        return reconnectWriter.writeValueAsString((ReconnectNotification) notification);
+    }
+}
@@ -0,0 +1,133 @@
+package com.game.matching.websocket;
+
+import com.game.matching.metrics.WebSocketMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WebFlux版のWebSocket接続の管理
+ * 
+ * 接続ごとに上限付きの送信キュー（Sinks.Many）を持ち、WebSocketセッションの送信はキューを購読して行う。
+ * 送信はクライアントの受信速度に合わせて進み（バックプレッシャー）、キューが上限に達した接続は
+ * 受信が追いつかないクライアントとして切断する（サーブレット版のbuffer-size-limit-bytesに相当）。
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConnectionManager {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveConnectionManager.class);
+    
+    // teamspaceId -> 接続
+    private final Map<String, Set<Connection>> teamspaceConnections = new ConcurrentHashMap<>();
+    
+    private final int maxPendingMessages;
+    private final WebSocketMetrics webSocketMetrics;
+    
+    public ReactiveConnectionManager(
+            @Value("${matching.websocket.reactive.max-pending-messages:256}") int maxPendingMessages,
+            WebSocketMetrics webSocketMetrics) {
+        this.maxPendingMessages = maxPendingMessages;
+        this.webSocketMetrics = webSocketMetrics;
+    }
+    
+    /**
+     * 接続を追加
+     */
+    public Connection addConnection(String teamspaceId, String userId, WebSocketSession session) {
+        Sinks.Many<String> outbound = Sinks.many().unicast()
+            .onBackpressureBuffer(new ArrayBlockingQueue<>(maxPendingMessages));
+        Connection connection = new Connection(teamspaceId, userId, session, outbound);
+        teamspaceConnections.computeIfAbsent(teamspaceId, k -> ConcurrentHashMap.newKeySet()).add(connection);
+        return connection;
+    }
+    
+    /**
+     * 接続を削除し、送信キューを閉じる
+     */
+    public void removeConnection(Connection connection) {
+        teamspaceConnections.computeIfPresent(connection.teamspaceId(), (teamspaceId, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+        connection.outbound().tryEmitComplete();
+    }
+    
+    /**
+     * teamspaceの接続（excludeUserIdを除く）の送信キューにメッセージを積む
+     */
+    public BroadcastResult broadcast(String teamspaceId, String message, String excludeUserId) {
+        List<String> delivered = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        for (Connection connection : teamspaceConnections.getOrDefault(teamspaceId, Set.of())) {
+            if (connection.userId().equals(excludeUserId)) {
+                continue;
+            }
+            long startNanos = System.nanoTime();
+            Sinks.EmitResult result;
+            do {
+                // 同じ接続への同時送信はリトライで直列化する
+                result = connection.outbound().tryEmitNext(message);
+            } while (result == Sinks.EmitResult.FAIL_NON_SERIALIZED);
+            
+            if (result.isSuccess()) {
+                webSocketMetrics.recordSend(startNanos);
+                delivered.add(connection.userId());
+                continue;
+            }
+            webSocketMetrics.recordFailure();
+            failed.add(connection.userId());
+            if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                logger.warn("WebSocket send queue full, closing session: teamspace={}, userId={}",
+                            teamspaceId, connection.userId());
+                removeConnection(connection);
+                connection.session().close(CloseStatus.SESSION_NOT_RELIABLE).subscribe();
+            }
+        }
+        return new BroadcastResult(delivered, failed);
+    }
+    
+    /**
+     * 接続中のセッション数
+     */
+    public int getSessionCount() {
+        int count = 0;
+        for (Set<Connection> connections : teamspaceConnections.values()) {
+            count += connections.size();
+        }
+        return count;
+    }
+    
+    /**
+     * 送信キューに積めた接続と積めなかった接続のuserId
+     */
+    public record BroadcastResult(List<String> delivered, List<String> failed) {
+    }
+    
+    /**
+     * 1つのWebSocket接続と送信キュー
+     */
+    public record Connection(String teamspaceId, String userId, WebSocketSession session,
+                             Sinks.Many<String> outbound) {
+        
+        /**
+         * セッションに送信するメッセージ
+         */
+        public Flux<String> messages() {
+            return outbound.asFlux();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.game.matching.websocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux版の /ws ハンドラー（接続時のクエリパラメータと通知の形式はGameWebSocketHandlerと同じ）
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGameWebSocketHandler implements WebSocketHandler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveGameWebSocketHandler.class);
+    
+    private final ReactiveConnectionManager connectionManager;
+    
+    public ReactiveGameWebSocketHandler(ReactiveConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+    
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        String query = session.getHandshakeInfo().getUri().getQuery();
+        String teamspaceId = GameWebSocketHandler.extractQueryParam(query, "teamspaceId");
+        String userId = GameWebSocketHandler.extractQueryParam(query, "userId");
+        
+        if (teamspaceId == null || teamspaceId.isEmpty()) {
+            logger.warn("WebSocket connection without teamspaceId, closing session");
+            return session.close(CloseStatus.BAD_DATA);
+        }
+        
+        if (userId == null || userId.isEmpty()) {
+            logger.warn("WebSocket connection without userId, closing session");
+            return session.close(CloseStatus.BAD_DATA);
+        }
+        
+        // 接続を登録
+        ReactiveConnectionManager.Connection connection = connectionManager.addConnection(teamspaceId, userId, session);
+        logger.info("WebSocket connected for teamspace: {}, userId: {}", teamspaceId, userId);
+        
+        // 受信側が閉じたら送信キューも閉じ、送信側も完了させる
+        Mono<Void> output = session.send(connection.messages().map(session::textMessage));
+        Mono<Void> input = session.receive()
+            .then()
+            .doFinally(signal -> {
+                connectionManager.removeConnection(connection);
+                logger.info("WebSocket closed: teamspace={}, userId={}", teamspaceId, userId);
+            });
+        return Mono.zip(input, output).then();
+    }
+}
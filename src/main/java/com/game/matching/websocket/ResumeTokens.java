@@ -0,0 +1,116 @@
+package com.game.matching.websocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.util.Base64;
+
+/**
+ * ドレイン時にWebSocketのセッションへ渡す再接続用のトークン（userId・teamspaceId・期限のHMAC-SHA256署名）
+ * 
+ * 再接続後のAPI⑥（X-Resume-Tokenヘッダー）で、全teamspaceを走査する代わりにトークンのteamspaceだけを読む。
+ * トークンはteamspaceの候補を示すだけで、状態はRedisのteamspaceで確認する。
+ * 他のインスタンスが発行したトークンを検証できるよう、matching.drain.resume-token-secretは全インスタンスで同じ値にする。
+ * 未設定の場合はトークンを発行しない（停止中のこのインスタンスだけが検証できるトークンは、再接続先では使えない）。
+ * 
+ * トークンの発行・検証はドレイン時と再接続直後だけなので、Macは呼び出しごとに作る（スレッドごとに保持しない）。
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ResumeTokens {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ResumeTokens.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    
+    // 共有の秘密鍵が設定されていなければnull（発行・検証しない）
+    private final SecretKeySpec key;
+    private final long ttlMillis;
+    private final Clock clock;
+    
+    @Autowired
+    public ResumeTokens(@Value("${matching.drain.resume-token-secret:}") String secret,
+                        @Value("${matching.drain.resume-token-ttl-seconds:300}") long ttlSeconds) {
+        this(secret.isEmpty() ? null : secret.getBytes(StandardCharsets.UTF_8), ttlSeconds * 1000, Clock.systemUTC());
+        if (secret.isEmpty()) {
+            logger.warn("matching.drain.resume-token-secret (RESUME_TOKEN_SECRET) is not set; "
+                        + "resume tokens are disabled and reconnecting clients fall back to the full scan");
+        }
+    }
+    
+    /**
+     * @param secret 署名鍵（nullならトークンを発行・検証しない）
+     */
+    ResumeTokens(byte[] secret, long ttlMillis, Clock clock) {
+        this.key = secret == null ? null : new SecretKeySpec(secret, ALGORITHM);
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+    
+    public boolean isEnabled() {
+        return key != null;
+    }
+    
+    /**
+     * トークンを発行（形式: base64url(userId \n teamspaceId \n 期限のエポックミリ秒) . base64url(署名)）
+     * 
+     * @return トークン（共有の秘密鍵が設定されていなければnull）
+     */
+    public String issue(String userId, String teamspaceId) {
+        if (key == null) {
+            return null;
+        }
+        String claims = userId + "\n" + teamspaceId + "\n" + (clock.millis() + ttlMillis);
+        byte[] payload = claims.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+    }
+    
+    /**
+     * トークンを検証し、teamspaceIdを返す（署名が不正、期限切れ、userIdが異なる場合はnull）
+     */
+    public String verify(String token, String userId) {
+        if (key == null || token == null || userId == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot < 0) {
+            return null;
+        }
+        try {
+            byte[] payload = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return null;
+            }
+            String[] claims = new String(payload, StandardCharsets.UTF_8).split("\n", -1);
+            if (claims.length != 3 || !claims[0].equals(userId) || Long.parseLong(claims[2]) < clock.millis()) {
+                return null;
+            }
+            return claims[1];
+        } catch (IllegalArgumentException e) {
+            // Base64・期限の形式が不正（NumberFormatExceptionを含む）
+            return null;
+        }
+    }
+    
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -1,43 +1,70 @@
 package com.game.matching.websocket;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class WebSocketConnectionManager {
     
     // teamspaceId -> Set<WebSocketSession> のマップ
     private final Map<String, Set<WebSocketSession>> teamspaceConnections = new ConcurrentHashMap<>();
     
-    // WebSocketSession -> teamspaceId のマップ（逆引き用）
-    private final Map<WebSocketSession, String> sessionToTeamspace = new ConcurrentHashMap<>();
+    // sessionId -> 送信用にラップしたセッション のマップ
+    private final Map<String, ConcurrentWebSocketSessionDecorator> sessions = new ConcurrentHashMap<>();
     
-    // WebSocketSession -> userId のマップ
-    private final Map<WebSocketSession, String> sessionToUserId = new ConcurrentHashMap<>();
+    // sessionId -> teamspaceId のマップ（逆引き用）
+    private final Map<String, String> sessionToTeamspace = new ConcurrentHashMap<>();
+    
+    // sessionId -> userId のマップ
+    private final Map<String, String> sessionToUserId = new ConcurrentHashMap<>();
+    
+    private final int sendTimeLimitMillis;
+    private final int bufferSizeLimitBytes;
+    
+    // 停止処理中（新しい接続は受け付けない）
+    private volatile boolean draining;
+    
+    public WebSocketConnectionManager(
+            @Value("${matching.websocket.send-time-limit-ms:10000}") int sendTimeLimitMillis,
+            @Value("${matching.websocket.buffer-size-limit-bytes:524288}") int bufferSizeLimitBytes) {
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.bufferSizeLimitBytes = bufferSizeLimitBytes;
+    }
     
     /**
      * 接続を追加
+     * 
+     * 複数スレッドからの通知を直列化し、送信待ちのバイト数を計測できるようにセッションをラップする。
      */
     public void addConnection(String teamspaceId, String userId, WebSocketSession session) {
-        teamspaceConnections.computeIfAbsent(teamspaceId, k -> ConcurrentHashMap.newKeySet()).add(session);
-        sessionToTeamspace.put(session, teamspaceId);
-        sessionToUserId.put(session, userId);
+        ConcurrentWebSocketSessionDecorator decorated =
+            new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis, bufferSizeLimitBytes);
+        sessions.put(session.getId(), decorated);
+        sessionToTeamspace.put(session.getId(), teamspaceId);
+        sessionToUserId.put(session.getId(), userId);
+        teamspaceConnections.computeIfAbsent(teamspaceId, k -> ConcurrentHashMap.newKeySet()).add(decorated);
     }
     
     /**
      * 接続を削除
      */
     public void removeConnection(WebSocketSession session) {
-        String teamspaceId = sessionToTeamspace.remove(session);
-        sessionToUserId.remove(session);
-        if (teamspaceId != null) {
-            Set<WebSocketSession> sessions = teamspaceConnections.get(teamspaceId);
-            if (sessions != null) {
-                sessions.remove(session);
-                if (sessions.isEmpty()) {
+        String sessionId = session.getId();
+        WebSocketSession decorated = sessions.remove(sessionId);
+        String teamspaceId = sessionToTeamspace.remove(sessionId);
+        sessionToUserId.remove(sessionId);
+        if (teamspaceId != null && decorated != null) {
+            Set<WebSocketSession> teamspaceSessions = teamspaceConnections.get(teamspaceId);
+            if (teamspaceSessions != null) {
+                teamspaceSessions.remove(decorated);
+                if (teamspaceSessions.isEmpty()) {
                     teamspaceConnections.remove(teamspaceId);
                 }
             }
@@ -48,7 +75,14 @@ public class WebSocketConnectionManager {
      * セッションからuserIdを取得
      */
     public String getUserId(WebSocketSession session) {
-        return sessionToUserId.get(session);
+        return sessionToUserId.get(session.getId());
+    }
+    
+    /**
+     * セッションのteamspaceIdを取得
+     */
+    public String getTeamspaceId(WebSocketSession session) {
+        return sessionToTeamspace.get(session.getId());
     }
     
     /**
@@ -57,5 +91,51 @@ public class WebSocketConnectionManager {
     public Set<WebSocketSession> getConnections(String teamspaceId) {
         return teamspaceConnections.getOrDefault(teamspaceId, Collections.emptySet());
     }
+    
+    /**
+     * 接続中の全セッション（送信用にラップしたもの）
+     */
+    public List<WebSocketSession> getAllConnections() {
+        return new ArrayList<>(sessions.values());
+    }
+    
+    /**
+     * 以降の接続を受け付けない（WebSocketDrain）
+     */
+    public void startDraining() {
+        draining = true;
+    }
+    
+    public boolean isDraining() {
+        return draining;
+    }
+    
+    /**
+     * 接続中のセッション数
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+    
+    /**
+     * 全セッションの送信待ちバイト数の合計
+     */
+    public long getSendBufferBytes() {
+        long total = 0;
+        for (ConcurrentWebSocketSessionDecorator session : sessions.values()) {
+            total += session.getBufferSize();
+        }
+        return total;
+    }
+    
+    /**
+     * 送信待ちバイト数が最も多いセッションの値
+     */
+    public int getMaxSendBufferBytes() {
+        int max = 0;
+        for (ConcurrentWebSocketSessionDecorator session : sessions.values()) {
+            max = Math.max(max, session.getBufferSize());
+        }
+        return max;
+    }
 }
-
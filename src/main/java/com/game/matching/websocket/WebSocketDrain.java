@@ -0,0 +1,166 @@
+package com.game.matching.websocket;
+
+import com.game.matching.dto.ReconnectNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 停止時（SIGTERM・デプロイ）のWebSocket・SSEの接続の引き継ぎ
+ * 
+ * <ol>
+ * <li>停止の開始（ContextClosedEvent）: 新しいWebSocketの接続を1012で閉じる。readinessはSpring Bootが
+ *     同じ時点でREFUSING_TRAFFICにする（/actuator/health/readiness）。SSEのストリームはretryを指定して閉じる</li>
+ * <li>実行中のリクエストの完了（server.shutdown=graceful）を待つ。この間の通知は既存のWebSocketの接続に届く</li>
+ * <li>stop: 各セッションに再接続の依頼（0〜matching.drain.reconnect-jitter-msのランダムな待ち時間と
+ *     ResumeTokens）を送り、送信待ちがなくなるのを待ってから1012で閉じる</li>
+ * </ol>
+ * 
+ * SSEのストリームは非同期リクエストのため、開いたままだと実行中のリクエストの完了を待つ間
+ * （spring.lifecycle.timeout-per-shutdown-phase）停止が進まない。そのため停止の開始時に閉じる。
+ * 
+ * 待ち時間をばらつかせて、全クライアントの再接続とAPI⑥の呼び出しが他のインスタンスに同時に集中するのを防ぐ。
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebSocketDrain implements SmartLifecycle {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketDrain.class);
+    
+    /**
+     * 実行中のリクエストの完了（WebServerGracefulShutdownLifecycle）の後、
+     * Webサーバーの停止（WebServerStartStopLifecycle、WebSocketの接続も切れる）の前
+     */
+    static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 512;
+    
+    private static final long FLUSH_POLL_MILLIS = 20;
+    
+    private final WebSocketConnectionManager connectionManager;
+    private final GameWebSocketHandler webSocketHandler;
+    private final NotificationFanout notificationFanout;
+    private final ResumeTokens resumeTokens;
+    private final long reconnectJitterMillis;
+    private final long flushTimeoutMillis;
+    
+    private volatile boolean running;
+    
+    public WebSocketDrain(WebSocketConnectionManager connectionManager,
+                          GameWebSocketHandler webSocketHandler,
+                          NotificationFanout notificationFanout,
+                          ResumeTokens resumeTokens,
+                          @Value("${matching.drain.reconnect-jitter-ms:10000}") long reconnectJitterMillis,
+                          @Value("${matching.drain.flush-timeout-ms:5000}") long flushTimeoutMillis) {
+        this.connectionManager = connectionManager;
+        this.webSocketHandler = webSocketHandler;
+        this.notificationFanout = notificationFanout;
+        this.resumeTokens = resumeTokens;
+        this.reconnectJitterMillis = reconnectJitterMillis;
+        this.flushTimeoutMillis = flushTimeoutMillis;
+    }
+    
+    @EventListener(ContextClosedEvent.class)
+    public void onContextClosed() {
+        connectionManager.startDraining();
+        // 開いたままのSSEのストリームが実行中のリクエストとして停止を待たせないよう、ここで閉じる
+        int sseStreams = notificationFanout.getSubscriberCount();
+        notificationFanout.drain(this::nextReconnectDelay);
+        logger.info("Draining: refusing new WebSocket connections ({} open), closing {} SSE streams",
+                    connectionManager.getSessionCount(), sseStreams);
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+    }
+    
+    @Override
+    public void stop() {
+        try {
+            drain();
+        } finally {
+            running = false;
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+    
+    /**
+     * 全セッションに再接続を依頼して閉じ、閉じたセッション数を返す
+     */
+    public int drain() {
+        connectionManager.startDraining();
+        long startNanos = System.nanoTime();
+        List<WebSocketSession> sessions = connectionManager.getAllConnections();
+        for (WebSocketSession session : sessions) {
+            String userId = connectionManager.getUserId(session);
+            String teamspaceId = connectionManager.getTeamspaceId(session);
+            if (userId == null || teamspaceId == null) {
+                // 並行して切断済み
+                continue;
+            }
+            webSocketHandler.sendMessage(session,
+                new ReconnectNotification(nextReconnectDelay(), resumeTokens.issue(userId, teamspaceId)));
+        }
+        // 通常は停止の開始時に閉じ済み（drainを直接呼んだ場合のため）
+        notificationFanout.drain(this::nextReconnectDelay);
+        
+        boolean flushed = awaitFlush();
+        for (WebSocketSession session : sessions) {
+            try {
+                session.close(CloseStatus.SERVICE_RESTARTED);
+            } catch (IOException e) {
+                logger.debug("Failed to close WebSocket session: {}", e.getMessage());
+            }
+        }
+        logger.info("Drained {} WebSocket sessions in {} ms{}", sessions.size(),
+                    (System.nanoTime() - startNanos) / 1_000_000,
+                    flushed ? "" : " (send buffers not flushed within " + flushTimeoutMillis + " ms)");
+        return sessions.size();
+    }
+    
+    /**
+     * 再接続までの待ち時間（0〜reconnectJitterMillisの一様分布）
+     */
+    long nextReconnectDelay() {
+        return reconnectJitterMillis <= 0 ? 0 : ThreadLocalRandom.current().nextLong(reconnectJitterMillis);
+    }
+    
+    /**
+     * 全セッションの送信待ちがなくなるまで待つ（flushTimeoutMillisまで）
+     */
+    private boolean awaitFlush() {
+        long deadline = System.nanoTime() + flushTimeoutMillis * 1_000_000;
+        while (connectionManager.getSendBufferBytes() > 0) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            try {
+                Thread.sleep(FLUSH_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,148 @@
+package com.game.matching.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+@DisplayName("AuditJournal - 監査ジャーナル")
+class AuditJournalTest {
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    @DisplayName("正常系: 追記したレコードを同じ順序で読み戻せる")
+    void append_読み戻し() throws IOException {
+        try (AuditJournal journal = new AuditJournal(dir, 4096, 0, 10, false)) {
+            journal.append(1000L, AuditEventType.TEAMSPACE_CREATED, "user1", "ts1", null);
+            journal.append(2000L, AuditEventType.GAME_START, "user1", "ts1", "party1");
+            journal.append(3000L, AuditEventType.TEAMSPACE_JOINED, "ユーザー2", "ts1", null);
+        }
+        
+        List<AuditRecord> records = new AuditJournalReader(dir).readAll(AuditJournalReader.Filter.ALL);
+        
+        assertThat(records).containsExactly(
+            new AuditRecord(1000L, AuditEventType.TEAMSPACE_CREATED, "user1", "ts1", null),
+            new AuditRecord(2000L, AuditEventType.GAME_START, "user1", "ts1", "party1"),
+            new AuditRecord(3000L, AuditEventType.TEAMSPACE_JOINED, "ユーザー2", "ts1", null));
+    }
+    
+    @Test
+    @DisplayName("正常系: userId、teamspaceId、時間範囲で絞り込める")
+    void read_絞り込み() throws IOException {
+        try (AuditJournal journal = new AuditJournal(dir, 4096, 0, 10, false)) {
+            journal.append(1000L, AuditEventType.TEAMSPACE_CREATED, "user1", "ts1", null);
+            journal.append(2000L, AuditEventType.TEAMSPACE_JOINED, "user2", "ts1", null);
+            journal.append(3000L, AuditEventType.TEAMSPACE_LEFT, "user2", "ts1", null);
+            journal.append(4000L, AuditEventType.TEAMSPACE_CREATED, "user2", "ts2", null);
+        }
+        AuditJournalReader reader = new AuditJournalReader(dir);
+        
+        assertThat(reader.readAll(new AuditJournalReader.Filter("user2", null, null, null))).hasSize(3);
+        assertThat(reader.readAll(new AuditJournalReader.Filter(null, "ts1", null, null))).hasSize(3);
+        assertThat(reader.readAll(new AuditJournalReader.Filter("user2", "ts1", 2500L, 4000L)))
+            .extracting(AuditRecord::eventType)
+            .containsExactly(AuditEventType.TEAMSPACE_LEFT);
+    }
+    
+    @Test
+    @DisplayName("正常系: セグメントが満杯になると切り替わり、保持数を超えた古いセグメントは削除される")
+    void append_ローテーション() throws IOException {
+        try (AuditJournal journal = new AuditJournal(dir, 4096, 2, 10, false)) {
+            for (int i = 0; i < 1000; i++) {
+                journal.append(i, AuditEventType.TEAMSPACE_JOINED, "user" + i, "ts" + i, null);
+            }
+        }
+        
+        List<AuditRecord> records = new AuditJournalReader(dir).readAll(AuditJournalReader.Filter.ALL);
+        
+        assertThat(AuditJournal.listSegments(dir)).hasSize(2);
+        assertThat(records).isNotEmpty().hasSizeLessThan(1000);
+        // 残っているのは最新のレコード
+        assertThat(records.get(records.size() - 1).userId()).isEqualTo("user999");
+    }
+    
+    @Test
+    @DisplayName("正常系: 再起動後は新しいセグメントに追記され、以前のレコードも読める")
+    void append_再起動() throws IOException {
+        try (AuditJournal journal = new AuditJournal(dir, 4096, 0, 10, true)) {
+            journal.append(1000L, AuditEventType.TEAMSPACE_CREATED, "user1", "ts1", null);
+        }
+        try (AuditJournal journal = new AuditJournal(dir, 4096, 0, 10, true)) {
+            journal.append(2000L, AuditEventType.TEAMSPACE_LEFT, "user1", "ts1", null);
+        }
+        
+        assertThat(AuditJournal.listSegments(dir)).hasSize(2);
+        assertThat(new AuditJournalReader(dir).readAll(AuditJournalReader.Filter.ALL)).hasSize(2);
+    }
+    
+    @Test
+    @DisplayName("異常系: CRCが一致しないレコード以降は読み取らない")
+    void read_破損レコードで打ち切り() throws IOException {
+        try (AuditJournal journal = new AuditJournal(dir, 4096, 0, 10, false)) {
+            journal.append(1000L, AuditEventType.TEAMSPACE_CREATED, "user1", "ts1", null);
+            journal.append(2000L, AuditEventType.TEAMSPACE_JOINED, "user2", "ts1", null);
+        }
+        Path segment = AuditJournal.listSegments(dir).get(0);
+        int secondRecord = AuditSegmentFormat.HEADER_SIZE + AuditSegmentFormat.RECORD_HEADER_SIZE
+            + 1 + 8 + AuditSegmentFormat.encodedLength("user1") + AuditSegmentFormat.encodedLength("ts1")
+            + AuditSegmentFormat.encodedLength(null);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // 2件目のペイロードの先頭（イベント種別）を書き換える
+            channel.write(ByteBuffer.wrap(new byte[] {5}), secondRecord + AuditSegmentFormat.RECORD_HEADER_SIZE);
+        }
+        
+        AuditJournalReader reader = new AuditJournalReader(dir);
+        List<AuditRecord> records = new ArrayList<>();
+        int truncated = reader.read(AuditJournalReader.Filter.ALL, records::add);
+        
+        assertThat(truncated).isEqualTo(1);
+        assertThat(records).extracting(AuditRecord::userId).containsExactly("user1");
+    }
+    
+    @Test
+    @DisplayName("正常系: 長さのフィールドに収まらない文字列は文字の境界で切り詰めて書き込む")
+    void append_長い文字列の切り詰め() throws IOException {
+        String longAscii = "a".repeat(40_000);
+        // 3バイトの文字を20000文字（60000バイト）
+        String longJapanese = "あ".repeat(20_000);
+        try (AuditJournal journal = new AuditJournal(dir, 256 * 1024, 0, 10, false)) {
+            journal.append(1000L, AuditEventType.TEAMSPACE_CREATED, longAscii, longJapanese, "party1");
+            journal.append(2000L, AuditEventType.TEAMSPACE_JOINED, "user2", "ts1", null);
+        }
+        
+        List<AuditRecord> records = new AuditJournalReader(dir).readAll(AuditJournalReader.Filter.ALL);
+        
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0).userId()).isEqualTo(longAscii.substring(0, AuditSegmentFormat.MAX_STRING_BYTES));
+        assertThat(records.get(0).teamspaceId()).isEqualTo(longJapanese.substring(0, AuditSegmentFormat.MAX_STRING_BYTES / 3));
+        assertThat(records.get(0).partyId()).isEqualTo("party1");
+        assertThat(records.get(1).userId()).isEqualTo("user2");
+    }
+    
+    @Test
+    @DisplayName("異常系: セグメントに収まらないレコードは捨て、後続のレコードは追記できる")
+    void append_セグメントより大きいレコード() throws IOException {
+        try (AuditJournal journal = new AuditJournal(dir, 4096, 0, 10, false)) {
+            journal.append(1000L, AuditEventType.TEAMSPACE_CREATED, "u".repeat(5000), "ts1", null);
+            journal.append(2000L, AuditEventType.TEAMSPACE_JOINED, "user2", "ts1", null);
+            
+            assertThat(journal.getFailureCount()).isEqualTo(1);
+            assertThat(journal.getAppendedCount()).isEqualTo(1);
+        }
+        
+        assertThat(new AuditJournalReader(dir).readAll(AuditJournalReader.Filter.ALL))
+            .extracting(AuditRecord::userId)
+            .containsExactly("user2");
+        assertThat(AuditJournal.listSegments(dir)).hasSize(1);
+    }
+}
@@ -0,0 +1,66 @@
+package com.game.matching.concurrent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@DisplayName("ReactiveTeamspaceQueue - teamspace単位の直列実行（WebFlux）")
+class ReactiveTeamspaceQueueTest {
+    
+    @Test
+    @DisplayName("正常系: 同じteamspaceへの非同期の処理は重ならず、投入順に実行される")
+    void execute_同じteamspaceは直列() {
+        // Given
+        ReactiveTeamspaceQueue queue = new ReactiveTeamspaceQueue();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        List<Mono<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            int n = i;
+            tasks.add(queue.execute("teamspace-1", () -> Mono.fromCallable(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    order.add(n);
+                    return n;
+                })
+                .delayElement(Duration.ofMillis(1))
+                .doOnNext(ignored -> running.decrementAndGet())));
+        }
+        
+        // When: 全て同時に購読する
+        Flux.merge(tasks).blockLast(Duration.ofSeconds(10));
+        
+        // Then
+        assertThat(maxRunning.get()).isEqualTo(1);
+        assertThat(order).isSorted().hasSize(50);
+    }
+    
+    @Test
+    @DisplayName("正常系: 失敗した処理の後も順番が回り、別のteamspaceは待たない")
+    void execute_失敗後も次が実行される() {
+        // Given
+        ReactiveTeamspaceQueue queue = new ReactiveTeamspaceQueue();
+        Mono<String> failing = queue.execute("teamspace-1",
+            () -> Mono.delay(Duration.ofMillis(50)).then(Mono.<String>error(new IllegalStateException("boom"))));
+        Mono<String> next = queue.execute("teamspace-1", () -> Mono.just("next"));
+        Mono<String> other = queue.execute("teamspace-2", () -> Mono.just("other"));
+        List<String> completed = Collections.synchronizedList(new ArrayList<>());
+        
+        // When
+        Flux.merge(failing.onErrorReturn("failed").doOnNext(completed::add),
+                   next.doOnNext(completed::add),
+                   other.doOnNext(completed::add))
+            .blockLast(Duration.ofSeconds(10));
+        
+        // Then: teamspace-2は先に終わり、teamspace-1は失敗の後に次が実行される
+        assertThat(completed).containsExactly("other", "failed", "next");
+    }
+}
@@ -0,0 +1,131 @@
+package com.game.matching.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SingleFlight - 同じキーの同時読み取りの集約")
+class SingleFlightTest {
+    
+    private static final int CALLERS = 4;
+    
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+    
+    @Test
+    @DisplayName("正常系: 同時に呼ばれた同じキーのロードは1回だけ実行され、結果を共有する")
+    void load_同時の呼び出しは1回にまとまる() throws Exception {
+        // Given: 解放するまで終わらないロード
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        
+        // When: 4人が同時に同じキーを読み、全員が合流してから解放
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(() -> singleFlight.load("teamspace-1", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "value";
+            })));
+        }
+        waitUntilCoalesced(CALLERS - 1);
+        release.countDown();
+        
+        // Then: ロードは1回で、全員が同じ結果を受け取る
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(singleFlight.getCalls()).isEqualTo(CALLERS);
+        assertThat(singleFlight.getCoalescedCalls()).isEqualTo(CALLERS - 1);
+        assertThat(singleFlight.getInFlight()).isZero();
+    }
+    
+    @Test
+    @DisplayName("正常系: ロードが終わった後の呼び出しは新たにロードする（結果を保持しない）")
+    void load_終了後は再ロード() {
+        AtomicInteger loads = new AtomicInteger();
+        
+        singleFlight.load("teamspace-1", () -> "v" + loads.incrementAndGet());
+        String second = singleFlight.load("teamspace-1", () -> "v" + loads.incrementAndGet());
+        
+        assertThat(second).isEqualTo("v2");
+        assertThat(singleFlight.getCoalescedCalls()).isZero();
+    }
+    
+    @Test
+    @DisplayName("異常系: ロードの例外は合流した呼び出しにもそのまま伝わる")
+    void load_例外を共有() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("redis down");
+        
+        Future<String> leader = callers.submit(() -> singleFlight.load("teamspace-1", () -> {
+            await(release);
+            throw failure;
+        }));
+        Future<String> follower = callers.submit(() -> singleFlight.load("teamspace-1", () -> "unused"));
+        waitUntilCoalesced(1);
+        release.countDown();
+        
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCause(failure);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCause(failure);
+    }
+    
+    @Test
+    @DisplayName("正常系: forgetの後の呼び出しは実行中のロードに合流しない")
+    void forget_書き込み後は合流しない() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        
+        Future<String> stale = callers.submit(() -> singleFlight.load("teamspace-1", () -> {
+            await(release);
+            return "before-write";
+        }));
+        while (singleFlight.getInFlight() == 0) {
+            Thread.onSpinWait();
+        }
+        
+        // When: 書き込みの後にforgetしてから読む
+        singleFlight.forget("teamspace-1");
+        String fresh = singleFlight.load("teamspace-1", () -> "after-write");
+        release.countDown();
+        
+        // Then: 書き込み前に始まったロードの結果は受け取らない
+        assertThat(fresh).isEqualTo("after-write");
+        assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("before-write");
+        assertThat(singleFlight.getCoalescedCalls()).isZero();
+    }
+    
+    private void waitUntilCoalesced(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getCoalescedCalls() < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("callers did not join the in-flight load");
+            }
+            Thread.sleep(1);
+        }
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.game.matching.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.game.matching.exception.BusinessException;
+import com.game.matching.metrics.RedisCallTrace;
+import com.game.matching.metrics.RedisCallTracker;
+
+@DisplayName("TeamspaceExecutor - teamspace単位の直列実行")
+class TeamspaceExecutorTest {
+    
+    private TeamspaceExecutor executor;
+    
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("正常系: 同じteamspaceへの処理は投入順に1スレッドで実行される")
+    void execute_同じteamspaceは直列() throws Exception {
+        // Given: ストライプ4本の実行器
+        executor = new TeamspaceExecutor(true, 4, 1024, 60_000);
+        String teamspaceId = "550e8400-e29b-41d4-a716-446655440000";
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        
+        // When: 単一の呼び出し元から順に投入
+        for (int i = 0; i < 100; i++) {
+            int n = i;
+            executor.execute(teamspaceId, () -> {
+                order.add(n);
+                threads.add(Thread.currentThread().getName());
+            });
+        }
+        
+        // Then: 投入順が保たれ、同じストライプのスレッドで実行されている
+        assertThat(order).isSorted().hasSize(100);
+        assertThat(threads).allMatch(name -> name.equals(threads.get(0)));
+        assertThat(threads.get(0)).startsWith("teamspace-stripe-");
+    }
+    
+    @Test
+    @DisplayName("正常系: 並行に更新しても読み取り→書き込みが競合しない")
+    void execute_並行更新でも取りこぼしがない() throws Exception {
+        // Given: ロックなしのカウンタ
+        executor = new TeamspaceExecutor(true, 4, 10_000, 60_000);
+        int[] counter = new int[1];
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(800);
+        
+        // When: 8スレッドから同じteamspaceに800回インクリメント
+        for (int i = 0; i < 800; i++) {
+            callers.execute(() -> {
+                executor.execute("teamspace-1", () -> {
+                    counter[0] = counter[0] + 1;
+                });
+                done.countDown();
+            });
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        callers.shutdown();
+        
+        // Then: 更新が失われていない
+        int result = executor.execute("teamspace-1", () -> counter[0]);
+        assertThat(result).isEqualTo(800);
+    }
+    
+    @Test
+    @DisplayName("異常系: 処理中のBusinessExceptionはそのまま呼び出し元に伝わる")
+    void execute_例外がそのまま伝播する() {
+        executor = new TeamspaceExecutor(true, 2, 16, 60_000);
+        BusinessException expected = new BusinessException("TEAMSPACE_FULL", "teamspaceが満員（4人）です", HttpStatus.CONFLICT);
+        
+        assertThatThrownBy(() -> executor.execute("teamspace-1", () -> {
+            throw expected;
+        })).isSameAs(expected);
+    }
+    
+    @Test
+    @DisplayName("正常系: ストライプ内からの再入はデッドロックせずそのまま実行される")
+    void execute_再入はインライン実行() {
+        executor = new TeamspaceExecutor(true, 1, 16, 60_000);
+        
+        String result = executor.execute("teamspace-1",
+                                         () -> executor.execute("teamspace-2", () -> "nested"));
+        
+        assertThat(result).isEqualTo("nested");
+    }
+    
+    @Test
+    @DisplayName("正常系: 無効時は呼び出しスレッドで実行される")
+    void execute_無効時はインライン() {
+        executor = new TeamspaceExecutor(false, 4, 16, 60_000);
+        
+        String threadName = executor.execute("teamspace-1", () -> Thread.currentThread().getName());
+        
+        assertThat(threadName).isEqualTo(Thread.currentThread().getName());
+        assertThat(executor.stripeCount()).isZero();
+    }
+    
+    @Test
+    @DisplayName("正常系: 呼び出し元のRedisトレースがストライプのスレッドに引き継がれる")
+    void execute_トレースの引き継ぎ() {
+        executor = new TeamspaceExecutor(true, 1, 16, 60_000);
+        RedisCallTrace trace = RedisCallTracker.begin();
+        RedisCallTrace onStripe;
+        try {
+            onStripe = executor.execute("teamspace-1", RedisCallTracker::current);
+        } finally {
+            RedisCallTracker.end();
+        }
+        
+        // トレースのない呼び出しでは、前のタスクのトレースが残っていない
+        RedisCallTrace withoutTrace = executor.execute("teamspace-1", RedisCallTracker::current);
+        
+        assertThat(onStripe).isSameAs(trace);
+        assertThat(withoutTrace).isNull();
+    }
+}
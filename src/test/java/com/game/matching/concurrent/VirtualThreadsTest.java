@@ -0,0 +1,41 @@
+package com.game.matching.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+@DisplayName("VirtualThreads - 仮想スレッドのExecutorService")
+class VirtualThreadsTest {
+    
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    @DisplayName("正常系: Java 21以降ではタスクが名前付きの仮想スレッドで実行される")
+    void newPerTaskExecutor_仮想スレッドで実行() throws Exception {
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor("test-vt-");
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+            
+            assertThat(VirtualThreads.isAvailable()).isTrue();
+            assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(true);
+            assertThat(thread.getName()).startsWith("test-vt-");
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    @DisplayName("異常系: Java 21より前では作成できない")
+    void newPerTaskExecutor_Java21未満() {
+        assertThat(VirtualThreads.isAvailable()).isFalse();
+        assertThatThrownBy(() -> VirtualThreads.newPerTaskExecutor("test-vt-"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Java 21");
+    }
+}
@@ -0,0 +1,338 @@
+package com.game.matching.filter;
+
+import com.game.matching.config.JacksonConfig;
+import com.game.matching.repository.IdempotencyRepository;
+import com.game.matching.repository.IdempotencyRepository.Claim;
+import com.game.matching.repository.IdempotencyRepository.IdempotencyRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@DisplayName("IdempotencyFilter - Idempotency-Keyによる再送の処理")
+class IdempotencyFilterTest {
+    
+    private static final String BODY = "{\"userId\":\"user-1\"}";
+    private static final String KEY = "user-1:organize_team:retry-1";
+    private static final String OWNER = "owner-1";
+    
+    private IdempotencyRepository repository;
+    private SimpleMeterRegistry registry;
+    private IdempotencyFilter filter;
+    private final AtomicInteger executions = new AtomicInteger();
+    private final AtomicReference<String> receivedBody = new AtomicReference<>();
+    
+    @BeforeEach
+    void setUp() {
+        repository = mock(IdempotencyRepository.class);
+        registry = new SimpleMeterRegistry();
+        filter = new IdempotencyFilter(repository, registry, JacksonConfig.newObjectMapper(), 100);
+    }
+    
+    @Test
+    @DisplayName("正常系: 最初のリクエストは実行し、成功レスポンスを保存する")
+    void doFilter_初回は実行して保存() throws Exception {
+        // Given: 記録なし
+        when(repository.claim(eq(KEY), anyString())).thenReturn(new Claim(OWNER, null));
+        
+        // When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(BODY), response, chain(201, "{\"teamspaceId\":\"ts-1\"}"));
+        
+        // Then: 実行され（コントローラーも本文を読める）、ステータスと本文が保存される
+        assertThat(executions).hasValue(1);
+        assertThat(receivedBody).hasValue(BODY);
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getContentAsString()).isEqualTo("{\"teamspaceId\":\"ts-1\"}");
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        
+        ArgumentCaptor<IdempotencyRecord> stored = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).complete(eq(KEY), eq(OWNER), stored.capture());
+        assertThat(stored.getValue().status()).isEqualTo(201);
+        assertThat(stored.getValue().body()).isEqualTo("{\"teamspaceId\":\"ts-1\"}");
+        assertThat(stored.getValue().requestHash()).isEqualTo(sha256(BODY));
+        verify(repository, never()).release(anyString(), anyString());
+    }
+    
+    @Test
+    @DisplayName("正常系: 保存済みのキーの再送は実行せずに同じレスポンスを返す")
+    void doFilter_再送は保存済みのレスポンス() throws Exception {
+        when(repository.claim(eq(KEY), anyString())).thenReturn(new Claim(null,
+            IdempotencyRecord.completed(sha256(BODY), 201, "application/json", "{\"teamspaceId\":\"ts-1\"}")));
+        
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(BODY), response, chain(409, "{}"));
+        
+        assertThat(executions).hasValue(0);
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getContentAsString()).isEqualTo("{\"teamspaceId\":\"ts-1\"}");
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+    
+    @Test
+    @DisplayName("異常系: 同じキーで本文の異なるリクエストは422")
+    void doFilter_本文が異なる場合は422() throws Exception {
+        when(repository.claim(eq(KEY), anyString())).thenReturn(new Claim(null,
+            IdempotencyRecord.completed(sha256("{\"userId\":\"other\"}"), 201, "application/json", "{}")));
+        
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(BODY), response, chain(201, "{}"));
+        
+        assertThat(executions).hasValue(0);
+        assertThat(response.getStatus()).isEqualTo(422);
+        assertThat(response.getContentAsString()).contains("IDEMPOTENCY_KEY_REUSED");
+    }
+    
+    @Test
+    @DisplayName("異常系: 処理中の記録が待ち時間を過ぎても完了しない場合は409")
+    void doFilter_処理中のまま待ち時間を超えたら409() throws Exception {
+        when(repository.claim(eq(KEY), anyString())).thenReturn(new Claim(null,
+            new IdempotencyRecord(sha256(BODY), 0, null, null, "other-owner")));
+        
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(BODY), response, chain(201, "{}"));
+        
+        assertThat(executions).hasValue(0);
+        assertThat(response.getStatus()).isEqualTo(409);
+        assertThat(response.getContentAsString()).contains("IDEMPOTENCY_KEY_IN_PROGRESS");
+    }
+    
+    @Test
+    @DisplayName("正常系: 失敗したレスポンスは保存せず、処理中の記録を削除して再実行できるようにする")
+    void doFilter_失敗は保存しない() throws Exception {
+        when(repository.claim(eq(KEY), anyString())).thenReturn(new Claim(OWNER, null));
+        
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(BODY), response, chain(409, "{\"error\":\"USER_ALREADY_IN_TEAM\"}"));
+        
+        assertThat(response.getStatus()).isEqualTo(409);
+        verify(repository).release(KEY, OWNER);
+        verify(repository, never()).complete(anyString(), anyString(), any());
+    }
+    
+    @Test
+    @DisplayName("正常系: 同時の再送は先行のリクエストが保存した成功レスポンスを共有し、再送として数える")
+    void doFilter_同時の再送は成功を共有() throws Exception {
+        // Given: 解放するまで終わらない201のリクエスト
+        when(repository.claim(eq(KEY), anyString())).thenReturn(new Claim(OWNER, null));
+        CountDownLatch release = new CountDownLatch(1);
+        MockHttpServletResponse leaderResponse = new MockHttpServletResponse();
+        MockHttpServletResponse followerResponse = new MockHttpServletResponse();
+        
+        // When: 先行のリクエストの実行中に同じキーで再送し、合流してから解放
+        runConcurrently(release,
+                        () -> filter.doFilter(request(BODY), leaderResponse, blockingChain(release, 201, 201)),
+                        () -> filter.doFilter(request(BODY), followerResponse, blockingChain(release, 201, 201)));
+        
+        // Then: 実行は1回で、再送には同じレスポンスを再送として返す
+        assertThat(executions).hasValue(1);
+        assertThat(followerResponse.getStatus()).isEqualTo(201);
+        assertThat(followerResponse.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(leaderResponse.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(replayedCount()).isEqualTo(1.0);
+    }
+    
+    @Test
+    @DisplayName("正常系: 同時の再送は先行のリクエストの保存されなかった失敗を共有せず、自分で処理し直す")
+    void doFilter_同時の再送は失敗を共有しない() throws Exception {
+        // Given: 1回目は解放まで待って409、2回目は201を返す処理
+        when(repository.claim(eq(KEY), anyString())).thenReturn(new Claim(OWNER, null));
+        CountDownLatch release = new CountDownLatch(1);
+        MockHttpServletResponse leaderResponse = new MockHttpServletResponse();
+        MockHttpServletResponse followerResponse = new MockHttpServletResponse();
+        
+        // When
+        runConcurrently(release,
+                        () -> filter.doFilter(request(BODY), leaderResponse, blockingChain(release, 409, 201)),
+                        () -> filter.doFilter(request(BODY), followerResponse, blockingChain(release, 409, 201)));
+        
+        // Then: 再送は先行の409を受け取らずに自分で実行し、再送としては数えない
+        assertThat(executions).hasValue(2);
+        assertThat(leaderResponse.getStatus()).isEqualTo(409);
+        assertThat(followerResponse.getStatus()).isEqualTo(201);
+        assertThat(followerResponse.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(replayedCount()).isZero();
+    }
+    
+    @Test
+    @DisplayName("正常系: 読み込み済みの本文は非同期の読み取りでもすぐに読み終わりが通知される")
+    void doFilter_ReadListenerに読み終わりを通知() throws Exception {
+        when(repository.claim(eq(KEY), anyString())).thenReturn(new Claim(OWNER, null));
+        List<String> events = new ArrayList<>();
+        MockFilterChain asyncRead = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                ServletInputStream input = request.getInputStream();
+                input.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        events.add("data:" + new String(input.readAllBytes(), StandardCharsets.UTF_8));
+                    }
+                    
+                    @Override
+                    public void onAllDataRead() {
+                        events.add("done");
+                    }
+                    
+                    @Override
+                    public void onError(Throwable t) {
+                        events.add("error");
+                    }
+                });
+                response.setStatus(201);
+            }
+        });
+        
+        filter.doFilter(request(BODY), new MockHttpServletResponse(), asyncRead);
+        
+        assertThat(events).containsExactly("data:" + BODY, "done");
+    }
+    
+    @Test
+    @DisplayName("正常系: Idempotency-Keyのないリクエストと参照系のAPIはそのまま実行する")
+    void doFilter_対象外はそのまま() throws Exception {
+        MockHttpServletRequest withoutKey = new MockHttpServletRequest("POST", "/api/organize_team");
+        withoutKey.setAttribute("userId", "user-1");
+        filter.doFilter(withoutKey, new MockHttpServletResponse(), chain(201, "{}"));
+        
+        MockHttpServletRequest query = new MockHttpServletRequest("GET", "/api/check_user_state");
+        query.setAttribute("userId", "user-1");
+        query.addHeader(IdempotencyFilter.HEADER, "retry-1");
+        filter.doFilter(query, new MockHttpServletResponse(), chain(200, "{}"));
+        
+        assertThat(executions).hasValue(2);
+        verifyNoInteractions(repository);
+    }
+    
+    private static MockHttpServletRequest request(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/organize_team");
+        request.setAttribute("userId", "user-1");
+        request.addHeader(IdempotencyFilter.HEADER, "retry-1");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+    
+    private MockFilterChain chain(int status, String responseBody) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                executions.incrementAndGet();
+                receivedBody.set(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+                response.setStatus(status);
+                response.setContentType("application/json");
+                response.getWriter().write(responseBody);
+            }
+        });
+    }
+    
+    /**
+     * 1回目の実行はreleaseまで待ってfirstStatus、2回目以降はすぐにnextStatusを返す
+     */
+    private MockFilterChain blockingChain(CountDownLatch release, int firstStatus, int nextStatus) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                int status = nextStatus;
+                if (executions.incrementAndGet() == 1) {
+                    await(release);
+                    status = firstStatus;
+                }
+                response.setStatus(status);
+                response.setContentType("application/json");
+                response.getWriter().write("{\"status\":" + status + "}");
+            }
+        });
+    }
+    
+    /**
+     * leaderの実行中にfollowerを始め、followerが実行中のリクエストに合流して待ち始めてからreleaseを解放する
+     */
+    private void runConcurrently(CountDownLatch release, FilterCall leader, FilterCall follower)
+            throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> leaderResult = threads.submit(() -> {
+                leader.run();
+                return null;
+            });
+            waitUntil(() -> executions.get() == 1, "leader did not start executing");
+            AtomicReference<Thread> followerThread = new AtomicReference<>();
+            Future<?> followerResult = threads.submit(() -> {
+                followerThread.set(Thread.currentThread());
+                follower.run();
+                return null;
+            });
+            waitUntil(() -> followerThread.get() != null && followerThread.get().getState() == Thread.State.WAITING,
+                      "follower did not join the in-flight request");
+            release.countDown();
+            leaderResult.get(5, TimeUnit.SECONDS);
+            followerResult.get(5, TimeUnit.SECONDS);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+    
+    private static void waitUntil(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new AssertionError(message);
+            }
+            Thread.sleep(1);
+        }
+    }
+    
+    private double replayedCount() {
+        return registry.get(IdempotencyFilter.METRIC_NAME).tag("result", "replayed").counter().count();
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @FunctionalInterface
+    private interface FilterCall {
+        void run() throws Exception;
+    }
+    
+    private static String sha256(String body) {
+        return IdempotencyFilter.sha256(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
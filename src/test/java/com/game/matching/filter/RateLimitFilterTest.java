@@ -0,0 +1,79 @@
+package com.game.matching.filter;
+
+import com.game.matching.filter.RateLimitFilter.Scope;
+import com.game.matching.ratelimit.LocalRateLimiter;
+import com.game.matching.ratelimit.RateLimits;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@DisplayName("RateLimitFilter - レート制限と429の応答")
+class RateLimitFilterTest {
+    
+    private SimpleMeterRegistry registry;
+    private RateLimitFilter filter;
+    
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        LocalRateLimiter limiter = new LocalRateLimiter(RateLimits.parse("CHECK_USER_STATE:1:2"), 100);
+        filter = new RateLimitFilter(Scope.USER, limiter, registry);
+    }
+    
+    @Test
+    @DisplayName("異常系: バーストを超えた呼び出しはRetry-After付きの429で、後続のフィルターに進まない")
+    void doFilter_制限超過は429() throws Exception {
+        // Given: 同じuserIdで2回まで許可
+        filter.doFilter(request("user-1"), new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(request("user-1"), new MockHttpServletResponse(), new MockFilterChain());
+        
+        // When
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request("user-1"), response, chain);
+        
+        // Then
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(response.getContentAsString()).contains("\"error\":\"RATE_LIMITED\"");
+        assertThat(chain.getRequest()).isNull();
+        assertThat(registry.get(RateLimitFilter.METRIC_NAME)
+            .tag("scope", "user").tag("api", "check_user_state").counter().count()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("正常系: userIdのない呼び出しと制限のないAPIはそのまま通す")
+    void doFilter_対象外は通す() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockFilterChain unauthenticated = new MockFilterChain();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/check_user_state"),
+                            new MockHttpServletResponse(), unauthenticated);
+            assertThat(unauthenticated.getRequest()).isNotNull();
+            
+            MockHttpServletRequest startGame = new MockHttpServletRequest("POST", "/api/start_game");
+            startGame.setAttribute("userId", "user-1");
+            MockFilterChain unlimited = new MockFilterChain();
+            filter.doFilter(startGame, new MockHttpServletResponse(), unlimited);
+            assertThat(unlimited.getRequest()).isNotNull();
+        }
+    }
+    
+    @Test
+    @DisplayName("正常系: Retry-Afterは秒単位に切り上げる（最小1秒）")
+    void retryAfterSeconds_切り上げ() {
+        assertThat(RateLimitFilter.retryAfterSeconds(1L)).isEqualTo(1);
+        assertThat(RateLimitFilter.retryAfterSeconds(1_000_000_001L)).isEqualTo(2);
+    }
+    
+    private static MockHttpServletRequest request(String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/check_user_state");
+        request.setAttribute("userId", userId);
+        return request;
+    }
+}
@@ -0,0 +1,122 @@
+package com.game.matching.id;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("BinaryUuid / UuidV7 - 128ビットのidの変換と生成")
+class BinaryUuidTest {
+    
+    @Test
+    @DisplayName("正常系: java.util.UUIDと同じ値・同じ文字列に変換できる")
+    void parse_UUIDと同じ() {
+        for (int i = 0; i < 1000; i++) {
+            // Given
+            UUID expected = UUID.randomUUID();
+            
+            // When
+            BinaryUuid uuid = BinaryUuid.parse(expected.toString());
+            
+            // Then
+            assertThat(uuid.toUuid()).isEqualTo(expected);
+            assertThat(uuid.toString()).isEqualTo(expected.toString());
+            assertThat(BinaryUuid.fromBytes(uuid.toBytes())).isEqualTo(uuid);
+        }
+    }
+    
+    @Test
+    @DisplayName("異常系: 従来の正規表現で弾いていた文字列は不正と判定する")
+    void isValid_正規表現と同じ判定() {
+        String valid = "0190f3a2-7c4e-7a1b-9c2d-3e4f5a6b7c8d";
+        String pattern = "^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$";
+        String[] candidates = {
+            valid,
+            valid.toUpperCase(),
+            valid.substring(1),
+            valid + "0",
+            valid.replace('-', '0'),
+            "0190f3a2-7c4e-7a1b-9c2d-3e4f5a6b7c8g",
+            "0190f3a27-c4e-7a1b-9c2d-3e4f5a6b7c8d",
+            "0190f3a2-7c4e-7a1b-9c2d-3e4f5a6b7c8é",
+            ""
+        };
+        
+        for (String candidate : candidates) {
+            assertThat(BinaryUuid.isValid(candidate)).as(candidate).isEqualTo(candidate.matches(pattern));
+        }
+        assertThat(BinaryUuid.isValid(null)).isFalse();
+        assertThatThrownBy(() -> BinaryUuid.parse(valid.toUpperCase()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    @DisplayName("正常系: UUIDv7はバージョン7・RFCのバリアントで、上位48ビットに時刻を持つ")
+    void uuidV7_形式と時刻() {
+        // Given
+        long epochMillis = 1_700_000_000_123L;
+        
+        // When
+        BinaryUuid uuid = UuidV7.next(epochMillis);
+        
+        // Then
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.toUuid().version()).isEqualTo(7);
+        assertThat(uuid.toUuid().variant()).isEqualTo(2);
+        assertThat(UuidV7.epochMillis(uuid)).isEqualTo(epochMillis);
+        assertThat(BinaryUuid.isValid(uuid.toString())).isTrue();
+    }
+    
+    @Test
+    @DisplayName("正常系: 異なるミリ秒に生成したUUIDv7は文字列・バイト列の順に並ぶ")
+    void uuidV7_時刻順() {
+        // Given
+        BinaryUuid earlier = UuidV7.next(1_700_000_000_000L);
+        BinaryUuid later = UuidV7.next(1_700_000_000_001L);
+        
+        // Then
+        assertThat(earlier.toString()).isLessThan(later.toString());
+        assertThat(Arrays.compareUnsigned(earlier.toBytes(), later.toBytes())).isNegative();
+    }
+    
+    @Test
+    @DisplayName("正常系: 複数スレッドから同時に生成しても（共有の乱数源でも）重複しない")
+    void uuidV7_同時の生成で重複しない() throws Exception {
+        // Given
+        int threads = 8;
+        int perThread = 10_000;
+        Set<BinaryUuid> generated = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        
+        // When: 同じミリ秒で生成し、ランダムな74ビットだけで区別される状態にする
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        generated.add(UuidV7.next(1_700_000_000_000L));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        // Then
+        assertThat(generated).hasSize(threads * perThread);
+    }
+}
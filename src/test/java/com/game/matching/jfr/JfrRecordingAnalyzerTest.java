@@ -0,0 +1,66 @@
+package com.game.matching.jfr;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+@DisplayName("JfrRecordingAnalyzer - JFR記録のAPI別集計")
+class JfrRecordingAnalyzerTest {
+    
+    @TempDir
+    Path dir;
+    
+    @Test
+    @DisplayName("正常系: 同じスレッドのリクエスト区間内のイベントがAPIの内訳になり、区間外は別に集計される")
+    void analyze_API別の内訳() throws Exception {
+        // Given: 同梱のjfcで記録
+        Configuration configuration = Configuration.create(Path.of("src/main/resources/jfr/matching.jfc"));
+        Path file = dir.resolve("recording.jfr");
+        try (Recording recording = new Recording(configuration)) {
+            recording.start();
+            for (int i = 0; i < 3; i++) {
+                ApiRequestEvent request = new ApiRequestEvent();
+                request.begin();
+                
+                TeamspaceLoadEvent load = new TeamspaceLoadEvent();
+                load.begin();
+                load.teamspaceId = "ts-" + i;
+                load.commit();
+                
+                UserIndexLookupEvent lookup = new UserIndexLookupEvent();
+                lookup.begin();
+                lookup.lookup = "member";
+                lookup.commit();
+                
+                request.api = "join_team";
+                request.status = 200;
+                request.commit();
+            }
+            // リクエスト区間の外
+            EventLogEncodeEvent encode = new EventLogEncodeEvent();
+            encode.begin();
+            Thread.sleep(2);
+            encode.commit();
+            
+            recording.stop();
+            recording.dump(file);
+        }
+        
+        // When
+        JfrRecordingAnalyzer.Report report = JfrRecordingAnalyzer.analyze(file);
+        
+        // Then
+        JfrRecordingAnalyzer.ApiBreakdown joinTeam = report.apis().get("join_team");
+        assertThat(joinTeam.getCount()).isEqualTo(3);
+        assertThat(joinTeam.getSteps()).containsOnlyKeys("TeamspaceLoad", "UserIndexLookup");
+        assertThat(joinTeam.getSteps().get("TeamspaceLoad").getCount()).isEqualTo(3);
+        assertThat(report.unattributed()).containsOnlyKeys("EventLogEncode");
+        assertThat(report.format()).contains("join_team", "TeamspaceLoad", "EventLogEncode");
+    }
+}
@@ -0,0 +1,175 @@
+package com.game.matching.logging;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.slf4j.Logger;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerationException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DisplayName("EventLogPipeline - 非同期構造化ログ")
+class EventLogPipelineTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    @Test
+    @DisplayName("正常系: 発行したイベントが1行1JSONで順に出力される")
+    void publish_1行1JSONで出力() throws Exception {
+        // Given: メモリに出力するパイプライン
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EventLogPipeline pipeline = new EventLogPipeline(new JsonFactory(), 16,
+                                                         EventLogPipeline.OverflowPolicy.BLOCK, 4, out);
+        
+        // When: バッファより多くのイベントを発行して停止
+        for (int i = 0; i < 40; i++) {
+            pipeline.publish(EventType.TEAMSPACE_JOINED, "user-" + i, "teamspace-1", null,
+                             LogEvent.NO_COUNT, LogEvent.NO_COUNT);
+        }
+        pipeline.publish(EventType.GAME_START, "user-0", "teamspace-1", "party-1", 3, 0);
+        pipeline.close();
+        
+        // Then: 全件が欠けずに出力されている
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(41);
+        assertThat(pipeline.getDroppedCount()).isZero();
+        
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("level").asText()).isEqualTo("INFO");
+        assertThat(first.get("eventType").asText()).isEqualTo("TEAMSPACE_JOINED");
+        assertThat(first.get("userId").asText()).isEqualTo("user-0");
+        assertThat(first.get("teamspaceId").asText()).isEqualTo("teamspace-1");
+        assertThat(first.has("partyId")).isFalse();
+        assertThat(first.get("timestamp").asText()).matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\d{3}Z");
+        
+        JsonNode last = objectMapper.readTree(lines[40]);
+        assertThat(last.get("eventType").asText()).isEqualTo("GAME_START");
+        assertThat(last.get("partyId").asText()).isEqualTo("party-1");
+        assertThat(last.get("memberCount").asInt()).isEqualTo(3);
+        assertThat(last.get("failedCount").asInt()).isZero();
+    }
+    
+    @Test
+    @DisplayName("正常系: リングバッファは満杯で書き込みを拒否し、消費後に再び書き込める")
+    void ringBuffer_満杯時は拒否() {
+        // Given: 容量4のリングバッファ
+        EventRingBuffer ringBuffer = new EventRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(ringBuffer.tryPublish(EventType.LIST_USERS, "user-" + i, null, null, 0L, 1, -1)).isTrue();
+        }
+        
+        // When & Then: 5件目は拒否される
+        assertThat(ringBuffer.tryPublish(EventType.LIST_USERS, "user-4", null, null, 0L, 1, -1)).isFalse();
+        
+        // 2件消費すると2件分の空きができる
+        List<String> consumed = new ArrayList<>();
+        assertThat(ringBuffer.drain(event -> consumed.add(event.getUserId()), 2)).isEqualTo(2);
+        assertThat(consumed).containsExactly("user-0", "user-1");
+        assertThat(ringBuffer.tryPublish(EventType.LIST_USERS, "user-4", null, null, 0L, 1, -1)).isTrue();
+        assertThat(ringBuffer.tryPublish(EventType.LIST_USERS, "user-5", null, null, 0L, 1, -1)).isTrue();
+        assertThat(ringBuffer.tryPublish(EventType.LIST_USERS, "user-6", null, null, 0L, 1, -1)).isFalse();
+        
+        // 残りは発行順に取り出せる
+        consumed.clear();
+        ringBuffer.drain(event -> consumed.add(event.getUserId()), 10);
+        assertThat(consumed).containsExactly("user-2", "user-3", "user-4", "user-5");
+    }
+    
+    @Test
+    @DisplayName("異常系: エンコードに失敗したイベントは途中まで書いたバイトも出力せず、前後のイベントは出力する")
+    void publish_エンコード失敗() throws Exception {
+        // Given: teamspaceIdが"boom"のイベントで失敗するジェネレータ
+        JsonFactory failing = new JsonFactory() {
+            @Override
+            public JsonGenerator createGenerator(OutputStream out, JsonEncoding enc) throws IOException {
+                return new JsonGeneratorDelegate(super.createGenerator(out, enc)) {
+                    @Override
+                    public void writeString(String text) throws IOException {
+                        if ("boom".equals(text)) {
+                            throw new JsonGenerationException("boom", this);
+                        }
+                        super.writeString(text);
+                    }
+                };
+            }
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EventLogPipeline pipeline = new EventLogPipeline(failing, 16, EventLogPipeline.OverflowPolicy.BLOCK, 16, out);
+        // ジェネレータの内部バッファより長いuserIdで、失敗する前に途中までのバイトが書き出されるようにする
+        String longUserId = "u".repeat(20_000);
+        
+        // When
+        pipeline.publish(EventType.TEAMSPACE_JOINED, "user-1", "teamspace-1", null, LogEvent.NO_COUNT, LogEvent.NO_COUNT);
+        pipeline.publish(EventType.TEAMSPACE_JOINED, longUserId, "boom", null, LogEvent.NO_COUNT, LogEvent.NO_COUNT);
+        pipeline.publish(EventType.TEAMSPACE_JOINED, "user-2", "teamspace-1", null, LogEvent.NO_COUNT, LogEvent.NO_COUNT);
+        pipeline.close();
+        
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("userId").asText()).isEqualTo("user-1");
+        assertThat(objectMapper.readTree(lines[1]).get("userId").asText()).isEqualTo("user-2");
+        assertThat(pipeline.getFailureCount()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("正常系: 待機中の消費者は発行で起き、待機の上限を待たずに出力する")
+    void publish_待機中の消費者を起こす() throws Exception {
+        // Given: 消費者が空のバッファで待機している
+        EventLogPipeline pipeline = new EventLogPipeline(new JsonFactory(), 16, EventLogPipeline.OverflowPolicy.DROP, 16,
+                                                         OutputStream.nullOutputStream());
+        Thread.sleep(100);
+        
+        // When
+        long start = System.nanoTime();
+        pipeline.publish(EventType.TEAMSPACE_JOINED, "user-1", "teamspace-1", null, LogEvent.NO_COUNT, LogEvent.NO_COUNT);
+        while (pipeline.getWrittenCount() == 0 && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2)) {
+            Thread.sleep(1);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        pipeline.close();
+        
+        // Then: 待機の上限（1秒）より十分早い
+        assertThat(pipeline.getWrittenCount()).isEqualTo(1);
+        assertThat(elapsedMillis).isLessThan(500);
+    }
+    
+    @Test
+    @DisplayName("正常系: LogLineOutputStreamは改行ごとに1つのログにし、改行のない末尾は次の書き込みまで保持する")
+    void logLineOutputStream_1行ずつ出力() {
+        // Given
+        Logger logger = mock(Logger.class);
+        when(logger.isInfoEnabled()).thenReturn(true);
+        LogLineOutputStream out = new LogLineOutputStream(logger);
+        
+        // When
+        out.write("{\"a\":1}\n{\"b\":".getBytes(StandardCharsets.UTF_8), 0, 13);
+        out.write("2}\n".getBytes(StandardCharsets.UTF_8), 0, 3);
+        
+        // Then
+        InOrder inOrder = inOrder(logger);
+        inOrder.verify(logger).info("{\"a\":1}");
+        inOrder.verify(logger).info("{\"b\":2}");
+        verify(logger, times(2)).info(anyString());
+    }
+}
@@ -0,0 +1,41 @@
+package com.game.matching.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("EventSampler - 成功ログのサンプリング")
+class EventSamplerTest {
+    
+    @Test
+    @DisplayName("正常系: 指定した種別だけサンプリング率が設定され、他は全件出力")
+    void parse_指定種別のみ() {
+        EventSampler sampler = EventSampler.parse("CHECK_USER_STATE:0.01, LIST_USERS:0");
+        
+        assertThat(sampler.getRate(EventType.CHECK_USER_STATE)).isEqualTo(0.01);
+        assertThat(sampler.getRate(EventType.LIST_USERS)).isZero();
+        assertThat(sampler.getRate(EventType.TEAMSPACE_JOINED)).isEqualTo(1.0);
+        
+        assertThat(sampler.sample(EventType.LIST_USERS)).isFalse();
+        assertThat(sampler.sample(EventType.TEAMSPACE_JOINED)).isTrue();
+    }
+    
+    @Test
+    @DisplayName("正常系: 状態を変更するイベント（GAME_START）はサンプリングされない")
+    void parse_状態変更イベントは対象外() {
+        EventSampler sampler = EventSampler.parse("GAME_START:0.0");
+        
+        assertThat(sampler.getRate(EventType.GAME_START)).isEqualTo(1.0);
+        for (int i = 0; i < 100; i++) {
+            assertThat(sampler.sample(EventType.GAME_START)).isTrue();
+        }
+    }
+    
+    @Test
+    @DisplayName("異常系: 範囲外のサンプリング率はエラー")
+    void parse_範囲外はエラー() {
+        assertThatThrownBy(() -> EventSampler.parse("CHECK_USER_STATE:1.5"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,55 @@
+package com.game.matching.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+@DisplayName("ApiMetricsFilter - APIごとの処理時間の計測")
+class ApiMetricsFilterTest {
+    
+    private SimpleMeterRegistry registry;
+    private ApiMetricsFilter filter;
+    
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new ApiMetricsFilter(registry);
+    }
+    
+    @Test
+    @DisplayName("正常系: APIと結果のタグ別に記録される")
+    void doFilter_API別に記録() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/join_team"),
+                        new MockHttpServletResponse(), new MockFilterChain());
+        
+        MockHttpServletResponse notFound = new MockHttpServletResponse();
+        notFound.setStatus(HttpServletResponse.SC_NOT_FOUND);
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/join_team"), notFound, new MockFilterChain());
+        
+        assertThat(timer("join_team", "SUCCESS").count()).isEqualTo(1);
+        assertThat(timer("join_team", "CLIENT_ERROR").count()).isEqualTo(1);
+        assertThat(timer("leave_team", "SUCCESS").count()).isZero();
+    }
+    
+    @Test
+    @DisplayName("正常系: API①〜⑦以外のパスは記録しない")
+    void doFilter_対象外のパス() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/unknown"),
+                        new MockHttpServletResponse(), new MockFilterChain());
+        
+        assertThat(registry.find(ApiMetricsFilter.METRIC_NAME).timers())
+            .allSatisfy(timer -> assertThat(timer.count()).isZero());
+    }
+    
+    private Timer timer(String api, String outcome) {
+        return registry.get(ApiMetricsFilter.METRIC_NAME).tag("api", api).tag("outcome", outcome).timer();
+    }
+}
@@ -0,0 +1,86 @@
+package com.game.matching.metrics;
+
+import com.game.matching.concurrent.TeamspaceExecutor;
+import com.game.matching.exception.BusinessException;
+import com.game.matching.logging.EventLogPipeline;
+import com.game.matching.service.CognitoAuthService;
+import com.game.matching.service.JwksKeyStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import redis.clients.jedis.JedisPool;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("MatchingMeterBinder - 内部の統計値のメトリクス")
+class MatchingMeterBinderTest {
+    
+    private SimpleMeterRegistry registry;
+    private TeamspaceExecutor teamspaceExecutor;
+    private ExecutorService callers;
+    
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        // メールボックスの容量1（実行中の1件 + 待ち1件まで）
+        teamspaceExecutor = new TeamspaceExecutor(true, 2, 1, 60_000);
+        callers = Executors.newFixedThreadPool(2);
+        new MatchingMeterBinder(mock(JedisPool.class), null, teamspaceExecutor, mock(EventLogPipeline.class),
+                                mock(CognitoAuthService.class), mock(JwksKeyStore.class)).bindTo(registry);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        teamspaceExecutor.shutdown();
+    }
+    
+    private double stripeGaugeSum(String name) {
+        return registry.find(name).gauges().stream().mapToDouble(Gauge::value).sum();
+    }
+    
+    @Test
+    @DisplayName("正常系: ストライプごとのメールボックスのタスク数・稼働率・拒否数をstripeタグ付きで公開する")
+    void bindTo_ストライプごとのメトリクス() throws Exception {
+        // Given: 1つ目のタスクが実行中で、2つ目がメールボックスで待っている
+        CountDownLatch release = new CountDownLatch(1);
+        callers.submit(() -> teamspaceExecutor.execute("teamspace-1", () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        callers.submit(() -> teamspaceExecutor.execute("teamspace-1", () -> { }));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (teamspaceExecutor.totalMailboxDepth() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        
+        // When: メールボックスが満杯のストライプにもう1件投入する
+        assertThatThrownBy(() -> teamspaceExecutor.execute("teamspace-1", () -> { }))
+            .isInstanceOf(BusinessException.class);
+        
+        // Then
+        assertThat(registry.find("matching.executor.stripe.mailbox.depth").gauges())
+            .extracting(gauge -> gauge.getId().getTag("stripe"))
+            .containsExactlyInAnyOrder("0", "1");
+        assertThat(registry.find("matching.executor.stripe.utilization").gauges()).hasSize(2);
+        assertThat(stripeGaugeSum("matching.executor.stripe.mailbox.depth")).isEqualTo(1.0);
+        assertThat(registry.find("matching.executor.stripe.rejected").functionCounters().stream()
+                       .mapToDouble(FunctionCounter::count).sum())
+            .isEqualTo(1.0);
+        release.countDown();
+    }
+}
@@ -0,0 +1,106 @@
+package com.game.matching.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Teamspace - メンバーの固定長配列とJSONの形式")
+class TeamspaceTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    
+    @Test
+    @DisplayName("正常系: JSONのプロパティは従来どおりで、往復しても同じ内容になる")
+    void json_形式は従来どおり() throws Exception {
+        // Given
+        Teamspace teamspace = new Teamspace("ts-1", "organizer");
+        teamspace.addMember("member-1");
+        teamspace.setPartyId("party-1");
+        teamspace.setCreatedAt(Instant.parse("2024-01-01T00:00:00.123Z"));
+        
+        // When
+        String json = objectMapper.writeValueAsString(teamspace);
+        Teamspace restored = objectMapper.readValue(json, Teamspace.class);
+        
+        // Then
+        JsonNode node = objectMapper.readTree(json);
+        assertThat(node.fieldNames()).toIterable()
+            .containsExactlyInAnyOrder("teamspaceId", "organizer", "members", "createdAt", "partyId");
+        assertThat(restored.getOrganizer()).isEqualTo("organizer");
+        assertThat(restored.getMembers()).containsExactly("organizer", "member-1");
+        assertThat(restored.getCreatedAt()).isEqualTo(Instant.parse("2024-01-01T00:00:00.123Z"));
+        assertThat(restored.getPartyId()).isEqualTo("party-1");
+    }
+    
+    @Test
+    @DisplayName("正常系: 脱退しても残りのメンバーの参加順は変わらない")
+    void removeMember_参加順を保つ() {
+        Teamspace teamspace = new Teamspace("ts-1", "organizer");
+        teamspace.addMember("member-1");
+        teamspace.addMember("member-2");
+        teamspace.addMember("member-1");
+        
+        teamspace.removeMember("member-1");
+        teamspace.removeMember("not-a-member");
+        
+        assertThat(teamspace.getMembers()).containsExactly("organizer", "member-2");
+        assertThat(teamspace.isMember("member-1")).isFalse();
+        assertThat(teamspace.isMember("member-2")).isTrue();
+        assertThat(teamspace.isOrganizer("organizer")).isTrue();
+    }
+    
+    @Test
+    @DisplayName("異常系: 最大人数を超えるメンバーは追加できない")
+    void addMember_最大人数を超えるとエラー() {
+        Teamspace teamspace = new Teamspace("ts-1", "organizer");
+        for (int i = 1; i < Teamspace.MAX_MEMBERS; i++) {
+            teamspace.addMember("member-" + i);
+        }
+        
+        assertThatThrownBy(() -> teamspace.addMember("one-too-many"))
+            .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> teamspace.setMembers(List.of("a", "b", "c", "d", "e")))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    @DisplayName("正常系: JSONから読んだ主催者のuserIdはメンバーのuserIdと1つのStringを共有する")
+    void getMembers_主催者のuserIdを共有() throws Exception {
+        // Given
+        Teamspace teamspace = new Teamspace("ts-1", "organizer");
+        teamspace.addMember("member-1");
+        String json = objectMapper.writeValueAsString(teamspace);
+        // membersがorganizerより先に書かれていても共有する
+        String membersFirst = "{\"members\":[\"organizer\",\"member-1\"],\"organizer\":\"organizer\",\"teamspaceId\":\"ts-1\"}";
+        
+        // When
+        Teamspace restored = objectMapper.readValue(json, Teamspace.class);
+        Teamspace reordered = objectMapper.readValue(membersFirst, Teamspace.class);
+        
+        // Then
+        assertThat(restored.getMembers().get(0)).isSameAs(restored.getOrganizer());
+        assertThat(reordered.getMembers().get(0)).isSameAs(reordered.getOrganizer());
+    }
+    
+    @Test
+    @DisplayName("正常系: 別々に読み込んだteamspaceはuserIdのStringを共有しない（プロセス共通の表に残さない）")
+    void getMembers_読み込みごとに独立() throws Exception {
+        // Given
+        String json = objectMapper.writeValueAsString(new Teamspace("ts-1", "organizer"));
+        
+        // When
+        Teamspace first = objectMapper.readValue(json, Teamspace.class);
+        Teamspace second = objectMapper.readValue(json, Teamspace.class);
+        
+        // Then
+        assertThat(first.getOrganizer()).isEqualTo(second.getOrganizer()).isNotSameAs(second.getOrganizer());
+    }
+}
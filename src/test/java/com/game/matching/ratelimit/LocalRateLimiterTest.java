@@ -0,0 +1,94 @@
+package com.game.matching.ratelimit;
+
+import com.game.matching.logging.Api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("LocalRateLimiter - インスタンス内のトークンバケット")
+class LocalRateLimiterTest {
+    
+    private final AtomicLong clock = new AtomicLong(-TimeUnit.SECONDS.toNanos(5));
+    
+    @Test
+    @DisplayName("正常系: バースト数までは許可し、超えた呼び出しは次に許可されるまでの時間を返す")
+    void acquire_バースト超過で制限() {
+        // Given: 1秒あたり2回、バースト5回
+        LocalRateLimiter limiter = limiter("CHECK_USER_STATE:2:5", 100);
+        
+        // When/Then: 5回までは許可、6回目は0.5秒待ち
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.acquire(Api.CHECK_USER_STATE, "user-1")).isZero();
+        }
+        assertThat(limiter.acquire(Api.CHECK_USER_STATE, "user-1")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+        
+        // Then: 0.5秒後に1回分だけ補充される
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(limiter.acquire(Api.CHECK_USER_STATE, "user-1")).isZero();
+        assertThat(limiter.acquire(Api.CHECK_USER_STATE, "user-1")).isPositive();
+    }
+    
+    @Test
+    @DisplayName("正常系: キーとAPIごとに独立し、設定のないAPIは制限しない")
+    void acquire_キーとAPIごとに独立() {
+        LocalRateLimiter limiter = limiter("CHECK_USER_STATE:1:1", 100);
+        
+        assertThat(limiter.acquire(Api.CHECK_USER_STATE, "user-1")).isZero();
+        assertThat(limiter.acquire(Api.CHECK_USER_STATE, "user-1")).isPositive();
+        
+        assertThat(limiter.acquire(Api.CHECK_USER_STATE, "user-2")).isZero();
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.acquire(Api.START_GAME, "user-1")).isZero();
+        }
+        assertThat(limiter.getTrackedKeys()).isEqualTo(2);
+    }
+    
+    @Test
+    @DisplayName("正常系: \"*\" は指定のないAPIすべてに適用され、個別の指定が優先される")
+    void parse_ワイルドカード() {
+        RateLimits limits = RateLimits.parse("CHECK_USER_STATE:2:5, *:10:20");
+        
+        assertThat(limits.intervalNanos(Api.CHECK_USER_STATE)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(limits.toleranceNanos(Api.CHECK_USER_STATE)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(2500));
+        assertThat(limits.intervalNanos(Api.JOIN_TEAM)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(RateLimits.none().isLimited(Api.JOIN_TEAM)).isFalse();
+    }
+    
+    @Test
+    @DisplayName("異常系: 形式の誤り・0以下の値はエラー")
+    void parse_不正な設定() {
+        assertThatThrownBy(() -> RateLimits.parse("CHECK_USER_STATE:2"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RateLimits.parse("CHECK_USER_STATE:0:5"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    @DisplayName("正常系: キー数が上限に達したら満杯に戻ったバケットを削除し、空きがなければ制限せずに通す")
+    void acquire_キー数の上限() {
+        // Given: キー2つまで
+        LocalRateLimiter limiter = limiter("CHECK_USER_STATE:1:1", 2);
+        limiter.acquire(Api.CHECK_USER_STATE, "user-1");
+        limiter.acquire(Api.CHECK_USER_STATE, "user-2");
+        
+        // When: 3つ目のキー（どのバケットもまだ満杯に戻っていない）
+        assertThat(limiter.acquire(Api.CHECK_USER_STATE, "user-3")).isZero();
+        assertThat(limiter.acquire(Api.CHECK_USER_STATE, "user-3")).isZero();
+        
+        // Then: 追跡せずに通し、時間がたてば古いバケットを削除して追跡する
+        assertThat(limiter.getUntrackedCalls()).isEqualTo(2);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertThat(limiter.acquire(Api.CHECK_USER_STATE, "user-3")).isZero();
+        assertThat(limiter.acquire(Api.CHECK_USER_STATE, "user-3")).isPositive();
+        assertThat(limiter.getTrackedKeys()).isEqualTo(1);
+    }
+    
+    private LocalRateLimiter limiter(String spec, int maxKeys) {
+        return new LocalRateLimiter(RateLimits.parse(spec), maxKeys, clock::get);
+    }
+}
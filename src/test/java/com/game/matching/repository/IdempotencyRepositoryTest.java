@@ -0,0 +1,110 @@
+package com.game.matching.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.game.matching.config.JacksonConfig;
+import com.game.matching.metrics.RedisMetrics;
+import com.game.matching.repository.IdempotencyRepository.Claim;
+import com.game.matching.repository.IdempotencyRepository.IdempotencyRecord;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+@Testcontainers
+@DisplayName("IdempotencyRepository - 処理中の記録の所有者")
+class IdempotencyRepositoryTest {
+    
+    @Container
+    private static final GenericContainer<?> redisContainer = new GenericContainer<>(
+            DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+    
+    private static final String KEY = "user-1:organize_team:retry-1";
+    private static final long LOCK_TTL_MILLIS = 200;
+    
+    private JedisPool jedisPool;
+    private IdempotencyRepository repository;
+    
+    @BeforeEach
+    void setUp() {
+        jedisPool = new JedisPool(redisContainer.getHost(), redisContainer.getMappedPort(6379));
+        repository = new IdempotencyRepository(jedisPool, RedisMetrics.noop(), JacksonConfig.newObjectMapper(),
+                                               600, LOCK_TTL_MILLIS);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.flushDB();
+        }
+        jedisPool.close();
+    }
+    
+    private static IdempotencyRecord response(String body) {
+        return IdempotencyRecord.completed("hash", 201, "application/json", body);
+    }
+    
+    @Test
+    @DisplayName("正常系: 記録を作ったリクエストはレスポンスを保存でき、再送は保存済みの記録を受け取る")
+    void claimとcomplete_正常系() {
+        // Given
+        Claim first = repository.claim(KEY, "hash");
+        
+        // When
+        boolean stored = repository.complete(KEY, first.owner(), response("{\"teamspaceId\":\"ts-1\"}"));
+        Claim retry = repository.claim(KEY, "hash");
+        
+        // Then
+        assertThat(first.acquired()).isTrue();
+        assertThat(stored).isTrue();
+        assertThat(retry.acquired()).isFalse();
+        assertThat(retry.existing().completed()).isTrue();
+        assertThat(retry.existing().body()).isEqualTo("{\"teamspaceId\":\"ts-1\"}");
+    }
+    
+    @Test
+    @DisplayName("異常系: 期限切れの後に他のリクエストが取り直した記録は、元のリクエストが上書き・削除できない")
+    void completeとrelease_期限切れ後は他方の記録に触れない() throws Exception {
+        // Given: 最初のリクエストの記録が期限切れになり、2番目のリクエストが取り直した
+        Claim first = repository.claim(KEY, "hash");
+        Thread.sleep(LOCK_TTL_MILLIS * 2);
+        Claim second = repository.claim(KEY, "hash");
+        
+        // When: 遅れて終わった最初のリクエストが保存・削除を試みる
+        boolean stored = repository.complete(KEY, first.owner(), response("first"));
+        repository.release(KEY, first.owner());
+        
+        // Then: 2番目のリクエストの処理中の記録が残り、2番目は保存できる
+        assertThat(second.acquired()).isTrue();
+        assertThat(second.owner()).isNotEqualTo(first.owner());
+        assertThat(stored).isFalse();
+        Claim third = repository.claim(KEY, "hash");
+        assertThat(third.acquired()).isFalse();
+        assertThat(third.existing().completed()).isFalse();
+        assertThat(third.existing().owner()).isEqualTo(second.owner());
+        
+        assertThat(repository.complete(KEY, second.owner(), response("second"))).isTrue();
+        assertThat(repository.claim(KEY, "hash").existing().body()).isEqualTo("second");
+    }
+    
+    @Test
+    @DisplayName("正常系: 自分の記録は削除でき、再送で再実行できる")
+    void release_自分の記録() {
+        // Given
+        Claim first = repository.claim(KEY, "hash");
+        
+        // When
+        repository.release(KEY, first.owner());
+        
+        // Then
+        assertThat(repository.claim(KEY, "hash").acquired()).isTrue();
+    }
+}
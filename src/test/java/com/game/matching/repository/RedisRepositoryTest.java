@@ -147,4 +147,24 @@ class RedisRepositoryTest {
             assertThat(value).isNotEmpty();
         }
     }
+    
+    @Test
+    @DisplayName("正常系: withConnectionの中の操作はプールから取得した1つの接続を使う")
+    void withConnection_1つの接続() {
+        // Given
+        String teamspaceId = UUID.randomUUID().toString();
+        
+        // When: 保存・取得・検索を続けて実行し、その間に使用中の接続数を記録する
+        int active = redisRepository.withConnection(() -> {
+            redisRepository.saveTeamspace(new Teamspace(teamspaceId, "user-123"));
+            redisRepository.getTeamspace(teamspaceId);
+            redisRepository.findTeamspaceByOrganizer("user-123");
+            return jedisPool.getNumActive();
+        });
+        
+        // Then: 使用中の接続は1つだけで、終了後はプールに返される
+        assertThat(active).isEqualTo(1);
+        assertThat(jedisPool.getNumActive()).isZero();
+        assertThat(redisRepository.getTeamspace(teamspaceId)).isPresent();
+    }
 }
@@ -0,0 +1,123 @@
+package com.game.matching.repository;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.game.matching.config.JacksonConfig;
+import com.game.matching.id.UuidV7;
+import com.game.matching.model.Teamspace;
+
+@DisplayName("TeamspaceCodec - Redisに保存するTeamspaceの形式")
+class TeamspaceCodecTest {
+    
+    private static Teamspace teamspace(String teamspaceId, String partyId) {
+        Teamspace teamspace = new Teamspace(teamspaceId, "organizer");
+        teamspace.addMember("member-1");
+        teamspace.addMember("メンバー2");
+        teamspace.setPartyId(partyId);
+        teamspace.setCreatedAt(Instant.parse("2024-01-01T00:00:00.123Z"));
+        return teamspace;
+    }
+    
+    private static void assertSameTeamspace(Teamspace actual, Teamspace expected) {
+        assertThat(actual.getTeamspaceId()).isEqualTo(expected.getTeamspaceId());
+        assertThat(actual.getOrganizer()).isEqualTo(expected.getOrganizer());
+        assertThat(actual.getMembers()).containsExactlyElementsOf(expected.getMembers());
+        assertThat(actual.getCreatedAt()).isEqualTo(expected.getCreatedAt());
+        assertThat(actual.getPartyId()).isEqualTo(expected.getPartyId());
+    }
+    
+    @Test
+    @DisplayName("正常系: バイナリ形式で往復でき、JSONより小さい")
+    void binary_往復() {
+        // Given
+        Teamspace teamspace = teamspace(UuidV7.nextString(), UuidV7.nextString());
+        TeamspaceCodec codec = TeamspaceCodec.forWriting("binary");
+        
+        // When
+        byte[] encoded = codec.encode(teamspace);
+        
+        // Then
+        assertThat(BinaryTeamspaceCodec.isBinary(encoded)).isTrue();
+        assertSameTeamspace(codec.decode(encoded), teamspace);
+        assertThat(encoded.length).isLessThan(new JsonTeamspaceCodec(JacksonConfig.newObjectMapper()).encode(teamspace).length);
+    }
+    
+    @Test
+    @DisplayName("正常系: 4人のteamspaceの保存サイズはバイナリ129バイト、JSON 263バイト")
+    void 保存されるバイト数() {
+        // Given: TeamspaceCodecBenchmark（members=4）と同じ構成
+        String uuid = "01890a5d-ac96-774b-bcce-b302099a8057";
+        Teamspace teamspace = new Teamspace(uuid, "organizer-user-id");
+        for (int i = 1; i < Teamspace.MAX_MEMBERS; i++) {
+            teamspace.addMember("member-user-id-" + i);
+        }
+        teamspace.setPartyId(uuid);
+        teamspace.setCreatedAt(Instant.parse("2024-01-01T00:00:00.123Z"));
+        
+        // When
+        byte[] binary = new BinaryTeamspaceCodec().encode(teamspace);
+        byte[] json = new JsonTeamspaceCodec(JacksonConfig.newObjectMapper()).encode(teamspace);
+        
+        // Then: ヘッダ3 + id16 + 作成日時6 + 主催者18 + 人数1 + メンバー(18+17×3) + partyId16
+        assertThat(binary).hasSize(129);
+        assertThat(json).hasSize(263);
+    }
+    
+    @Test
+    @DisplayName("正常系: UUID形式でないid・未設定のpartyIdも往復できる")
+    void binary_UUID以外のid() {
+        // Given
+        Teamspace teamspace = teamspace("ts-1", null);
+        BinaryTeamspaceCodec codec = new BinaryTeamspaceCodec();
+        
+        // When
+        Teamspace decoded = codec.decode(codec.encode(teamspace));
+        
+        // Then
+        assertSameTeamspace(decoded, teamspace);
+        assertThat(decoded.getPartyId()).isNull();
+    }
+    
+    @Test
+    @DisplayName("正常系: 書き込みの形式に関係なく、保存済みのJSONとバイナリを両方読める")
+    void forWriting_形式を判定して読む() {
+        // Given
+        Teamspace teamspace = teamspace(UuidV7.nextString(), UuidV7.nextString());
+        byte[] json = new JsonTeamspaceCodec(JacksonConfig.newObjectMapper()).encode(teamspace);
+        byte[] binary = new BinaryTeamspaceCodec().encode(teamspace);
+        
+        for (String format : new String[] {"binary", "json"}) {
+            // When
+            TeamspaceCodec codec = TeamspaceCodec.forWriting(format);
+            
+            // Then
+            assertSameTeamspace(codec.decode(json), teamspace);
+            assertSameTeamspace(codec.decode(binary), teamspace);
+        }
+        assertThat(TeamspaceCodec.forWriting("json").encode(teamspace)).isEqualTo(json);
+    }
+    
+    @Test
+    @DisplayName("異常系: 途中で切れた値・未知のバージョンはIllegalArgumentException")
+    void binary_不正な値() {
+        // Given
+        BinaryTeamspaceCodec codec = new BinaryTeamspaceCodec();
+        byte[] encoded = codec.encode(teamspace(UuidV7.nextString(), UuidV7.nextString()));
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+        byte[] futureVersion = encoded.clone();
+        futureVersion[1] = BinaryTeamspaceCodec.VERSION + 1;
+        
+        // Then
+        assertThatThrownBy(() -> codec.decode(truncated)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> codec.decode(futureVersion))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("version");
+        assertThatThrownBy(() -> TeamspaceCodec.forWriting("xml")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,26 @@
+package com.game.matching.scaling;
+
+/**
+ * データ件数に対するコストの増え方
+ */
+enum Complexity {
+    
+    /** 件数によらず一定 */
+    CONSTANT(0),
+    
+    /** 件数に比例 */
+    LINEAR(1);
+    
+    private final double exponent;
+    
+    Complexity(double exponent) {
+        this.exponent = exponent;
+    }
+    
+    /**
+     * コスト ∝ 件数^exponent の指数（両対数グラフでの傾き）
+     */
+    double exponent() {
+        return exponent;
+    }
+}
@@ -0,0 +1,23 @@
+package com.game.matching.scaling;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * テスト対象の処理がteamspace件数に対して満たすべき計算量
+ * 
+ * 実装を改善して計算量が下がったら、この宣言も合わせて厳しくする。
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@interface ExpectedComplexity {
+    
+    Complexity value();
+    
+    /**
+     * その計算量になる理由
+     */
+    String reason();
+}
@@ -0,0 +1,285 @@
+package com.game.matching.scaling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.TestInstance;
+import static org.mockito.Mockito.mock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.game.matching.concurrent.TeamspaceExecutor;
+import com.game.matching.metrics.RedisCallTrace;
+import com.game.matching.metrics.RedisCallTracker;
+import com.game.matching.metrics.RedisMetrics;
+import com.game.matching.model.Teamspace;
+import com.game.matching.repository.RedisRepository;
+import com.game.matching.service.GameService;
+import com.game.matching.service.LoggingService;
+import com.game.matching.service.TeamService;
+import com.game.matching.testing.InMemoryJedisPool;
+import com.game.matching.websocket.NotificationFanout;
+import com.game.matching.websocket.WebSocketConnectionManager;
+
+/**
+ * teamspace件数に対するAPIのコストの増え方
+ * 
+ * 1千・1万・10万件のteamspaceをメモリ上のRedisに投入し、各処理のRedisコマンド数とレイテンシ（中央値）を計測する。
+ * 件数とコストの両対数の回帰直線の傾きが、テストごとに宣言した計算量（{@link ExpectedComplexity}）の指数を
+ * 超えたら失敗する。コマンド数はほぼ厳密に、レイテンシはJITやGCの揺れを見込んで指数+{@link #TIME_SLOPE_TOLERANCE}
+ * まで許容する（累積の倍率ではなく傾きで比べるため、件数の範囲を広げても許容幅は変わらない）。
+ * 
+ * 件数が多いため通常のtestタスクからは外し、scalingTestタスクで実行する（checkに含まれる）。
+ */
+@Tag("scaling")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("スケーリング - teamspace件数に対する計算量")
+class ScalingRegressionTest {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ScalingRegressionTest.class);
+    
+    private static final int[] SIZES = {1_000, 10_000, 100_000};
+    private static final int WARMUP = 2;
+    private static final int MEASURED = 5;
+    
+    private static final double COMMAND_SLOPE_TOLERANCE = 0.02;
+    private static final double TIME_SLOPE_TOLERANCE = 0.3;
+    
+    /** これより短いレイテンシは計測の揺れとみなして切り上げる */
+    private static final long TIME_FLOOR_NANOS = 500_000;
+    
+    private final List<Dataset> datasets = new ArrayList<>();
+    
+    @BeforeAll
+    void seed() {
+        for (int size : SIZES) {
+            datasets.add(new Dataset(size));
+        }
+    }
+    
+    @AfterAll
+    void tearDown() {
+        for (Dataset dataset : datasets) {
+            dataset.teamspaceExecutor.shutdown();
+        }
+    }
+    
+    @Test
+    @DisplayName("API⑥: 全teamspaceを走査するため件数に比例")
+    @ExpectedComplexity(value = Complexity.LINEAR, reason = "KEYSで全件を列挙し、全件をGETして判定する")
+    void checkUserState(TestInfo testInfo) {
+        assertScaling(testInfo, (dataset, run) -> dataset.gameService.checkUserState("absent-user"));
+    }
+    
+    @Test
+    @DisplayName("API⑥（再接続時）: トークンのteamspaceだけを読むため件数によらず一定")
+    @ExpectedComplexity(value = Complexity.CONSTANT, reason = "メンバーであればGET 1回のみ")
+    void checkUserStateResumed(TestInfo testInfo) {
+        assertScaling(testInfo, (dataset, run) -> {
+            String teamspaceId = dataset.openTeamspaceIds.get(run);
+            dataset.gameService.checkUserState("organizer-" + teamspaceId, teamspaceId);
+        });
+    }
+    
+    @Test
+    @DisplayName("主催者での検索: 該当なしの場合は全件走査")
+    @ExpectedComplexity(value = Complexity.LINEAR, reason = "ユーザーからteamspaceへの索引がない")
+    void findTeamspaceByOrganizer(TestInfo testInfo) {
+        assertScaling(testInfo, (dataset, run) -> dataset.redisRepository.findTeamspaceByOrganizer("absent-user"));
+    }
+    
+    @Test
+    @DisplayName("メンバーでの検索: 該当なしの場合は全件走査")
+    @ExpectedComplexity(value = Complexity.LINEAR, reason = "ユーザーからteamspaceへの索引がない")
+    void findTeamspaceByMember(TestInfo testInfo) {
+        assertScaling(testInfo, (dataset, run) -> dataset.redisRepository.findTeamspaceByMember("absent-user"));
+    }
+    
+    @Test
+    @DisplayName("API①: 参加状況の確認で全件走査が2回")
+    @ExpectedComplexity(value = Complexity.LINEAR, reason = "主催者・メンバーでの検索がそれぞれ全件走査")
+    void organizeTeam(TestInfo testInfo) {
+        assertScaling(testInfo, (dataset, run) -> dataset.teamService.organizeTeam("organize-" + run));
+    }
+    
+    @Test
+    @DisplayName("API②: 参加状況の確認で全件走査が2回")
+    @ExpectedComplexity(value = Complexity.LINEAR, reason = "主催者・メンバーでの検索がそれぞれ全件走査")
+    void joinTeam(TestInfo testInfo) {
+        assertScaling(testInfo, (dataset, run) ->
+            dataset.teamService.joinTeam("join-" + run, dataset.openTeamspaceIds.get(run)));
+    }
+    
+    @Test
+    @DisplayName("API⑤: 参加状況の確認で全件走査が2回")
+    @ExpectedComplexity(value = Complexity.LINEAR, reason = "主催者・メンバーでの検索がそれぞれ全件走査")
+    void joinExistingParty(TestInfo testInfo) {
+        assertScaling(testInfo, (dataset, run) ->
+            dataset.teamService.joinExistingParty("late-" + run, dataset.startedTeamspaceIds.get(run)));
+    }
+    
+    @Test
+    @DisplayName("API③: teamspaceIdで直接取得・保存するため件数によらず一定")
+    @ExpectedComplexity(value = Complexity.CONSTANT, reason = "GET・SETEX 1回ずつのみ")
+    void leaveTeam(TestInfo testInfo) {
+        assertScaling(testInfo, (dataset, run) -> {
+            String teamspaceId = dataset.openTeamspaceIds.get(run);
+            dataset.teamService.leaveTeam("member-" + teamspaceId, teamspaceId);
+        });
+    }
+    
+    @Test
+    @DisplayName("API⑦: teamspaceIdで直接取得するため件数によらず一定")
+    @ExpectedComplexity(value = Complexity.CONSTANT, reason = "GET 1回のみ")
+    void listJoiningPartyUsers(TestInfo testInfo) {
+        assertScaling(testInfo, (dataset, run) -> {
+            String teamspaceId = dataset.openTeamspaceIds.get(run);
+            dataset.gameService.listJoiningPartyUsers("organizer-" + teamspaceId, teamspaceId);
+        });
+    }
+    
+    /**
+     * 各件数でoperationを実行し、件数に対するコストの増え方（両対数の傾き）が宣言した計算量に収まることを確認する
+     * 
+     * operationの第2引数は実行ごとに異なる番号（同じteamspaceやユーザーを使い回さないため）。
+     */
+    private void assertScaling(TestInfo testInfo, BiConsumer<Dataset, Integer> operation) {
+        ExpectedComplexity expected = testInfo.getTestMethod().orElseThrow().getAnnotation(ExpectedComplexity.class);
+        assertThat(expected).as("@ExpectedComplexity is required").isNotNull();
+        
+        Map<Integer, Cost> costs = new LinkedHashMap<>();
+        for (Dataset dataset : datasets) {
+            costs.put(dataset.size, measure(dataset, operation));
+        }
+        double[] commands = new double[SIZES.length];
+        double[] nanos = new double[SIZES.length];
+        for (int i = 0; i < SIZES.length; i++) {
+            Cost cost = costs.get(SIZES[i]);
+            commands[i] = cost.commands();
+            nanos[i] = Math.max(cost.nanos(), TIME_FLOOR_NANOS);
+        }
+        double commandSlope = logLogSlope(SIZES, commands);
+        double timeSlope = logLogSlope(SIZES, nanos);
+        logger.info("{} ({}): {} / slope: commands={}, latency={}", testInfo.getDisplayName(), expected.value(), costs,
+                    String.format("%.2f", commandSlope), String.format("%.2f", timeSlope));
+        
+        double exponent = expected.value().exponent();
+        assertThat(commandSlope)
+            .as("Redis commands growth slope over %s teamspaces (%s: %s)", Arrays.toString(SIZES), expected.value(),
+                expected.reason())
+            .isLessThanOrEqualTo(exponent + COMMAND_SLOPE_TOLERANCE);
+        assertThat(timeSlope)
+            .as("latency growth slope over %s teamspaces (%s: %s)", Arrays.toString(SIZES), expected.value(),
+                expected.reason())
+            .isLessThanOrEqualTo(exponent + TIME_SLOPE_TOLERANCE);
+    }
+    
+    /**
+     * log(costs)をlog(sizes)に最小二乗法で当てはめた直線の傾き
+     */
+    private static double logLogSlope(int[] sizes, double[] costs) {
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            meanX += Math.log(sizes[i]);
+            meanY += Math.log(costs[i]);
+        }
+        meanX /= sizes.length;
+        meanY /= sizes.length;
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < sizes.length; i++) {
+            double dx = Math.log(sizes[i]) - meanX;
+            covariance += dx * (Math.log(costs[i]) - meanY);
+            variance += dx * dx;
+        }
+        return covariance / variance;
+    }
+    
+    private Cost measure(Dataset dataset, BiConsumer<Dataset, Integer> operation) {
+        int run = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            operation.accept(dataset, run++);
+        }
+        long[] commands = new long[MEASURED];
+        long[] nanos = new long[MEASURED];
+        for (int i = 0; i < MEASURED; i++) {
+            RedisCallTrace trace = RedisCallTracker.begin();
+            long start = System.nanoTime();
+            try {
+                operation.accept(dataset, run++);
+            } finally {
+                nanos[i] = System.nanoTime() - start;
+                RedisCallTracker.end();
+            }
+            commands[i] = trace.getCommandCount();
+        }
+        return new Cost(median(commands), median(nanos));
+    }
+    
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+    
+    private record Cost(long commands, long nanos) {
+        @Override
+        public String toString() {
+            return String.format("%d commands / %.2f ms", commands, nanos / 1_000_000.0);
+        }
+    }
+    
+    /**
+     * size件のteamspaceを投入したメモリ上のRedisとサービス
+     * 
+     * 半数はゲーム開始済み（API⑤用）で主催者のみ、残りは未開始（API②③⑦用）で主催者と脱退用のメンバー1人。
+     */
+    private static final class Dataset {
+        
+        private final int size;
+        private final RedisRepository redisRepository;
+        private final TeamspaceExecutor teamspaceExecutor = new TeamspaceExecutor(false, 0, 0, 0);
+        private final TeamService teamService;
+        private final GameService gameService;
+        private final List<String> openTeamspaceIds = new ArrayList<>();
+        private final List<String> startedTeamspaceIds = new ArrayList<>();
+        
+        Dataset(int size) {
+            this.size = size;
+            this.redisRepository = new RedisRepository(new InMemoryJedisPool(), RedisMetrics.noop());
+            WebSocketConnectionManager connectionManager = mock(WebSocketConnectionManager.class);
+            NotificationFanout notificationFanout = mock(NotificationFanout.class);
+            LoggingService loggingService = mock(LoggingService.class);
+            this.teamService = new TeamService(redisRepository, connectionManager, notificationFanout,
+                                               loggingService, teamspaceExecutor);
+            this.gameService = new GameService(redisRepository, connectionManager, notificationFanout,
+                                               loggingService, teamspaceExecutor);
+            
+            for (int i = 0; i < size; i++) {
+                String teamspaceId = UUID.randomUUID().toString();
+                Teamspace teamspace = new Teamspace(teamspaceId, "organizer-" + teamspaceId);
+                if (i % 2 == 0) {
+                    teamspace.addMember("member-" + teamspaceId);
+                    openTeamspaceIds.add(teamspaceId);
+                } else {
+                    teamspace.setPartyId(UUID.randomUUID().toString());
+                    startedTeamspaceIds.add(teamspaceId);
+                }
+                redisRepository.saveTeamspace(teamspace);
+            }
+        }
+    }
+}
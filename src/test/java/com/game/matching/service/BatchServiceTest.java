@@ -0,0 +1,190 @@
+package com.game.matching.service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.http.HttpStatus;
+
+import com.game.matching.concurrent.TeamspaceExecutor;
+import com.game.matching.config.JacksonConfig;
+import com.game.matching.dto.BatchOperation;
+import com.game.matching.dto.BatchRequest;
+import com.game.matching.dto.BatchResponse;
+import com.game.matching.dto.BatchResult;
+import com.game.matching.dto.CheckUserStateResponse;
+import com.game.matching.dto.ErrorResponse;
+import com.game.matching.dto.OrganizeTeamResponse;
+import com.game.matching.exception.BusinessException;
+import com.game.matching.logging.Api;
+import com.game.matching.ratelimit.RateLimiter;
+import com.game.matching.repository.RedisRepository;
+import jakarta.validation.Validation;
+
+@DisplayName("BatchService - バッチAPI")
+class BatchServiceTest {
+    
+    private static final String USER_ID = "user-123";
+    
+    private TeamService teamService;
+    private GameService gameService;
+    private RedisRepository redisRepository;
+    private RateLimiter rateLimiter;
+    private BatchService batchService;
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        teamService = mock(TeamService.class);
+        gameService = mock(GameService.class);
+        redisRepository = mock(RedisRepository.class);
+        rateLimiter = mock(RateLimiter.class);
+        when(redisRepository.withConnection(any())).thenAnswer(invocation -> ((Supplier<Object>) invocation.getArgument(0)).get());
+        batchService = newBatchService(new TeamspaceExecutor(false, 0, 0, 0));
+    }
+    
+    private BatchService newBatchService(TeamspaceExecutor teamspaceExecutor) {
+        return new BatchService(teamService, gameService, redisRepository, rateLimiter,
+                                Validation.buildDefaultValidatorFactory().getValidator(), teamspaceExecutor);
+    }
+    
+    private static BatchOperation operation(String api, String teamspaceId) {
+        BatchOperation operation = new BatchOperation();
+        operation.setApi(api);
+        operation.setUserId(USER_ID);
+        operation.setTeamspaceId(teamspaceId);
+        return operation;
+    }
+    
+    private static BatchRequest request(boolean continueOnError, BatchOperation... operations) {
+        BatchRequest request = new BatchRequest();
+        request.setOperations(List.of(operations));
+        request.setContinueOnError(continueOnError);
+        return request;
+    }
+    
+    @Test
+    @DisplayName("正常系: 操作を順に1つの接続で実行し、個別のAPIと同じステータスと本文を返す")
+    void execute_正常系() {
+        // Given
+        String oldTeamspaceId = UUID.randomUUID().toString();
+        String newTeamspaceId = UUID.randomUUID().toString();
+        when(teamService.organizeTeam(USER_ID)).thenReturn(new OrganizeTeamResponse(newTeamspaceId));
+        CheckUserStateResponse state = new CheckUserStateResponse(true, false, false, newTeamspaceId, null);
+        when(gameService.checkUserState(USER_ID)).thenReturn(state);
+        
+        // When
+        BatchResponse response = batchService.execute(USER_ID, request(false,
+            operation("leave_team", oldTeamspaceId),
+            operation("organize_team", null),
+            operation("check_user_state", null)));
+        
+        // Then
+        List<BatchResult> results = response.getResults();
+        assertThat(results).extracting(BatchResult::getApi)
+            .containsExactly("leave_team", "organize_team", "check_user_state");
+        assertThat(results).extracting(BatchResult::getStatus).containsExactly(200, 201, 200);
+        assertThat(((OrganizeTeamResponse) results.get(1).getBody()).getTeamspaceId()).isEqualTo(newTeamspaceId);
+        assertThat(results.get(2).getBody()).isSameAs(state);
+        verify(teamService).leaveTeam(USER_ID, oldTeamspaceId);
+        verify(redisRepository).withConnection(any());
+    }
+    
+    @Test
+    @DisplayName("正常系: 操作の結果のJSONはapi・status・bodyだけで、成否の判定は含まない")
+    void batchResult_JSONに成否を含まない() throws Exception {
+        String json = JacksonConfig.newObjectMapper()
+            .writeValueAsString(new BatchResult("organize_team", 201, new OrganizeTeamResponse("ts-1")));
+        
+        assertThat(json).contains("\"api\":\"organize_team\"", "\"status\":201", "\"teamspaceId\":\"ts-1\"")
+            .doesNotContain("success");
+    }
+    
+    @Test
+    @DisplayName("異常系: 既定では失敗した操作で止め、以降の操作は実行しない")
+    void execute_失敗で停止() {
+        // Given
+        String teamspaceId = UUID.randomUUID().toString();
+        doThrow(new BusinessException("TEAMSPACE_NOT_FOUND", "Teamspace not found", HttpStatus.NOT_FOUND))
+            .when(teamService).leaveTeam(USER_ID, teamspaceId);
+        
+        // When
+        BatchResponse response = batchService.execute(USER_ID, request(false,
+            operation("leave_team", teamspaceId),
+            operation("organize_team", null)));
+        
+        // Then
+        assertThat(response.getResults()).hasSize(1);
+        BatchResult result = response.getResults().get(0);
+        assertThat(result.getStatus()).isEqualTo(404);
+        assertThat(((ErrorResponse) result.getBody()).getError()).isEqualTo("TEAMSPACE_NOT_FOUND");
+        verify(teamService, never()).organizeTeam(anyString());
+    }
+    
+    @Test
+    @DisplayName("異常系: continueOnErrorなら失敗した操作の後も実行し、バリデーションエラーは個別のAPIと同じになる")
+    void execute_失敗後も続行() {
+        // Given
+        when(teamService.organizeTeam(USER_ID)).thenReturn(new OrganizeTeamResponse(UUID.randomUUID().toString()));
+        
+        // When
+        BatchResponse response = batchService.execute(USER_ID, request(true,
+            operation("join_team", "not-a-uuid"),
+            operation("unknown_api", null),
+            operation("organize_team", null)));
+        
+        // Then
+        List<BatchResult> results = response.getResults();
+        assertThat(results).extracting(BatchResult::getStatus).containsExactly(400, 400, 201);
+        ErrorResponse validation = (ErrorResponse) results.get(0).getBody();
+        assertThat(validation.getError()).isEqualTo("VALIDATION_ERROR");
+        assertThat(validation.getMessage()).isEqualTo("teamspaceId must be a valid UUID");
+        assertThat(((ErrorResponse) results.get(1).getBody()).getError()).isEqualTo("VALIDATION_ERROR");
+        verify(teamService, never()).joinTeam(anyString(), anyString());
+    }
+    
+    @Test
+    @DisplayName("異常系: 操作ごとにuserId単位のレート制限を適用する")
+    void execute_レート制限() {
+        // Given
+        when(rateLimiter.acquire(Api.CHECK_USER_STATE, USER_ID)).thenReturn(1_000_000L);
+        
+        // When
+        BatchResponse response = batchService.execute(USER_ID, request(false, operation("check_user_state", null)));
+        
+        // Then
+        BatchResult result = response.getResults().get(0);
+        assertThat(result.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(((ErrorResponse) result.getBody()).getError()).isEqualTo("RATE_LIMITED");
+        verify(gameService, never()).checkUserState(anyString());
+    }
+    
+    @Test
+    @DisplayName("正常系: TeamspaceExecutorが有効な場合は接続を固定しない")
+    void execute_ストライプ有効時は接続を固定しない() {
+        // Given: 更新はストライプのスレッドで別の接続を取得する
+        TeamspaceExecutor teamspaceExecutor = mock(TeamspaceExecutor.class);
+        when(teamspaceExecutor.isEnabled()).thenReturn(true);
+        BatchService stripedBatchService = newBatchService(teamspaceExecutor);
+        String teamspaceId = UUID.randomUUID().toString();
+        
+        // When
+        BatchResponse response = stripedBatchService.execute(USER_ID, request(false, operation("leave_team", teamspaceId)));
+        
+        // Then
+        assertThat(response.getResults()).extracting(BatchResult::getStatus).containsExactly(200);
+        verify(teamService).leaveTeam(USER_ID, teamspaceId);
+        verify(redisRepository, never()).withConnection(any());
+    }
+}
@@ -0,0 +1,149 @@
+package com.game.matching.service;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.game.matching.config.CognitoConfig;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CognitoAuthService - JWT検証と検証済みトークンのキャッシュ")
+class CognitoAuthServiceTest {
+    
+    private static final String ISSUER = "https://issuer.example.com/pool";
+    private static final String KID = "kid-1";
+    
+    private static KeyPair keyPair;
+    
+    private JwksKeyStore jwksKeyStore;
+    
+    @BeforeAll
+    static void generateKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+    }
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        jwksKeyStore = mock(JwksKeyStore.class);
+        when(jwksKeyStore.getKey(KID)).thenReturn((RSAPublicKey) keyPair.getPublic());
+    }
+    
+    private CognitoAuthService service(int maxCachedTokens) {
+        CognitoConfig cognitoConfig = mock(CognitoConfig.class);
+        when(cognitoConfig.getIssuer()).thenReturn(ISSUER);
+        when(cognitoConfig.getTokenCacheMaxEntries()).thenReturn(maxCachedTokens);
+        return new CognitoAuthService(cognitoConfig, jwksKeyStore);
+    }
+    
+    private static String token(String userId, Instant expiresAt) {
+        return JWT.create()
+            .withKeyId(KID)
+            .withIssuer(ISSUER)
+            .withSubject(userId)
+            .withExpiresAt(expiresAt)
+            .sign(Algorithm.RSA256((RSAPublicKey) keyPair.getPublic(), (RSAPrivateKey) keyPair.getPrivate()));
+    }
+    
+    /**
+     * expの秒の切り捨てを考慮し、expを確実に過ぎるまで待つ
+     */
+    private static void sleepUntilAfter(Instant expiresAt) throws InterruptedException {
+        long millis = expiresAt.toEpochMilli() + 100 - System.currentTimeMillis();
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+    
+    @Test
+    @DisplayName("正常系: 2回目以降の同じトークンは署名を検証せずキャッシュから返す")
+    void extractUserId_キャッシュヒット() throws Exception {
+        // Given
+        CognitoAuthService service = service(100);
+        String token = token("user-1", Instant.now().plusSeconds(3600));
+        
+        // When
+        String first = service.extractUserId(token);
+        String second = service.extractUserId(token);
+        
+        // Then
+        assertThat(first).isEqualTo("user-1");
+        assertThat(second).isEqualTo("user-1");
+        assertThat(service.getCacheHits()).isEqualTo(1);
+        assertThat(service.getCacheMisses()).isEqualTo(1);
+        assertThat(service.getCachedTokenCount()).isEqualTo(1);
+        verify(jwksKeyStore, times(1)).getKey(KID);
+    }
+    
+    @Test
+    @DisplayName("異常系: キャッシュしたトークンもexpを過ぎたらキャッシュから返さず、検証し直して拒否する")
+    void extractUserId_期限切れはキャッシュから返さない() throws Exception {
+        // Given: expの直前に検証してキャッシュ済み
+        CognitoAuthService service = service(100);
+        Instant expiresAt = Instant.ofEpochSecond(Instant.now().getEpochSecond() + 2);
+        String token = token("user-1", expiresAt);
+        assertThat(service.extractUserId(token)).isEqualTo("user-1");
+        
+        // When
+        sleepUntilAfter(expiresAt);
+        
+        // Then
+        assertThatThrownBy(() -> service.extractUserId(token))
+            .hasMessageContaining("Invalid token");
+        assertThat(service.getCacheHits()).isZero();
+        assertThat(service.getCachedTokenCount()).isZero();
+    }
+    
+    @Test
+    @DisplayName("正常系: キャッシュが満杯なら新しいトークンは検証だけしてキャッシュしない")
+    void extractUserId_満杯ならキャッシュしない() throws Exception {
+        // Given
+        CognitoAuthService service = service(2);
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        service.extractUserId(token("user-1", expiresAt));
+        service.extractUserId(token("user-2", expiresAt));
+        
+        // When
+        String third = service.extractUserId(token("user-3", expiresAt));
+        
+        // Then
+        assertThat(third).isEqualTo("user-3");
+        assertThat(service.getCachedTokenCount()).isEqualTo(2);
+    }
+    
+    @Test
+    @DisplayName("正常系: 満杯のときは期限切れのエントリを削除してから新しいトークンをキャッシュする")
+    void extractUserId_満杯時に期限切れを削除() throws Exception {
+        // Given: 期限の近いトークンでキャッシュを満杯にする
+        CognitoAuthService service = service(2);
+        Instant soon = Instant.ofEpochSecond(Instant.now().getEpochSecond() + 2);
+        service.extractUserId(token("user-1", soon));
+        service.extractUserId(token("user-2", soon));
+        assertThat(service.getCachedTokenCount()).isEqualTo(2);
+        sleepUntilAfter(soon);
+        
+        // When
+        String token = token("user-3", Instant.now().plusSeconds(3600));
+        service.extractUserId(token);
+        service.extractUserId(token);
+        
+        // Then: 期限切れの2件が消え、新しいトークンはキャッシュから返る
+        assertThat(service.getCachedTokenCount()).isEqualTo(1);
+        assertThat(service.getCacheHits()).isEqualTo(1);
+    }
+}
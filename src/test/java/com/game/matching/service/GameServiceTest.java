@@ -0,0 +1,139 @@
+package com.game.matching.service;
+
+import com.game.matching.concurrent.TeamspaceExecutor;
+import com.game.matching.dto.CheckUserStateResponse;
+import com.game.matching.model.Teamspace;
+import com.game.matching.repository.RedisRepository;
+import com.game.matching.websocket.NotificationFanout;
+import com.game.matching.websocket.WebSocketConnectionManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("GameService - API⑥: 同時の状態確認の合流")
+class GameServiceTest {
+    
+    private static final String ORGANIZER = "organizer";
+    private static final String MEMBER = "member-1";
+    
+    private RedisRepository redisRepository;
+    private GameService gameService;
+    private ExecutorService callers;
+    private Teamspace teamspace;
+    
+    // RedisRepositoryに登録された書き込み後の処理
+    private final List<Consumer<Collection<String>>> writeListeners = new CopyOnWriteArrayList<>();
+    // getAllTeamspacesの呼び出し数と、呼び出しを止めておくラッチ
+    private final AtomicInteger scans = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    
+    @BeforeEach
+    void setUp() {
+        redisRepository = mock(RedisRepository.class);
+        teamspace = new Teamspace("teamspace-1", ORGANIZER);
+        teamspace.addMember(MEMBER);
+        doAnswer(invocation -> writeListeners.add(invocation.getArgument(0)))
+            .when(redisRepository).addWriteListener(any());
+        when(redisRepository.getAllTeamspaces()).thenAnswer(invocation -> {
+            scans.incrementAndGet();
+            assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+            return List.of(teamspace);
+        });
+        gameService = new GameService(redisRepository,
+                                      mock(WebSocketConnectionManager.class),
+                                      mock(NotificationFanout.class),
+                                      mock(LoggingService.class),
+                                      new TeamspaceExecutor(false, 0, 0, 0));
+        callers = Executors.newFixedThreadPool(3);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+    
+    private Future<CheckUserStateResponse> checkUserState(String userId) {
+        return callers.submit(() -> gameService.checkUserState(userId));
+    }
+    
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+    
+    private void notifyWrite(String... userIds) {
+        writeListeners.forEach(listener -> listener.accept(List.of(userIds)));
+    }
+    
+    @Test
+    @DisplayName("正常系: 合流した呼び出しにはそれぞれ別のインスタンスを返す")
+    void checkUserState_合流した結果はコピー() throws Exception {
+        // Given: 1つ目の走査の実行中に2つ目が合流する
+        Future<CheckUserStateResponse> first = checkUserState(MEMBER);
+        await(() -> scans.get() == 1);
+        Future<CheckUserStateResponse> second = checkUserState(MEMBER);
+        await(() -> gameService.getUserStateLoads().getCoalescedCalls() == 1);
+        
+        // When
+        release.countDown();
+        CheckUserStateResponse firstResponse = first.get(5, TimeUnit.SECONDS);
+        CheckUserStateResponse secondResponse = second.get(5, TimeUnit.SECONDS);
+        firstResponse.setTeamspaceId("changed");
+        
+        // Then: 走査は1回で、一方を書き換えても他方は変わらない
+        verify(redisRepository, times(1)).getAllTeamspaces();
+        assertThat(firstResponse).isNotSameAs(secondResponse);
+        assertThat(secondResponse.isJoiningAnotherParty()).isTrue();
+        assertThat(secondResponse.getTeamspaceId()).isEqualTo("teamspace-1");
+    }
+    
+    @Test
+    @DisplayName("正常系: teamspaceの更新は、そのメンバーの走査だけ合流を打ち切る")
+    void checkUserState_更新されたユーザーだけ合流を打ち切る() throws Exception {
+        // Given: MEMBERの走査の実行中
+        Future<CheckUserStateResponse> first = checkUserState(MEMBER);
+        await(() -> scans.get() == 1);
+        
+        // When: 他のユーザーのteamspaceの更新の後は合流する
+        notifyWrite("other-user");
+        Future<CheckUserStateResponse> coalesced = checkUserState(MEMBER);
+        await(() -> gameService.getUserStateLoads().getCoalescedCalls() == 1);
+        // When: MEMBERを含む更新の後は合流せずに走査し直す
+        notifyWrite(ORGANIZER, MEMBER);
+        Future<CheckUserStateResponse> reloaded = checkUserState(MEMBER);
+        await(() -> scans.get() == 2);
+        release.countDown();
+        
+        // Then
+        assertThat(first.get(5, TimeUnit.SECONDS).getTeamspaceId()).isEqualTo("teamspace-1");
+        assertThat(coalesced.get(5, TimeUnit.SECONDS).getTeamspaceId()).isEqualTo("teamspace-1");
+        assertThat(reloaded.get(5, TimeUnit.SECONDS).getTeamspaceId()).isEqualTo("teamspace-1");
+        assertThat(gameService.getUserStateLoads().getCoalescedCalls()).isEqualTo(1);
+        verify(redisRepository, times(2)).getAllTeamspaces();
+    }
+}
@@ -0,0 +1,209 @@
+package com.game.matching.service;
+
+import com.auth0.jwk.Jwk;
+import com.auth0.jwk.SigningKeyNotFoundException;
+import com.game.matching.config.CognitoConfig;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+@DisplayName("JwksKeyStore - JWKSの公開鍵の保持と再取得")
+class JwksKeyStoreTest {
+    
+    private static final String KID = "kid-1";
+    
+    private static RSAPublicKey publicKey;
+    
+    @TempDir
+    Path dir;
+    
+    private final AtomicInteger fetches = new AtomicInteger();
+    private JwksKeyStore keyStore;
+    
+    @BeforeAll
+    static void generateKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        publicKey = (RSAPublicKey) generator.generateKeyPair().getPublic();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (keyStore != null) {
+            keyStore.stop();
+        }
+    }
+    
+    private static CognitoConfig config(long minRefreshIntervalMillis) {
+        CognitoConfig cognitoConfig = mock(CognitoConfig.class);
+        when(cognitoConfig.getJwksFetchTimeoutMillis()).thenReturn(2000L);
+        when(cognitoConfig.getJwksMinRefreshIntervalMillis()).thenReturn(minRefreshIntervalMillis);
+        return cognitoConfig;
+    }
+    
+    /**
+     * 呼び出しごとにresponsesの次の応答を返すスタブ（最後の応答はそれ以降も返す）
+     */
+    private JwksKeyStore keyStore(long minRefreshIntervalMillis, List<List<Jwk>> responses) {
+        keyStore = new JwksKeyStore(config(minRefreshIntervalMillis), "stub", () -> {
+            int call = fetches.getAndIncrement();
+            return responses.get(Math.min(call, responses.size() - 1));
+        });
+        return keyStore;
+    }
+    
+    private static Map<String, Object> jwkValues(String kid) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return Map.of("kty", "RSA",
+                      "kid", kid,
+                      "use", "sig",
+                      "alg", "RS256",
+                      "n", encoder.encodeToString(publicKey.getModulus().toByteArray()),
+                      "e", encoder.encodeToString(publicKey.getPublicExponent().toByteArray()));
+    }
+    
+    private static Jwk jwk(String kid) {
+        return Jwk.fromValues(jwkValues(kid));
+    }
+    
+    @Test
+    @DisplayName("正常系: 実行中の取得があれば同時のrefreshは同じ取得を共有する")
+    void refresh_シングルフライト() throws Exception {
+        // Given: releaseされるまで取得が終わらない
+        CountDownLatch release = new CountDownLatch(1);
+        keyStore = new JwksKeyStore(config(0), "stub", () -> {
+            fetches.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return List.of(jwk(KID));
+        });
+        
+        // When
+        CompletableFuture<Void> first = keyStore.refresh();
+        CompletableFuture<Void> second = keyStore.refresh();
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        
+        // Then: 取得は1回で、完了後のrefreshは新しく取得する
+        assertThat(second).isSameAs(first);
+        assertThat(fetches.get()).isEqualTo(1);
+        keyStore.refresh().get(5, TimeUnit.SECONDS);
+        assertThat(fetches.get()).isEqualTo(2);
+        assertThat(keyStore.getRefreshCount()).isEqualTo(2);
+    }
+    
+    @Test
+    @DisplayName("正常系: 未知のkidでも前回の取得から最小間隔が経っていなければ再取得しない")
+    void getKey_最小間隔内は再取得しない() throws Exception {
+        // Given
+        keyStore(60_000, List.of(List.of(jwk(KID))));
+        keyStore.refresh().get(5, TimeUnit.SECONDS);
+        
+        // When / Then
+        assertThat(keyStore.getKey(KID)).isEqualTo(publicKey);
+        assertThatThrownBy(() -> keyStore.getKey("unknown"))
+            .isInstanceOf(SigningKeyNotFoundException.class);
+        assertThat(fetches.get()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("正常系: 最小間隔が経っていれば未知のkidで再取得し、ローテーション後の鍵を返す")
+    void getKey_未知のkidで再取得() throws Exception {
+        // Given: 2回目の取得で新しい鍵が加わる
+        keyStore(0, List.of(List.of(jwk(KID)), List.of(jwk(KID), jwk("kid-2"))));
+        keyStore.refresh().get(5, TimeUnit.SECONDS);
+        
+        // When
+        RSAPublicKey rotated = keyStore.getKey("kid-2");
+        
+        // Then
+        assertThat(rotated).isEqualTo(publicKey);
+        assertThat(fetches.get()).isEqualTo(2);
+        assertThat(keyStore.getKeyCount()).isEqualTo(2);
+    }
+    
+    @Test
+    @DisplayName("異常系: RSAの鍵を含まないJWKSは失敗とし、既存の鍵を残す")
+    void refresh_空のJWKSは拒否() throws Exception {
+        // Given
+        keyStore(0, List.of(List.of(jwk(KID)), List.of()));
+        keyStore.refresh().get(5, TimeUnit.SECONDS);
+        
+        // When / Then
+        assertThatThrownBy(() -> keyStore.refresh().get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(SigningKeyNotFoundException.class);
+        assertThat(keyStore.getKeyCount()).isEqualTo(1);
+        assertThat(keyStore.getKey(KID)).isEqualTo(publicKey);
+        assertThat(keyStore.getRefreshFailures()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("正常系: cognito.jwks-fileが設定されていればローカルのJWKSファイルから読み込む")
+    void refresh_ファイルから読み込み() throws Exception {
+        // Given
+        Map<String, Object> values = jwkValues(KID);
+        List<String> fields = new ArrayList<>();
+        values.forEach((name, value) -> fields.add("\"" + name + "\":\"" + value + "\""));
+        Path jwksFile = dir.resolve("jwks.json");
+        Files.writeString(jwksFile, "{\"keys\":[{" + String.join(",", fields) + "}]}");
+        CognitoConfig cognitoConfig = config(0);
+        when(cognitoConfig.getJwksFile()).thenReturn(jwksFile.toString());
+        keyStore = new JwksKeyStore(cognitoConfig);
+        
+        // When
+        keyStore.refresh().get(5, TimeUnit.SECONDS);
+        
+        // Then
+        assertThat(keyStore.getKeyCount()).isEqualTo(1);
+        assertThat(keyStore.getKey(KID)).isEqualTo(publicKey);
+    }
+    
+    @Test
+    @DisplayName("正常系: Springのコンテキストでコンストラクタを選んでBeanを作成できる")
+    void context_Beanを作成できる() throws Exception {
+        // Given: 起動時の先読みはローカルのJWKSファイルから行う
+        Path jwksFile = dir.resolve("jwks.json");
+        Files.writeString(jwksFile, "{\"keys\":[]}");
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(CognitoConfig.class, JwksKeyStore.class)
+            .withPropertyValues("cognito.user-pool-id=pool",
+                                "cognito.region=ap-northeast-1",
+                                "cognito.jwks-url=https://example.invalid/jwks.json",
+                                "cognito.issuer=https://example.invalid/pool",
+                                "cognito.jwks-file=" + jwksFile,
+                                "cognito.jwks-refresh-interval-seconds=0");
+        
+        // When / Then
+        runner.run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).hasSingleBean(JwksKeyStore.class);
+        });
+    }
+}
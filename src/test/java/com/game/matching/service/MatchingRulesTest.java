@@ -0,0 +1,112 @@
+package com.game.matching.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.game.matching.dto.CheckUserStateResponse;
+import com.game.matching.exception.BusinessException;
+import com.game.matching.model.Teamspace;
+
+@DisplayName("MatchingRules - サーブレット版とWebFlux版で共有する業務ルール")
+class MatchingRulesTest {
+    
+    private static Teamspace teamspace(String organizer, String... members) {
+        Teamspace teamspace = new Teamspace(UUID.randomUUID().toString(), organizer);
+        for (String member : members) {
+            teamspace.addMember(member);
+        }
+        return teamspace;
+    }
+    
+    @Test
+    @DisplayName("異常系: 満員のteamspaceには参加できない")
+    void checkJoin_満員() {
+        Teamspace full = teamspace("organizer", "member-1", "member-2", "member-3");
+        
+        assertThatThrownBy(() -> MatchingRules.checkJoin(full, "user-123", Optional.empty(), Optional.empty()))
+            .isInstanceOf(BusinessException.class)
+            .satisfies(e -> {
+                BusinessException be = (BusinessException) e;
+                assertThat(be.getErrorCode()).isEqualTo("TEAMSPACE_FULL");
+                assertThat(be.getHttpStatus()).isEqualTo(HttpStatus.CONFLICT);
+            });
+    }
+    
+    @Test
+    @DisplayName("異常系: 他のチームのメンバーは参加できないが、同じteamspaceは参加済みとして扱う")
+    void checkJoin_他のチームと参加済み() {
+        Teamspace target = teamspace("organizer", "user-123");
+        Teamspace other = teamspace("other-organizer", "user-123");
+        
+        assertThatThrownBy(() -> MatchingRules.checkJoin(target, "user-123", Optional.empty(), Optional.of(other)))
+            .hasFieldOrPropertyWithValue("errorCode", "USER_ALREADY_IN_TEAM");
+        assertThatThrownBy(() -> MatchingRules.checkJoin(target, "user-123", Optional.empty(), Optional.of(target)))
+            .hasFieldOrPropertyWithValue("errorCode", "ALREADY_JOINED");
+    }
+    
+    @Test
+    @DisplayName("異常系: ゲーム未開始のパーティには途中参加できない")
+    void checkJoinExistingParty_ゲーム未開始() {
+        Teamspace notStarted = teamspace("organizer");
+        
+        assertThatThrownBy(() -> MatchingRules.checkJoinExistingParty(notStarted, "user-123",
+                                                                      Optional.empty(), Optional.empty()))
+            .hasFieldOrPropertyWithValue("errorCode", "GAME_NOT_STARTED");
+        
+        notStarted.setPartyId(UUID.randomUUID().toString());
+        assertThatCode(() -> MatchingRules.checkJoinExistingParty(notStarted, "user-123",
+                                                                  Optional.empty(), Optional.empty()))
+            .doesNotThrowAnyException();
+    }
+    
+    @Test
+    @DisplayName("正常系: 脱退するユーザーが主催者かどうかを返す")
+    void checkLeave_主催者の判定() {
+        Teamspace target = teamspace("organizer", "user-123");
+        
+        assertThat(MatchingRules.checkLeave(target, "organizer")).isTrue();
+        assertThat(MatchingRules.checkLeave(target, "user-123")).isFalse();
+        assertThatThrownBy(() -> MatchingRules.checkLeave(target, "stranger"))
+            .hasFieldOrPropertyWithValue("errorCode", "NOT_A_MEMBER");
+    }
+    
+    @Test
+    @DisplayName("正常系: ユーザー状態は主催者 > ゲーム中 > 参加中の順で判定する")
+    void userState_優先順位() {
+        Teamspace joining = teamspace("someone", "user-123");
+        Teamspace playing = teamspace("another", "user-123");
+        playing.setPartyId(UUID.randomUUID().toString());
+        Teamspace organizing = teamspace("user-123");
+        
+        CheckUserStateResponse playingState = MatchingRules.userState("user-123", List.of(joining, playing));
+        assertThat(playingState.isNowGamePlaying()).isTrue();
+        assertThat(playingState.getPartyId()).isEqualTo(playing.getPartyId());
+        
+        CheckUserStateResponse organizerState =
+            MatchingRules.userState("user-123", List.of(joining, playing, organizing));
+        assertThat(organizerState.isOrganizingParty()).isTrue();
+        assertThat(organizerState.getTeamspaceId()).isEqualTo(organizing.getTeamspaceId());
+        
+        CheckUserStateResponse noneState = MatchingRules.userState("user-123", List.of());
+        assertThat(noneState.isOrganizingParty()).isFalse();
+        assertThat(noneState.isJoiningAnotherParty()).isFalse();
+        assertThat(noneState.isNowGamePlaying()).isFalse();
+    }
+    
+    @Test
+    @DisplayName("異常系: teamspaceIdがUUID形式でない")
+    void validateTeamspaceId_UUID形式() {
+        assertThatThrownBy(() -> MatchingRules.validateTeamspaceId("not-a-uuid"))
+            .hasMessage("teamspaceId must be a valid UUID");
+        assertThatCode(() -> MatchingRules.validateTeamspaceId(UUID.randomUUID().toString()))
+            .doesNotThrowAnyException();
+    }
+}
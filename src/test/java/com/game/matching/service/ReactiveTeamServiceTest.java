@@ -0,0 +1,134 @@
+package com.game.matching.service;
+
+import com.game.matching.concurrent.ReactiveTeamspaceQueue;
+import com.game.matching.config.JacksonConfig;
+import com.game.matching.exception.BusinessException;
+import com.game.matching.model.Teamspace;
+import com.game.matching.repository.ReactiveRedisRepository;
+import com.game.matching.repository.TeamspaceCodec;
+import com.game.matching.websocket.ReactiveConnectionManager;
+import com.game.matching.websocket.ReactiveConnectionManager.BroadcastResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ReactiveTeamService - WebFlux版の同時更新")
+class ReactiveTeamServiceTest {
+    
+    private static final String TEAMSPACE_ID = "550e8400-e29b-41d4-a716-446655440000";
+    private static final String ORGANIZER = "organizer";
+    private static final int JOINERS = 10;
+    
+    private final TeamspaceCodec codec = TeamspaceCodec.forWriting("binary");
+    private final Map<String, byte[]> store = new ConcurrentHashMap<>();
+    private ReactiveTeamService teamService;
+    
+    /**
+     * メモリ上のRedisの代わり。GETとSETEXにそれぞれ待ち時間を入れ、並行した読み込み→保存が重なるようにする
+     */
+    @BeforeEach
+    void setUp() {
+        ReactiveRedisRepository redisRepository = mock(ReactiveRedisRepository.class);
+        when(redisRepository.getTeamspace(anyString())).thenAnswer(invocation -> {
+            String teamspaceId = invocation.getArgument(0);
+            return Mono.fromCallable(() -> store.get(teamspaceId)).map(codec::decode).delayElement(Duration.ofMillis(5));
+        });
+        when(redisRepository.saveTeamspace(any())).thenAnswer(invocation -> {
+            Teamspace teamspace = invocation.getArgument(0);
+            return Mono.delay(Duration.ofMillis(1))
+                .then(Mono.fromRunnable(() -> store.put(teamspace.getTeamspaceId(), codec.encode(teamspace))));
+        });
+        when(redisRepository.findTeamspaceByOrganizer(anyString())).thenAnswer(invocation -> {
+            String userId = invocation.getArgument(0);
+            return find(teamspace -> teamspace.isOrganizer(userId));
+        });
+        when(redisRepository.findTeamspaceByMember(anyString())).thenAnswer(invocation -> {
+            String userId = invocation.getArgument(0);
+            return find(teamspace -> teamspace.isMember(userId));
+        });
+        
+        ReactiveConnectionManager connectionManager = mock(ReactiveConnectionManager.class);
+        when(connectionManager.broadcast(any(), any(), any())).thenReturn(new BroadcastResult(List.of(), List.of()));
+        teamService = new ReactiveTeamService(redisRepository, connectionManager, mock(LoggingService.class),
+                                              JacksonConfig.newObjectMapper(), new ReactiveTeamspaceQueue());
+        store.put(TEAMSPACE_ID, codec.encode(new Teamspace(TEAMSPACE_ID, ORGANIZER)));
+    }
+    
+    private Mono<Teamspace> find(Predicate<Teamspace> condition) {
+        return Mono.fromCallable(() -> store.values().stream()
+            .map(codec::decode)
+            .filter(condition)
+            .findFirst()
+            .orElse(null));
+    }
+    
+    private Teamspace stored() {
+        return codec.decode(store.get(TEAMSPACE_ID));
+    }
+    
+    @Test
+    @DisplayName("正常系: 同時に参加しても満員を超えず、参加できたユーザーが全て保存される")
+    void joinTeam_同時参加() {
+        // Given
+        List<String> joined = new ArrayList<>();
+        List<String> rejected = new ArrayList<>();
+        List<Mono<Void>> joins = new ArrayList<>();
+        for (int i = 0; i < JOINERS; i++) {
+            String userId = "user-" + i;
+            joins.add(teamService.joinTeam(userId, TEAMSPACE_ID)
+                .doOnSuccess(done -> {
+                    synchronized (joined) {
+                        joined.add(userId);
+                    }
+                })
+                .onErrorResume(BusinessException.class, e -> {
+                    synchronized (rejected) {
+                        rejected.add(e.getErrorCode());
+                    }
+                    return Mono.empty();
+                }));
+        }
+        
+        // When: 全て同時に購読する
+        Flux.merge(joins).blockLast(Duration.ofSeconds(10));
+        
+        // Then
+        assertThat(joined).hasSize(Teamspace.MAX_MEMBERS - 1);
+        assertThat(rejected).hasSize(JOINERS - joined.size()).containsOnly("TEAMSPACE_FULL");
+        assertThat(stored().getMembers()).hasSize(Teamspace.MAX_MEMBERS).contains(ORGANIZER)
+            .containsAll(joined);
+    }
+    
+    @Test
+    @DisplayName("正常系: 同時の参加と脱退でメンバーが失われない")
+    void joinTeamとleaveTeam_同時() {
+        // Given: 主催者とuser-aが参加済み
+        Teamspace teamspace = stored();
+        teamspace.addMember("user-a");
+        store.put(TEAMSPACE_ID, codec.encode(teamspace));
+        
+        // When: user-aの脱退とuser-b・user-cの参加を同時に購読する
+        Flux.merge(teamService.leaveTeam("user-a", TEAMSPACE_ID),
+                   teamService.joinTeam("user-b", TEAMSPACE_ID),
+                   teamService.joinTeam("user-c", TEAMSPACE_ID))
+            .blockLast(Duration.ofSeconds(10));
+        
+        // Then
+        assertThat(stored().getMembers()).containsExactlyInAnyOrder(ORGANIZER, "user-b", "user-c");
+    }
+}
@@ -0,0 +1,88 @@
+package com.game.matching.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.matching.config.JacksonConfig;
+import com.game.matching.repository.TeamspaceCodec;
+import com.game.matching.testing.InMemoryJedisPool;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("StartupWarmup - 起動時のウォームアップ")
+class StartupWarmupTest {
+    
+    private final ObjectMapper objectMapper = JacksonConfig.newObjectMapper();
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private JwksKeyStore jwksKeyStore;
+    
+    @BeforeEach
+    void setUp() {
+        jwksKeyStore = mock(JwksKeyStore.class);
+        when(jwksKeyStore.refresh()).thenReturn(CompletableFuture.completedFuture(null));
+    }
+    
+    private StartupWarmup warmup(boolean enabled) {
+        return new StartupWarmup(enabled, jwksKeyStore, new InMemoryJedisPool(), TeamspaceCodec.forWriting("binary"), objectMapper,
+                                 validator, 4, 100, 10_000);
+    }
+    
+    private static long deadline() {
+        return System.nanoTime() + 10_000_000_000L;
+    }
+    
+    @Test
+    @DisplayName("正常系: JWKSが未取得なら鍵を得るまで再取得する")
+    void warmJwks_未取得なら再取得() {
+        // Given
+        when(jwksKeyStore.getKeyCount()).thenReturn(0, 0, 2);
+        
+        // When
+        int keys = warmup(true).warmJwks(deadline());
+        
+        // Then
+        assertThat(keys).isEqualTo(2);
+        verify(jwksKeyStore, times(2)).refresh();
+    }
+    
+    @Test
+    @DisplayName("正常系: 取得済みのJWKSは再取得せず、Redisの接続とよく通る処理を指定の数だけ実行する")
+    void warmup_接続とホットパス() {
+        // Given
+        when(jwksKeyStore.getKeyCount()).thenReturn(1);
+        StartupWarmup warmup = warmup(true);
+        
+        // When
+        int keys = warmup.warmJwks(deadline());
+        int connections = warmup.warmRedisPool();
+        int completed = warmup.warmHotPaths(deadline());
+        
+        // Then
+        assertThat(keys).isEqualTo(1);
+        verify(jwksKeyStore, never()).refresh();
+        assertThat(connections).isEqualTo(4);
+        assertThat(completed).isEqualTo(100);
+    }
+    
+    @Test
+    @DisplayName("正常系: 無効の場合は何もしない")
+    void run_無効() {
+        // When
+        warmup(false).run(new DefaultApplicationArguments());
+        
+        // Then
+        verifyNoInteractions(jwksKeyStore);
+    }
+}
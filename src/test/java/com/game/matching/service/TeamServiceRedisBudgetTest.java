@@ -0,0 +1,102 @@
+package com.game.matching.service;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.game.matching.concurrent.TeamspaceExecutor;
+import com.game.matching.metrics.RedisCallTrace;
+import com.game.matching.metrics.RedisCallTracker;
+import com.game.matching.metrics.RedisMetrics.Command;
+import com.game.matching.model.Teamspace;
+import com.game.matching.repository.RedisRepository;
+import com.game.matching.websocket.NotificationFanout;
+import com.game.matching.websocket.WebSocketConnectionManager;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+/**
+ * APIごとのRedisラウンドトリップ数の上限
+ * 
+ * 既存のteamspaceがN件あるときの発行コマンド数を固定し、
+ * ホットパスへのスキャンやGETの追加をテストで検出する。
+ */
+@Testcontainers
+@DisplayName("TeamService - Redisラウンドトリップ数")
+class TeamServiceRedisBudgetTest {
+    
+    private static final int EXISTING_TEAMSPACES = 3;
+    
+    @Container
+    private static final GenericContainer<?> redisContainer = new GenericContainer<>(
+            DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+    
+    private JedisPool jedisPool;
+    private RedisRepository redisRepository;
+    private TeamService teamService;
+    private String teamspaceId;
+    
+    @BeforeEach
+    void setUp() {
+        jedisPool = new JedisPool(redisContainer.getHost(), redisContainer.getMappedPort(6379));
+        redisRepository = new RedisRepository(jedisPool);
+        teamService = new TeamService(redisRepository,
+                                      mock(WebSocketConnectionManager.class),
+                                      mock(NotificationFanout.class),
+                                      mock(LoggingService.class),
+                                      new TeamspaceExecutor(false, 0, 0, 0));
+        
+        for (int i = 0; i < EXISTING_TEAMSPACES; i++) {
+            Teamspace teamspace = new Teamspace(UUID.randomUUID().toString(), "organizer-" + i);
+            redisRepository.saveTeamspace(teamspace);
+            teamspaceId = teamspace.getTeamspaceId();
+        }
+    }
+    
+    @AfterEach
+    void tearDown() {
+        RedisCallTracker.end();
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.flushDB();
+        }
+        jedisPool.close();
+    }
+    
+    @Test
+    @DisplayName("API①: KEYSスキャン2回 + 既存件数分のGET×2 + SETEX 1回")
+    void organizeTeam_ラウンドトリップ数() {
+        RedisCallTrace trace = RedisCallTracker.begin();
+        
+        teamService.organizeTeam("new-user");
+        
+        assertThat(trace.getCommandCount(Command.KEYS)).isEqualTo(2);
+        assertThat(trace.getCommandCount(Command.GET)).isEqualTo(2 * EXISTING_TEAMSPACES);
+        assertThat(trace.getCommandCount(Command.SETEX)).isEqualTo(1);
+        assertThat(trace.getCommandCount()).isEqualTo(3 + 2 * EXISTING_TEAMSPACES);
+    }
+    
+    @Test
+    @DisplayName("API②: GET 1回 + KEYSスキャン2回 + 既存件数分のGET×2 + SETEX 1回")
+    void joinTeam_ラウンドトリップ数() {
+        RedisCallTrace trace = RedisCallTracker.begin();
+        
+        teamService.joinTeam("new-user", teamspaceId);
+        
+        assertThat(trace.getCommandCount(Command.KEYS)).isEqualTo(2);
+        assertThat(trace.getCommandCount(Command.GET)).isEqualTo(1 + 2 * EXISTING_TEAMSPACES);
+        assertThat(trace.getCommandCount(Command.SETEX)).isEqualTo(1);
+        assertThat(trace.getCommandCount()).isEqualTo(4 + 2 * EXISTING_TEAMSPACES);
+        assertThat(trace.getBytes()).isPositive();
+    }
+}
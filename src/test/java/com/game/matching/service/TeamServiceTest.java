@@ -28,7 +28,7 @@ import com.game.matching.dto.OrganizeTeamResponse;
 import com.game.matching.exception.BusinessException;
 import com.game.matching.model.Teamspace;
 import com.game.matching.repository.RedisRepository;
-import com.game.matching.websocket.GameWebSocketHandler;
+import com.game.matching.websocket.NotificationFanout;
 import com.game.matching.websocket.WebSocketConnectionManager;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,7 +42,7 @@ class TeamServiceTest {
     private WebSocketConnectionManager connectionManager;
     
     @Mock
-    private GameWebSocketHandler webSocketHandler;
+    private NotificationFanout notificationFanout;
     
     @Mock
     private LoggingService loggingService;
@@ -0,0 +1,277 @@
+package com.game.matching.websocket;
+
+import com.game.matching.config.JacksonConfig;
+import com.game.matching.dto.MemberListNotification;
+import com.game.matching.dto.PartyIdNotification;
+import com.game.matching.exception.BusinessException;
+import com.game.matching.model.Teamspace;
+import com.game.matching.repository.RedisRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("NotificationFanout - WebSocket・SSEへの通知の配信")
+class NotificationFanoutTest {
+    
+    private static final String ORGANIZER = "organizer";
+    private static final String MEMBER = "member-1";
+    
+    private GameWebSocketHandler webSocketHandler;
+    private RedisRepository redisRepository;
+    private NotificationFanout fanout;
+    private String teamspaceId;
+    private Teamspace teamspace;
+    
+    /**
+     * 送信したイベントをSSEの形式の文字列で記録する
+     */
+    static class RecordingEmitter extends SseEmitter {
+        final List<String> events = new ArrayList<>();
+        
+        @Override
+        public synchronized void send(SseEventBuilder builder) {
+            StringBuilder event = new StringBuilder();
+            Set<ResponseBodyEmitter.DataWithMediaType> data = builder.build();
+            for (ResponseBodyEmitter.DataWithMediaType part : data) {
+                event.append(part.getData());
+            }
+            events.add(event.toString());
+        }
+        
+        List<String> named(String type) {
+            return events.stream().filter(event -> event.contains("event:" + type + "\n")).toList();
+        }
+    }
+    
+    /**
+     * 受信の遅いクライアント（releaseされるまで送信がブロックする）
+     */
+    static class BlockingEmitter extends RecordingEmitter {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch completed = new CountDownLatch(1);
+        
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.send(builder);
+        }
+        
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+    
+    @BeforeEach
+    void setUp() {
+        webSocketHandler = mock(GameWebSocketHandler.class);
+        redisRepository = mock(RedisRepository.class);
+        teamspaceId = UUID.randomUUID().toString();
+        teamspace = new Teamspace(teamspaceId, ORGANIZER);
+        teamspace.addMember(MEMBER);
+        when(redisRepository.getTeamspace(teamspaceId)).thenReturn(Optional.of(teamspace));
+        // 送信を呼び出し元のスレッドで行い、送信したイベントをすぐに確認できるようにする
+        fanout = newFanout(256, Runnable::run, RecordingEmitter::new);
+    }
+    
+    private NotificationFanout newFanout(int maxPendingEvents, Executor sender, Supplier<SseEmitter> emitters) {
+        return new NotificationFanout(webSocketHandler, redisRepository, JacksonConfig.newObjectMapper(),
+                                      new SimpleMeterRegistry(), 32, 60_000, 3600, 300, maxPendingEvents, sender) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                return emitters.get();
+            }
+        };
+    }
+    
+    @AfterEach
+    void tearDown() {
+        fanout.shutdown();
+    }
+    
+    @Test
+    @DisplayName("正常系: 購読を開始すると現在のメンバーリストを送り、以降の通知をWebSocketと同じJSONで送る")
+    void subscribe_通知を受け取る() throws Exception {
+        // Given
+        RecordingEmitter emitter = (RecordingEmitter) fanout.subscribe(teamspaceId, MEMBER, null);
+        List<WebSocketSession> sessions = List.of(mock(WebSocketSession.class));
+        
+        // When
+        fanout.broadcast(teamspaceId, sessions, new MemberListNotification(List.of(ORGANIZER)), null);
+        
+        // Then
+        String json = "{\"type\":\"memberList\",\"userIds\":[\"organizer\"]}";
+        verify(webSocketHandler).broadcastText(sessions, json);
+        assertThat(emitter.events).hasSize(2);
+        assertThat(emitter.events.get(0)).contains("data:{\"type\":\"memberList\",\"userIds\":[\"organizer\",\"member-1\"]}");
+        assertThat(emitter.events.get(1)).contains("event:memberList\n").contains("data:" + json);
+        assertThat(fanout.getSubscriberCount()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("正常系: partyId通知は主催者のストリームには送らない")
+    void broadcast_主催者を除外() {
+        // Given
+        RecordingEmitter organizer = (RecordingEmitter) fanout.subscribe(teamspaceId, ORGANIZER, null);
+        RecordingEmitter member = (RecordingEmitter) fanout.subscribe(teamspaceId, MEMBER, null);
+        
+        // When
+        fanout.broadcast(teamspaceId, List.of(), new PartyIdNotification("party-1"), ORGANIZER);
+        
+        // Then
+        assertThat(organizer.named("partyId")).isEmpty();
+        assertThat(member.named("partyId")).hasSize(1);
+    }
+    
+    @Test
+    @DisplayName("正常系: Last-Event-ID付きの再接続には、その後の通知だけを再送する")
+    void subscribe_再接続() {
+        // Given: 1つ目の通知を受け取った後に切断
+        RecordingEmitter first = (RecordingEmitter) fanout.subscribe(teamspaceId, MEMBER, null);
+        fanout.broadcast(teamspaceId, List.of(), new MemberListNotification(List.of(ORGANIZER, MEMBER)), null);
+        String lastEvent = first.events.get(first.events.size() - 1);
+        String lastEventId = lastEvent.substring("id:".length(), lastEvent.indexOf('\n'));
+        fanout.broadcast(teamspaceId, List.of(), new PartyIdNotification("party-1"), ORGANIZER);
+        
+        // When
+        RecordingEmitter resumed = (RecordingEmitter) fanout.subscribe(teamspaceId, MEMBER, lastEventId);
+        
+        // Then: 切断後のpartyId通知だけを受け取る
+        assertThat(resumed.events).hasSize(1);
+        assertThat(resumed.events.get(0)).contains("event:partyId\n").contains("party-1");
+    }
+    
+    @Test
+    @DisplayName("正常系: 再送できないLast-Event-IDでは現在の状態を送る")
+    void subscribe_不明なLastEventId() {
+        // Given
+        teamspace.setPartyId("party-1");
+        
+        // When
+        RecordingEmitter emitter = (RecordingEmitter) fanout.subscribe(teamspaceId, MEMBER, "unknown-7");
+        
+        // Then
+        assertThat(emitter.named("memberList")).hasSize(1);
+        assertThat(emitter.named("partyId")).hasSize(1);
+    }
+    
+    @Test
+    @DisplayName("異常系: teamspaceのメンバーでないユーザーは購読できない")
+    void subscribe_メンバー以外() {
+        assertThatThrownBy(() -> fanout.subscribe(teamspaceId, "other-user", null))
+            .isInstanceOf(BusinessException.class)
+            .hasMessageContaining("メンバーではありません");
+        assertThat(fanout.getSubscriberCount()).isZero();
+        assertThat(fanout.hasStream(teamspaceId)).isFalse();
+    }
+    
+    @Test
+    @DisplayName("正常系: 受信の遅いストリームがあっても通知はブロックせず、他の購読者には届く")
+    void broadcast_遅い購読者() throws Exception {
+        // Given
+        ExecutorService sender = Executors.newFixedThreadPool(2);
+        BlockingEmitter slow = new BlockingEmitter();
+        RecordingEmitter fast = new RecordingEmitter();
+        Iterator<SseEmitter> emitters = List.<SseEmitter>of(slow, fast).iterator();
+        NotificationFanout asyncFanout = newFanout(256, sender, emitters::next);
+        try {
+            asyncFanout.subscribe(teamspaceId, ORGANIZER, null);
+            asyncFanout.subscribe(teamspaceId, MEMBER, null);
+            
+            // When
+            long start = System.nanoTime();
+            for (int i = 0; i < 10; i++) {
+                asyncFanout.broadcast(teamspaceId, List.of(), new MemberListNotification(List.of(ORGANIZER)), null);
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            
+            // Then: 現在の状態 + 10件が遅くない購読者に届き、遅い購読者の分は送信待ちに残る
+            assertThat(elapsedMillis).isLessThan(1_000);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (fast.named("memberList").size() < 11 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(fast.named("memberList")).hasSize(11);
+            assertThat(slow.events).isEmpty();
+            
+            slow.release.countDown();
+            while (slow.named("memberList").size() < 11 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(slow.named("memberList")).hasSize(11);
+        } finally {
+            slow.release.countDown();
+            asyncFanout.shutdown();
+            sender.shutdownNow();
+        }
+    }
+    
+    @Test
+    @DisplayName("異常系: 送信待ちが上限を超えた購読者は閉じる")
+    void broadcast_送信待ちの上限() throws Exception {
+        // Given
+        ExecutorService sender = Executors.newSingleThreadExecutor();
+        BlockingEmitter slow = new BlockingEmitter();
+        NotificationFanout asyncFanout = newFanout(4, sender, () -> slow);
+        try {
+            asyncFanout.subscribe(teamspaceId, MEMBER, null);
+            
+            // When
+            for (int i = 0; i < 10; i++) {
+                asyncFanout.broadcast(teamspaceId, List.of(), new MemberListNotification(List.of(ORGANIZER)), null);
+            }
+            
+            // Then
+            assertThat(asyncFanout.getSubscriberCount()).isZero();
+            slow.release.countDown();
+            assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            slow.release.countDown();
+            asyncFanout.shutdown();
+            sender.shutdownNow();
+        }
+    }
+    
+    @Test
+    @DisplayName("正常系: 停止前に閉じた後の購読には、再接続までの時間だけを送って閉じる")
+    void subscribe_停止中() {
+        // Given
+        fanout.drain(() -> 1234);
+        
+        // When
+        RecordingEmitter emitter = (RecordingEmitter) fanout.subscribe(teamspaceId, MEMBER, null);
+        
+        // Then
+        assertThat(emitter.events).hasSize(1);
+        assertThat(emitter.events.get(0)).contains("retry:1234\n").doesNotContain("event:");
+        assertThat(fanout.getSubscriberCount()).isZero();
+    }
+}
@@ -0,0 +1,63 @@
+package com.game.matching.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.matching.config.JacksonConfig;
+import com.game.matching.dto.MemberListNotification;
+import com.game.matching.dto.PartyIdNotification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("NotificationJson - WebSocket通知のJSON")
+class NotificationJsonTest {
+    
+    private final ObjectMapper objectMapper = JacksonConfig.newObjectMapper();
+    private final NotificationJson notificationJson = new NotificationJson(objectMapper);
+    
+    @Test
+    @DisplayName("正常系: memberList通知は以前のMapと同じ形のJSONになる")
+    void write_memberList() throws Exception {
+        // Given
+        List<String> members = new ArrayList<>(List.of("user-1", "user-2"));
+        
+        // When
+        JsonNode json = objectMapper.readTree(notificationJson.write(new MemberListNotification(members)));
+        
+        // Then
+        assertThat(json.size()).isEqualTo(2);
+        assertThat(json.get("type").asText()).isEqualTo("memberList");
+        assertThat(json.get("userIds").get(0).asText()).isEqualTo("user-1");
+        assertThat(json.get("userIds").get(1).asText()).isEqualTo("user-2");
+    }
+    
+    @Test
+    @DisplayName("正常系: partyId通知は以前のMapと同じ形のJSONになる")
+    void write_partyId() throws Exception {
+        // When
+        JsonNode json = objectMapper.readTree(notificationJson.write(new PartyIdNotification("party-1")));
+        
+        // Then
+        assertThat(json.size()).isEqualTo(2);
+        assertThat(json.get("type").asText()).isEqualTo("partyId");
+        assertThat(json.get("partyId").asText()).isEqualTo("party-1");
+    }
+    
+    @Test
+    @DisplayName("正常系: memberList通知は作成後に元のリストが変わっても影響を受けない")
+    void memberList_コピー() {
+        // Given
+        List<String> members = new ArrayList<>(List.of("user-1"));
+        MemberListNotification notification = new MemberListNotification(members);
+        
+        // When
+        members.add("user-2");
+        
+        // Then
+        assertThat(notification.userIds()).containsExactly("user-1");
+    }
+}
@@ -0,0 +1,74 @@
+package com.game.matching.websocket;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ResumeTokens - 再接続用のトークン")
+class ResumeTokensTest {
+    
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    
+    private static ResumeTokens tokens(String secret, Clock clock) {
+        return new ResumeTokens(secret.getBytes(StandardCharsets.UTF_8), 60_000, clock);
+    }
+    
+    @Test
+    @DisplayName("正常系: 同じ秘密鍵のインスタンスで検証でき、teamspaceIdを返す")
+    void verify_他のインスタンスで検証() {
+        // Given
+        Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        String token = tokens("secret", clock).issue("user-1", "teamspace-1");
+        
+        // When & Then
+        assertThat(tokens("secret", clock).verify(token, "user-1")).isEqualTo("teamspace-1");
+    }
+    
+    @Test
+    @DisplayName("異常系: userIdが異なる、秘密鍵が異なる、改ざんされたトークンは無効")
+    void verify_無効なトークン() {
+        // Given
+        Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        ResumeTokens resumeTokens = tokens("secret", clock);
+        String token = resumeTokens.issue("user-1", "teamspace-1");
+        String forged = resumeTokens.issue("user-2", "teamspace-2").split("\\.")[0] + "." + token.split("\\.")[1];
+        
+        // When & Then
+        assertThat(resumeTokens.verify(token, "user-2")).isNull();
+        assertThat(tokens("other", clock).verify(token, "user-1")).isNull();
+        assertThat(resumeTokens.verify(forged, "user-2")).isNull();
+        assertThat(resumeTokens.verify("not-a-token", "user-1")).isNull();
+        assertThat(resumeTokens.verify(null, "user-1")).isNull();
+    }
+    
+    @Test
+    @DisplayName("異常系: 期限切れのトークンは無効")
+    void verify_期限切れ() {
+        // Given
+        String token = tokens("secret", Clock.fixed(NOW, ZoneOffset.UTC)).issue("user-1", "teamspace-1");
+        Clock later = Clock.fixed(NOW.plus(Duration.ofMinutes(2)), ZoneOffset.UTC);
+        
+        // When & Then
+        assertThat(tokens("secret", later).verify(token, "user-1")).isNull();
+    }
+    
+    @Test
+    @DisplayName("異常系: 共有の秘密鍵が設定されていなければ発行も検証もしない")
+    void issue_秘密鍵なし() {
+        // Given
+        Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        ResumeTokens disabled = new ResumeTokens(null, 60_000, clock);
+        String token = tokens("secret", clock).issue("user-1", "teamspace-1");
+        
+        // When & Then
+        assertThat(disabled.isEnabled()).isFalse();
+        assertThat(disabled.issue("user-1", "teamspace-1")).isNull();
+        assertThat(disabled.verify(token, "user-1")).isNull();
+    }
+}
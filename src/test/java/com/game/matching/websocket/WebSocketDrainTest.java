@@ -0,0 +1,215 @@
+package com.game.matching.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.game.matching.config.JacksonConfig;
+import com.game.matching.concurrent.TeamspaceExecutor;
+import com.game.matching.metrics.WebSocketMetrics;
+import com.game.matching.model.Teamspace;
+import com.game.matching.repository.RedisRepository;
+import com.game.matching.service.CognitoAuthService;
+import com.game.matching.service.GameService;
+import com.game.matching.service.LoggingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("WebSocketDrain - 停止時の再接続の依頼")
+class WebSocketDrainTest {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketDrainTest.class);
+    
+    private static final int SESSIONS = 200;
+    private static final long REDIS_MILLIS = 100;
+    private static final long JITTER_MILLIS = 4000;
+    
+    private final ObjectMapper objectMapper = JacksonConfig.newObjectMapper();
+    private WebSocketConnectionManager connectionManager;
+    private GameWebSocketHandler webSocketHandler;
+    private NotificationFanout notificationFanout;
+    private ResumeTokens resumeTokens;
+    private List<String> sent;
+    // sentと同じ順の送信先のuserId
+    private List<String> recipients;
+    
+    @BeforeEach
+    void setUp() {
+        connectionManager = new WebSocketConnectionManager(10_000, 524_288);
+        webSocketHandler = new GameWebSocketHandler(connectionManager, mock(CognitoAuthService.class),
+                                                    WebSocketMetrics.noop());
+        notificationFanout = mock(NotificationFanout.class);
+        resumeTokens = new ResumeTokens("secret".getBytes(StandardCharsets.UTF_8), 60_000, Clock.systemUTC());
+        sent = new CopyOnWriteArrayList<>();
+        recipients = new CopyOnWriteArrayList<>();
+    }
+    
+    private WebSocketSession connect(String sessionId, String teamspaceId, String userId) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(sessionId);
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            sent.add(((TextMessage) invocation.getArgument(0)).getPayload());
+            recipients.add(userId);
+            return null;
+        }).when(session).sendMessage(any());
+        connectionManager.addConnection(teamspaceId, userId, session);
+        return session;
+    }
+    
+    private WebSocketDrain drain(long reconnectJitterMillis) {
+        return new WebSocketDrain(connectionManager, webSocketHandler, notificationFanout, resumeTokens,
+                                  reconnectJitterMillis, 1000);
+    }
+    
+    /**
+     * 再接続の依頼を受けたクライアントを模擬し、依頼の待ち時間の後にAPI⑥（トークン付き）を呼び出す
+     * 
+     * RedisからのteamspaceのGETにREDIS_MILLISかかるとして、同時に実行中のAPI⑥の最大数を返す。
+     */
+    private int reconnectPeakLoad() throws Exception {
+        Map<String, Teamspace> teamspaces = new ConcurrentHashMap<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            String teamspaceId = "teamspace-" + (i / 4);
+            if (i % 4 == 0) {
+                teamspaces.put(teamspaceId, new Teamspace(teamspaceId, "user-" + i));
+            } else {
+                teamspaces.get(teamspaceId).addMember("user-" + i);
+            }
+        }
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        RedisRepository redisRepository = mock(RedisRepository.class);
+        when(redisRepository.getTeamspace(anyString())).thenAnswer(invocation -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(REDIS_MILLIS);
+                return Optional.ofNullable(teamspaces.get(invocation.<String>getArgument(0)));
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        GameService gameService = new GameService(redisRepository, connectionManager, notificationFanout,
+                                                  mock(LoggingService.class), new TeamspaceExecutor(false, 0, 0, 0));
+        
+        ScheduledExecutorService clients = Executors.newScheduledThreadPool(SESSIONS);
+        try {
+            List<ScheduledFuture<String>> reconnects = new ArrayList<>();
+            for (int i = 0; i < sent.size(); i++) {
+                JsonNode hint = objectMapper.readTree(sent.get(i));
+                String userId = recipients.get(i);
+                String resumeToken = hint.get("resumeToken").asText();
+                reconnects.add(clients.schedule(() -> {
+                    String teamspaceId = resumeTokens.verify(resumeToken, userId);
+                    return gameService.checkUserState(userId, teamspaceId).getTeamspaceId();
+                }, hint.get("delayMs").asLong(), TimeUnit.MILLISECONDS));
+            }
+            for (ScheduledFuture<String> reconnect : reconnects) {
+                assertThat(reconnect.get(30, TimeUnit.SECONDS)).startsWith("teamspace-");
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        return peak.get();
+    }
+    
+    @Test
+    @DisplayName("正常系: 各セッションに再接続の依頼とteamspaceのトークンを送り、1012で閉じる")
+    void drain_再接続を依頼して閉じる() throws Exception {
+        // Given
+        WebSocketSession session = connect("s-1", "teamspace-1", "user-1");
+        
+        // When
+        int drained = drain(5000).drain();
+        
+        // Then
+        assertThat(drained).isEqualTo(1);
+        assertThat(sent).hasSize(1);
+        JsonNode hint = objectMapper.readTree(sent.get(0));
+        assertThat(hint.get("type").asText()).isEqualTo("reconnect");
+        assertThat(hint.get("delayMs").asLong()).isBetween(0L, 4999L);
+        assertThat(resumeTokens.verify(hint.get("resumeToken").asText(), "user-1")).isEqualTo("teamspace-1");
+        verify(session).close(CloseStatus.SERVICE_RESTARTED);
+        verify(notificationFanout).drain(any());
+    }
+    
+    @Test
+    @DisplayName("正常系: 停止処理中の新しい接続は登録せずに1012で閉じる")
+    void afterConnectionEstablished_停止処理中は受け付けない() throws Exception {
+        // Given
+        drain(5000).onContextClosed();
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getUri()).thenReturn(new URI("ws://localhost/ws?teamspaceId=teamspace-1&userId=user-1"));
+        
+        // When
+        webSocketHandler.afterConnectionEstablished(session);
+        
+        // Then
+        verify(session).close(CloseStatus.SERVICE_RESTARTED);
+        assertThat(connectionManager.getSessionCount()).isZero();
+    }
+    
+    @Test
+    @DisplayName("正常系: SSEのストリームは実行中のリクエストの完了を待つ前（停止の開始時）に閉じる")
+    void onContextClosed_SSEを閉じる() {
+        // When
+        drain(5000).onContextClosed();
+        
+        // Then
+        verify(notificationFanout).drain(any());
+    }
+    
+    @Test
+    @DisplayName("計測: 待ち時間のばらつきで、再接続したクライアントのAPI⑥の同時実行数の最大値が下がる")
+    void drain_再接続の集中() throws Exception {
+        // Given
+        for (int i = 0; i < SESSIONS; i++) {
+            connect("s-" + i, "teamspace-" + (i / 4), "user-" + i);
+        }
+        
+        // When: ばらつきなし（全クライアントが同時に再接続）
+        drain(0).drain();
+        int peakWithoutJitter = reconnectPeakLoad();
+        sent.clear();
+        recipients.clear();
+        // When: 0〜JITTER_MILLIS
+        drain(JITTER_MILLIS).drain();
+        int peakWithJitter = reconnectPeakLoad();
+        
+        // Then
+        logger.info("check_user_state peak concurrency ({} clients, {} ms per Redis GET): "
+                    + "without jitter={}, with {} ms jitter={}",
+                    SESSIONS, REDIS_MILLIS, peakWithoutJitter, JITTER_MILLIS, peakWithJitter);
+        assertThat(peakWithoutJitter).isGreaterThan(SESSIONS / 2);
+        // 一様分布なら同時実行数の平均は SESSIONS * REDIS_MILLIS / JITTER_MILLIS = 5。偶然の偏りを見込んでも
+        // 全件の1/10には届かない
+        assertThat(peakWithJitter).isLessThan(SESSIONS / 10);
+    }
+}
@@ -0,0 +1,128 @@
+package com.game.matching.testing;
+
+import redis.clients.jedis.Jedis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * RedisRepositoryが使うコマンドだけをメモリ上のMapで実装したJedis
+ * 
+ * ベンチマーク・負荷試験用。TTLは保持しない。値はバイト列で持ち、Stringのコマンドの値はUTF-8で変換する。
+ * latencyNanosを指定すると、各コマンドでその時間だけ待ってネットワーク往復を模擬する。
+ */
+public class InMemoryJedis extends Jedis {
+    
+    private final Map<String, byte[]> store;
+    private final long latencyNanos;
+    // プールに接続を返す処理（上限のないプールではnull）
+    private final Runnable release;
+    private boolean closed;
+    
+    InMemoryJedis(Map<String, byte[]> store, long latencyNanos, Runnable release) {
+        this.store = store;
+        this.latencyNanos = latencyNanos;
+        this.release = release;
+    }
+    
+    @Override
+    public String get(String key) {
+        roundTrip();
+        byte[] value = store.get(key);
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+    
+    @Override
+    public byte[] get(byte[] key) {
+        roundTrip();
+        return store.get(new String(key, StandardCharsets.UTF_8));
+    }
+    
+    @Override
+    public String set(String key, String value) {
+        roundTrip();
+        store.put(key, value.getBytes(StandardCharsets.UTF_8));
+        return "OK";
+    }
+    
+    @Override
+    public String setex(String key, long seconds, String value) {
+        roundTrip();
+        store.put(key, value.getBytes(StandardCharsets.UTF_8));
+        return "OK";
+    }
+    
+    @Override
+    public String setex(byte[] key, long seconds, byte[] value) {
+        roundTrip();
+        store.put(new String(key, StandardCharsets.UTF_8), value);
+        return "OK";
+    }
+    
+    @Override
+    public long del(String key) {
+        roundTrip();
+        return store.remove(key) != null ? 1 : 0;
+    }
+    
+    @Override
+    public Set<String> keys(String pattern) {
+        roundTrip();
+        Set<String> keys = new LinkedHashSet<>();
+        if (pattern.endsWith("*") && pattern.indexOf('*') == pattern.length() - 1) {
+            String prefix = pattern.substring(0, pattern.length() - 1);
+            for (String key : store.keySet()) {
+                if (key.startsWith(prefix)) {
+                    keys.add(key);
+                }
+            }
+            return keys;
+        }
+        Pattern regex = globToRegex(pattern);
+        for (String key : store.keySet()) {
+            if (regex.matcher(key).matches()) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+    
+    @Override
+    public String flushDB() {
+        store.clear();
+        return "OK";
+    }
+    
+    /**
+     * 接続を持たないので、プールの貸し出し枠を返すだけ
+     */
+    @Override
+    public void close() {
+        if (!closed && release != null) {
+            release.run();
+        }
+        closed = true;
+    }
+    
+    private void roundTrip() {
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+    }
+    
+    private static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            switch (c) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                default -> regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
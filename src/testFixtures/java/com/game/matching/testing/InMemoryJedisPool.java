@@ -0,0 +1,80 @@
+package com.game.matching.testing;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisExhaustedPoolException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InMemoryJedisを貸し出すJedisPool（Redisに接続しない）
+ * 
+ * 全接続で1つのストアを共有する。maxTotalを指定すると、実際のプールと同じく同時に貸し出す接続数を
+ * 制限し、空きを最大maxWaitMillisだけ待つ（待てなければJedisExhaustedPoolException）。
+ */
+public class InMemoryJedisPool extends JedisPool {
+    
+    private final Map<String, byte[]> store = new ConcurrentHashMap<>();
+    private final long latencyNanos;
+    private final Semaphore connections;
+    private final long maxWaitMillis;
+    
+    public InMemoryJedisPool() {
+        this(0);
+    }
+    
+    /**
+     * @param latencyNanos 1コマンドごとに加える待ち時間（ネットワーク往復の模擬）
+     */
+    public InMemoryJedisPool(long latencyNanos) {
+        this.latencyNanos = latencyNanos;
+        this.connections = null;
+        this.maxWaitMillis = 0;
+    }
+    
+    /**
+     * @param latencyNanos 1コマンドごとに加える待ち時間（ネットワーク往復の模擬）
+     * @param maxTotal 同時に貸し出す接続数の上限（matching.redis.pool.max-total）
+     * @param maxWaitMillis 接続の空きを待つ上限（matching.redis.pool.max-wait-ms）
+     */
+    public InMemoryJedisPool(long latencyNanos, int maxTotal, long maxWaitMillis) {
+        this.latencyNanos = latencyNanos;
+        this.connections = new Semaphore(maxTotal);
+        this.maxWaitMillis = maxWaitMillis;
+    }
+    
+    @Override
+    public Jedis getResource() {
+        if (connections == null) {
+            return new InMemoryJedis(store, latencyNanos, null);
+        }
+        try {
+            if (!connections.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                throw new JedisExhaustedPoolException("Could not get a resource from the pool");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JedisExhaustedPoolException("Interrupted while waiting for a resource from the pool");
+        }
+        return new InMemoryJedis(store, latencyNanos, connections::release);
+    }
+    
+    /**
+     * ストアに直接書き込む（ベンチマークの初期データ投入用）
+     */
+    public void put(String key, String value) {
+        store.put(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public void put(String key, byte[] value) {
+        store.put(key, value);
+    }
+    
+    public int size() {
+        return store.size();
+    }
+}